@@ -28,22 +28,38 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.therandomlabs.curseapi.cfwidget.CFWidgetProvider;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
 import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.file.CurseFileDownloader;
 import com.therandomlabs.curseapi.file.CurseFiles;
+import com.therandomlabs.curseapi.file.CurseFilesLookup;
 import com.therandomlabs.curseapi.forgesvc.ForgeSvcProvider;
 import com.therandomlabs.curseapi.game.CurseCategory;
 import com.therandomlabs.curseapi.game.CurseGame;
@@ -51,9 +67,13 @@ import com.therandomlabs.curseapi.game.CurseGameVersion;
 import com.therandomlabs.curseapi.game.CurseGameVersionGroup;
 import com.therandomlabs.curseapi.project.CurseProject;
 import com.therandomlabs.curseapi.project.CurseSearchQuery;
+import com.therandomlabs.curseapi.util.AsyncUtils;
 import com.therandomlabs.curseapi.util.CheckedFunction;
+import com.therandomlabs.curseapi.util.FingerprintUtils;
 import com.therandomlabs.curseapi.util.JsoupUtils;
+import com.therandomlabs.curseapi.util.LazyHTML;
 import com.therandomlabs.curseapi.util.OkHttpUtils;
+import com.therandomlabs.curseapi.util.ParallelUtils;
 import okhttp3.HttpUrl;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jsoup.nodes.Element;
@@ -104,6 +124,10 @@ public final class CurseAPI {
 			CFWidgetProvider.instance
 	);
 
+	private static final Map<List<Object>, CompletableFuture<Optional<?>>> inFlight =
+			new ConcurrentHashMap<>();
+	private static final LongAdder coalescedCalls = new LongAdder();
+
 	private CurseAPI() {}
 
 	/**
@@ -116,7 +140,94 @@ public final class CurseAPI {
 	 */
 	public static Optional<CurseProject> project(int id) throws CurseException {
 		CursePreconditions.checkProjectID(id, "id");
-		return get(provider -> provider.project(id));
+		return get("project", provider -> provider.project(id), id);
+	}
+
+	/**
+	 * Asynchronously returns a {@link CurseProject} instance for the specified project ID.
+	 *
+	 * @param id a project ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link CurseProject} instance
+	 * for the specified project ID wrapped in an {@link Optional} if the project exists,
+	 * or otherwise an empty {@link Optional}. If an error occurs, the {@link CompletableFuture}
+	 * is completed exceptionally with a {@link CurseException}.
+	 * @see #project(int)
+	 */
+	public static CompletableFuture<Optional<CurseProject>> projectAsync(int id) {
+		CursePreconditions.checkProjectID(id, "id");
+		return getAsync("project", provider -> provider.projectAsync(id), id);
+	}
+
+	/**
+	 * Returns {@link CurseProject} instances for the specified project IDs.
+	 * <p>
+	 * Each registered {@link CurseAPIProvider} is asked for the projects that have not already
+	 * been found by a previous {@link CurseAPIProvider}. The returned projects are registered in
+	 * {@link CurseRegistry}, so that later calls such as {@link CurseFile#project()} do not need
+	 * to send further requests.
+	 *
+	 * @param ids a {@link Collection} of project IDs.
+	 * @return a mutable {@link Map} of project IDs to {@link CurseProject} instances.
+	 * Project IDs for which no project exists are omitted.
+	 * @throws CurseException if an error occurs.
+	 */
+	public static Map<Integer, CurseProject> projects(Collection<Integer> ids)
+			throws CurseException {
+		Preconditions.checkNotNull(ids, "ids should not be null");
+
+		final Set<Integer> remaining = new LinkedHashSet<>(ids.size());
+
+		for (Integer id : ids) {
+			Preconditions.checkNotNull(id, "id should not be null");
+			CursePreconditions.checkProjectID(id, "id");
+			remaining.add(id);
+		}
+
+		final Map<Integer, CurseProject> projects = new HashMap<>(remaining.size());
+
+		if (providers.isEmpty()) {
+			logger.warn("No CurseAPIProviders configured");
+			return projects;
+		}
+
+		for (CurseAPIProvider provider : providers) {
+			if (remaining.isEmpty()) {
+				break;
+			}
+
+			final Map<Integer, CurseProject> found =
+					provider.projects(new ArrayList<>(remaining));
+
+			if (found != null) {
+				for (Map.Entry<Integer, CurseProject> entry : found.entrySet()) {
+					if (remaining.remove(entry.getKey())) {
+						projects.put(entry.getKey(), CurseRegistry.register(entry.getValue()));
+					}
+				}
+			}
+		}
+
+		return projects;
+	}
+
+	/**
+	 * Discards cached data for the {@link CurseProject} with the specified ID so that it is
+	 * retrieved again the next time it is requested. This invalidates the data cached by each
+	 * registered {@link CurseAPIProvider} as well as the instance registered in
+	 * {@link CurseRegistry}, and is called by methods such as
+	 * {@link CurseFile#refreshProject()}.
+	 *
+	 * @param id a project ID.
+	 * @see CurseAPIProvider#invalidateProject(int)
+	 */
+	public static void invalidateProject(int id) {
+		CursePreconditions.checkProjectID(id, "id");
+
+		for (CurseAPIProvider provider : providers) {
+			provider.invalidateProject(id);
+		}
+
+		CurseRegistry.invalidateProject(id);
 	}
 
 	/**
@@ -130,7 +241,7 @@ public final class CurseAPI {
 	public static Optional<CurseProject> project(String path) throws CurseException {
 		Preconditions.checkNotNull(path, "path should not be null");
 		Preconditions.checkArgument(!path.isEmpty(), "path should not be empty");
-		return get(provider -> provider.project(path));
+		return get("projectByPath", provider -> provider.project(path), path);
 	}
 
 	/**
@@ -160,7 +271,54 @@ public final class CurseAPI {
 	 */
 	public static Optional<Element> projectDescription(int id) throws CurseException {
 		CursePreconditions.checkProjectID(id, "id");
-		return get(provider -> provider.projectDescription(id));
+		return get("projectDescription", provider -> provider.projectDescription(id), id);
+	}
+
+	/**
+	 * Asynchronously returns the description for the project with the specified ID.
+	 *
+	 * @param id a project ID.
+	 * @return a {@link CompletableFuture} that is completed with an {@link Element} containing
+	 * the description for the project with the specified ID wrapped in an {@link Optional} if the
+	 * project exists, or otherwise an empty {@link Optional}. If an error occurs, the
+	 * {@link CompletableFuture} is completed exceptionally with a {@link CurseException}.
+	 * @see #projectDescription(int)
+	 */
+	public static CompletableFuture<Optional<Element>> projectDescriptionAsync(int id) {
+		CursePreconditions.checkProjectID(id, "id");
+		return getAsync("projectDescription", provider -> provider.projectDescriptionAsync(id), id);
+	}
+
+	/**
+	 * Returns the description for the project with the specified ID as a {@link LazyHTML},
+	 * which is only parsed if {@link LazyHTML#element()} is called.
+	 *
+	 * @param id a project ID.
+	 * @return a {@link LazyHTML} containing the description for the project with the specified ID
+	 * wrapped in an {@link Optional} if the project exists, or otherwise an empty {@link Optional}.
+	 * @throws CurseException if an error occurs.
+	 */
+	public static Optional<LazyHTML> projectDescriptionHTML(int id) throws CurseException {
+		CursePreconditions.checkProjectID(id, "id");
+		return get("projectDescriptionHTML", provider -> provider.projectDescriptionHTML(id), id);
+	}
+
+	/**
+	 * Asynchronously returns the description for the project with the specified ID as a
+	 * {@link LazyHTML}.
+	 *
+	 * @param id a project ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link LazyHTML} containing
+	 * the description for the project with the specified ID wrapped in an {@link Optional} if the
+	 * project exists, or otherwise an empty {@link Optional}. If an error occurs, the
+	 * {@link CompletableFuture} is completed exceptionally with a {@link CurseException}.
+	 * @see #projectDescriptionHTML(int)
+	 */
+	public static CompletableFuture<Optional<LazyHTML>> projectDescriptionHTMLAsync(int id) {
+		CursePreconditions.checkProjectID(id, "id");
+		return getAsync(
+				"projectDescriptionHTML", provider -> provider.projectDescriptionHTMLAsync(id), id
+		);
 	}
 
 	/**
@@ -170,7 +328,7 @@ public final class CurseAPI {
 	 * @return the description for the project with the specified ID as plain text wrapped in an
 	 * {@link Optional} if the project exists, or otherwise an empty {@link Optional}.
 	 * @throws CurseException if an error occurs.
-	 * @see JsoupUtils#getPlainText(Element, int)
+	 * @see LazyHTML#plainText(int)
 	 */
 	public static Optional<String> projectDescriptionPlainText(int id)
 			throws CurseException {
@@ -185,14 +343,14 @@ public final class CurseAPI {
 	 * @return the description for the project with the specified ID as plain text wrapped in an
 	 * {@link Optional} if the project exists, or otherwise an empty {@link Optional}.
 	 * @throws CurseException if an error occurs.
-	 * @see JsoupUtils#getPlainText(Element, int)
+	 * @see LazyHTML#plainText(int)
 	 */
 	public static Optional<String> projectDescriptionPlainText(int id, int maxLineLength)
 			throws CurseException {
 		CursePreconditions.checkProjectID(id, "id");
 		Preconditions.checkArgument(maxLineLength > 0, "maxLineLength should be greater than 0");
-		return projectDescription(id).map(
-				description -> JsoupUtils.getPlainText(description, maxLineLength).trim()
+		return projectDescriptionHTML(id).map(
+				description -> description.plainText(maxLineLength).trim()
 		);
 	}
 
@@ -208,7 +366,75 @@ public final class CurseAPI {
 	public static Optional<List<CurseProject>> searchProjects(CurseSearchQuery query)
 			throws CurseException {
 		Preconditions.checkNotNull(query, "query should not be null");
-		return get(provider -> provider.searchProjects(query));
+		//CurseSearchQuery is mutable and does not implement equals, so its string representation
+		//is used as the key.
+		final String key = query.toString();
+		return get("searchProjects", provider -> provider.searchProjects(query), key);
+	}
+
+	/**
+	 * Asynchronously executes a {@link CurseSearchQuery}.
+	 *
+	 * @param query a {@link CurseSearchQuery}.
+	 * @return a {@link CompletableFuture} that is completed with a mutable {@link List} of
+	 * {@link CurseProject}s that match the specified query wrapped in an {@link Optional} if the
+	 * query is successful, or otherwise {@link Optional#empty()}. If an error occurs, the
+	 * {@link CompletableFuture} is completed exceptionally with a {@link CurseException}.
+	 * @see #searchProjects(CurseSearchQuery)
+	 */
+	public static CompletableFuture<Optional<List<CurseProject>>> searchProjectsAsync(
+			CurseSearchQuery query
+	) {
+		Preconditions.checkNotNull(query, "query should not be null");
+		final CurseSearchQuery clone = query.clone();
+		return getAsync(
+				"searchProjects", provider -> provider.searchProjectsAsync(clone), clone.toString()
+		);
+	}
+
+	/**
+	 * Returns a lazy {@link Stream} of all {@link CurseProject}s that match the specified query,
+	 * starting from the page index of the query.
+	 * This is equivalent to calling {@link #streamSearch(CurseSearchQuery, int)} with
+	 * {@link Integer#MAX_VALUE} as the maximum number of results.
+	 *
+	 * @param query a {@link CurseSearchQuery}.
+	 * @return a lazy {@link Stream} of all {@link CurseProject}s that match the specified query.
+	 * @see #streamSearch(CurseSearchQuery, int)
+	 */
+	public static Stream<CurseProject> streamSearch(CurseSearchQuery query) {
+		return streamSearch(query, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns a lazy {@link Stream} of the {@link CurseProject}s that match the specified query,
+	 * starting from the page index of the query.
+	 * <p>
+	 * Pages are retrieved using {@link #searchProjectsAsync(CurseSearchQuery)} as the
+	 * {@link Stream} is consumed, and each page is requested as soon as the previous page is
+	 * received. The search ends when an empty page or a page smaller than the page size of the
+	 * query is received. If the query does not specify a page size, the size of the first page
+	 * is used. Projects that shift between pages are only returned once.
+	 * <p>
+	 * If a page cannot be retrieved, a {@link CompletionException} is thrown
+	 * with the {@link CurseException} as its cause. The returned {@link Stream} should be closed
+	 * if it is not fully consumed so that any pending request is cancelled.
+	 *
+	 * @param query a {@link CurseSearchQuery}. This query is copied, so it is not modified.
+	 * @param maxResults the maximum number of results, which also bounds the memory used to
+	 * remove duplicate projects.
+	 * @return a lazy {@link Stream} of the {@link CurseProject}s that match the specified query.
+	 */
+	public static Stream<CurseProject> streamSearch(CurseSearchQuery query, int maxResults) {
+		Preconditions.checkNotNull(query, "query should not be null");
+		Preconditions.checkArgument(maxResults > 0, "maxResults should be positive");
+		final CurseSearchIterator iterator = new CurseSearchIterator(query, maxResults);
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(
+						iterator, Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.ORDERED
+				),
+				false
+		).onClose(iterator::close);
 	}
 
 	/**
@@ -221,7 +447,154 @@ public final class CurseAPI {
 	 */
 	public static Optional<CurseFiles<CurseFile>> files(int projectID) throws CurseException {
 		CursePreconditions.checkProjectID(projectID, "projectID");
-		return get(provider -> provider.files(projectID));
+		return get("files", provider -> provider.files(projectID), projectID);
+	}
+
+	/**
+	 * Asynchronously returns a {@link CurseFiles} instance for the specified project ID.
+	 *
+	 * @param projectID a project ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link CurseFiles} instance
+	 * for the specified project ID wrapped in an {@link Optional} if the project exists,
+	 * or otherwise an empty {@link Optional}. If an error occurs, the {@link CompletableFuture}
+	 * is completed exceptionally with a {@link CurseException}.
+	 * @see #files(int)
+	 */
+	public static CompletableFuture<Optional<CurseFiles<CurseFile>>> filesAsync(int projectID) {
+		CursePreconditions.checkProjectID(projectID, "projectID");
+		return getAsync("files", provider -> provider.filesAsync(projectID), projectID);
+	}
+
+	/**
+	 * Looks up {@link CurseFile} instances for the specified files, for example the entries of
+	 * a modpack manifest.
+	 * <p>
+	 * Each registered {@link CurseAPIProvider} is asked for the files that have not already been
+	 * found by a previous {@link CurseAPIProvider}. A file is only considered to be found if its
+	 * project ID matches the project ID of the requested file.
+	 *
+	 * @param files a {@link Collection} of {@link BasicCurseFile}s.
+	 * @param <F> the type of {@link BasicCurseFile}.
+	 * @return a {@link CurseFilesLookup} containing the {@link CurseFile}s that were found and
+	 * the requested files that could not be found.
+	 * @throws CurseException if an error occurs.
+	 */
+	public static <F extends BasicCurseFile> CurseFilesLookup<F> files(
+			Collection<? extends F> files
+	) throws CurseException {
+		Preconditions.checkNotNull(files, "files should not be null");
+
+		final Map<Integer, F> remaining = new HashMap<>(files.size());
+
+		for (F file : files) {
+			Preconditions.checkNotNull(file, "file should not be null");
+			remaining.put(file.id(), file);
+		}
+
+		final Set<CurseFile> found = new HashSet<>(remaining.size());
+
+		if (providers.isEmpty()) {
+			logger.warn("No CurseAPIProviders configured");
+		}
+
+		for (CurseAPIProvider provider : providers) {
+			if (remaining.isEmpty()) {
+				break;
+			}
+
+			final CurseFiles<CurseFile> providerFiles =
+					provider.files(new ArrayList<>(remaining.values()));
+
+			if (providerFiles == null) {
+				continue;
+			}
+
+			for (CurseFile file : providerFiles) {
+				final F requested = remaining.get(file.id());
+
+				if (requested != null && requested.sameProject(file)) {
+					remaining.remove(file.id());
+					found.add(file);
+				}
+			}
+		}
+
+		return new CurseFilesLookup<>(found, remaining.values());
+	}
+
+	/**
+	 * Returns the {@link CurseFile}s with the specified CurseForge fingerprints.
+	 * <p>
+	 * Each registered {@link CurseAPIProvider} is asked for the fingerprints that have not
+	 * already been matched by a previous {@link CurseAPIProvider}.
+	 *
+	 * @param fingerprints a {@link Collection} of CurseForge fingerprints.
+	 * @return a mutable {@link Map} of fingerprints to {@link CurseFile} instances.
+	 * Fingerprints that do not match any file are omitted.
+	 * @throws CurseException if an error occurs.
+	 * @see FingerprintUtils
+	 */
+	public static Map<Long, CurseFile> filesByFingerprint(Collection<Long> fingerprints)
+			throws CurseException {
+		Preconditions.checkNotNull(fingerprints, "fingerprints should not be null");
+
+		final Set<Long> remaining = new HashSet<>(fingerprints);
+		final Map<Long, CurseFile> files = new HashMap<>(remaining.size());
+
+		if (providers.isEmpty()) {
+			logger.warn("No CurseAPIProviders configured");
+		}
+
+		for (CurseAPIProvider provider : providers) {
+			if (remaining.isEmpty()) {
+				break;
+			}
+
+			final Map<Long, CurseFile> providerFiles =
+					provider.filesByFingerprint(new ArrayList<>(remaining));
+
+			if (providerFiles == null) {
+				continue;
+			}
+
+			for (Map.Entry<Long, CurseFile> entry : providerFiles.entrySet()) {
+				if (remaining.remove(entry.getKey())) {
+					files.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+
+		return files;
+	}
+
+	/**
+	 * Identifies the CurseForge files at the specified {@link Path}s by computing their
+	 * CurseForge fingerprints in parallel and matching them in batches.
+	 *
+	 * @param paths a {@link Collection} of {@link Path}s to files.
+	 * @return a mutable {@link Map} of {@link Path}s to the {@link CurseFile}s that they match.
+	 * {@link Path}s that do not match any file are omitted.
+	 * @throws CurseException if an error occurs.
+	 * @see FingerprintUtils#fingerprints(Collection)
+	 */
+	public static Map<Path, CurseFile> identifyFiles(Collection<Path> paths)
+			throws CurseException {
+		return identifyFingerprints(FingerprintUtils.fingerprints(paths));
+	}
+
+	/**
+	 * Identifies the CurseForge files directly inside the specified directory, for example a
+	 * mods folder, by computing their CurseForge fingerprints in parallel and matching them in
+	 * batches. Subdirectories are not searched.
+	 *
+	 * @param directory a {@link Path} to a directory.
+	 * @return a mutable {@link Map} of {@link Path}s to the {@link CurseFile}s that they match.
+	 * {@link Path}s that do not match any file are omitted.
+	 * @throws CurseException if an error occurs.
+	 * @see FingerprintUtils#fingerprintDirectory(Path)
+	 */
+	public static Map<Path, CurseFile> identifyFiles(Path directory) throws CurseException {
+		return identifyFingerprints(FingerprintUtils.fingerprintDirectory(directory));
 	}
 
 	/**
@@ -239,7 +612,26 @@ public final class CurseAPI {
 	public static Optional<CurseFile> file(int projectID, int fileID) throws CurseException {
 		CursePreconditions.checkProjectID(projectID, "projectID");
 		CursePreconditions.checkFileID(fileID, "fileID");
-		return get(provider -> provider.file(projectID, fileID));
+		return get("file", provider -> provider.file(projectID, fileID), projectID, fileID);
+	}
+
+	/**
+	 * Asynchronously returns a {@link CurseFile} instance for the specified project and file ID.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link CurseFile} instance
+	 * for the specified project and file ID wrapped in an {@link Optional} if the file exists,
+	 * or otherwise an empty {@link Optional}. If an error occurs, the {@link CompletableFuture}
+	 * is completed exceptionally with a {@link CurseException}.
+	 * @see #file(int, int)
+	 */
+	public static CompletableFuture<Optional<CurseFile>> fileAsync(int projectID, int fileID) {
+		CursePreconditions.checkProjectID(projectID, "projectID");
+		CursePreconditions.checkFileID(fileID, "fileID");
+		return getAsync(
+				"file", provider -> provider.fileAsync(projectID, fileID), projectID, fileID
+		);
 	}
 
 	/**
@@ -256,7 +648,77 @@ public final class CurseAPI {
 	public static Optional<Element> fileChangelog(int projectID, int fileID) throws CurseException {
 		CursePreconditions.checkProjectID(projectID, "projectID");
 		CursePreconditions.checkFileID(fileID, "fileID");
-		return get(provider -> provider.fileChangelog(projectID, fileID));
+		return get(
+				"fileChangelog", provider -> provider.fileChangelog(projectID, fileID),
+				projectID, fileID
+		);
+	}
+
+	/**
+	 * Asynchronously returns the changelog for the specified project and file ID.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return a {@link CompletableFuture} that is completed with an {@link Element} containing
+	 * the changelog for the specified project and file ID wrapped in an {@link Optional} if the
+	 * file exists, or otherwise an empty {@link Optional}. If an error occurs, the
+	 * {@link CompletableFuture} is completed exceptionally with a {@link CurseException}.
+	 * @see #fileChangelog(int, int)
+	 */
+	public static CompletableFuture<Optional<Element>> fileChangelogAsync(
+			int projectID, int fileID
+	) {
+		CursePreconditions.checkProjectID(projectID, "projectID");
+		CursePreconditions.checkFileID(fileID, "fileID");
+		return getAsync(
+				"fileChangelog", provider -> provider.fileChangelogAsync(projectID, fileID),
+				projectID, fileID
+		);
+	}
+
+	/**
+	 * Returns the changelog for the specified project and file ID as a {@link LazyHTML},
+	 * which is only parsed if {@link LazyHTML#element()} is called.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return a {@link LazyHTML} containing the changelog for the specified project and file ID
+	 * wrapped in an {@link Optional} if the file exists, or otherwise an empty {@link Optional}.
+	 * If no changelog is provided for the specified file, the {@link LazyHTML} is empty.
+	 * @throws CurseException if an error occurs.
+	 */
+	public static Optional<LazyHTML> fileChangelogHTML(int projectID, int fileID)
+			throws CurseException {
+		CursePreconditions.checkProjectID(projectID, "projectID");
+		CursePreconditions.checkFileID(fileID, "fileID");
+		return get(
+				"fileChangelogHTML", provider -> provider.fileChangelogHTML(projectID, fileID),
+				projectID, fileID
+		);
+	}
+
+	/**
+	 * Asynchronously returns the changelog for the specified project and file ID as a
+	 * {@link LazyHTML}.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link LazyHTML} containing
+	 * the changelog for the specified project and file ID wrapped in an {@link Optional} if the
+	 * file exists, or otherwise an empty {@link Optional}. If an error occurs, the
+	 * {@link CompletableFuture} is completed exceptionally with a {@link CurseException}.
+	 * @see #fileChangelogHTML(int, int)
+	 */
+	public static CompletableFuture<Optional<LazyHTML>> fileChangelogHTMLAsync(
+			int projectID, int fileID
+	) {
+		CursePreconditions.checkProjectID(projectID, "projectID");
+		CursePreconditions.checkFileID(fileID, "fileID");
+		return getAsync(
+				"fileChangelogHTML",
+				provider -> provider.fileChangelogHTMLAsync(projectID, fileID),
+				projectID, fileID
+		);
 	}
 
 	/**
@@ -268,7 +730,7 @@ public final class CurseAPI {
 	 * or otherwise an empty {@link Optional}. If no changelog is provided for the specified file,
 	 * the string wrapped in the {@link Optional} is empty.
 	 * @throws CurseException if an error occurs.
-	 * @see JsoupUtils#getPlainText(Element, int)
+	 * @see LazyHTML#plainText(int)
 	 */
 	public static Optional<String> fileChangelogPlainText(int projectID, int fileID)
 			throws CurseException {
@@ -292,8 +754,8 @@ public final class CurseAPI {
 		CursePreconditions.checkProjectID(projectID, "projectID");
 		CursePreconditions.checkFileID(fileID, "fileID");
 		Preconditions.checkArgument(maxLineLength > 0, "maxLineLength should be greater than 0");
-		return fileChangelog(projectID, fileID).map(
-				changelog -> JsoupUtils.getPlainText(changelog, maxLineLength).trim()
+		return fileChangelogHTML(projectID, fileID).map(
+				changelog -> changelog.plainText(maxLineLength).trim()
 		);
 	}
 
@@ -310,7 +772,32 @@ public final class CurseAPI {
 			throws CurseException {
 		CursePreconditions.checkProjectID(projectID, "projectID");
 		CursePreconditions.checkFileID(fileID, "fileID");
-		return get(provider -> provider.fileDownloadURL(projectID, fileID));
+		return get(
+				"fileDownloadURL", provider -> provider.fileDownloadURL(projectID, fileID),
+				projectID, fileID
+		);
+	}
+
+	/**
+	 * Asynchronously returns the download URL for the specified project and file ID.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return a {@link CompletableFuture} that is completed with the download URL for the
+	 * specified project and file ID wrapped in an {@link Optional} if the file exists,
+	 * or otherwise an empty {@link Optional}. If an error occurs, the {@link CompletableFuture}
+	 * is completed exceptionally with a {@link CurseException}.
+	 * @see #fileDownloadURL(int, int)
+	 */
+	public static CompletableFuture<Optional<HttpUrl>> fileDownloadURLAsync(
+			int projectID, int fileID
+	) {
+		CursePreconditions.checkProjectID(projectID, "projectID");
+		CursePreconditions.checkFileID(fileID, "fileID");
+		return getAsync(
+				"fileDownloadURL", provider -> provider.fileDownloadURLAsync(projectID, fileID),
+				projectID, fileID
+		);
 	}
 
 	/**
@@ -366,6 +853,25 @@ public final class CurseAPI {
 		));
 	}
 
+	/**
+	 * Downloads the specified files to the specified directory concurrently using a
+	 * {@link CurseFileDownloader} with the default configuration.
+	 * The failure of one download does not affect the others.
+	 *
+	 * @param files a {@link Collection} of {@link BasicCurseFile}s.
+	 * @param directory a {@link Path} to a directory.
+	 * @param <F> the type of {@link BasicCurseFile}.
+	 * @return a {@link CurseFileDownloader.Result} containing the files that were downloaded
+	 * successfully and the files that failed to download.
+	 * @throws CurseException if the directory cannot be created.
+	 * @see OkHttpUtils#getFileNameFromURLPath(HttpUrl)
+	 */
+	public static <F extends BasicCurseFile> CurseFileDownloader.Result<F> downloadFilesToDirectory(
+			Collection<? extends F> files, Path directory
+	) throws CurseException {
+		return new CurseFileDownloader().downloadToDirectory(files, directory);
+	}
+
 	/**
 	 * Returns all games that CurseForge supports.
 	 *
@@ -375,7 +881,21 @@ public final class CurseAPI {
 	 * @throws CurseException if an error occurs.
 	 */
 	public static Optional<Set<CurseGame>> games() throws CurseException {
-		return get(CurseAPIProvider::games);
+		return get("games", CurseAPIProvider::games);
+	}
+
+	/**
+	 * Asynchronously returns all games that CurseForge supports.
+	 *
+	 * @return a {@link CompletableFuture} that is completed with a mutable {@link Set} containing
+	 * {@link CurseGame} instances that represent all games supported by CurseForge wrapped in an
+	 * {@link Optional} if it can be retrieved, or otherwise an empty {@link Optional}.
+	 * If an error occurs, the {@link CompletableFuture} is completed exceptionally with a
+	 * {@link CurseException}.
+	 * @see #games()
+	 */
+	public static CompletableFuture<Optional<Set<CurseGame>>> gamesAsync() {
+		return getAsync("games", CurseAPIProvider::gamesAsync);
 	}
 
 	/**
@@ -400,7 +920,22 @@ public final class CurseAPI {
 	 */
 	public static Optional<CurseGame> game(int id) throws CurseException {
 		CursePreconditions.checkGameID(id, "id");
-		return get(provider -> provider.game(id));
+		return get("game", provider -> provider.game(id), id);
+	}
+
+	/**
+	 * Asynchronously returns the CurseForge game with the specified ID.
+	 *
+	 * @param id a game ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link CurseGame} instance that
+	 * represents the CurseForge game with the specified ID wrapped in an {@link Optional} if it
+	 * exists, or otherwise an empty {@link Optional}. If an error occurs, the
+	 * {@link CompletableFuture} is completed exceptionally with a {@link CurseException}.
+	 * @see #game(int)
+	 */
+	public static CompletableFuture<Optional<CurseGame>> gameAsync(int id) {
+		CursePreconditions.checkGameID(id, "id");
+		return getAsync("game", provider -> provider.gameAsync(id), id);
 	}
 
 	/**
@@ -417,7 +952,9 @@ public final class CurseAPI {
 	public static <V extends CurseGameVersion<?>> Optional<NavigableSet<V>> gameVersions(int gameID)
 			throws CurseException {
 		CursePreconditions.checkGameID(gameID, "gameID");
-		return get(provider -> (NavigableSet<V>) provider.gameVersions(gameID));
+		return get(
+				"gameVersions", provider -> (NavigableSet<V>) provider.gameVersions(gameID), gameID
+		);
 	}
 
 	/**
@@ -438,7 +975,10 @@ public final class CurseAPI {
 	) throws CurseException {
 		CursePreconditions.checkGameID(gameID, "gameID");
 		Preconditions.checkNotNull(versionString, "versionString should not be null");
-		return get(provider -> (V) provider.gameVersion(gameID, versionString));
+		return get(
+				"gameVersion", provider -> (V) provider.gameVersion(gameID, versionString),
+				gameID, versionString
+		);
 	}
 
 	/**
@@ -450,7 +990,21 @@ public final class CurseAPI {
 	 * @throws CurseException if an error occurs.
 	 */
 	public static Optional<Set<CurseCategory>> categories() throws CurseException {
-		return get(CurseAPIProvider::categories);
+		return get("categories", CurseAPIProvider::categories);
+	}
+
+	/**
+	 * Asynchronously returns all project categories on CurseForge.
+	 *
+	 * @return a {@link CompletableFuture} that is completed with a mutable {@link Set} containing
+	 * {@link CurseCategory} instances that represent all project categories on CurseForge wrapped
+	 * in an {@link Optional} if it can be retrieved, or otherwise an empty {@link Optional}.
+	 * If an error occurs, the {@link CompletableFuture} is completed exceptionally with a
+	 * {@link CurseException}.
+	 * @see #categories()
+	 */
+	public static CompletableFuture<Optional<Set<CurseCategory>>> categoriesAsync() {
+		return getAsync("categories", CurseAPIProvider::categoriesAsync);
 	}
 
 	/**
@@ -464,7 +1018,7 @@ public final class CurseAPI {
 	 */
 	public static Optional<Set<CurseCategory>> categories(int sectionID) throws CurseException {
 		CursePreconditions.checkCategorySectionID(sectionID, "sectionID");
-		return get(provider -> provider.categories(sectionID));
+		return get("categories", provider -> provider.categories(sectionID), sectionID);
 	}
 
 	/**
@@ -503,7 +1057,22 @@ public final class CurseAPI {
 	 */
 	public static Optional<CurseCategory> category(int id) throws CurseException {
 		CursePreconditions.checkCategoryID(id, "id");
-		return get(provider -> provider.category(id));
+		return get("category", provider -> provider.category(id), id);
+	}
+
+	/**
+	 * Asynchronously returns the CurseForge category with the specified ID.
+	 *
+	 * @param id a category ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link CurseCategory} instance
+	 * that represents the CurseForge category with the specified ID wrapped in an
+	 * {@link Optional} if it exists, or otherwise {@link Optional#empty()}. If an error occurs,
+	 * the {@link CompletableFuture} is completed exceptionally with a {@link CurseException}.
+	 * @see #category(int)
+	 */
+	public static CompletableFuture<Optional<CurseCategory>> categoryAsync(int id) {
+		CursePreconditions.checkCategoryID(id, "id");
+		return getAsync("category", provider -> provider.categoryAsync(id), id);
 	}
 
 	/**
@@ -551,8 +1120,10 @@ public final class CurseAPI {
 	 * and this allows methods that throw {@link CurseException}s such as
 	 * {@link CurseFile#changelog()} to be called.
 	 * <p>
-	 * {@link Collection#parallelStream()} is used to iterate over elements of the
-	 * {@link Collection}, meaning that time-consuming requests may be executed in parallel.
+	 * {@link ParallelUtils#map(Collection, CheckedFunction)} is used to apply the function to
+	 * elements of the {@link Collection}, meaning that time-consuming requests may be executed in
+	 * parallel. If the function throws an exception for any element, the remaining tasks are
+	 * cancelled and the exception is rethrown.
 	 *
 	 * @param collection a {@link Collection} to derive the result from.
 	 * @param function a {@link CheckedFunction} that maps objects of type {@code E} to objects of
@@ -569,17 +1140,8 @@ public final class CurseAPI {
 			CheckedFunction<? super E, ? extends R, CurseException> function,
 			Collector<? super R, ?, C> collector
 	) throws CurseException {
-		try {
-			return collection.parallelStream().
-					map(element -> callCheckedFunction(element, function)).
-					collect(collector);
-		} catch (RuntimeException ex) {
-			if (ex.getCause() instanceof CurseException) {
-				throw (CurseException) ex.getCause();
-			}
-
-			throw ex;
-		}
+		Preconditions.checkNotNull(collector, "collector should not be null");
+		return ParallelUtils.map(collection, function).stream().collect(collector);
 	}
 
 	/**
@@ -591,9 +1153,10 @@ public final class CurseAPI {
 	 * {@link CurseFile#changelog()} to be called.
 	 * <p>
 	 * The key function and the value function are both called on each element to retrieve the keys
-	 * and values of the {@link Map} respectively. Additionally, {@link Collection#parallelStream()}
-	 * is used to iterate over elements of the {@link Collection}, meaning that time-consuming
-	 * requests may be executed in parallel.
+	 * and values of the {@link Map} respectively. Additionally,
+	 * {@link ParallelUtils#map(Collection, CheckedFunction)} is used to apply the functions to
+	 * elements of the {@link Collection}, meaning that time-consuming requests may be executed in
+	 * parallel.
 	 *
 	 * @param collection a {@link Collection} to derive the result from.
 	 * @param keyMapper a {@link CheckedFunction} that maps objects of type {@code E} to objects of
@@ -621,6 +1184,19 @@ public final class CurseAPI {
 		);
 	}
 
+	/**
+	 * Returns the number of calls that have been coalesced with identical in-flight calls.
+	 * <p>
+	 * When a method in this class is called with the same arguments as a call that is still
+	 * in progress on another thread, the second call waits for and shares the result of the
+	 * first rather than sending another request.
+	 *
+	 * @return the number of calls that have been coalesced with identical in-flight calls.
+	 */
+	public static long coalescedCallCount() {
+		return coalescedCalls.sum();
+	}
+
 	/**
 	 * Registers a {@link CurseAPIProvider} if has not already been registered.
 	 *
@@ -667,6 +1243,47 @@ public final class CurseAPI {
 		return new ArrayList<>(providers);
 	}
 
+	private static Map<Path, CurseFile> identifyFingerprints(Map<Path, Long> fingerprints)
+			throws CurseException {
+		final Map<Long, CurseFile> files = filesByFingerprint(fingerprints.values());
+		final Map<Path, CurseFile> identified = new LinkedHashMap<>();
+
+		for (Map.Entry<Path, Long> entry : fingerprints.entrySet()) {
+			final CurseFile file = files.get(entry.getValue());
+
+			if (file != null) {
+				identified.put(entry.getKey(), file);
+			}
+		}
+
+		return identified;
+	}
+
+	private static <T> Optional<T> get(
+			String method, CheckedFunction<CurseAPIProvider, T, CurseException> function,
+			Object... arguments
+	) throws CurseException {
+		final List<Object> key = key(method, arguments);
+		final CompletableFuture<Optional<?>> future = new CompletableFuture<>();
+		final CompletableFuture<Optional<?>> inFlightFuture = inFlight.putIfAbsent(key, future);
+
+		if (inFlightFuture != null) {
+			coalescedCalls.increment();
+			return awaitCoalesced(inFlightFuture);
+		}
+
+		try {
+			final Optional<T> result = get(function);
+			future.complete(result);
+			return result;
+		} catch (CurseException | RuntimeException | Error ex) {
+			future.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			inFlight.remove(key, future);
+		}
+	}
+
 	private static <T> Optional<T> get(
 			CheckedFunction<CurseAPIProvider, T, CurseException> function
 	) throws CurseException {
@@ -675,25 +1292,175 @@ public final class CurseAPI {
 			return Optional.empty();
 		}
 
+		//If a provider fails, the next provider is used, and the first failure is only rethrown
+		//if no provider returns a value.
+		Throwable failure = null;
+
 		for (CurseAPIProvider provider : providers) {
-			final T t = function.apply(provider);
+			final T t;
+
+			try {
+				t = function.apply(provider);
+			} catch (CurseException | RuntimeException ex) {
+				failure = suppress(failure, ex);
+				continue;
+			}
 
 			if (t != null) {
 				return Optional.of(t);
 			}
 		}
 
+		if (failure != null) {
+			throw AsyncUtils.rethrow(failure);
+		}
+
 		return Optional.empty();
 	}
 
-	@Nullable
-	private static <E, T> T callCheckedFunction(
-			E element, CheckedFunction<E, T, CurseException> function
+	@SuppressWarnings("unchecked")
+	private static <T> CompletableFuture<Optional<T>> getAsync(
+			String method, Function<CurseAPIProvider, CompletableFuture<T>> function,
+			Object... arguments
+	) {
+		final List<Object> key = key(method, arguments);
+		final CompletableFuture<Optional<?>> future = new CompletableFuture<>();
+		final CompletableFuture<Optional<?>> inFlightFuture = inFlight.putIfAbsent(key, future);
+
+		if (inFlightFuture != null) {
+			coalescedCalls.increment();
+			//The result is shared with the original caller, so mutable results are copied.
+			return inFlightFuture.thenApply(
+					result -> (Optional<T>) result.map(CurseAPI::copyIfMutable)
+			);
+		}
+
+		if (providers.isEmpty()) {
+			logger.warn("No CurseAPIProviders configured");
+		}
+
+		getAsync(providers().iterator(), function, null).whenComplete((result, throwable) -> {
+			inFlight.remove(key, future);
+
+			if (throwable == null) {
+				future.complete(result);
+			} else {
+				future.completeExceptionally(AsyncUtils.unwrap(throwable));
+			}
+		});
+
+		return future.thenApply(result -> (Optional<T>) result);
+	}
+
+	private static <T> CompletableFuture<Optional<T>> getAsync(
+			Iterator<CurseAPIProvider> providers,
+			Function<CurseAPIProvider, CompletableFuture<T>> function,
+			@Nullable Throwable failure
 	) {
+		if (!providers.hasNext()) {
+			if (failure == null) {
+				return CompletableFuture.completedFuture(Optional.empty());
+			}
+
+			final CompletableFuture<Optional<T>> failed = new CompletableFuture<>();
+			failed.completeExceptionally(failure);
+			return failed;
+		}
+
+		final CompletableFuture<T> future;
+
 		try {
-			return function.apply(element);
-		} catch (CurseException ex) {
-			throw new RuntimeException(ex);
+			future = function.apply(providers.next());
+		} catch (RuntimeException ex) {
+			return getAsync(providers, function, suppress(failure, ex));
+		}
+
+		//If this provider returns null or fails, the next provider is used, as in
+		//get(CheckedFunction).
+		return future.handle((t, throwable) -> {
+			if (throwable == null) {
+				return t == null ? getAsync(providers, function, failure) :
+						CompletableFuture.completedFuture(Optional.of(t));
+			}
+
+			final Throwable cause = AsyncUtils.unwrap(throwable);
+
+			if (cause instanceof CurseException || cause instanceof RuntimeException) {
+				return getAsync(providers, function, suppress(failure, cause));
+			}
+
+			final CompletableFuture<Optional<T>> failed = new CompletableFuture<>();
+			failed.completeExceptionally(cause);
+			return failed;
+		}).thenCompose(Function.identity());
+	}
+
+	private static Throwable suppress(@Nullable Throwable failure, Throwable throwable) {
+		if (failure == null) {
+			return throwable;
+		}
+
+		if (failure != throwable) {
+			failure.addSuppressed(throwable);
 		}
+
+		return failure;
+	}
+
+	private static List<Object> key(String method, Object... arguments) {
+		final List<Object> key = new ArrayList<>(arguments.length + 1);
+		key.add(method);
+		key.addAll(Arrays.asList(arguments));
+		return key;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Optional<T> awaitCoalesced(CompletableFuture<Optional<?>> future)
+			throws CurseException {
+		try {
+			//The result is shared with the original caller, so mutable results are copied.
+			return (Optional<T>) future.join().map(CurseAPI::copyIfMutable);
+		} catch (CompletionException ex) {
+			final Throwable cause = ex.getCause();
+
+			if (cause instanceof CurseException) {
+				throw (CurseException) cause;
+			}
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw ex;
+		}
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private static Object copyIfMutable(Object object) {
+		if (object instanceof CurseFiles) {
+			return ((CurseFiles) object).clone();
+		}
+
+		if (object instanceof SortedSet) {
+			return new TreeSet<>((SortedSet) object);
+		}
+
+		if (object instanceof Set) {
+			return new HashSet<>((Set) object);
+		}
+
+		if (object instanceof List) {
+			return new ArrayList<>((List) object);
+		}
+
+		if (object instanceof Element) {
+			return ((Element) object).clone();
+		}
+
+		return object;
 	}
 }
@@ -0,0 +1,489 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Records metrics about the requests made by CurseAPI.
+ * <p>
+ * The following events are reported to the current {@link Sink}:
+ * <ul>
+ *     <li>the latency and HTTP status code of each call executed by
+ *     {@link com.therandomlabs.curseapi.util.RetrofitUtils}, keyed by endpoint name;</li>
+ *     <li>each retry attempted using the retry configuration set by
+ *     {@link com.therandomlabs.curseapi.util.RetrofitUtils#setRetryConfig(
+ *     java.time.Duration, int)};</li>
+ *     <li>each state transition of the circuit breaker used for API calls;</li>
+ *     <li>the number of bytes transferred by
+ *     {@link com.therandomlabs.curseapi.util.OkHttpUtils} downloads;</li>
+ *     <li>the number of tasks in flight whenever a task is started by
+ *     {@link com.therandomlabs.curseapi.util.ParallelUtils}.</li>
+ * </ul>
+ * <p>
+ * By default, events are aggregated in memory by an {@link InMemorySink}, a snapshot of which
+ * may be retrieved using {@link #snapshot()}. Recording an event only updates a few striped
+ * counters, so that it costs nanoseconds on the calling thread. Other metrics libraries,
+ * for example Micrometer, may be bridged by setting a custom {@link Sink} using
+ * {@link #setSink(Sink)}.
+ */
+public final class CurseAPIMetrics {
+	/**
+	 * Receives the events recorded by CurseAPI. Methods are called on the thread that caused the
+	 * event, so implementations should be thread-safe and return quickly.
+	 * All methods do nothing by default.
+	 */
+	public interface Sink {
+		/**
+		 * Called when a call to an API endpoint completes, including any retries.
+		 *
+		 * @param endpoint the endpoint name, which is the name of the Retrofit service method
+		 * if it is known, or otherwise the URL path.
+		 * @param statusCode the HTTP status code of the final response, or {@code 0} if no
+		 * response was received.
+		 * @param latencyNanos the time taken by the call in nanoseconds.
+		 */
+		default void requestCompleted(String endpoint, int statusCode, long latencyNanos) {}
+
+		/**
+		 * Called when a failed call or download is about to be retried.
+		 *
+		 * @param name the name of the retry configuration.
+		 * @param attempt the number of attempts that have failed so far.
+		 */
+		default void retryAttempted(String name, int attempt) {}
+
+		/**
+		 * Called when a circuit breaker changes state.
+		 *
+		 * @param name the name of the circuit breaker.
+		 * @param fromState the previous state, for example {@code CLOSED}.
+		 * @param toState the new state, for example {@code OPEN}.
+		 */
+		default void circuitBreakerStateChanged(String name, String fromState, String toState) {}
+
+		/**
+		 * Called when a download finishes or fails.
+		 *
+		 * @param bytes the number of bytes transferred by the download.
+		 */
+		default void bytesDownloaded(long bytes) {}
+
+		/**
+		 * Called when a parallel task is started.
+		 *
+		 * @param tasksInFlight the number of parallel tasks in flight, including the started
+		 * task.
+		 */
+		default void parallelTaskStarted(int tasksInFlight) {}
+	}
+
+	/**
+	 * An immutable latency histogram with power-of-two nanosecond buckets.
+	 */
+	public static final class Histogram {
+		private final long[] buckets;
+		private final long count;
+		private final long totalNanos;
+		private final long maxNanos;
+
+		Histogram(long[] buckets, long totalNanos, long maxNanos) {
+			this.buckets = buckets;
+			long count = 0L;
+
+			for (long bucket : buckets) {
+				count += bucket;
+			}
+
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this).
+					add("count", count).
+					add("meanNanos", meanNanos()).
+					add("p50Nanos", percentileNanos(50.0)).
+					add("p99Nanos", percentileNanos(99.0)).
+					add("maxNanos", maxNanos).
+					toString();
+		}
+
+		/**
+		 * Returns the number of recorded latencies.
+		 *
+		 * @return the number of recorded latencies.
+		 */
+		public long count() {
+			return count;
+		}
+
+		/**
+		 * Returns the sum of the recorded latencies in nanoseconds.
+		 *
+		 * @return the sum of the recorded latencies in nanoseconds.
+		 */
+		public long totalNanos() {
+			return totalNanos;
+		}
+
+		/**
+		 * Returns the mean of the recorded latencies in nanoseconds.
+		 *
+		 * @return the mean of the recorded latencies in nanoseconds, or {@code 0} if no latencies
+		 * have been recorded.
+		 */
+		public long meanNanos() {
+			return count == 0L ? 0L : totalNanos / count;
+		}
+
+		/**
+		 * Returns the largest recorded latency in nanoseconds.
+		 *
+		 * @return the largest recorded latency in nanoseconds, or {@code 0} if no latencies have
+		 * been recorded.
+		 */
+		public long maxNanos() {
+			return maxNanos;
+		}
+
+		/**
+		 * Returns an upper bound for the specified percentile of the recorded latencies.
+		 * As the buckets are powers of two, this is at most twice the exact percentile.
+		 *
+		 * @param percentile a percentile between {@code 0.0} and {@code 100.0}.
+		 * @return an upper bound for the specified percentile in nanoseconds, or {@code 0}
+		 * if no latencies have been recorded.
+		 */
+		public long percentileNanos(double percentile) {
+			Preconditions.checkArgument(
+					percentile >= 0.0 && percentile <= 100.0,
+					"percentile should be between 0.0 and 100.0"
+			);
+
+			final long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+			long seen = 0L;
+
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+
+				if (seen >= rank) {
+					return Math.min(upperBound(i), maxNanos);
+				}
+			}
+
+			return maxNanos;
+		}
+
+		private static long upperBound(int bucket) {
+			return bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1L;
+		}
+	}
+
+	/**
+	 * An immutable snapshot of the metrics aggregated by an {@link InMemorySink}.
+	 */
+	public static final class Snapshot {
+		private final ImmutableMap<String, Histogram> latencies;
+		private final ImmutableMap<String, ImmutableMap<Integer, Long>> statusCodes;
+		private final long retries;
+		private final ImmutableMap<String, Long> circuitBreakerTransitions;
+		private final long bytesDownloaded;
+		private final long parallelTasks;
+		private final long maxParallelTasksInFlight;
+
+		Snapshot(
+				ImmutableMap<String, Histogram> latencies,
+				ImmutableMap<String, ImmutableMap<Integer, Long>> statusCodes, long retries,
+				ImmutableMap<String, Long> circuitBreakerTransitions, long bytesDownloaded,
+				long parallelTasks, long maxParallelTasksInFlight
+		) {
+			this.latencies = latencies;
+			this.statusCodes = statusCodes;
+			this.retries = retries;
+			this.circuitBreakerTransitions = circuitBreakerTransitions;
+			this.bytesDownloaded = bytesDownloaded;
+			this.parallelTasks = parallelTasks;
+			this.maxParallelTasksInFlight = maxParallelTasksInFlight;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this).
+					add("latencies", latencies).
+					add("statusCodes", statusCodes).
+					add("retries", retries).
+					add("circuitBreakerTransitions", circuitBreakerTransitions).
+					add("bytesDownloaded", bytesDownloaded).
+					add("parallelTasks", parallelTasks).
+					add("maxParallelTasksInFlight", maxParallelTasksInFlight).
+					toString();
+		}
+
+		/**
+		 * Returns the latency {@link Histogram}s of the API calls, keyed by endpoint name.
+		 *
+		 * @return an {@link ImmutableMap} of endpoint names to latency {@link Histogram}s.
+		 */
+		public ImmutableMap<String, Histogram> latencies() {
+			return latencies;
+		}
+
+		/**
+		 * Returns the number of responses with each HTTP status code, keyed by endpoint name.
+		 * Calls for which no response was received are counted under the status code {@code 0}.
+		 *
+		 * @return an {@link ImmutableMap} of endpoint names to {@link ImmutableMap}s of HTTP status
+		 * codes to response counts.
+		 */
+		public ImmutableMap<String, ImmutableMap<Integer, Long>> statusCodes() {
+			return statusCodes;
+		}
+
+		/**
+		 * Returns the number of retries.
+		 *
+		 * @return the number of retries.
+		 */
+		public long retries() {
+			return retries;
+		}
+
+		/**
+		 * Returns the number of circuit breaker state transitions, keyed by transitions in the
+		 * form {@code FROM_TO_TO}, for example {@code CLOSED_TO_OPEN}.
+		 *
+		 * @return an {@link ImmutableMap} of state transitions to counts.
+		 */
+		public ImmutableMap<String, Long> circuitBreakerTransitions() {
+			return circuitBreakerTransitions;
+		}
+
+		/**
+		 * Returns the number of bytes transferred by downloads.
+		 *
+		 * @return the number of bytes transferred by downloads.
+		 */
+		public long bytesDownloaded() {
+			return bytesDownloaded;
+		}
+
+		/**
+		 * Returns the number of parallel tasks that have been started.
+		 *
+		 * @return the number of parallel tasks that have been started.
+		 */
+		public long parallelTasks() {
+			return parallelTasks;
+		}
+
+		/**
+		 * Returns the largest number of parallel tasks that have been in flight at once.
+		 *
+		 * @return the largest number of parallel tasks that have been in flight at once.
+		 */
+		public long maxParallelTasksInFlight() {
+			return maxParallelTasksInFlight;
+		}
+	}
+
+	/**
+	 * A {@link Sink} that aggregates events in memory using striped counters.
+	 */
+	public static final class InMemorySink implements Sink {
+		private static final class Endpoint {
+			private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+			private final LongAdder totalNanos = new LongAdder();
+			private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+			private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+		}
+
+		private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+		private final LongAdder retries = new LongAdder();
+		private final Map<String, LongAdder> circuitBreakerTransitions = new ConcurrentHashMap<>();
+		private final LongAdder bytesDownloaded = new LongAdder();
+		private final LongAdder parallelTasks = new LongAdder();
+		private final LongAccumulator maxParallelTasksInFlight =
+				new LongAccumulator(Math::max, 0L);
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void requestCompleted(String endpoint, int statusCode, long latencyNanos) {
+			final Endpoint metrics = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+			final long latency = Math.max(0L, latencyNanos);
+			//Bucket i contains latencies below 2^i.
+			metrics.buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(latency));
+			metrics.totalNanos.add(latency);
+			metrics.maxNanos.accumulate(latency);
+			metrics.statusCodes.computeIfAbsent(statusCode, key -> new LongAdder()).increment();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void retryAttempted(String name, int attempt) {
+			retries.increment();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void circuitBreakerStateChanged(String name, String fromState, String toState) {
+			circuitBreakerTransitions.computeIfAbsent(
+					fromState + "_TO_" + toState, key -> new LongAdder()
+			).increment();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void bytesDownloaded(long bytes) {
+			bytesDownloaded.add(bytes);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void parallelTaskStarted(int tasksInFlight) {
+			parallelTasks.increment();
+			maxParallelTasksInFlight.accumulate(tasksInFlight);
+		}
+
+		/**
+		 * Returns a {@link Snapshot} of the aggregated metrics. Events that are recorded while
+		 * the {@link Snapshot} is being created may be partially included.
+		 *
+		 * @return a {@link Snapshot} of the aggregated metrics.
+		 */
+		public Snapshot snapshot() {
+			final ImmutableMap.Builder<String, Histogram> latencies = ImmutableMap.builder();
+			final ImmutableMap.Builder<String, ImmutableMap<Integer, Long>> statusCodes =
+					ImmutableMap.builder();
+
+			endpoints.forEach((name, endpoint) -> {
+				final long[] buckets = new long[endpoint.buckets.length()];
+
+				for (int i = 0; i < buckets.length; i++) {
+					buckets[i] = endpoint.buckets.get(i);
+				}
+
+				latencies.put(name, new Histogram(
+						buckets, endpoint.totalNanos.sum(), endpoint.maxNanos.get()
+				));
+				statusCodes.put(name, sums(endpoint.statusCodes));
+			});
+
+			return new Snapshot(
+					latencies.build(), statusCodes.build(), retries.sum(),
+					sums(circuitBreakerTransitions), bytesDownloaded.sum(), parallelTasks.sum(),
+					maxParallelTasksInFlight.get()
+			);
+		}
+
+		/**
+		 * Discards all aggregated metrics.
+		 */
+		public void reset() {
+			endpoints.clear();
+			retries.reset();
+			circuitBreakerTransitions.clear();
+			bytesDownloaded.reset();
+			parallelTasks.reset();
+			maxParallelTasksInFlight.reset();
+		}
+
+		private static <K> ImmutableMap<K, Long> sums(Map<K, LongAdder> adders) {
+			final ImmutableMap.Builder<K, Long> sums = ImmutableMap.builder();
+			adders.forEach((key, adder) -> sums.put(key, adder.sum()));
+			return sums.build();
+		}
+	}
+
+	private static final InMemorySink inMemorySink = new InMemorySink();
+
+	private static volatile Sink sink = inMemorySink;
+
+	private CurseAPIMetrics() {}
+
+	/**
+	 * Returns the current {@link Sink}. Events should be reported to the returned {@link Sink}.
+	 *
+	 * @return the current {@link Sink}.
+	 */
+	public static Sink sink() {
+		return sink;
+	}
+
+	/**
+	 * Sets the current {@link Sink}. To disable metrics, a {@link Sink} that does not override
+	 * any methods may be used. To keep aggregating metrics in memory, the specified {@link Sink}
+	 * should also report events to {@link #inMemorySink()}.
+	 *
+	 * @param sink a {@link Sink}.
+	 */
+	public static void setSink(Sink sink) {
+		Preconditions.checkNotNull(sink, "sink should not be null");
+		CurseAPIMetrics.sink = sink;
+	}
+
+	/**
+	 * Returns the default {@link InMemorySink}.
+	 *
+	 * @return the default {@link InMemorySink}.
+	 */
+	public static InMemorySink inMemorySink() {
+		return inMemorySink;
+	}
+
+	/**
+	 * Returns a {@link Snapshot} of the metrics aggregated by the default {@link InMemorySink}.
+	 *
+	 * @return a {@link Snapshot} of the metrics aggregated by the default {@link InMemorySink}.
+	 */
+	public static Snapshot snapshot() {
+		return inMemorySink.snapshot();
+	}
+}
@@ -23,10 +23,16 @@
 
 package com.therandomlabs.curseapi;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import com.therandomlabs.curseapi.file.BasicCurseFile;
 import com.therandomlabs.curseapi.file.CurseFile;
 import com.therandomlabs.curseapi.file.CurseFiles;
 import com.therandomlabs.curseapi.game.CurseCategory;
@@ -34,7 +40,11 @@ import com.therandomlabs.curseapi.game.CurseGame;
 import com.therandomlabs.curseapi.game.CurseGameVersion;
 import com.therandomlabs.curseapi.project.CurseProject;
 import com.therandomlabs.curseapi.project.CurseSearchQuery;
+import com.therandomlabs.curseapi.util.AsyncUtils;
+import com.therandomlabs.curseapi.util.CheckedFunction;
 import com.therandomlabs.curseapi.util.JsoupUtils;
+import com.therandomlabs.curseapi.util.LazyHTML;
+import com.therandomlabs.curseapi.util.ParallelUtils;
 import okhttp3.HttpUrl;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jsoup.nodes.Element;
@@ -46,6 +56,17 @@ import org.jsoup.nodes.Element;
  * {@link CurseAPIProvider} should be used instead or that an object does not exist on CurseForge.
  * As input validation is performed by the methods in {@link CurseAPI}, it does not need to be
  * performed by implementations of this interface.
+ * <p>
+ * The asynchronous methods declared in this interface call their synchronous counterparts
+ * using {@link AsyncUtils#supplyAsync(com.therandomlabs.curseapi.util.CheckedSupplier)} by
+ * default, and may be overridden by implementations that support non-blocking requests.
+ * The {@link CompletableFuture}s returned by these methods may be completed with {@code null}
+ * in the same cases as their synchronous counterparts, and should be completed exceptionally
+ * with a {@link CurseException} if an error occurs.
+ * <p>
+ * If a {@link CurseAPIProvider} throws an exception, for example because the service it
+ * retrieves data from is unavailable, {@link CurseAPI} asks the next {@link CurseAPIProvider}
+ * instead. The exception is only rethrown if no {@link CurseAPIProvider} returns a value.
  *
  * @see com.therandomlabs.curseapi.forgesvc.ForgeSvcProvider
  * @see com.therandomlabs.curseapi.cfwidget.CFWidgetProvider
@@ -63,6 +84,35 @@ public interface CurseAPIProvider {
 		return null;
 	}
 
+	/**
+	 * Returns {@link CurseProject} instances for the specified project IDs.
+	 * <p>
+	 * By default, {@link #project(int)} is called for each project ID using
+	 * {@link ParallelUtils#map(Collection, CheckedFunction)}, so at most
+	 * {@link ParallelUtils#getMaxInFlight()} requests are sent at once.
+	 *
+	 * @param ids a {@link Collection} of project IDs.
+	 * @return a mutable {@link Map} of project IDs to {@link CurseProject} instances.
+	 * Project IDs for which no project could be found are omitted.
+	 * @throws CurseException if an error occurs.
+	 */
+	@Nullable
+	default Map<Integer, CurseProject> projects(Collection<Integer> ids) throws CurseException {
+		final List<CurseProject> projects = ParallelUtils.map(ids, this::project);
+		final Map<Integer, CurseProject> map = new HashMap<>();
+		int index = 0;
+
+		for (Integer id : ids) {
+			final CurseProject project = projects.get(index++);
+
+			if (project != null) {
+				map.put(id, project);
+			}
+		}
+
+		return map;
+	}
+
 	/**
 	 * Returns a {@link CurseProject} instance for the project with the specified URL path.
 	 *
@@ -87,6 +137,22 @@ public interface CurseAPIProvider {
 		return null;
 	}
 
+	/**
+	 * Returns the description for the project with the specified ID as a {@link LazyHTML}
+	 * so that it need not be parsed.
+	 * By default, the result of {@link #projectDescription(int)} is wrapped.
+	 *
+	 * @param id a project ID.
+	 * @return a {@link LazyHTML} containing the description for the project with the
+	 * specified ID.
+	 * @throws CurseException if an error occurs.
+	 */
+	@Nullable
+	default LazyHTML projectDescriptionHTML(int id) throws CurseException {
+		final Element description = projectDescription(id);
+		return description == null ? null : LazyHTML.of(description);
+	}
+
 	/**
 	 * Executes a {@link CurseSearchQuery}.
 	 *
@@ -124,6 +190,41 @@ public interface CurseAPIProvider {
 		return null;
 	}
 
+	/**
+	 * Returns {@link CurseFile} instances for the specified files.
+	 * <p>
+	 * By default, {@link #file(int, int)} is called for each file using
+	 * {@link ParallelUtils#map(Collection, CheckedFunction)}, so at most
+	 * {@link ParallelUtils#getMaxInFlight()} requests are sent at once.
+	 *
+	 * @param files a {@link Collection} of {@link BasicCurseFile}s.
+	 * @return a {@link CurseFiles} containing the {@link CurseFile} instances that could be
+	 * found. Files that could not be found are omitted.
+	 * @throws CurseException if an error occurs.
+	 */
+	@Nullable
+	default CurseFiles<CurseFile> files(Collection<? extends BasicCurseFile> files)
+			throws CurseException {
+		return ParallelUtils.map(files, file -> file(file.projectID(), file.id())).stream().
+				filter(Objects::nonNull).
+				collect(CurseFiles.toCurseFiles());
+	}
+
+	/**
+	 * Returns the {@link CurseFile}s with the specified CurseForge fingerprints.
+	 *
+	 * @param fingerprints a {@link Collection} of CurseForge fingerprints.
+	 * @return a mutable {@link Map} of fingerprints to {@link CurseFile} instances.
+	 * Fingerprints that do not match any file are omitted.
+	 * @throws CurseException if an error occurs.
+	 * @see com.therandomlabs.curseapi.util.FingerprintUtils
+	 */
+	@Nullable
+	default Map<Long, CurseFile> filesByFingerprint(Collection<Long> fingerprints)
+			throws CurseException {
+		return null;
+	}
+
 	/**
 	 * Returns the changelog for the specified project and file ID.
 	 *
@@ -139,6 +240,23 @@ public interface CurseAPIProvider {
 		return null;
 	}
 
+	/**
+	 * Returns the changelog for the specified project and file ID as a {@link LazyHTML}
+	 * so that it need not be parsed.
+	 * By default, the result of {@link #fileChangelog(int, int)} is wrapped.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return a {@link LazyHTML} containing the changelog for the specified project and file ID.
+	 * If no changelog is provided for the specified file, an empty {@link LazyHTML} is returned.
+	 * @throws CurseException if an error occurs.
+	 */
+	@Nullable
+	default LazyHTML fileChangelogHTML(int projectID, int fileID) throws CurseException {
+		final Element changelog = fileChangelog(projectID, fileID);
+		return changelog == null ? null : LazyHTML.of(changelog);
+	}
+
 	/**
 	 * Returns the download URL for the specified project and file ID.
 	 *
@@ -244,4 +362,174 @@ public interface CurseAPIProvider {
 	default CurseCategory category(int id) throws CurseException {
 		return null;
 	}
+
+	/**
+	 * Asynchronously returns a {@link CurseProject} instance for the specified project ID.
+	 *
+	 * @param id a project ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link CurseProject} instance
+	 * for the specified project ID.
+	 * @see #project(int)
+	 */
+	default CompletableFuture<CurseProject> projectAsync(int id) {
+		return AsyncUtils.supplyAsync(() -> project(id));
+	}
+
+	/**
+	 * Asynchronously returns the description for the project with the specified ID.
+	 *
+	 * @param id a project ID.
+	 * @return a {@link CompletableFuture} that is completed with an {@link Element} containing the
+	 * description for the project with the specified ID.
+	 * @see #projectDescription(int)
+	 */
+	default CompletableFuture<Element> projectDescriptionAsync(int id) {
+		return AsyncUtils.supplyAsync(() -> projectDescription(id));
+	}
+
+	/**
+	 * Asynchronously returns the description for the project with the specified ID as a
+	 * {@link LazyHTML}.
+	 *
+	 * @param id a project ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link LazyHTML} containing
+	 * the description for the project with the specified ID.
+	 * @see #projectDescriptionHTML(int)
+	 */
+	default CompletableFuture<LazyHTML> projectDescriptionHTMLAsync(int id) {
+		return AsyncUtils.supplyAsync(() -> projectDescriptionHTML(id));
+	}
+
+	/**
+	 * Asynchronously executes a {@link CurseSearchQuery}.
+	 *
+	 * @param query a {@link CurseSearchQuery}.
+	 * @return a {@link CompletableFuture} that is completed with a mutable {@link List} of
+	 * {@link CurseProject}s that match the specified query.
+	 * @see #searchProjects(CurseSearchQuery)
+	 */
+	default CompletableFuture<List<CurseProject>> searchProjectsAsync(CurseSearchQuery query) {
+		return AsyncUtils.supplyAsync(() -> searchProjects(query));
+	}
+
+	/**
+	 * Asynchronously returns a {@link CurseFiles} instance for the specified project ID.
+	 *
+	 * @param projectID a project ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link CurseFiles} instance for
+	 * the specified project ID.
+	 * @see #files(int)
+	 */
+	default CompletableFuture<CurseFiles<CurseFile>> filesAsync(int projectID) {
+		return AsyncUtils.supplyAsync(() -> files(projectID));
+	}
+
+	/**
+	 * Asynchronously returns a {@link CurseFile} instance for the specified project and file ID.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link CurseFile} instance for
+	 * the specified project and file ID.
+	 * @see #file(int, int)
+	 */
+	default CompletableFuture<CurseFile> fileAsync(int projectID, int fileID) {
+		return AsyncUtils.supplyAsync(() -> file(projectID, fileID));
+	}
+
+	/**
+	 * Asynchronously returns the changelog for the specified project and file ID.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return a {@link CompletableFuture} that is completed with an {@link Element} containing the
+	 * changelog for the specified project and file ID.
+	 * @see #fileChangelog(int, int)
+	 */
+	default CompletableFuture<Element> fileChangelogAsync(int projectID, int fileID) {
+		return AsyncUtils.supplyAsync(() -> fileChangelog(projectID, fileID));
+	}
+
+	/**
+	 * Asynchronously returns the changelog for the specified project and file ID as a
+	 * {@link LazyHTML}.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link LazyHTML} containing
+	 * the changelog for the specified project and file ID.
+	 * @see #fileChangelogHTML(int, int)
+	 */
+	default CompletableFuture<LazyHTML> fileChangelogHTMLAsync(int projectID, int fileID) {
+		return AsyncUtils.supplyAsync(() -> fileChangelogHTML(projectID, fileID));
+	}
+
+	/**
+	 * Asynchronously returns the download URL for the specified project and file ID.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return a {@link CompletableFuture} that is completed with the download URL for the specified
+	 * project and file ID.
+	 * @see #fileDownloadURL(int, int)
+	 */
+	default CompletableFuture<HttpUrl> fileDownloadURLAsync(int projectID, int fileID) {
+		return AsyncUtils.supplyAsync(() -> fileDownloadURL(projectID, fileID));
+	}
+
+	/**
+	 * Asynchronously returns all games that CurseForge supports.
+	 *
+	 * @return a {@link CompletableFuture} that is completed with a mutable {@link Set} containing
+	 * {@link CurseGame} instances that represent all games supported by CurseForge.
+	 * @see #games()
+	 */
+	default CompletableFuture<Set<CurseGame>> gamesAsync() {
+		return AsyncUtils.supplyAsync(() -> games());
+	}
+
+	/**
+	 * Asynchronously returns the CurseForge game with the specified ID.
+	 *
+	 * @param id a game ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link CurseGame} instance that
+	 * represents the CurseForge game with the specified ID.
+	 * @see #game(int)
+	 */
+	default CompletableFuture<CurseGame> gameAsync(int id) {
+		return AsyncUtils.supplyAsync(() -> game(id));
+	}
+
+	/**
+	 * Asynchronously returns all project categories on CurseForge.
+	 *
+	 * @return a {@link CompletableFuture} that is completed with a mutable {@link Set} containing
+	 * {@link CurseCategory} instances that represent all project categories on CurseForge.
+	 * @see #categories()
+	 */
+	default CompletableFuture<Set<CurseCategory>> categoriesAsync() {
+		return AsyncUtils.supplyAsync(() -> categories());
+	}
+
+	/**
+	 * Asynchronously returns the CurseForge category with the specified ID.
+	 *
+	 * @param id a category ID.
+	 * @return a {@link CompletableFuture} that is completed with a {@link CurseCategory} instance
+	 * that represents the CurseForge category with the specified ID.
+	 * @see #category(int)
+	 */
+	default CompletableFuture<CurseCategory> categoryAsync(int id) {
+		return AsyncUtils.supplyAsync(() -> category(id));
+	}
+
+	/**
+	 * Discards any data that this provider has cached for the {@link CurseProject} with the
+	 * specified ID so that it is retrieved again the next time it is requested.
+	 * By default, this method does nothing.
+	 *
+	 * @param id a project ID.
+	 * @see CurseAPI#invalidateProject(int)
+	 */
+	default void invalidateProject(int id) {}
 }
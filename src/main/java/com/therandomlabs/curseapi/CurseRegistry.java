@@ -0,0 +1,230 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.therandomlabs.curseapi.game.CurseCategory;
+import com.therandomlabs.curseapi.game.CurseGame;
+import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.util.CheckedFunction;
+
+/**
+ * A process-wide registry of canonical {@link CurseProject}, {@link CurseGame} and
+ * {@link CurseCategory} instances keyed by ID.
+ * <p>
+ * Lazily initialized fields such as the value returned by
+ * {@link com.therandomlabs.curseapi.file.BasicCurseFile#project()} consult this registry before
+ * calling the methods declared in {@link CurseAPI}, so that files and dependencies referencing
+ * the same project share a single instance, and the project is only retrieved once per
+ * freshness window.
+ * <p>
+ * Instances are weakly referenced, so they are only retained for as long as they are
+ * referenced elsewhere, and the number of retained instances of each type is bounded.
+ */
+public final class CurseRegistry {
+	private static final Duration DEFAULT_FRESHNESS_WINDOW = Duration.ofMinutes(10L);
+	private static final long DEFAULT_MAXIMUM_SIZE = 10000L;
+
+	private static Duration freshnessWindow = DEFAULT_FRESHNESS_WINDOW;
+	private static long maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+	private static volatile Cache<Integer, CurseProject> projects = newCache();
+	private static volatile Cache<Integer, CurseGame> games = newCache();
+	private static volatile Cache<Integer, CurseCategory> categories = newCache();
+
+	private CurseRegistry() {}
+
+	/**
+	 * Returns the canonical {@link CurseProject} instance for the specified project ID.
+	 * If no instance is registered, one is retrieved using {@link CurseAPI#project(int)}
+	 * and registered.
+	 *
+	 * @param id a project ID.
+	 * @return the canonical {@link CurseProject} instance for the specified project ID wrapped
+	 * in an {@link Optional} if the project exists, or otherwise an empty {@link Optional}.
+	 * @throws CurseException if an error occurs.
+	 */
+	public static Optional<CurseProject> project(int id) throws CurseException {
+		CursePreconditions.checkProjectID(id, "id");
+		return get(projects, id, CurseAPI::project);
+	}
+
+	/**
+	 * Returns the canonical {@link CurseGame} instance for the specified game ID.
+	 * If no instance is registered, one is retrieved using {@link CurseAPI#game(int)}
+	 * and registered.
+	 *
+	 * @param id a game ID.
+	 * @return the canonical {@link CurseGame} instance for the specified game ID wrapped
+	 * in an {@link Optional} if the game exists, or otherwise an empty {@link Optional}.
+	 * @throws CurseException if an error occurs.
+	 */
+	public static Optional<CurseGame> game(int id) throws CurseException {
+		CursePreconditions.checkGameID(id, "id");
+		return get(games, id, CurseAPI::game);
+	}
+
+	/**
+	 * Returns the canonical {@link CurseCategory} instance for the specified category ID.
+	 * If no instance is registered, one is retrieved using {@link CurseAPI#category(int)}
+	 * and registered.
+	 *
+	 * @param id a category ID.
+	 * @return the canonical {@link CurseCategory} instance for the specified category ID wrapped
+	 * in an {@link Optional} if the category exists, or otherwise an empty {@link Optional}.
+	 * @throws CurseException if an error occurs.
+	 */
+	public static Optional<CurseCategory> category(int id) throws CurseException {
+		CursePreconditions.checkCategoryID(id, "id");
+		return get(categories, id, CurseAPI::category);
+	}
+
+	/**
+	 * Registers the specified {@link CurseProject} if no instance with the same ID is registered.
+	 *
+	 * @param project a {@link CurseProject}.
+	 * @return the canonical {@link CurseProject} instance with the same ID as the specified
+	 * {@link CurseProject}.
+	 */
+	public static CurseProject register(CurseProject project) {
+		Preconditions.checkNotNull(project, "project should not be null");
+		return register(projects, project.id(), project);
+	}
+
+	/**
+	 * Registers the specified {@link CurseGame} if no instance with the same ID is registered.
+	 *
+	 * @param game a {@link CurseGame}.
+	 * @return the canonical {@link CurseGame} instance with the same ID as the specified
+	 * {@link CurseGame}.
+	 */
+	public static CurseGame register(CurseGame game) {
+		Preconditions.checkNotNull(game, "game should not be null");
+		return register(games, game.id(), game);
+	}
+
+	/**
+	 * Registers the specified {@link CurseCategory} if no instance with the same ID is registered.
+	 *
+	 * @param category a {@link CurseCategory}.
+	 * @return the canonical {@link CurseCategory} instance with the same ID as the specified
+	 * {@link CurseCategory}.
+	 */
+	public static CurseCategory register(CurseCategory category) {
+		Preconditions.checkNotNull(category, "category should not be null");
+		return register(categories, category.id(), category);
+	}
+
+	/**
+	 * Unregisters the {@link CurseProject} with the specified ID so that it is retrieved again
+	 * the next time it is requested.
+	 *
+	 * @param id a project ID.
+	 */
+	public static void invalidateProject(int id) {
+		projects.invalidate(id);
+	}
+
+	/**
+	 * Unregisters the {@link CurseGame} with the specified ID so that it is retrieved again
+	 * the next time it is requested.
+	 *
+	 * @param id a game ID.
+	 */
+	public static void invalidateGame(int id) {
+		games.invalidate(id);
+	}
+
+	/**
+	 * Unregisters the {@link CurseCategory} with the specified ID so that it is retrieved again
+	 * the next time it is requested.
+	 *
+	 * @param id a category ID.
+	 */
+	public static void invalidateCategory(int id) {
+		categories.invalidate(id);
+	}
+
+	/**
+	 * Unregisters all registered instances.
+	 */
+	public static void invalidateAll() {
+		projects.invalidateAll();
+		games.invalidateAll();
+		categories.invalidateAll();
+	}
+
+	/**
+	 * Sets the freshness window and the maximum number of retained instances of each type.
+	 * All registered instances are unregistered.
+	 *
+	 * @param freshnessWindow the duration for which registered instances are considered fresh.
+	 * @param maximumSize the maximum number of retained instances of each type.
+	 */
+	public static synchronized void setConfig(Duration freshnessWindow, long maximumSize) {
+		Preconditions.checkArgument(
+				freshnessWindow.toMillis() > 0, "freshnessWindow should be positive"
+		);
+		Preconditions.checkArgument(maximumSize > 0, "maximumSize should be positive");
+		CurseRegistry.freshnessWindow = freshnessWindow;
+		CurseRegistry.maximumSize = maximumSize;
+		projects = newCache();
+		games = newCache();
+		categories = newCache();
+	}
+
+	private static <T> Optional<T> get(
+			Cache<Integer, T> cache, int id,
+			CheckedFunction<Integer, Optional<T>, CurseException> retriever
+	) throws CurseException {
+		final T registered = cache.getIfPresent(id);
+
+		if (registered != null) {
+			return Optional.of(registered);
+		}
+
+		final Optional<T> optional = retriever.apply(id);
+		return optional == null || !optional.isPresent() ?
+				Optional.empty() : Optional.of(register(cache, id, optional.get()));
+	}
+
+	private static <T> T register(Cache<Integer, T> cache, int id, T value) {
+		final T registered = cache.asMap().putIfAbsent(id, value);
+		return registered == null ? value : registered;
+	}
+
+	private static <K, V> Cache<K, V> newCache() {
+		return CacheBuilder.newBuilder().
+				expireAfterWrite(freshnessWindow.toNanos(), TimeUnit.NANOSECONDS).
+				maximumSize(maximumSize).
+				weakValues().
+				build();
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.project.CurseSearchQuery;
+import com.therandomlabs.curseapi.util.AsyncUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+final class CurseSearchIterator implements Iterator<CurseProject>, AutoCloseable {
+	private final CurseSearchQuery query;
+	private final int maxResults;
+	private final Set<Integer> projectIDs = new HashSet<>();
+
+	private Iterator<CurseProject> page = Collections.emptyIterator();
+	@Nullable
+	private CompletableFuture<Optional<List<CurseProject>>> nextPage;
+	private int expectedPageSize;
+	private int results;
+	@Nullable
+	private CurseProject next;
+
+	CurseSearchIterator(CurseSearchQuery query, int maxResults) {
+		this.query = query.clone();
+		this.maxResults = maxResults;
+		expectedPageSize = query.pageSize();
+		nextPage = CurseAPI.searchProjectsAsync(this.query);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next != null) {
+			return true;
+		}
+
+		if (results >= maxResults) {
+			close();
+			return false;
+		}
+
+		while (true) {
+			while (page.hasNext()) {
+				final CurseProject project = page.next();
+
+				//Projects may shift between pages if their sort keys change during the search.
+				if (projectIDs.add(project.id())) {
+					next = project;
+					return true;
+				}
+			}
+
+			if (nextPage == null) {
+				return false;
+			}
+
+			final List<CurseProject> projects = awaitNextPage();
+
+			if (projects.isEmpty()) {
+				return false;
+			}
+
+			if (expectedPageSize == 0) {
+				//The default page size is not known in advance, so the first page is used.
+				expectedPageSize = projects.size();
+			}
+
+			//A short page is the last page. Otherwise, the next page is requested now so that it is
+			//retrieved while this page is being consumed.
+			if (projects.size() >= expectedPageSize) {
+				//The index is the offset of the first result rather than the page number.
+				query.pageIndex(query.pageIndex() + projects.size());
+				nextPage = CurseAPI.searchProjectsAsync(query);
+			}
+
+			page = projects.iterator();
+		}
+	}
+
+	@Override
+	public CurseProject next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		final CurseProject project = next;
+		next = null;
+		results++;
+		return project;
+	}
+
+	@Override
+	public void close() {
+		if (nextPage != null) {
+			nextPage.cancel(false);
+			nextPage = null;
+		}
+
+		page = Collections.emptyIterator();
+	}
+
+	private List<CurseProject> awaitNextPage() {
+		final CompletableFuture<Optional<List<CurseProject>>> future = nextPage;
+		nextPage = null;
+
+		try {
+			return AsyncUtils.join(future).orElseThrow(() -> new CurseException(
+					"Failed to search projects: " + query
+			));
+		} catch (CurseException ex) {
+			close();
+			throw new CompletionException(ex);
+		}
+	}
+}
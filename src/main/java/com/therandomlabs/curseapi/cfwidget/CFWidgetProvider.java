@@ -23,9 +23,9 @@
 
 package com.therandomlabs.curseapi.cfwidget;
 
-import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseAPIProvider;
 import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.CurseRegistry;
 import com.therandomlabs.curseapi.project.CurseProject;
 import com.therandomlabs.curseapi.util.RetrofitUtils;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -65,6 +65,6 @@ public final class CFWidgetProvider implements CurseAPIProvider {
 		}
 
 		final CFWidgetProject project = RetrofitUtils.execute(cfWidget.getProject(path));
-		return project == null ? null : CurseAPI.project(project.id).orElse(null);
+		return project == null ? null : CurseRegistry.project(project.id).orElse(null);
 	}
 }
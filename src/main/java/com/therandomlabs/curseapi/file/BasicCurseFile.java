@@ -28,6 +28,7 @@ import com.google.common.base.Preconditions;
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
 import com.therandomlabs.curseapi.CursePreconditions;
+import com.therandomlabs.curseapi.CurseRegistry;
 import com.therandomlabs.curseapi.project.CurseProject;
 import okhttp3.HttpUrl;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -81,7 +82,7 @@ public abstract class BasicCurseFile implements Comparable<BasicCurseFile> {
 		@Override
 		public CurseProject project() throws CurseException {
 			if (!projectRetrieved) {
-				project = CurseAPI.project(projectID()).orElse(null);
+				project = CurseRegistry.project(projectID()).orElse(null);
 				projectRetrieved = true;
 			}
 
@@ -95,6 +96,7 @@ public abstract class BasicCurseFile implements Comparable<BasicCurseFile> {
 		@Override
 		public CurseProject refreshProject() throws CurseException {
 			projectRetrieved = false;
+			CurseAPI.invalidateProject(projectID());
 			return project();
 		}
 
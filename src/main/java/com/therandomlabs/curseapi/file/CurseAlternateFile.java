@@ -27,7 +27,9 @@ import java.util.Optional;
 
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.CurseRegistry;
 import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.util.LazyHTML;
 import okhttp3.HttpUrl;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -45,7 +47,7 @@ public abstract class CurseAlternateFile extends BasicCurseFile implements Exist
 	@Nullable
 	private transient HttpUrl downloadURL;
 	@Nullable
-	private transient Element changelog;
+	private transient LazyHTML changelog;
 	@Nullable
 	private transient CurseFile mainFile;
 
@@ -56,7 +58,7 @@ public abstract class CurseAlternateFile extends BasicCurseFile implements Exist
 	@Override
 	public CurseProject project() throws CurseException {
 		if (project == null) {
-			final Optional<CurseProject> optionalProject = CurseAPI.project(projectID());
+			final Optional<CurseProject> optionalProject = CurseRegistry.project(projectID());
 
 			if (!optionalProject.isPresent()) {
 				throw new CurseException("Failed to retrieve CurseProject: " + this);
@@ -74,6 +76,7 @@ public abstract class CurseAlternateFile extends BasicCurseFile implements Exist
 	@Override
 	public CurseProject refreshProject() throws CurseException {
 		project = null;
+		CurseAPI.invalidateProject(projectID());
 		return project();
 	}
 
@@ -118,8 +121,17 @@ public abstract class CurseAlternateFile extends BasicCurseFile implements Exist
 	 */
 	@Override
 	public Element changelog() throws CurseException {
+		return changelogHTML().element();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public LazyHTML changelogHTML() throws CurseException {
 		if (changelog == null) {
-			final Optional<Element> optionalChangelog = CurseAPI.fileChangelog(projectID(), id());
+			final Optional<LazyHTML> optionalChangelog =
+					CurseAPI.fileChangelogHTML(projectID(), id());
 
 			if (!optionalChangelog.isPresent()) {
 				throw new CurseException("Failed to retrieve changelog: " + this);
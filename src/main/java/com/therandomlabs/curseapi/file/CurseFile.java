@@ -23,6 +23,7 @@
 
 package com.therandomlabs.curseapi.file;
 
+import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.HashSet;
@@ -34,11 +35,15 @@ import java.util.stream.Collectors;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
 import com.therandomlabs.curseapi.game.CurseGameVersion;
 import com.therandomlabs.curseapi.game.CurseGameVersionGroup;
 import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.util.HashAlgorithm;
+import com.therandomlabs.curseapi.util.LazyHTML;
+import com.therandomlabs.curseapi.util.OkHttpUtils;
 import okhttp3.HttpUrl;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -54,7 +59,7 @@ public abstract class CurseFile extends BasicCurseFile implements ExistingCurseF
 	@Nullable
 	private transient NavigableSet<CurseGameVersion<?>> gameVersions;
 	@Nullable
-	private transient Element changelog;
+	private transient LazyHTML changelog;
 
 	/**
 	 * {@inheritDoc}
@@ -124,13 +129,59 @@ public abstract class CurseFile extends BasicCurseFile implements ExistingCurseF
 		return downloadURL();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The size of the downloaded file is validated against {@link #fileSize()}.
+	 */
+	@Override
+	public void download(Path path) throws CurseException {
+		OkHttpUtils.download(downloadURL(), path, fileSize(), null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The size of the downloaded file is validated against {@link #fileSize()}.
+	 */
+	@Override
+	public HashCode download(
+			Path path, HashAlgorithm algorithm, @Nullable HashCode expectedHash
+	) throws CurseException {
+		return OkHttpUtils.download(
+				downloadURL(), path, fileSize(), algorithm, expectedHash, null
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The size of the downloaded file is validated against {@link #fileSize()}.
+	 */
+	@Override
+	public Path downloadToDirectory(Path directory) throws CurseException {
+		final HttpUrl url = downloadURL();
+		return OkHttpUtils.downloadToDirectory(
+				url, directory, OkHttpUtils.getFileNameFromURLPath(url), fileSize()
+		);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public Element changelog() throws CurseException {
+		return changelogHTML().element();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public LazyHTML changelogHTML() throws CurseException {
 		if (changelog == null) {
-			final Optional<Element> optionalChangelog = CurseAPI.fileChangelog(projectID(), id());
+			final Optional<LazyHTML> optionalChangelog =
+					CurseAPI.fileChangelogHTML(projectID(), id());
 
 			if (!optionalChangelog.isPresent()) {
 				throw new CurseException("Failed to retrieve changelog for file: " + this);
@@ -256,6 +307,22 @@ public abstract class CurseFile extends BasicCurseFile implements ExistingCurseF
 	 */
 	public abstract Set<String> gameVersionStrings();
 
+	/**
+	 * Returns a read-only view of this file's game version strings.
+	 * Unlike {@link #gameVersionStrings()}, implementations may return their internal
+	 * {@link Set} without copying it, so the returned {@link Set} must not be modified.
+	 * This is used by {@link CurseFileFilter} and {@link CurseFiles} to avoid allocating
+	 * a {@link Set} for every tested {@link CurseFile}.
+	 * <p>
+	 * By default, this method returns the value returned by {@link #gameVersionStrings()}.
+	 *
+	 * @return a {@link Set} containing this file's game version strings that must not be
+	 * modified.
+	 */
+	protected Set<String> gameVersionStringsView() {
+		return gameVersionStrings();
+	}
+
 	/**
 	 * Returns this file's game version groups. This value is obtained by calling
 	 * {@link CurseAPI#gameVersionGroups(Collection)} on the value returned by
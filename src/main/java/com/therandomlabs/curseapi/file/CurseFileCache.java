@@ -0,0 +1,671 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.google.common.util.concurrent.Striped;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.util.CheckedSupplier;
+import com.therandomlabs.curseapi.util.HashAlgorithm;
+import com.therandomlabs.curseapi.util.OkHttpUtils;
+import com.therandomlabs.curseapi.util.ProgressListener;
+import okhttp3.HttpUrl;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent on-disk cache of downloaded CurseForge files, keyed by file ID.
+ * <p>
+ * Each cached file is stored alongside a small record containing its name, size and SHA-256 hash,
+ * the latter of which is computed while the file is downloaded. When a cached file is requested,
+ * it is validated against its record and materialized at the target location using a hard link,
+ * or a copy if hard links are not supported, so that a cache hit does not require any network
+ * access. As hard links share their contents with the cached file, materialized files should
+ * not be modified in place.
+ * <p>
+ * When the total size of the cached files exceeds {@link #maxSize()}, the least recently used
+ * files are evicted. A cache may safely be shared between threads, and between JVMs on the same
+ * host, as all modifications are guarded by file locks.
+ *
+ * @see CurseFileDownloader#cache(CurseFileCache)
+ */
+public class CurseFileCache {
+	private static final class Record {
+		final int fileID;
+		final long size;
+		final FileTime lastAccessed;
+
+		Record(int fileID, long size, FileTime lastAccessed) {
+			this.fileID = fileID;
+			this.size = size;
+			this.lastAccessed = lastAccessed;
+		}
+	}
+
+	/**
+	 * The default maximum size of a cache in bytes, which is 10 GiB.
+	 */
+	public static final long DEFAULT_MAX_SIZE = 10L * 1024L * 1024L * 1024L;
+
+	private static final String RECORD_EXTENSION = ".properties";
+	private static final String LOCK_FILE_NAME = ".lock";
+	//Contains the total size of the cached files so that they do not need to be listed after
+	//every download.
+	private static final String SIZE_FILE_NAME = ".size";
+	private static final String PART_EXTENSION = ".part";
+	private static final String DOWNLOADS_DIRECTORY_NAME = ".downloads";
+
+	//Stripes are created lazily and are weakly referenced, so there can be enough of them that
+	//downloads of unrelated files are unlikely to wait for each other.
+	private static final int ENTRY_LOCK_STRIPES = 1 << 16;
+
+	private static final Logger logger = LoggerFactory.getLogger(CurseFileCache.class);
+
+	//File locks are held on behalf of the entire JVM, so threads are coordinated separately.
+	private static final Map<Path, Lock> indexLocks = new ConcurrentHashMap<>();
+	private static final Map<Path, Striped<Lock>> entryLocks = new ConcurrentHashMap<>();
+
+	private final Path directory;
+	private final Path downloadsDirectory;
+	private final Lock indexLock;
+	private final Striped<Lock> entryLock;
+
+	private volatile long maxSize = DEFAULT_MAX_SIZE;
+	private volatile boolean verifyHashes;
+
+	/**
+	 * Constructs a {@link CurseFileCache} that stores files in the specified directory.
+	 *
+	 * @param directory a {@link Path} to a directory. If the directory does not exist,
+	 * it is created.
+	 * @throws CurseException if the directory cannot be created.
+	 */
+	public CurseFileCache(Path directory) throws CurseException {
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		Preconditions.checkArgument(
+				!Files.isRegularFile(directory), "directory should not be a regular file"
+		);
+
+		this.directory = directory.toAbsolutePath().normalize();
+		downloadsDirectory = this.directory.resolve(DOWNLOADS_DIRECTORY_NAME);
+
+		try {
+			Files.createDirectories(downloadsDirectory);
+		} catch (IOException ex) {
+			throw new CurseException("Failed to create directory: " + downloadsDirectory, ex);
+		}
+
+		indexLock = indexLocks.computeIfAbsent(this.directory, key -> new ReentrantLock());
+		entryLock = entryLocks.computeIfAbsent(
+				this.directory, key -> Striped.lazyWeakLock(ENTRY_LOCK_STRIPES)
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).
+				add("directory", directory).
+				add("maxSize", maxSize).
+				add("verifyHashes", verifyHashes).
+				toString();
+	}
+
+	/**
+	 * Returns the directory in which this cache stores files.
+	 *
+	 * @return the directory in which this cache stores files.
+	 */
+	public Path directory() {
+		return directory;
+	}
+
+	/**
+	 * Returns the maximum total size of the files in this cache in bytes.
+	 *
+	 * @return the maximum total size of the files in this cache in bytes.
+	 */
+	public long maxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Sets the maximum total size of the files in this cache in bytes. When this size is
+	 * exceeded, the least recently used files are evicted. The most recently downloaded file is
+	 * never evicted, even if it is larger than this size on its own.
+	 * The default value is {@link #DEFAULT_MAX_SIZE}.
+	 *
+	 * @param maxSize the maximum total size of the files in this cache in bytes.
+	 * @return this {@link CurseFileCache}.
+	 */
+	public CurseFileCache maxSize(long maxSize) {
+		Preconditions.checkArgument(maxSize > 0L, "maxSize should be positive");
+		this.maxSize = maxSize;
+		return this;
+	}
+
+	/**
+	 * Returns whether the hashes of cached files are verified whenever they are requested.
+	 *
+	 * @return {@code true} if the hashes of cached files are verified whenever they are
+	 * requested, or otherwise {@code false}.
+	 */
+	public boolean verifyHashes() {
+		return verifyHashes;
+	}
+
+	/**
+	 * Sets whether the hashes of cached files should be verified whenever they are requested.
+	 * If this is {@code false}, only the sizes of cached files are verified, so that a cache hit
+	 * does not require the cached file to be read. The default value is {@code false}.
+	 *
+	 * @param verifyHashes {@code true} if the hashes of cached files should be verified whenever
+	 * they are requested, or otherwise {@code false}.
+	 * @return this {@link CurseFileCache}.
+	 */
+	public CurseFileCache verifyHashes(boolean verifyHashes) {
+		this.verifyHashes = verifyHashes;
+		return this;
+	}
+
+	/**
+	 * Returns whether this cache contains a valid copy of the file with the specified ID.
+	 *
+	 * @param fileID a file ID.
+	 * @return {@code true} if this cache contains a valid copy of the file with the specified ID,
+	 * or otherwise {@code false}.
+	 * @throws CurseException if an I/O error occurs.
+	 */
+	public boolean contains(int fileID) throws CurseException {
+		return Boolean.TRUE.equals(locked(() -> {
+			final Properties record = readRecord(fileID);
+			return record != null && isValid(fileID, record);
+		}));
+	}
+
+	/**
+	 * Returns the total size of the files in this cache in bytes.
+	 *
+	 * @return the total size of the files in this cache in bytes.
+	 * @throws CurseException if an I/O error occurs.
+	 */
+	public long size() throws CurseException {
+		final Long size = locked(
+				() -> readRecords().stream().mapToLong(record -> record.size).sum()
+		);
+		return size == null ? 0L : size;
+	}
+
+	/**
+	 * Removes the file with the specified ID from this cache.
+	 *
+	 * @param fileID a file ID.
+	 * @return {@code true} if the file was in this cache, or otherwise {@code false}.
+	 * @throws CurseException if an I/O error occurs.
+	 */
+	public boolean invalidate(int fileID) throws CurseException {
+		return Boolean.TRUE.equals(locked(() -> delete(fileID)));
+	}
+
+	/**
+	 * Downloads the specified file to the specified {@link Path}, or if it is cached,
+	 * materializes it from this cache.
+	 *
+	 * @param file a {@link BasicCurseFile}.
+	 * @param path a {@link Path}.
+	 * @throws CurseException if an error occurs.
+	 */
+	public void download(BasicCurseFile file, Path path) throws CurseException {
+		Preconditions.checkNotNull(file, "file should not be null");
+		Preconditions.checkNotNull(path, "path should not be null");
+
+		if (materialize(file.id(), path, false) == null) {
+			download(file, CurseFileDownloader.downloadURL(file), path, null);
+		}
+	}
+
+	/**
+	 * Downloads the specified file to the specified directory, or if it is cached,
+	 * materializes it from this cache. The name of the downloaded file is retrieved using
+	 * {@link OkHttpUtils#getFileNameFromURLPath(HttpUrl)}.
+	 *
+	 * @param file a {@link BasicCurseFile}.
+	 * @param directory a {@link Path} to a directory. If the directory does not exist,
+	 * it is created.
+	 * @return a {@link Path} to the downloaded file.
+	 * @throws CurseException if an error occurs.
+	 */
+	public Path downloadToDirectory(BasicCurseFile file, Path directory) throws CurseException {
+		Preconditions.checkNotNull(file, "file should not be null");
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		Preconditions.checkArgument(
+				!Files.isRegularFile(directory), "directory should not be a regular file"
+		);
+
+		final Path cachedPath = materialize(file.id(), directory, true);
+
+		if (cachedPath != null) {
+			return cachedPath;
+		}
+
+		final HttpUrl url = CurseFileDownloader.downloadURL(file);
+		final Path path = directory.resolve(OkHttpUtils.getFileNameFromURLPath(url));
+		download(file, url, path, null);
+		return path;
+	}
+
+	//Returns the path of the materialized file if the file is cached, or otherwise null.
+	@Nullable
+	Path materialize(int fileID, Path target, boolean toDirectory) throws CurseException {
+		return locked(() -> {
+			final Properties record = readRecord(fileID);
+
+			if (record == null) {
+				return null;
+			}
+
+			if (!isValid(fileID, record)) {
+				logger.warn("Evicting invalid cached file: {}", fileID);
+				delete(fileID);
+				return null;
+			}
+
+			final Path path =
+					toDirectory ? target.resolve(record.getProperty("fileName")) : target;
+			link(getEntryPath(fileID, record), path);
+			Files.setLastModifiedTime(
+					getRecordPath(fileID), FileTime.fromMillis(System.currentTimeMillis())
+			);
+			return path;
+		});
+	}
+
+	//Downloads the file into this cache and materializes it, returning the number of bytes
+	//downloaded.
+	long download(
+			BasicCurseFile file, HttpUrl url, Path path, @Nullable ProgressListener listener
+	) throws CurseException {
+		final int fileID = file.id();
+		final Path lockPath = downloadsDirectory.resolve(fileID + LOCK_FILE_NAME);
+		final Lock lock = entryLock.get(fileID);
+		lock.lock();
+
+		//This prevents other JVMs from downloading the same file at the same time.
+		try (FileChannel channel = lockDownload(lockPath)) {
+			try {
+				//The file may have been cached by another thread or JVM while we were waiting.
+				if (materialize(fileID, path, false) != null) {
+					return 0L;
+				}
+
+				final String fileName = OkHttpUtils.getFileNameFromURLPath(url);
+				final Path downloadPath = downloadsDirectory.resolve(fileID + "-" + fileName);
+				final HashCode hash = OkHttpUtils.download(
+						url, downloadPath,
+						file instanceof CurseFile ? ((CurseFile) file).fileSize() : -1L,
+						HashAlgorithm.SHA_256, null, listener
+				);
+				final long size = Files.size(downloadPath);
+
+				locked(() -> {
+					delete(fileID);
+
+					final Path entryPath = directory.resolve(Integer.toString(fileID)).
+							resolve(fileName);
+					Files.createDirectories(entryPath.getParent());
+					move(downloadPath, entryPath);
+					writeRecord(fileID, fileName, size, hash);
+					addToTotalSize(size);
+					link(entryPath, path);
+					evict(fileID);
+					return null;
+				});
+
+				return size;
+			} finally {
+				deleteLockFile(lockPath, channel);
+			}
+		} catch (IOException ex) {
+			throw new CurseException("Failed to cache file: " + file, ex);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Nullable
+	private <T> T locked(CheckedSupplier<T, IOException> supplier) throws CurseException {
+		indexLock.lock();
+
+		try (FileChannel channel = FileChannel.open(
+				directory.resolve(LOCK_FILE_NAME),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE
+		)) {
+			//The lock is released when the channel is closed.
+			channel.lock();
+			return supplier.get();
+		} catch (IOException ex) {
+			throw new CurseException("Failed to access file cache: " + directory, ex);
+		} finally {
+			indexLock.unlock();
+		}
+	}
+
+	private boolean isValid(int fileID, Properties record) throws IOException {
+		final Path entryPath = getEntryPath(fileID, record);
+
+		if (!Files.isRegularFile(entryPath) ||
+				Files.size(entryPath) != Long.parseLong(record.getProperty("size", "-1"))) {
+			return false;
+		}
+
+		return !verifyHashes || record.getProperty("sha256", "").equals(hash(entryPath));
+	}
+
+	private boolean delete(int fileID) throws IOException {
+		final Properties record = readRecord(fileID);
+		//The record is deleted first so that a partially deleted entry is never used.
+		final boolean existed = Files.deleteIfExists(getRecordPath(fileID));
+
+		if (existed && record != null) {
+			addToTotalSize(-Long.parseLong(record.getProperty("size")));
+		}
+		final Path entryDirectory = directory.resolve(Integer.toString(fileID));
+
+		if (Files.isDirectory(entryDirectory)) {
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(entryDirectory)) {
+				for (Path path : stream) {
+					Files.delete(path);
+				}
+			}
+
+			Files.delete(entryDirectory);
+		}
+
+		return existed;
+	}
+
+	private void evict(int retainedFileID) throws IOException {
+		//The records are only listed if the cache might be too large.
+		if (totalSize() <= maxSize) {
+			return;
+		}
+
+		final List<Record> records = readRecords();
+		long size = records.stream().mapToLong(record -> record.size).sum();
+		records.sort(Comparator.comparing(record -> record.lastAccessed));
+
+		for (Record record : records) {
+			if (size <= maxSize) {
+				break;
+			}
+
+			if (record.fileID != retainedFileID) {
+				logger.debug("Evicting cached file: {}", record.fileID);
+				delete(record.fileID);
+				size -= record.size;
+			}
+		}
+
+		//This corrects the total size if the cache was modified externally.
+		writeTotalSize(size);
+	}
+
+	//Returns the total size of the cached files, which is calculated from the records if it
+	//is not known.
+	private long totalSize() throws IOException {
+		final Long totalSize = readTotalSize();
+
+		if (totalSize != null) {
+			return totalSize;
+		}
+
+		final long size = readRecords().stream().mapToLong(record -> record.size).sum();
+		writeTotalSize(size);
+		return size;
+	}
+
+	//If the total size is not known, it is calculated from the records when it is next needed,
+	//so it does not need to be updated.
+	private void addToTotalSize(long size) throws IOException {
+		final Long totalSize = readTotalSize();
+
+		if (totalSize != null) {
+			writeTotalSize(Math.max(0L, totalSize + size));
+		}
+	}
+
+	@Nullable
+	private Long readTotalSize() throws IOException {
+		final Path sizePath = directory.resolve(SIZE_FILE_NAME);
+
+		if (!Files.isRegularFile(sizePath)) {
+			return null;
+		}
+
+		try {
+			return Long.parseLong(
+					new String(Files.readAllBytes(sizePath), StandardCharsets.UTF_8).trim()
+			);
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	private void writeTotalSize(long size) throws IOException {
+		Files.write(
+				directory.resolve(SIZE_FILE_NAME),
+				Long.toString(size).getBytes(StandardCharsets.UTF_8)
+		);
+	}
+
+	private List<Record> readRecords() throws IOException {
+		final List<Record> records = new ArrayList<>();
+
+		try (DirectoryStream<Path> stream =
+				Files.newDirectoryStream(directory, "*" + RECORD_EXTENSION)) {
+			for (Path path : stream) {
+				final String fileName = path.getFileName().toString();
+				final int fileID;
+
+				try {
+					fileID = Integer.parseInt(
+							fileName.substring(0, fileName.length() - RECORD_EXTENSION.length())
+					);
+				} catch (NumberFormatException ex) {
+					continue;
+				}
+
+				final Properties record = readRecord(fileID);
+
+				if (record != null) {
+					records.add(new Record(
+							fileID, Long.parseLong(record.getProperty("size", "0")),
+							Files.getLastModifiedTime(path)
+					));
+				}
+			}
+		}
+
+		return records;
+	}
+
+	@Nullable
+	private Properties readRecord(int fileID) {
+		final Path recordPath = getRecordPath(fileID);
+
+		if (!Files.isRegularFile(recordPath)) {
+			return null;
+		}
+
+		final Properties record = new Properties();
+
+		try (InputStream inputStream = Files.newInputStream(recordPath)) {
+			record.load(inputStream);
+			//Incomplete records are ignored.
+			return record.getProperty("fileName") != null &&
+					Long.parseLong(record.getProperty("size", "-1")) >= 0L ? record : null;
+		} catch (IOException | IllegalArgumentException ex) {
+			logger.warn("Failed to read cache record: " + recordPath, ex);
+			return null;
+		}
+	}
+
+	private void writeRecord(int fileID, String fileName, long size, HashCode hash)
+			throws IOException {
+		final Properties record = new Properties();
+		record.setProperty("fileName", fileName);
+		record.setProperty("size", Long.toString(size));
+		record.setProperty("sha256", hash.toString());
+
+		try (OutputStream outputStream = Files.newOutputStream(getRecordPath(fileID))) {
+			record.store(outputStream, null);
+		}
+	}
+
+	private Path getRecordPath(int fileID) {
+		return directory.resolve(fileID + RECORD_EXTENSION);
+	}
+
+	private Path getEntryPath(int fileID, Properties record) {
+		return directory.resolve(Integer.toString(fileID)).resolve(record.getProperty("fileName"));
+	}
+
+	private static String hash(Path path) throws IOException {
+		final MessageDigest digest = HashAlgorithm.SHA_256.newMessageDigest();
+		final byte[] buffer = new byte[8192];
+
+		try (InputStream inputStream = Files.newInputStream(path)) {
+			int read;
+
+			while ((read = inputStream.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+
+		return HashCode.fromBytes(digest.digest()).toString();
+	}
+
+	//Lock files are deleted once a download finishes, so a JVM that was waiting for a lock
+	//may acquire it on a deleted file. Such lock files are marked so that they are not used.
+	private static FileChannel lockDownload(Path lockPath) throws IOException {
+		while (true) {
+			final FileChannel channel = FileChannel.open(
+					lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE
+			);
+
+			try {
+				channel.lock();
+
+				if (channel.size() == 0L) {
+					return channel;
+				}
+			} catch (IOException | RuntimeException ex) {
+				channel.close();
+				throw ex;
+			}
+
+			channel.close();
+		}
+	}
+
+	//This should be called while the lock is held.
+	private static void deleteLockFile(Path lockPath, FileChannel channel) {
+		try {
+			channel.write(ByteBuffer.wrap(new byte[] {1}), 0L);
+
+			try {
+				Files.delete(lockPath);
+			} catch (IOException ex) {
+				//If the lock file cannot be deleted, it is kept so that it can be used again.
+				channel.truncate(0L);
+			}
+		} catch (IOException ex) {
+			logger.warn("Failed to delete lock file: " + lockPath, ex);
+		}
+	}
+
+	private static void link(Path source, Path target) throws IOException {
+		final Path parent = target.toAbsolutePath().getParent();
+
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+
+		//The link or copy is created next to the target and then moved into place so that
+		//the target is never left incomplete.
+		final Path partPath = target.resolveSibling(target.getFileName() + PART_EXTENSION);
+		Files.deleteIfExists(partPath);
+
+		try {
+			Files.createLink(partPath, source);
+		} catch (UnsupportedOperationException | FileSystemException ex) {
+			//For example, the target may be on a different file system.
+			Files.copy(source, partPath, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		move(partPath, target);
+		//If the target was already a link to the source, the move does nothing.
+		Files.deleteIfExists(partPath);
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(
+					source, target, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING
+			);
+		} catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
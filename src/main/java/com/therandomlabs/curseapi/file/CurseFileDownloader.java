@@ -0,0 +1,488 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.file;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.CurseAPI;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.util.OkHttpUtils;
+import com.therandomlabs.curseapi.util.ParallelUtils;
+import com.therandomlabs.curseapi.util.ProgressListener;
+import okhttp3.HttpUrl;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Downloads collections of CurseForge files concurrently.
+ * <p>
+ * Download URLs are resolved using {@link ExistingCurseFile#downloadURL()} for
+ * {@link ExistingCurseFile}s and {@link CurseAPI#fileDownloadURL(int, int)} for other
+ * {@link BasicCurseFile}s. Files are downloaded using {@link OkHttpUtils}, which resumes
+ * interrupted downloads and writes each file to a partial file before atomically moving it
+ * into place. The sizes of {@link CurseFile}s are validated against {@link CurseFile#fileSize()}.
+ * <p>
+ * By default, the failure of one download does not affect the others, and the failure is
+ * reported in the returned {@link Result}. This can be changed using {@link #failFast(boolean)}.
+ * <p>
+ * Instances of this class may be reused, but should not be reconfigured while downloads are
+ * in progress.
+ */
+public class CurseFileDownloader {
+	/**
+	 * A listener that is notified of the progress of a {@link CurseFileDownloader}.
+	 * As files are downloaded concurrently, implementations of this interface must be
+	 * thread-safe.
+	 */
+	public interface Listener {
+		/**
+		 * Called when the download of a file starts.
+		 *
+		 * @param file a {@link BasicCurseFile}.
+		 * @param url the download URL of the file.
+		 */
+		default void started(BasicCurseFile file, HttpUrl url) {}
+
+		/**
+		 * Called when more bytes of a file have been downloaded.
+		 *
+		 * @param file a {@link BasicCurseFile}.
+		 * @param bytesDownloaded the number of bytes of the file downloaded so far.
+		 * @param contentLength the size of the file in bytes, or {@code -1} if it is not known.
+		 */
+		default void progress(BasicCurseFile file, long bytesDownloaded, long contentLength) {}
+
+		/**
+		 * Called when a file has been downloaded successfully.
+		 *
+		 * @param file a {@link BasicCurseFile}.
+		 * @param path the {@link Path} to which the file was downloaded.
+		 * @param bytes the number of bytes downloaded.
+		 * @param elapsed the time taken to download the file.
+		 */
+		default void completed(BasicCurseFile file, Path path, long bytes, Duration elapsed) {}
+
+		/**
+		 * Called when a file fails to download.
+		 *
+		 * @param file a {@link BasicCurseFile}.
+		 * @param exception the {@link CurseException} that caused the failure.
+		 */
+		default void failed(BasicCurseFile file, CurseException exception) {}
+	}
+
+	/**
+	 * The result of a bulk download.
+	 *
+	 * @param <F> the type of {@link BasicCurseFile}.
+	 */
+	public static final class Result<F extends BasicCurseFile> {
+		private final Map<F, Path> downloaded;
+		private final Map<F, CurseException> failed;
+		private final long bytesDownloaded;
+		private final Duration elapsed;
+
+		private Result(
+				Map<F, Path> downloaded, Map<F, CurseException> failed, long bytesDownloaded,
+				Duration elapsed
+		) {
+			this.downloaded = downloaded;
+			this.failed = failed;
+			this.bytesDownloaded = bytesDownloaded;
+			this.elapsed = elapsed;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this).
+					add("downloaded", downloaded.size()).
+					add("failed", failed.keySet()).
+					add("bytesDownloaded", bytesDownloaded).
+					add("elapsed", elapsed).
+					toString();
+		}
+
+		/**
+		 * Returns a mutable {@link Map} of the files that were downloaded successfully to the
+		 * {@link Path}s to which they were downloaded.
+		 *
+		 * @return a mutable {@link Map} of the files that were downloaded successfully to the
+		 * {@link Path}s to which they were downloaded.
+		 */
+		public Map<F, Path> downloaded() {
+			return new LinkedHashMap<>(downloaded);
+		}
+
+		/**
+		 * Returns a mutable {@link Map} of the files that failed to download to the
+		 * {@link CurseException}s that caused the failures.
+		 *
+		 * @return a mutable {@link Map} of the files that failed to download to the
+		 * {@link CurseException}s that caused the failures.
+		 */
+		public Map<F, CurseException> failed() {
+			return new LinkedHashMap<>(failed);
+		}
+
+		/**
+		 * Returns whether all files were downloaded successfully.
+		 *
+		 * @return {@code true} if all files were downloaded successfully,
+		 * or otherwise {@code false}.
+		 */
+		public boolean isSuccessful() {
+			return failed.isEmpty();
+		}
+
+		/**
+		 * Returns the total number of bytes downloaded.
+		 *
+		 * @return the total number of bytes downloaded.
+		 */
+		public long bytesDownloaded() {
+			return bytesDownloaded;
+		}
+
+		/**
+		 * Returns the total time taken to download all files.
+		 *
+		 * @return the total time taken to download all files.
+		 */
+		public Duration elapsed() {
+			return elapsed;
+		}
+
+		/**
+		 * Returns the average throughput of the bulk download in bytes per second.
+		 *
+		 * @return the average throughput of the bulk download in bytes per second.
+		 */
+		public double bytesPerSecond() {
+			final long nanos = elapsed.toNanos();
+			return nanos == 0L ? 0.0 : bytesDownloaded * 1.0e9 / nanos;
+		}
+	}
+
+	private static final Listener NO_OP_LISTENER = new Listener() {};
+
+	private int maxConcurrentDownloads = 8;
+	private int maxConcurrentDownloadsPerHost = 4;
+	private boolean failFast;
+	private Listener listener = NO_OP_LISTENER;
+	@Nullable
+	private CurseFileCache cache;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).
+				add("maxConcurrentDownloads", maxConcurrentDownloads).
+				add("maxConcurrentDownloadsPerHost", maxConcurrentDownloadsPerHost).
+				add("failFast", failFast).
+				add("cache", cache).
+				toString();
+	}
+
+	/**
+	 * Returns the maximum number of files that are downloaded at once.
+	 *
+	 * @return the maximum number of files that are downloaded at once.
+	 */
+	public int maxConcurrentDownloads() {
+		return maxConcurrentDownloads;
+	}
+
+	/**
+	 * Sets the maximum number of files that are downloaded at once. The default value is
+	 * {@code 8}.
+	 *
+	 * @param max the maximum number of files that are downloaded at once.
+	 * @return this {@link CurseFileDownloader}.
+	 */
+	public CurseFileDownloader maxConcurrentDownloads(int max) {
+		Preconditions.checkArgument(max > 0, "max should be positive");
+		maxConcurrentDownloads = max;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of files that are downloaded at once from a single host.
+	 *
+	 * @return the maximum number of files that are downloaded at once from a single host.
+	 */
+	public int maxConcurrentDownloadsPerHost() {
+		return maxConcurrentDownloadsPerHost;
+	}
+
+	/**
+	 * Sets the maximum number of files that are downloaded at once from a single host.
+	 * The default value is {@code 4}.
+	 *
+	 * @param max the maximum number of files that are downloaded at once from a single host.
+	 * @return this {@link CurseFileDownloader}.
+	 */
+	public CurseFileDownloader maxConcurrentDownloadsPerHost(int max) {
+		Preconditions.checkArgument(max > 0, "max should be positive");
+		maxConcurrentDownloadsPerHost = max;
+		return this;
+	}
+
+	/**
+	 * Returns whether the first failed download aborts all other downloads.
+	 *
+	 * @return {@code true} if the first failed download aborts all other downloads,
+	 * or otherwise {@code false}.
+	 */
+	public boolean failFast() {
+		return failFast;
+	}
+
+	/**
+	 * Sets whether the first failed download aborts all other downloads. If this is
+	 * {@code true}, the {@link CurseException} that caused the failure is thrown by the
+	 * download methods. The default value is {@code false}.
+	 *
+	 * @param failFast {@code true} if the first failed download should abort all other
+	 * downloads, or otherwise {@code false}.
+	 * @return this {@link CurseFileDownloader}.
+	 */
+	public CurseFileDownloader failFast(boolean failFast) {
+		this.failFast = failFast;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link Listener} that is notified of the progress of downloads.
+	 *
+	 * @param listener a {@link Listener}.
+	 * @return this {@link CurseFileDownloader}.
+	 */
+	public CurseFileDownloader listener(Listener listener) {
+		Preconditions.checkNotNull(listener, "listener should not be null");
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * Returns the {@link CurseFileCache} that is consulted before files are downloaded.
+	 *
+	 * @return the {@link CurseFileCache} that is consulted before files are downloaded,
+	 * or {@code null} if files are always downloaded.
+	 */
+	@Nullable
+	public CurseFileCache cache() {
+		return cache;
+	}
+
+	/**
+	 * Sets the {@link CurseFileCache} that is consulted before files are downloaded.
+	 * Cached files are materialized from the cache without any network access, and downloaded
+	 * files are added to the cache. If this is {@code null}, files are always downloaded.
+	 * The default value is {@code null}.
+	 *
+	 * @param cache a {@link CurseFileCache}, or {@code null} if files should always be
+	 * downloaded.
+	 * @return this {@link CurseFileDownloader}.
+	 */
+	public CurseFileDownloader cache(@Nullable CurseFileCache cache) {
+		this.cache = cache;
+		return this;
+	}
+
+	/**
+	 * Downloads the specified files to the specified directory. The name of each downloaded file
+	 * is retrieved using {@link OkHttpUtils#getFileNameFromURLPath(HttpUrl)}.
+	 *
+	 * @param files a {@link Collection} of {@link BasicCurseFile}s.
+	 * @param directory a {@link Path} to a directory. If the directory does not exist,
+	 * it is created.
+	 * @param <F> the type of {@link BasicCurseFile}.
+	 * @return a {@link Result}.
+	 * @throws CurseException if an error occurs while creating the directory, or if
+	 * {@link #failFast()} is {@code true} and a download fails.
+	 */
+	public <F extends BasicCurseFile> Result<F> downloadToDirectory(
+			Collection<? extends F> files, Path directory
+	) throws CurseException {
+		Preconditions.checkNotNull(files, "files should not be null");
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		Preconditions.checkArgument(
+				!Files.isRegularFile(directory), "directory should not be a regular file"
+		);
+
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException ex) {
+			throw new CurseException("Failed to create directory: " + directory, ex);
+		}
+
+		final Map<F, Path> paths = new LinkedHashMap<>();
+
+		for (F file : files) {
+			Preconditions.checkNotNull(file, "file should not be null");
+			//The path is determined once the download URL is known.
+			paths.put(file, directory);
+		}
+
+		return download(paths, true);
+	}
+
+	/**
+	 * Downloads the specified files to the specified {@link Path}s.
+	 *
+	 * @param files a {@link Map} of {@link BasicCurseFile}s to the {@link Path}s to which they
+	 * should be downloaded.
+	 * @param <F> the type of {@link BasicCurseFile}.
+	 * @return a {@link Result}.
+	 * @throws CurseException if {@link #failFast()} is {@code true} and a download fails.
+	 */
+	public <F extends BasicCurseFile> Result<F> download(Map<? extends F, Path> files)
+			throws CurseException {
+		Preconditions.checkNotNull(files, "files should not be null");
+		return download(files, false);
+	}
+
+	private <F extends BasicCurseFile> Result<F> download(
+			Map<? extends F, Path> files, boolean toDirectory
+	) throws CurseException {
+		final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+		final Map<F, Path> downloaded = Collections.synchronizedMap(new LinkedHashMap<>());
+		final Map<F, CurseException> failed = Collections.synchronizedMap(new LinkedHashMap<>());
+		final LongAdder bytesDownloaded = new LongAdder();
+		//This is read once so that reconfiguring the downloader does not affect this download.
+		final CurseFileCache cache = this.cache;
+		final long startTime = System.nanoTime();
+
+		ParallelUtils.map(files.entrySet(), entry -> {
+			final F file = entry.getKey();
+
+			try {
+				if (cache != null) {
+					final Path cachedPath =
+							cache.materialize(file.id(), entry.getValue(), toDirectory);
+
+					if (cachedPath != null) {
+						downloaded.put(file, cachedPath);
+						listener.completed(file, cachedPath, 0L, Duration.ZERO);
+						return null;
+					}
+				}
+
+				final HttpUrl url = downloadURL(file);
+				final Path path = toDirectory ?
+						entry.getValue().resolve(OkHttpUtils.getFileNameFromURLPath(url)) :
+						entry.getValue();
+				final Semaphore permits = hostPermits.computeIfAbsent(
+						url.host(), host -> new Semaphore(maxConcurrentDownloadsPerHost)
+				);
+
+				acquire(permits);
+
+				try {
+					listener.started(file, url);
+					final long fileStartTime = System.nanoTime();
+					final ProgressListener progressListener = (bytesRead, contentLength) ->
+							listener.progress(file, bytesRead, contentLength);
+					final long bytes = cache == null ? OkHttpUtils.download(
+							url, path,
+							file instanceof CurseFile ? ((CurseFile) file).fileSize() : -1L,
+							progressListener
+					) : cache.download(file, url, path, progressListener);
+					bytesDownloaded.add(bytes);
+					downloaded.put(file, path);
+					listener.completed(
+							file, path, bytes, Duration.ofNanos(System.nanoTime() - fileStartTime)
+					);
+				} finally {
+					permits.release();
+				}
+			} catch (CurseException ex) {
+				failed.put(file, ex);
+				listener.failed(file, ex);
+
+				if (failFast) {
+					throw ex;
+				}
+			} catch (RuntimeException ex) {
+				//Unexpected exceptions are also reported as failures of this file so that the
+				//other downloads are not cancelled.
+				final CurseException exception =
+						new CurseException("Failed to download file: " + file, ex);
+				failed.put(file, exception);
+				listener.failed(file, exception);
+
+				if (failFast) {
+					throw ex;
+				}
+			}
+
+			return null;
+		}, maxConcurrentDownloads);
+
+		return new Result<>(
+				downloaded, failed, bytesDownloaded.sum(),
+				Duration.ofNanos(System.nanoTime() - startTime)
+		);
+	}
+
+	static HttpUrl downloadURL(BasicCurseFile file) throws CurseException {
+		if (file instanceof ExistingCurseFile) {
+			return ((ExistingCurseFile) file).downloadURL();
+		}
+
+		final Optional<HttpUrl> optionalURL = CurseAPI.fileDownloadURL(file.projectID(), file.id());
+
+		if (!optionalURL.isPresent()) {
+			throw new CurseException("File does not exist: " + file);
+		}
+
+		return optionalURL.get();
+	}
+
+	private static void acquire(Semaphore permits) throws CurseException {
+		try {
+			permits.acquire();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CurseException("Interrupted while waiting to download", ex);
+		}
+	}
+}
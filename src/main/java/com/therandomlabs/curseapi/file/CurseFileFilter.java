@@ -42,6 +42,119 @@ import com.therandomlabs.curseapi.game.CurseGameVersionGroup;
  * @see CurseFiles#filter(Predicate)
  */
 public class CurseFileFilter implements Cloneable, Predicate<CurseFile> {
+	/**
+	 * An immutable snapshot of a {@link CurseFileFilter}'s criteria that tests
+	 * {@link CurseFile}s without allocating any objects.
+	 * Instances are obtained by calling {@link CurseFileFilter#compile()}.
+	 * Later modifications to the {@link CurseFileFilter} are not reflected in a
+	 * {@link Compiled} instance.
+	 *
+	 * @see CurseFiles#filter(Predicate)
+	 */
+	public static final class Compiled implements Predicate<CurseFile> {
+		private final ImmutableSet<String> gameVersionStrings;
+		private final String[] gameVersionStringArray;
+		private final int newerThan;
+		private final int olderThan;
+		private final CurseReleaseType minimumStability;
+
+		private Compiled(CurseFileFilter filter) {
+			gameVersionStrings = ImmutableSet.copyOf(filter.gameVersionStrings);
+			gameVersionStringArray = gameVersionStrings.toArray(new String[0]);
+			newerThan = filter.newerThan;
+			olderThan = filter.olderThan;
+			minimumStability = filter.minimumStability;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean test(CurseFile file) {
+			final int id = file.id();
+
+			//The cheapest checks are performed first.
+			if (id <= newerThan || id >= olderThan ||
+					!file.releaseType().hasMinimumStability(minimumStability)) {
+				return false;
+			}
+
+			if (gameVersionStringArray.length == 0) {
+				return true;
+			}
+
+			final Set<String> fileGameVersionStrings = file.gameVersionStringsView();
+
+			for (String version : gameVersionStringArray) {
+				if (fileGameVersionStrings.contains(version)) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		/**
+		 * Returns the game version strings of the {@link CurseFileFilter} that this
+		 * {@link Compiled} instance was compiled from.
+		 *
+		 * @return an {@link ImmutableSet} containing the game version strings of the
+		 * {@link CurseFileFilter} that this {@link Compiled} instance was compiled from.
+		 */
+		public ImmutableSet<String> gameVersionStrings() {
+			return gameVersionStrings;
+		}
+
+		/**
+		 * Returns the "newer than" file ID of the {@link CurseFileFilter} that this
+		 * {@link Compiled} instance was compiled from.
+		 *
+		 * @return the "newer than" file ID of the {@link CurseFileFilter} that this
+		 * {@link Compiled} instance was compiled from.
+		 */
+		public int newerThan() {
+			return newerThan;
+		}
+
+		/**
+		 * Returns the "older than" file ID of the {@link CurseFileFilter} that this
+		 * {@link Compiled} instance was compiled from.
+		 *
+		 * @return the "older than" file ID of the {@link CurseFileFilter} that this
+		 * {@link Compiled} instance was compiled from.
+		 */
+		public int olderThan() {
+			return olderThan;
+		}
+
+		/**
+		 * Returns the minimum stability of the {@link CurseFileFilter} that this
+		 * {@link Compiled} instance was compiled from.
+		 *
+		 * @return the minimum stability of the {@link CurseFileFilter} that this
+		 * {@link Compiled} instance was compiled from.
+		 */
+		public CurseReleaseType minimumStability() {
+			return minimumStability;
+		}
+
+		/**
+		 * Applies this {@link Compiled} filter on the specified {@link Collection} of
+		 * {@link CurseFile}s.
+		 *
+		 * @param files a {@link Collection} of {@link CurseFile}s.
+		 * @return {@code true} if any elements were removed, or otherwise {@code false}.
+		 * @see CurseFileFilter#apply(Collection)
+		 */
+		public boolean apply(Collection<? extends CurseFile> files) {
+			if (files instanceof CurseFiles) {
+				return ((CurseFiles<? extends CurseFile>) files).filter(this);
+			}
+
+			return files.removeIf(negate());
+		}
+	}
+
 	@SuppressWarnings("PMD.LooseCoupling")
 	private HashSet<String> gameVersionStrings = new HashSet<>();
 	private int newerThan = CurseAPI.MIN_FILE_ID - 1;
@@ -67,10 +180,8 @@ public class CurseFileFilter implements Cloneable, Predicate<CurseFile> {
 	 */
 	@Override
 	public boolean test(CurseFile file) {
-		final Set<String> gameVersionStrings = gameVersionStrings();
-
 		if (!gameVersionStrings.isEmpty() &&
-				Collections.disjoint(gameVersionStrings, file.gameVersionStrings())) {
+				Collections.disjoint(gameVersionStrings, file.gameVersionStringsView())) {
 			return false;
 		}
 
@@ -78,6 +189,18 @@ public class CurseFileFilter implements Cloneable, Predicate<CurseFile> {
 				file.releaseType().hasMinimumStability(minimumStability());
 	}
 
+	/**
+	 * Returns a {@link Compiled} snapshot of this {@link CurseFileFilter}'s criteria.
+	 * {@link Compiled#test(CurseFile)} does not allocate any objects, which makes
+	 * {@link Compiled} filters preferable when filtering large numbers of {@link CurseFile}s
+	 * or when reusing a filter many times.
+	 *
+	 * @return a {@link Compiled} snapshot of this {@link CurseFileFilter}'s criteria.
+	 */
+	public Compiled compile() {
+		return new Compiled(this);
+	}
+
 	/**
 	 * Returns this {@link CurseFileFilter}'s game version strings.
 	 *
@@ -360,12 +483,18 @@ public class CurseFileFilter implements Cloneable, Predicate<CurseFile> {
 	/**
 	 * Applies this {@link CurseFileFilter} on the specified {@link Collection} of
 	 * {@link CurseFile}s. This is done by calling {@link Collection#removeIf(Predicate)}
-	 * with the {@link Predicate} returned by {@link #negate()}.
+	 * with the {@link Predicate} returned by {@link #negate()}, or by calling
+	 * {@link CurseFiles#filter(Predicate)} if the collection is a {@link CurseFiles} instance
+	 * so that its game version index is used.
 	 *
 	 * @param files a {@link Collection} of {@link CurseFile}s.
 	 * @return {@code true} if any elements were removed, or otherwise {@code false}.
 	 */
 	public boolean apply(Collection<? extends CurseFile> files) {
+		if (files instanceof CurseFiles) {
+			return ((CurseFiles<? extends CurseFile>) files).filter(this);
+		}
+
 		return files.removeIf(negate());
 	}
 }
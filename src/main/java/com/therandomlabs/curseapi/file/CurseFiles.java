@@ -23,19 +23,31 @@
 
 package com.therandomlabs.curseapi.file;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
 import java.util.TreeSet;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ForwardingNavigableSet;
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
 import com.therandomlabs.curseapi.CursePreconditions;
 import com.therandomlabs.curseapi.util.CheckedFunction;
+import com.therandomlabs.curseapi.util.ParallelUtils;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -45,6 +57,151 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * @param <F> the type of {@link BasicCurseFile}.
  */
 public class CurseFiles<F extends BasicCurseFile> extends TreeSet<F> {
+	private final class IndexedIterator implements Iterator<F> {
+		private final Iterator<F> iterator;
+
+		IndexedIterator(Iterator<F> iterator) {
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public F next() {
+			return iterator.next();
+		}
+
+		@Override
+		public void remove() {
+			iterator.remove();
+			invalidateIndexes();
+		}
+	}
+
+	//Views modify the backing map directly rather than through this set, so they are wrapped
+	//so that modifications made through them also invalidate the indexes.
+	private final class IndexedView extends ForwardingNavigableSet<F> {
+		private final NavigableSet<F> delegate;
+
+		IndexedView(NavigableSet<F> delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Iterator<F> iterator() {
+			return new IndexedIterator(delegate.iterator());
+		}
+
+		@Override
+		public Iterator<F> descendingIterator() {
+			return new IndexedIterator(delegate.descendingIterator());
+		}
+
+		@Override
+		public boolean add(F file) {
+			final boolean changed = delegate.add(file);
+			invalidateIndexes();
+			return changed;
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends F> files) {
+			final boolean changed = delegate.addAll(files);
+			invalidateIndexes();
+			return changed;
+		}
+
+		@Override
+		public boolean remove(Object object) {
+			final boolean changed = delegate.remove(object);
+			invalidateIndexes();
+			return changed;
+		}
+
+		@Override
+		public boolean removeAll(Collection<?> collection) {
+			final boolean changed = delegate.removeAll(collection);
+			invalidateIndexes();
+			return changed;
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> collection) {
+			final boolean changed = delegate.retainAll(collection);
+			invalidateIndexes();
+			return changed;
+		}
+
+		@Override
+		public void clear() {
+			delegate.clear();
+			invalidateIndexes();
+		}
+
+		@Nullable
+		@Override
+		public F pollFirst() {
+			final F file = delegate.pollFirst();
+			invalidateIndexes();
+			return file;
+		}
+
+		@Nullable
+		@Override
+		public F pollLast() {
+			final F file = delegate.pollLast();
+			invalidateIndexes();
+			return file;
+		}
+
+		@Override
+		public NavigableSet<F> descendingSet() {
+			return new IndexedView(delegate.descendingSet());
+		}
+
+		@Override
+		public NavigableSet<F> headSet(F toElement) {
+			return headSet(toElement, false);
+		}
+
+		@Override
+		public NavigableSet<F> headSet(F toElement, boolean inclusive) {
+			return new IndexedView(delegate.headSet(toElement, inclusive));
+		}
+
+		@Override
+		public NavigableSet<F> tailSet(F fromElement) {
+			return tailSet(fromElement, true);
+		}
+
+		@Override
+		public NavigableSet<F> tailSet(F fromElement, boolean inclusive) {
+			return new IndexedView(delegate.tailSet(fromElement, inclusive));
+		}
+
+		@Override
+		public NavigableSet<F> subSet(F fromElement, F toElement) {
+			return subSet(fromElement, true, toElement, false);
+		}
+
+		@Override
+		public NavigableSet<F> subSet(
+				F fromElement, boolean fromInclusive, F toElement, boolean toInclusive
+		) {
+			return new IndexedView(
+					delegate.subSet(fromElement, fromInclusive, toElement, toInclusive)
+			);
+		}
+
+		@Override
+		protected NavigableSet<F> delegate() {
+			return delegate;
+		}
+	}
+
 	/**
 	 * When used as a {@link Comparator} for a collection of {@link CurseFile}s,
 	 * the {@link CurseFile}s are ordered from newest to oldest.
@@ -63,6 +220,14 @@ public class CurseFiles<F extends BasicCurseFile> extends TreeSet<F> {
 
 	private static final long serialVersionUID = 4762475826152943776L;
 
+	//Both indexes are built lazily and are discarded whenever this set is modified, including
+	//through views such as headSet. The size check in checkIndexes is a further safeguard.
+	@Nullable
+	private transient volatile Map<Integer, F> filesByID;
+	@Nullable
+	private transient volatile Map<String, List<F>> filesByGameVersion;
+	private transient int indexedSize = -1;
+
 	/**
 	 * Creates an empty {@link CurseFiles} instance ordered from newest to oldest.
 	 */
@@ -109,18 +274,187 @@ public class CurseFiles<F extends BasicCurseFile> extends TreeSet<F> {
 	@SuppressWarnings("unchecked")
 	@Override
 	public CurseFiles<F> clone() {
-		return (CurseFiles<F>) super.clone();
+		final CurseFiles<F> files = (CurseFiles<F>) super.clone();
+		files.invalidateIndexes();
+		return files;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<F> iterator() {
+		return new IndexedIterator(super.iterator());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<F> descendingIterator() {
+		return new IndexedIterator(super.descendingIterator());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public NavigableSet<F> descendingSet() {
+		return new IndexedView(super.descendingSet());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public NavigableSet<F> headSet(F toElement, boolean inclusive) {
+		return new IndexedView(super.headSet(toElement, inclusive));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public NavigableSet<F> tailSet(F fromElement, boolean inclusive) {
+		return new IndexedView(super.tailSet(fromElement, inclusive));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public NavigableSet<F> subSet(
+			F fromElement, boolean fromInclusive, F toElement, boolean toInclusive
+	) {
+		return new IndexedView(super.subSet(fromElement, fromInclusive, toElement, toInclusive));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean add(F file) {
+		if (!super.add(file)) {
+			return false;
+		}
+
+		final Map<Integer, F> filesByID = this.filesByID;
+
+		//If another file has the same ID, which is only possible with a custom comparator,
+		//the ID index is rebuilt so that fileWithID continues to return the first match.
+		if (filesByID != null && indexedSize == size() - 1 &&
+				filesByID.putIfAbsent(file.id(), file) == null) {
+			filesByGameVersion = null;
+			indexedSize = size();
+		} else {
+			invalidateIndexes();
+		}
+
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean addAll(Collection<? extends F> files) {
+		final boolean changed = super.addAll(files);
+
+		if (changed) {
+			invalidateIndexes();
+		}
+
+		return changed;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean remove(Object object) {
+		if (!super.remove(object)) {
+			return false;
+		}
+
+		final Map<Integer, F> filesByID = this.filesByID;
+
+		if (filesByID != null && indexedSize == size() + 1 &&
+				filesByID.remove(((BasicCurseFile) object).id(), object)) {
+			filesByGameVersion = null;
+			indexedSize = size();
+		} else {
+			invalidateIndexes();
+		}
+
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		invalidateIndexes();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public F pollFirst() {
+		final F file = super.pollFirst();
+		invalidateIndexes();
+		return file;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public F pollLast() {
+		final F file = super.pollLast();
+		invalidateIndexes();
+		return file;
 	}
 
 	/**
 	 * Removes all {@link CurseFile}s in this {@link CurseFiles} that do not match the specified
 	 * filter. This is done by calling {@link #remove(Object)} with the {@link Predicate}
 	 * returned by calling {@link Predicate#negate()} on the specified filter.
+	 * <p>
+	 * If the filter is a {@link CurseFileFilter} or {@link CurseFileFilter.Compiled} with
+	 * game versions, it is only tested against the {@link CurseFile}s returned by
+	 * {@link #filesWithGameVersionStrings(Collection)}.
 	 *
 	 * @param filter a {@link Predicate}.
 	 * @return {@code true} if any elements were removed, or otherwise {@code false}.
 	 */
 	public boolean filter(Predicate<? super F> filter) {
+		final Set<String> versions;
+
+		if (filter instanceof CurseFileFilter) {
+			versions = ((CurseFileFilter) filter).gameVersionStrings();
+		} else if (filter instanceof CurseFileFilter.Compiled) {
+			versions = ((CurseFileFilter.Compiled) filter).gameVersionStrings();
+		} else {
+			versions = null;
+		}
+
+		if (versions != null && !versions.isEmpty()) {
+			final Set<F> matchingFiles = Collections.newSetFromMap(new IdentityHashMap<>());
+
+			for (F file : filesWithGameVersionStrings(versions)) {
+				if (filter.test(file)) {
+					matchingFiles.add(file);
+				}
+			}
+
+			return removeIf(file -> !matchingFiles.contains(file));
+		}
+
 		return removeIf(filter.negate());
 	}
 
@@ -135,14 +469,81 @@ public class CurseFiles<F extends BasicCurseFile> extends TreeSet<F> {
 	@Nullable
 	public F fileWithID(int id) {
 		CursePreconditions.checkFileID(id, "id");
+		checkIndexes();
+
+		Map<Integer, F> filesByID = this.filesByID;
 
-		for (F file : this) {
-			if (id == file.id()) {
-				return file;
+		if (filesByID == null) {
+			filesByID = new HashMap<>(size() * 4 / 3 + 1);
+
+			for (F file : this) {
+				filesByID.putIfAbsent(file.id(), file);
 			}
+
+			this.filesByID = filesByID;
 		}
 
-		return null;
+		return filesByID.get(id);
+	}
+
+	/**
+	 * Returns the {@link CurseFile}s in this {@link CurseFiles} that support any of the
+	 * specified game version strings. Elements that are not {@link CurseFile}s are ignored.
+	 *
+	 * @param versions an array of game version strings.
+	 * @return a new {@link CurseFiles} instance with the same {@link Comparator} containing
+	 * the {@link CurseFile}s that support any of the specified game version strings.
+	 * @see CurseFile#gameVersionStrings()
+	 */
+	public CurseFiles<F> filesWithGameVersionStrings(String... versions) {
+		Preconditions.checkNotNull(versions, "versions should not be null");
+		return filesWithGameVersionStrings(Arrays.asList(versions));
+	}
+
+	/**
+	 * Returns the {@link CurseFile}s in this {@link CurseFiles} that support any of the
+	 * specified game version strings. Elements that are not {@link CurseFile}s are ignored.
+	 * <p>
+	 * An index from game version strings to {@link CurseFile}s is built on the first call,
+	 * so only the matching {@link CurseFile}s are visited.
+	 *
+	 * @param versions a collection of game version strings.
+	 * @return a new {@link CurseFiles} instance with the same {@link Comparator} containing
+	 * the {@link CurseFile}s that support any of the specified game version strings.
+	 * @see CurseFile#gameVersionStrings()
+	 */
+	public CurseFiles<F> filesWithGameVersionStrings(Collection<String> versions) {
+		Preconditions.checkNotNull(versions, "versions should not be null");
+		checkIndexes();
+
+		Map<String, List<F>> filesByGameVersion = this.filesByGameVersion;
+
+		if (filesByGameVersion == null) {
+			filesByGameVersion = new HashMap<>();
+
+			for (F file : this) {
+				if (file instanceof CurseFile) {
+					for (String version : ((CurseFile) file).gameVersionStringsView()) {
+						filesByGameVersion.computeIfAbsent(version, key -> new ArrayList<>()).
+								add(file);
+					}
+				}
+			}
+
+			this.filesByGameVersion = filesByGameVersion;
+		}
+
+		final CurseFiles<F> files = new CurseFiles<>(comparator());
+
+		for (String version : versions) {
+			final List<F> versionFiles = filesByGameVersion.get(version);
+
+			if (versionFiles != null) {
+				files.addAll(versionFiles);
+			}
+		}
+
+		return files;
 	}
 
 	/**
@@ -164,8 +565,9 @@ public class CurseFiles<F extends BasicCurseFile> extends TreeSet<F> {
 	 * and this allows methods that throw {@link CurseException}s such as
 	 * {@link CurseFile#changelog()} to be called.
 	 * <p>
-	 * {@link #parallelStream()} is used to iterate over elements of this {@link CurseFiles},
-	 * meaning that time-consuming requests may be executed in parallel.
+	 * {@link ParallelUtils#map(Collection, CheckedFunction)} is used to apply the function to
+	 * elements of this {@link CurseFiles}, meaning that time-consuming requests may be executed in
+	 * parallel.
 	 *
 	 * @param function a {@link CheckedFunction} that maps files to objects of type {@code R}.
 	 * @param collector a {@link Collector}.
@@ -192,8 +594,9 @@ public class CurseFiles<F extends BasicCurseFile> extends TreeSet<F> {
 	 * <p>
 	 * The key function and the value function are both called on each {@link CurseFile}
 	 * to retrieve the keys and values of the {@link Map} respectively. Additionally,
-	 * {@link #parallelStream()} is used to iterate over elements of this {@link CurseFiles},
-	 * meaning that time-consuming requests may be executed in parallel.
+	 * {@link ParallelUtils#map(Collection, CheckedFunction)} is used to apply the functions to
+	 * elements of this {@link CurseFiles}, meaning that time-consuming requests may be executed in
+	 * parallel.
 	 *
 	 * @param keyMapper a {@link CheckedFunction} that maps files to objects of type {@code K}.
 	 * @param valueMapper a {@link CheckedFunction} that maps files to objects of type {@code V}.
@@ -221,4 +624,17 @@ public class CurseFiles<F extends BasicCurseFile> extends TreeSet<F> {
 	public static <F extends BasicCurseFile> Collector<F, ?, CurseFiles<F>> toCurseFiles() {
 		return Collectors.toCollection(CurseFiles::new);
 	}
+
+	private void checkIndexes() {
+		if (indexedSize != size()) {
+			invalidateIndexes();
+			indexedSize = size();
+		}
+	}
+
+	private void invalidateIndexes() {
+		filesByID = null;
+		filesByGameVersion = null;
+		indexedSize = -1;
+	}
 }
@@ -27,8 +27,11 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.base.Preconditions;
 
@@ -133,33 +136,56 @@ public class CurseFilesComparison<F extends BasicCurseFile> {
 	 */
 	public static <F extends BasicCurseFile> CurseFilesComparison<F> of(
 			Collection<? extends F> oldFiles, Collection<? extends F> newFiles
+	) {
+		return of(oldFiles, newFiles, false);
+	}
+
+	/**
+	 * Returns a {@link CurseFilesComparison} instance that represents a comparison between
+	 * an old and new collection of files.
+	 * Files in the old collection may be newer than files of the same project in the new
+	 * collection.
+	 * If either collection contains multiple files from the same project, the newest file
+	 * from each project is selected.
+	 * <p>
+	 * Files are matched by project ID using hash maps, so a comparison takes linear time.
+	 * Parallel comparisons are only worthwhile for very large collections of files,
+	 * e.g. when comparing tens of thousands of files.
+	 *
+	 * @param oldFiles an old collection of files.
+	 * @param newFiles a new collection of files.
+	 * @param parallel whether the comparison should be performed in parallel using the common
+	 * {@link java.util.concurrent.ForkJoinPool}.
+	 * @param <F> the type of {@link BasicCurseFile}.
+	 * @return a {@link CurseFilesComparison} instance that represents a comparison between
+	 * the specified collections of files.
+	 */
+	public static <F extends BasicCurseFile> CurseFilesComparison<F> of(
+			Collection<? extends F> oldFiles, Collection<? extends F> newFiles, boolean parallel
 	) {
 		Preconditions.checkNotNull(oldFiles, "oldFiles should not be null");
 		Preconditions.checkNotNull(newFiles, "newFiles should not be null");
 
-		oldFiles = removeDuplicateProjects(oldFiles);
-		newFiles = removeDuplicateProjects(newFiles);
+		final Map<Integer, F> oldFilesByProject = removeDuplicateProjects(oldFiles, parallel);
+		final Map<Integer, F> newFilesByProject = removeDuplicateProjects(newFiles, parallel);
 
-		final Set<F> unchanged = new HashSet<>();
-		final Set<CurseFileChange<F>> updated = new HashSet<>();
-		final Set<CurseFileChange<F>> downgraded = new HashSet<>();
-		final Set<F> removed = new HashSet<>();
-		final Set<F> added = new HashSet<>();
+		final Set<F> unchanged = newSet(parallel);
+		final Set<CurseFileChange<F>> updated = newSet(parallel);
+		final Set<CurseFileChange<F>> downgraded = newSet(parallel);
+		final Set<F> removed = newSet(parallel);
+		final Set<F> added = newSet(parallel);
 
-		for (F oldFile : oldFiles) {
-			final Optional<? extends F> optionalNewFile =
-					newFiles.stream().filter(oldFile::sameProject).findAny();
+		stream(oldFilesByProject.values(), parallel).forEach(oldFile -> {
+			final F newFile = newFilesByProject.get(oldFile.projectID());
 
-			if (!optionalNewFile.isPresent()) {
+			if (newFile == null) {
 				removed.add(oldFile);
-				continue;
+				return;
 			}
 
-			final F newFile = optionalNewFile.get();
-
 			if (oldFile.equals(newFile)) {
 				unchanged.add(newFile);
-				continue;
+				return;
 			}
 
 			final CurseFileChange<F> fileChange = new CurseFileChange<>(oldFile, newFile);
@@ -169,21 +195,27 @@ public class CurseFilesComparison<F extends BasicCurseFile> {
 			} else {
 				updated.add(fileChange);
 			}
-		}
+		});
 
-		for (F newFile : newFiles) {
-			if (oldFiles.stream().noneMatch(newFile::sameProject)) {
-				added.add(newFile);
-			}
-		}
+		stream(newFilesByProject.entrySet(), parallel).
+				filter(entry -> !oldFilesByProject.containsKey(entry.getKey())).
+				forEach(entry -> added.add(entry.getValue()));
 
 		return new CurseFilesComparison<>(unchanged, updated, downgraded, removed, added);
 	}
 
-	private static <F extends BasicCurseFile> Collection<F> removeDuplicateProjects(
-			Collection<F> files
+	private static <F extends BasicCurseFile> Map<Integer, F> removeDuplicateProjects(
+			Collection<? extends F> files, boolean parallel
 	) {
-		final Map<Integer, F> projectIDFileMap = new HashMap<>();
+		if (parallel) {
+			//Prefer newer files.
+			return files.parallelStream().collect(Collectors.toConcurrentMap(
+					BasicCurseFile::projectID, Function.identity(),
+					(file1, file2) -> file2.newerThan(file1) ? file2 : file1
+			));
+		}
+
+		final Map<Integer, F> projectIDFileMap = new HashMap<>(files.size() * 4 / 3 + 1);
 
 		for (F file : files) {
 			final F duplicate = projectIDFileMap.get(file.projectID());
@@ -194,6 +226,14 @@ public class CurseFilesComparison<F extends BasicCurseFile> {
 			}
 		}
 
-		return projectIDFileMap.values();
+		return projectIDFileMap;
+	}
+
+	private static <T> Set<T> newSet(boolean parallel) {
+		return parallel ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+	}
+
+	private static <T> Stream<T> stream(Collection<T> collection, boolean parallel) {
+		return parallel ? collection.parallelStream() : collection.stream();
 	}
 }
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.file;
+
+import java.util.Collection;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Represents the result of looking up a collection of {@link BasicCurseFile}s.
+ *
+ * @param <F> the type of {@link BasicCurseFile} that was looked up.
+ * @see com.therandomlabs.curseapi.CurseAPI#files(Collection)
+ */
+public class CurseFilesLookup<F extends BasicCurseFile> {
+	private final CurseFiles<CurseFile> found;
+	private final CurseFiles<F> missing;
+
+	/**
+	 * Constructs a {@link CurseFilesLookup}.
+	 *
+	 * @param found the files that were found.
+	 * @param missing the requested files that could not be found.
+	 */
+	public CurseFilesLookup(
+			Collection<? extends CurseFile> found, Collection<? extends F> missing
+	) {
+		Preconditions.checkNotNull(found, "found should not be null");
+		Preconditions.checkNotNull(missing, "missing should not be null");
+		this.found = new CurseFiles<>(found);
+		this.missing = new CurseFiles<>(missing);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).
+				add("found", found).
+				add("missing", missing).
+				toString();
+	}
+
+	/**
+	 * Returns a {@link CurseFiles} containing all files that were found.
+	 *
+	 * @return a {@link CurseFiles} containing all files that were found.
+	 */
+	public CurseFiles<CurseFile> found() {
+		return found.clone();
+	}
+
+	/**
+	 * Returns a {@link CurseFiles} containing all requested files that could not be found.
+	 *
+	 * @return a {@link CurseFiles} containing all requested files that could not be found.
+	 */
+	public CurseFiles<F> missing() {
+		return missing.clone();
+	}
+
+	/**
+	 * Returns whether all requested files were found.
+	 *
+	 * @return {@code true} if all requested files were found, or otherwise {@code false}.
+	 */
+	public boolean isComplete() {
+		return missing.isEmpty();
+	}
+}
@@ -27,10 +27,13 @@ import java.nio.file.Path;
 import java.util.Optional;
 
 import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
 import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.util.HashAlgorithm;
 import com.therandomlabs.curseapi.util.JsoupUtils;
+import com.therandomlabs.curseapi.util.LazyHTML;
 import com.therandomlabs.curseapi.util.OkHttpUtils;
 import okhttp3.HttpUrl;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -53,7 +56,7 @@ public interface ExistingCurseFile {
 		@Nullable
 		private transient HttpUrl downloadURL;
 		@Nullable
-		private transient Element changelog;
+		private transient LazyHTML changelog;
 
 		/**
 		 * Constructs an {@link Existing} with the specified project and file ID.
@@ -122,9 +125,17 @@ public interface ExistingCurseFile {
 		 */
 		@Override
 		public Element changelog() throws CurseException {
+			return changelogHTML().element();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public LazyHTML changelogHTML() throws CurseException {
 			if (changelog == null) {
-				final Optional<Element> optionalChangelog =
-						CurseAPI.fileChangelog(projectID(), id());
+				final Optional<LazyHTML> optionalChangelog =
+						CurseAPI.fileChangelogHTML(projectID(), id());
 
 				if (!optionalChangelog.isPresent()) {
 					throw new CurseException("File does not exist: " + this);
@@ -158,6 +169,7 @@ public interface ExistingCurseFile {
 
 	/**
 	 * Downloads this file to the specified {@link Path}.
+	 * Interrupted downloads are resumed where possible.
 	 *
 	 * @param path a {@link Path}.
 	 * @throws CurseException if an error occurs.
@@ -166,8 +178,28 @@ public interface ExistingCurseFile {
 		OkHttpUtils.download(downloadURL(), path);
 	}
 
+	/**
+	 * Downloads this file to the specified {@link Path} and verifies its integrity.
+	 * The hash of the file is computed as it is downloaded, so the file does not need to be
+	 * read again.
+	 *
+	 * @param path a {@link Path}.
+	 * @param algorithm the {@link HashAlgorithm} used to compute the hash of the file.
+	 * @param expectedHash the expected hash of the file, or {@code null} if it is not known.
+	 * @return the hash of the downloaded file.
+	 * @throws CurseException if an error occurs or if the downloaded file is invalid.
+	 * @see OkHttpUtils#download(HttpUrl, Path, long, HashAlgorithm, HashCode,
+	 * com.therandomlabs.curseapi.util.ProgressListener)
+	 */
+	default HashCode download(
+			Path path, HashAlgorithm algorithm, @Nullable HashCode expectedHash
+	) throws CurseException {
+		return OkHttpUtils.download(downloadURL(), path, -1L, algorithm, expectedHash, null);
+	}
+
 	/**
 	 * Downloads this file to the specified directory.
+	 * Interrupted downloads are resumed where possible.
 	 *
 	 * @param directory a {@link Path} to a directory.
 	 * @return a {@link Path} to the downloaded file.
@@ -201,6 +233,21 @@ public interface ExistingCurseFile {
 	 */
 	Element changelog() throws CurseException;
 
+	/**
+	 * Returns this file's changelog as a {@link LazyHTML}, which is only parsed if
+	 * {@link LazyHTML#element()} is called.
+	 * If this {@link ExistingCurseFile} implementation caches this value,
+	 * it may be refreshed by calling {@link #refreshChangelog()}.
+	 * By default, the result of {@link #changelog()} is wrapped.
+	 *
+	 * @return a {@link LazyHTML} containing this file's changelog. If a changelog is not
+	 * provided, an empty {@link LazyHTML} is returned.
+	 * @throws CurseException if an error occurs.
+	 */
+	default LazyHTML changelogHTML() throws CurseException {
+		return LazyHTML.of(changelog());
+	}
+
 	/**
 	 * Returns this file's changelog as plain text.
 	 * If this {@link ExistingCurseFile} implementation caches this value,
@@ -209,7 +256,7 @@ public interface ExistingCurseFile {
 	 * @return this file's changelog as plain text. If a changelog is not provided, an empty
 	 * string is returned.
 	 * @throws CurseException if an error occurs.
-	 * @see JsoupUtils#getPlainText(Element, int)
+	 * @see LazyHTML#plainText(int)
 	 */
 	default String changelogPlainText() throws CurseException {
 		return changelogPlainText(Integer.MAX_VALUE);
@@ -224,11 +271,11 @@ public interface ExistingCurseFile {
 	 * @return this file's changelog as plain text. If a changelog is not provided, an empty
 	 * string is returned.
 	 * @throws CurseException if an error occurs.
-	 * @see JsoupUtils#getPlainText(Element, int)
+	 * @see LazyHTML#plainText(int)
 	 */
 	default String changelogPlainText(int maxLineLength) throws CurseException {
 		Preconditions.checkArgument(maxLineLength > 0, "maxLineLength should be greater than 0");
-		return JsoupUtils.getPlainText(changelog(), maxLineLength).trim();
+		return changelogHTML().plainText(maxLineLength).trim();
 	}
 
 	/**
@@ -24,11 +24,14 @@
 package com.therandomlabs.curseapi.forgesvc;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import okhttp3.ResponseBody;
 import retrofit2.Call;
+import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.POST;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
 
@@ -36,6 +39,9 @@ interface ForgeSvc {
 	@GET("api/v2/addon/{projectID}")
 	Call<ForgeSvcProject> getProject(@Path("projectID") int id);
 
+	@POST("api/v2/addon")
+	Call<List<ForgeSvcProject>> getProjects(@Body List<Integer> ids);
+
 	@GET("api/v2/addon/search")
 	Call<List<ForgeSvcProject>> searchProjects(
 			@Query("gameId") int gameID, @Query("sectionId") int categorySectionID,
@@ -50,6 +56,9 @@ interface ForgeSvc {
 	@GET("api/v2/addon/{projectID}/files")
 	Call<Set<ForgeSvcFile>> getFiles(@Path("projectID") int projectID);
 
+	@POST("api/v2/addon/files")
+	Call<Map<Integer, List<ForgeSvcFile>>> getFilesByID(@Body List<Integer> fileIDs);
+
 	@GET("api/v2/addon/{projectID}/file/{fileID}")
 	Call<ForgeSvcFile> getFile(@Path("projectID") int projectID, @Path("fileID") int fileID);
 
@@ -61,6 +70,9 @@ interface ForgeSvc {
 			@Path("projectID") int projectID, @Path("fileID") int fileID
 	);
 
+	@POST("api/v2/fingerprint")
+	Call<ForgeSvcFingerprintMatches> getFingerprintMatches(@Body List<Long> fingerprints);
+
 	@GET("api/v2/game")
 	Call<Set<ForgeSvcGame>> getGames(@Query("supportsAddons") boolean requireAddonSupport);
 
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.forgesvc;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.Moshi;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link JsonAdapter.Factory} that creates streaming {@link JsonAdapter}s for the ForgeSvc
+ * models.
+ * <p>
+ * Rather than using reflection like Moshi's default class adapter, these adapters match field
+ * names using {@link JsonReader#selectName(JsonReader.Options)} and assign fields directly,
+ * which significantly reduces the cost of decoding large responses such as file lists.
+ * Otherwise, they behave identically: unknown names are skipped, {@code null} values are
+ * supported, and fields are written in alphabetical order.
+ * <p>
+ * This factory is registered in {@link com.therandomlabs.curseapi.util.MoshiUtils#moshi}.
+ */
+public final class ForgeSvcAdapterFactory implements JsonAdapter.Factory {
+	/**
+	 * The singleton instance of {@link ForgeSvcAdapterFactory}.
+	 */
+	public static final ForgeSvcAdapterFactory INSTANCE = new ForgeSvcAdapterFactory();
+
+	private ForgeSvcAdapterFactory() {}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public JsonAdapter<?> create(Type type, Set<? extends Annotation> annotations, Moshi moshi) {
+		if (!annotations.isEmpty()) {
+			return null;
+		}
+
+		final JsonAdapter<?> adapter;
+
+		if (type == ForgeSvcAttachment.class) {
+			adapter = new ForgeSvcAttachment.Adapter(moshi);
+		} else if (type == ForgeSvcCategory.class) {
+			adapter = new ForgeSvcCategory.Adapter(moshi);
+		} else if (type == ForgeSvcCategorySection.class) {
+			adapter = new ForgeSvcCategorySection.Adapter(moshi);
+		} else if (type == ForgeSvcDependency.class) {
+			adapter = new ForgeSvcDependency.Adapter(moshi);
+		} else if (type == ForgeSvcFile.class) {
+			adapter = new ForgeSvcFile.Adapter(moshi);
+		} else if (type == ForgeSvcFingerprintMatches.class) {
+			adapter = new ForgeSvcFingerprintMatches.Adapter(moshi);
+		} else if (type == ForgeSvcFingerprintMatches.Match.class) {
+			adapter = new ForgeSvcFingerprintMatches.Match.Adapter(moshi);
+		} else if (type == ForgeSvcGame.class) {
+			adapter = new ForgeSvcGame.Adapter(moshi);
+		} else if (type == ForgeSvcMember.class) {
+			adapter = new ForgeSvcMember.Adapter(moshi);
+		} else if (type == ForgeSvcProject.class) {
+			adapter = new ForgeSvcProject.Adapter(moshi);
+		} else {
+			return null;
+		}
+
+		return adapter.nullSafe();
+	}
+}
@@ -23,6 +23,12 @@
 
 package com.therandomlabs.curseapi.forgesvc;
 
+import java.io.IOException;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
 import com.therandomlabs.curseapi.project.CurseAttachment;
 import com.therandomlabs.curseapi.util.JsoupUtils;
 import okhttp3.HttpUrl;
@@ -35,6 +41,71 @@ import org.jsoup.nodes.Element;
 @SuppressWarnings("NullAway")
 @DefaultQualifier(value = Nullable.class, locations = TypeUseLocation.FIELD)
 final class ForgeSvcAttachment extends CurseAttachment {
+	static final class Adapter extends JsonAdapter<ForgeSvcAttachment> {
+		private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+				"id", "title", "description", "url", "thumbnailUrl", "isDefault"
+		);
+
+		private final JsonAdapter<String> stringAdapter;
+		private final JsonAdapter<HttpUrl> httpUrlAdapter;
+
+		Adapter(Moshi moshi) {
+			stringAdapter = moshi.adapter(String.class);
+			httpUrlAdapter = moshi.adapter(HttpUrl.class);
+		}
+
+		@Override
+		public ForgeSvcAttachment fromJson(JsonReader reader) throws IOException {
+			final ForgeSvcAttachment attachment = new ForgeSvcAttachment();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(OPTIONS)) {
+					case 0:
+						attachment.id = reader.nextInt();
+						break;
+					case 1:
+						attachment.title = stringAdapter.fromJson(reader);
+						break;
+					case 2:
+						attachment.description = stringAdapter.fromJson(reader);
+						break;
+					case 3:
+						attachment.url = httpUrlAdapter.fromJson(reader);
+						break;
+					case 4:
+						attachment.thumbnailUrl = httpUrlAdapter.fromJson(reader);
+						break;
+					case 5:
+						attachment.isDefault = reader.nextBoolean();
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return attachment;
+		}
+
+		@Override
+		public void toJson(JsonWriter writer, ForgeSvcAttachment attachment) throws IOException {
+			writer.beginObject();
+			writer.name("description");
+			stringAdapter.toJson(writer, attachment.description);
+			writer.name("id").value(attachment.id);
+			writer.name("isDefault").value(attachment.isDefault);
+			writer.name("thumbnailUrl");
+			httpUrlAdapter.toJson(writer, attachment.thumbnailUrl);
+			writer.name("title");
+			stringAdapter.toJson(writer, attachment.title);
+			writer.name("url");
+			httpUrlAdapter.toJson(writer, attachment.url);
+			writer.endObject();
+		}
+	}
+
 	private int id;
 	private String title;
 	private String description;
@@ -23,11 +23,16 @@
 
 package com.therandomlabs.curseapi.forgesvc;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
-import com.therandomlabs.curseapi.CurseAPI;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
 import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.CurseRegistry;
 import com.therandomlabs.curseapi.game.CurseCategory;
 import com.therandomlabs.curseapi.game.CurseGame;
 import okhttp3.HttpUrl;
@@ -39,6 +44,87 @@ import org.checkerframework.framework.qual.TypeUseLocation;
 @SuppressWarnings({"ConstantConditions", "NullAway"})
 @DefaultQualifier(value = Nullable.class, locations = TypeUseLocation.FIELD)
 final class ForgeSvcCategory extends CurseCategory {
+	static final class Adapter extends JsonAdapter<ForgeSvcCategory> {
+		private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+				"gameId", "rootGameCategoryId", "rootId", "id", "categoryId", "name", "slug", "url",
+				"avatarUrl"
+		);
+
+		private final JsonAdapter<Integer> integerAdapter;
+		private final JsonAdapter<String> stringAdapter;
+		private final JsonAdapter<HttpUrl> httpUrlAdapter;
+
+		Adapter(Moshi moshi) {
+			integerAdapter = moshi.adapter(Integer.class);
+			stringAdapter = moshi.adapter(String.class);
+			httpUrlAdapter = moshi.adapter(HttpUrl.class);
+		}
+
+		@Override
+		public ForgeSvcCategory fromJson(JsonReader reader) throws IOException {
+			final ForgeSvcCategory category = new ForgeSvcCategory();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(OPTIONS)) {
+					case 0:
+						category.gameId = reader.nextInt();
+						break;
+					case 1:
+						category.rootGameCategoryId = integerAdapter.fromJson(reader);
+						break;
+					case 2:
+						category.rootId = reader.nextInt();
+						break;
+					case 3:
+						category.id = reader.nextInt();
+						break;
+					case 4:
+						category.categoryId = reader.nextInt();
+						break;
+					case 5:
+						category.name = stringAdapter.fromJson(reader);
+						break;
+					case 6:
+						category.slug = stringAdapter.fromJson(reader);
+						break;
+					case 7:
+						category.url = httpUrlAdapter.fromJson(reader);
+						break;
+					case 8:
+						category.avatarUrl = httpUrlAdapter.fromJson(reader);
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return category;
+		}
+
+		@Override
+		public void toJson(JsonWriter writer, ForgeSvcCategory category) throws IOException {
+			writer.beginObject();
+			writer.name("avatarUrl");
+			httpUrlAdapter.toJson(writer, category.avatarUrl);
+			writer.name("categoryId").value(category.categoryId);
+			writer.name("gameId").value(category.gameId);
+			writer.name("id").value(category.id);
+			writer.name("name");
+			stringAdapter.toJson(writer, category.name);
+			writer.name("rootGameCategoryId");
+			integerAdapter.toJson(writer, category.rootGameCategoryId);
+			writer.name("rootId").value(category.rootId);
+			writer.name("slug");
+			stringAdapter.toJson(writer, category.slug);
+			writer.name("url");
+			httpUrlAdapter.toJson(writer, category.url);
+			writer.endObject();
+		}
+	}
+
 	private int gameId;
 
 	//This is the usual name.
@@ -67,7 +153,7 @@ final class ForgeSvcCategory extends CurseCategory {
 	@Override
 	public CurseGame game() throws CurseException {
 		if (game == null) {
-			final Optional<CurseGame> optionalGame = CurseAPI.game(gameId);
+			final Optional<CurseGame> optionalGame = CurseRegistry.game(gameId);
 
 			if (!optionalGame.isPresent()) {
 				throw new CurseException("Could not retrieve game for category: " + this);
@@ -82,6 +168,8 @@ final class ForgeSvcCategory extends CurseCategory {
 	@Override
 	public CurseGame refreshGame() throws CurseException {
 		game = null;
+		ForgeSvcProvider.invalidate(ForgeSvcProvider.GET_GAME, gameId);
+		CurseRegistry.invalidateGame(gameId);
 		return game();
 	}
 
@@ -123,7 +211,7 @@ final class ForgeSvcCategory extends CurseCategory {
 		final int sectionID = sectionID();
 
 		if (sectionID == 0) {
-			final Optional<CurseGame> optionalGame = CurseAPI.game(gameId);
+			final Optional<CurseGame> optionalGame = CurseRegistry.game(gameId);
 
 			if (!optionalGame.isPresent()) {
 				throw new CurseException("Failed to retrieve URL for category: " + this);
@@ -133,7 +221,7 @@ final class ForgeSvcCategory extends CurseCategory {
 			return url;
 		}
 
-		final Optional<CurseCategory> optionalCategory = CurseAPI.category(sectionID);
+		final Optional<CurseCategory> optionalCategory = CurseRegistry.category(sectionID);
 
 		if (!optionalCategory.isPresent()) {
 			throw new CurseException("Failed to retrieve URL for category: " + this);
@@ -23,11 +23,17 @@
 
 package com.therandomlabs.curseapi.forgesvc;
 
+import java.io.IOException;
 import java.util.Optional;
 import java.util.Set;
 
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.CurseRegistry;
 import com.therandomlabs.curseapi.game.CurseCategory;
 import com.therandomlabs.curseapi.game.CurseCategorySection;
 import com.therandomlabs.curseapi.game.CurseGame;
@@ -39,6 +45,54 @@ import org.checkerframework.framework.qual.TypeUseLocation;
 @SuppressWarnings("NullAway")
 @DefaultQualifier(value = Nullable.class, locations = TypeUseLocation.FIELD)
 final class ForgeSvcCategorySection extends CurseCategorySection {
+	static final class Adapter extends JsonAdapter<ForgeSvcCategorySection> {
+		private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+				"gameId", "gameCategoryId", "name"
+		);
+
+		private final JsonAdapter<String> stringAdapter;
+
+		Adapter(Moshi moshi) {
+			stringAdapter = moshi.adapter(String.class);
+		}
+
+		@Override
+		public ForgeSvcCategorySection fromJson(JsonReader reader) throws IOException {
+			final ForgeSvcCategorySection section = new ForgeSvcCategorySection();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(OPTIONS)) {
+					case 0:
+						section.gameId = reader.nextInt();
+						break;
+					case 1:
+						section.gameCategoryId = reader.nextInt();
+						break;
+					case 2:
+						section.name = stringAdapter.fromJson(reader);
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return section;
+		}
+
+		@Override
+		public void toJson(JsonWriter writer, ForgeSvcCategorySection section) throws IOException {
+			writer.beginObject();
+			writer.name("gameCategoryId").value(section.gameCategoryId);
+			writer.name("gameId").value(section.gameId);
+			writer.name("name");
+			stringAdapter.toJson(writer, section.name);
+			writer.endObject();
+		}
+	}
+
 	private int gameId;
 	private int gameCategoryId;
 	private String name;
@@ -56,7 +110,7 @@ final class ForgeSvcCategorySection extends CurseCategorySection {
 	@Override
 	public CurseGame game() throws CurseException {
 		if (game == null) {
-			final Optional<CurseGame> optionalGame = CurseAPI.game(gameId);
+			final Optional<CurseGame> optionalGame = CurseRegistry.game(gameId);
 
 			if (!optionalGame.isPresent()) {
 				throw new CurseException("Could not retrieve game for category section: " + this);
@@ -71,6 +125,8 @@ final class ForgeSvcCategorySection extends CurseCategorySection {
 	@Override
 	public CurseGame refreshGame() throws CurseException {
 		game = null;
+		ForgeSvcProvider.invalidate(ForgeSvcProvider.GET_GAME, gameId);
+		CurseRegistry.invalidateGame(gameId);
 		return game();
 	}
 
@@ -102,13 +158,14 @@ final class ForgeSvcCategorySection extends CurseCategorySection {
 	@Override
 	public Set<CurseCategory> refreshCategories() throws CurseException {
 		categories = null;
+		ForgeSvcProvider.invalidate(ForgeSvcProvider.GET_CATEGORIES, gameCategoryId);
 		return categories();
 	}
 
 	@Override
 	public CurseCategory asCategory() throws CurseException {
 		if (category == null) {
-			category = CurseAPI.category(gameCategoryId).orElse(null);
+			category = CurseRegistry.category(gameCategoryId).orElse(null);
 
 			if (category == null) {
 				throw new CurseException(
@@ -123,6 +180,8 @@ final class ForgeSvcCategorySection extends CurseCategorySection {
 	@Override
 	public CurseCategory refreshAsCategory() throws CurseException {
 		category = null;
+		ForgeSvcProvider.invalidate(ForgeSvcProvider.GET_CATEGORY, gameCategoryId);
+		CurseRegistry.invalidateCategory(gameCategoryId);
 		return asCategory();
 	}
 }
@@ -23,8 +23,15 @@
 
 package com.therandomlabs.curseapi.forgesvc;
 
+import java.io.IOException;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.CurseRegistry;
 import com.therandomlabs.curseapi.file.CurseDependency;
 import com.therandomlabs.curseapi.file.CurseDependencyType;
 import com.therandomlabs.curseapi.file.CurseFile;
@@ -37,6 +44,45 @@ import org.checkerframework.framework.qual.TypeUseLocation;
 @SuppressWarnings("NullAway")
 @DefaultQualifier(value = Nullable.class, locations = TypeUseLocation.FIELD)
 final class ForgeSvcDependency extends CurseDependency {
+	static final class Adapter extends JsonAdapter<ForgeSvcDependency> {
+		private static final JsonReader.Options OPTIONS = JsonReader.Options.of("addonId", "type");
+
+
+		Adapter(Moshi moshi) {
+		}
+
+		@Override
+		public ForgeSvcDependency fromJson(JsonReader reader) throws IOException {
+			final ForgeSvcDependency dependency = new ForgeSvcDependency();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(OPTIONS)) {
+					case 0:
+						dependency.addonId = reader.nextInt();
+						break;
+					case 1:
+						dependency.type = reader.nextInt();
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return dependency;
+		}
+
+		@Override
+		public void toJson(JsonWriter writer, ForgeSvcDependency dependency) throws IOException {
+			writer.beginObject();
+			writer.name("addonId").value(dependency.addonId);
+			writer.name("type").value(dependency.type);
+			writer.endObject();
+		}
+	}
+
 	private int addonId;
 	private int type;
 
@@ -53,7 +99,7 @@ final class ForgeSvcDependency extends CurseDependency {
 	@Override
 	public CurseProject project() throws CurseException {
 		if (project == null) {
-			project = CurseAPI.project(addonId).orElse(null);
+			project = CurseRegistry.project(addonId).orElse(null);
 		}
 
 		return project;
@@ -62,6 +108,7 @@ final class ForgeSvcDependency extends CurseDependency {
 	@Override
 	public CurseProject refreshProject() throws CurseException {
 		project = null;
+		CurseAPI.invalidateProject(addonId);
 		return project();
 	}
 
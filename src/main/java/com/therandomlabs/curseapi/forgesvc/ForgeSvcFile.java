@@ -23,16 +23,25 @@
 
 package com.therandomlabs.curseapi.forgesvc;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 
+import com.google.common.base.Preconditions;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.CurseRegistry;
 import com.therandomlabs.curseapi.file.CurseAlternateFile;
 import com.therandomlabs.curseapi.file.CurseDependency;
+import com.therandomlabs.curseapi.file.CurseDependencyType;
 import com.therandomlabs.curseapi.file.CurseFile;
 import com.therandomlabs.curseapi.file.CurseFileStatus;
 import com.therandomlabs.curseapi.file.CurseReleaseType;
@@ -47,6 +56,111 @@ import org.checkerframework.framework.qual.TypeUseLocation;
 @SuppressWarnings({"ConstantConditions", "MismatchedQueryAndUpdateOfCollection", "NullAway"})
 @DefaultQualifier(value = Nullable.class, locations = TypeUseLocation.FIELD)
 final class ForgeSvcFile extends CurseFile {
+	static final class Adapter extends JsonAdapter<ForgeSvcFile> {
+		private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+				"projectId", "id", "displayName", "fileName", "fileDate", "fileLength",
+				"releaseType", "fileStatus", "downloadUrl", "alternateFileId", "dependencies",
+				"gameVersion", "packageFingerprint"
+		);
+
+		private final JsonAdapter<String> stringAdapter;
+		private final JsonAdapter<ZonedDateTime> zonedDateTimeAdapter;
+		private final JsonAdapter<HttpUrl> httpUrlAdapter;
+		private final JsonAdapter<Set<ForgeSvcDependency>> dependenciesAdapter;
+		private final JsonAdapter<Set<String>> gameVersionAdapter;
+
+		Adapter(Moshi moshi) {
+			stringAdapter = moshi.adapter(String.class);
+			zonedDateTimeAdapter = moshi.adapter(ZonedDateTime.class);
+			httpUrlAdapter = moshi.adapter(HttpUrl.class);
+			dependenciesAdapter = moshi.adapter(
+					Types.newParameterizedType(Set.class, ForgeSvcDependency.class)
+			);
+			gameVersionAdapter = moshi.adapter(Types.newParameterizedType(Set.class, String.class));
+		}
+
+		@Override
+		public ForgeSvcFile fromJson(JsonReader reader) throws IOException {
+			final ForgeSvcFile file = new ForgeSvcFile();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(OPTIONS)) {
+					case 0:
+						file.projectId = reader.nextInt();
+						break;
+					case 1:
+						file.id = reader.nextInt();
+						break;
+					case 2:
+						file.displayName = stringAdapter.fromJson(reader);
+						break;
+					case 3:
+						file.fileName = stringAdapter.fromJson(reader);
+						break;
+					case 4:
+						file.fileDate = zonedDateTimeAdapter.fromJson(reader);
+						break;
+					case 5:
+						file.fileLength = reader.nextLong();
+						break;
+					case 6:
+						file.releaseType = reader.nextInt();
+						break;
+					case 7:
+						file.fileStatus = reader.nextInt();
+						break;
+					case 8:
+						file.downloadUrl = httpUrlAdapter.fromJson(reader);
+						break;
+					case 9:
+						file.alternateFileId = reader.nextInt();
+						break;
+					case 10:
+						file.dependencies = dependenciesAdapter.fromJson(reader);
+						break;
+					case 11:
+						file.gameVersion = gameVersionAdapter.fromJson(reader);
+						break;
+					case 12:
+						file.packageFingerprint = reader.nextLong();
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return file;
+		}
+
+		@Override
+		public void toJson(JsonWriter writer, ForgeSvcFile file) throws IOException {
+			writer.beginObject();
+			writer.name("alternateFileId").value(file.alternateFileId);
+			writer.name("dependencies");
+			dependenciesAdapter.toJson(writer, file.dependencies);
+			writer.name("displayName");
+			stringAdapter.toJson(writer, file.displayName);
+			writer.name("downloadUrl");
+			httpUrlAdapter.toJson(writer, file.downloadUrl);
+			writer.name("fileDate");
+			zonedDateTimeAdapter.toJson(writer, file.fileDate);
+			writer.name("fileLength").value(file.fileLength);
+			writer.name("fileName");
+			stringAdapter.toJson(writer, file.fileName);
+			writer.name("fileStatus").value(file.fileStatus);
+			writer.name("gameVersion");
+			gameVersionAdapter.toJson(writer, file.gameVersion);
+			writer.name("id").value(file.id);
+			writer.name("packageFingerprint").value(file.packageFingerprint);
+			writer.name("projectId").value(file.projectId);
+			writer.name("releaseType").value(file.releaseType);
+			writer.endObject();
+		}
+	}
+
 	private int projectId;
 	private int id;
 	private String displayName;
@@ -59,6 +173,7 @@ final class ForgeSvcFile extends CurseFile {
 	private int alternateFileId;
 	private Set<ForgeSvcDependency> dependencies;
 	private Set<String> gameVersion;
+	private long packageFingerprint;
 
 	private transient ForgeSvcAlternateFile alternateFile;
 	private transient boolean dependenciesInitialized;
@@ -75,7 +190,7 @@ final class ForgeSvcFile extends CurseFile {
 	@Override
 	public CurseProject project() throws CurseException {
 		if (project == null) {
-			final Optional<CurseProject> optionalProject = CurseAPI.project(projectId);
+			final Optional<CurseProject> optionalProject = CurseRegistry.project(projectId);
 
 			if (!optionalProject.isPresent()) {
 				throw new CurseException("Failed to retrieve CurseProject: " + this);
@@ -90,6 +205,7 @@ final class ForgeSvcFile extends CurseFile {
 	@Override
 	public CurseProject refreshProject() throws CurseException {
 		project = null;
+		CurseAPI.invalidateProject(projectId);
 		return project();
 	}
 
@@ -153,6 +269,38 @@ final class ForgeSvcFile extends CurseFile {
 
 	@Override
 	public Set<CurseDependency> dependencies() {
+		initializeDependencies();
+		return new HashSet<>(dependencies);
+	}
+
+	@Override
+	public Set<CurseDependency> dependencies(CurseDependencyType type) {
+		Preconditions.checkNotNull(type, "type should not be null");
+		initializeDependencies();
+
+		//We avoid copying every dependency only to discard most of them.
+		final Set<CurseDependency> dependenciesOfType = new HashSet<>();
+
+		for (ForgeSvcDependency dependency : dependencies) {
+			if (dependency.type() == type) {
+				dependenciesOfType.add(dependency);
+			}
+		}
+
+		return dependenciesOfType;
+	}
+
+	@Override
+	public Set<String> gameVersionStrings() {
+		return new LinkedHashSet<>(gameVersion);
+	}
+
+	@Override
+	protected Set<String> gameVersionStringsView() {
+		return gameVersion;
+	}
+
+	private void initializeDependencies() {
 		if (!dependenciesInitialized) {
 			for (ForgeSvcDependency dependency : dependencies) {
 				dependency.setDependent(this);
@@ -160,13 +308,11 @@ final class ForgeSvcFile extends CurseFile {
 
 			dependenciesInitialized = true;
 		}
-
-		return new HashSet<>(dependencies);
 	}
 
-	@Override
-	public Set<String> gameVersionStrings() {
-		return new LinkedHashSet<>(gameVersion);
+	//This is called by ForgeSvcProvider to match fingerprints to files.
+	long packageFingerprint() {
+		return packageFingerprint;
 	}
 
 	//This is called by ForgeSvcProvider so that projectId is not 0.
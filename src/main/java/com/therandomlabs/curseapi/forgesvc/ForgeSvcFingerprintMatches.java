@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.forgesvc;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.checkerframework.framework.qual.TypeUseLocation;
+
+//NullAway does not yet support DefaultQualifier, so we have to use SuppressWarning.
+@SuppressWarnings({"MismatchedQueryAndUpdateOfCollection", "NullAway"})
+@DefaultQualifier(value = Nullable.class, locations = TypeUseLocation.FIELD)
+final class ForgeSvcFingerprintMatches {
+	static final class Adapter extends JsonAdapter<ForgeSvcFingerprintMatches> {
+		private static final JsonReader.Options OPTIONS = JsonReader.Options.of("exactMatches");
+
+		private final JsonAdapter<List<Match>> exactMatchesAdapter;
+
+		Adapter(Moshi moshi) {
+			exactMatchesAdapter = moshi.adapter(
+					Types.newParameterizedType(List.class, Match.class)
+			);
+		}
+
+		@Override
+		public ForgeSvcFingerprintMatches fromJson(JsonReader reader) throws IOException {
+			final ForgeSvcFingerprintMatches matches = new ForgeSvcFingerprintMatches();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(OPTIONS)) {
+					case 0:
+						matches.exactMatches = exactMatchesAdapter.fromJson(reader);
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return matches;
+		}
+
+		@Override
+		public void toJson(JsonWriter writer, ForgeSvcFingerprintMatches matches)
+				throws IOException {
+			writer.beginObject();
+			writer.name("exactMatches");
+			exactMatchesAdapter.toJson(writer, matches.exactMatches);
+			writer.endObject();
+		}
+	}
+
+	static final class Match {
+		static final class Adapter extends JsonAdapter<Match> {
+			private static final JsonReader.Options OPTIONS = JsonReader.Options.of("id", "file");
+
+			private final JsonAdapter<ForgeSvcFile> fileAdapter;
+
+			Adapter(Moshi moshi) {
+				fileAdapter = moshi.adapter(ForgeSvcFile.class);
+			}
+
+			@Override
+			public Match fromJson(JsonReader reader) throws IOException {
+				final Match match = new Match();
+				reader.beginObject();
+
+				while (reader.hasNext()) {
+					switch (reader.selectName(OPTIONS)) {
+						case 0:
+							match.id = reader.nextInt();
+							break;
+						case 1:
+							match.file = fileAdapter.fromJson(reader);
+							break;
+						default:
+							reader.skipName();
+							reader.skipValue();
+					}
+				}
+
+				reader.endObject();
+				return match;
+			}
+
+			@Override
+			public void toJson(JsonWriter writer, Match match) throws IOException {
+				writer.beginObject();
+				writer.name("file");
+				fileAdapter.toJson(writer, match.file);
+				writer.name("id").value(match.id);
+				writer.endObject();
+			}
+		}
+
+		private int id;
+		private ForgeSvcFile file;
+
+		int projectID() {
+			return id;
+		}
+
+		ForgeSvcFile file() {
+			return file;
+		}
+	}
+
+	private List<Match> exactMatches;
+
+	List<Match> exactMatches() {
+		return exactMatches;
+	}
+}
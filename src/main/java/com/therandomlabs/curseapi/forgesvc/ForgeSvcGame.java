@@ -23,10 +23,16 @@
 
 package com.therandomlabs.curseapi.forgesvc;
 
+import java.io.IOException;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.TreeSet;
 
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
 import com.therandomlabs.curseapi.game.CurseCategory;
@@ -41,6 +47,64 @@ import org.checkerframework.framework.qual.TypeUseLocation;
 @SuppressWarnings({"ConstantConditions", "MismatchedQueryAndUpdateOfCollection", "NullAway"})
 @DefaultQualifier(value = Nullable.class, locations = TypeUseLocation.FIELD)
 final class ForgeSvcGame extends CurseGame {
+	static final class Adapter extends JsonAdapter<ForgeSvcGame> {
+		private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+				"id", "name", "slug", "categorySections"
+		);
+
+		private final JsonAdapter<String> stringAdapter;
+		private final JsonAdapter<Set<ForgeSvcCategorySection>> categorySectionsAdapter;
+
+		Adapter(Moshi moshi) {
+			stringAdapter = moshi.adapter(String.class);
+			categorySectionsAdapter = moshi.adapter(
+					Types.newParameterizedType(Set.class, ForgeSvcCategorySection.class)
+			);
+		}
+
+		@Override
+		public ForgeSvcGame fromJson(JsonReader reader) throws IOException {
+			final ForgeSvcGame game = new ForgeSvcGame();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(OPTIONS)) {
+					case 0:
+						game.id = reader.nextInt();
+						break;
+					case 1:
+						game.name = stringAdapter.fromJson(reader);
+						break;
+					case 2:
+						game.slug = stringAdapter.fromJson(reader);
+						break;
+					case 3:
+						game.categorySections = categorySectionsAdapter.fromJson(reader);
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return game;
+		}
+
+		@Override
+		public void toJson(JsonWriter writer, ForgeSvcGame game) throws IOException {
+			writer.beginObject();
+			writer.name("categorySections");
+			categorySectionsAdapter.toJson(writer, game.categorySections);
+			writer.name("id").value(game.id);
+			writer.name("name");
+			stringAdapter.toJson(writer, game.name);
+			writer.name("slug");
+			stringAdapter.toJson(writer, game.slug);
+			writer.endObject();
+		}
+	}
+
 	private int id;
 	private String name;
 	private String slug;
@@ -88,6 +152,7 @@ final class ForgeSvcGame extends CurseGame {
 	@Override
 	public Set<CurseCategory> refreshCategories() throws CurseException {
 		categories = null;
+		ForgeSvcProvider.invalidate(ForgeSvcProvider.GET_CATEGORIES);
 		return categories();
 	}
 
@@ -23,6 +23,12 @@
 
 package com.therandomlabs.curseapi.forgesvc;
 
+import java.io.IOException;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
 import com.therandomlabs.curseapi.project.CurseMember;
 import okhttp3.HttpUrl;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -33,6 +39,57 @@ import org.checkerframework.framework.qual.TypeUseLocation;
 @SuppressWarnings("NullAway")
 @DefaultQualifier(value = Nullable.class, locations = TypeUseLocation.FIELD)
 final class ForgeSvcMember extends CurseMember {
+	static final class Adapter extends JsonAdapter<ForgeSvcMember> {
+		private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+				"userId", "name", "url"
+		);
+
+		private final JsonAdapter<String> stringAdapter;
+		private final JsonAdapter<HttpUrl> httpUrlAdapter;
+
+		Adapter(Moshi moshi) {
+			stringAdapter = moshi.adapter(String.class);
+			httpUrlAdapter = moshi.adapter(HttpUrl.class);
+		}
+
+		@Override
+		public ForgeSvcMember fromJson(JsonReader reader) throws IOException {
+			final ForgeSvcMember member = new ForgeSvcMember();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(OPTIONS)) {
+					case 0:
+						member.userId = reader.nextInt();
+						break;
+					case 1:
+						member.name = stringAdapter.fromJson(reader);
+						break;
+					case 2:
+						member.url = httpUrlAdapter.fromJson(reader);
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return member;
+		}
+
+		@Override
+		public void toJson(JsonWriter writer, ForgeSvcMember member) throws IOException {
+			writer.beginObject();
+			writer.name("name");
+			stringAdapter.toJson(writer, member.name);
+			writer.name("url");
+			httpUrlAdapter.toJson(writer, member.url);
+			writer.name("userId").value(member.userId);
+			writer.endObject();
+		}
+	}
+
 	private int userId;
 	private String name;
 	private HttpUrl url;
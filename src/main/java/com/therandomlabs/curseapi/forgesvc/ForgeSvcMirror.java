@@ -0,0 +1,1160 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.forgesvc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import com.google.common.base.Preconditions;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Types;
+import com.therandomlabs.curseapi.CurseAPIProvider;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.file.CurseFiles;
+import com.therandomlabs.curseapi.game.CurseCategory;
+import com.therandomlabs.curseapi.game.CurseGame;
+import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.project.CurseProjectIndex;
+import com.therandomlabs.curseapi.project.CurseSearchQuery;
+import com.therandomlabs.curseapi.util.CheckedSupplier;
+import com.therandomlabs.curseapi.util.LazyHTML;
+import com.therandomlabs.curseapi.util.MoshiUtils;
+import com.therandomlabs.curseapi.util.ParallelUtils;
+import okhttp3.HttpUrl;
+import okio.Buffer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jsoup.nodes.Element;
+
+/**
+ * A {@link CurseAPIProvider} that serves projects, project descriptions, files, file changelogs,
+ * games and categories from a persistent local store without accessing the network.
+ * <p>
+ * The store is an append-only log of ForgeSvc responses in a single file in the mirror
+ * directory. Each record is keyed by its type and an ID, and records written later supersede
+ * earlier records with the same key. An in-memory index of record positions is built when the
+ * mirror is opened, so each read is a single positional read followed by decoding, and decoded
+ * values are kept in memory using {@link SoftReference}s so that repeated reads do not decode
+ * them again. {@link #compact()} may be called to discard superseded records.
+ * <p>
+ * Data is mirrored from {@link ForgeSvcProvider} using methods such as
+ * {@link #mirrorProject(int)} and {@link #mirrorGames()}, and mirrored projects may be kept up
+ * to date using {@link ForgeSvcMirrorSync}. If data has not been mirrored,
+ * {@code null} is returned so that the next {@link CurseAPIProvider} is used.
+ * This provider may therefore be registered using
+ * {@link com.therandomlabs.curseapi.CurseAPI#addProvider(CurseAPIProvider, boolean)} before
+ * {@link ForgeSvcProvider} so that mirrored data is always preferred, or after it so that
+ * mirrored data is only used when ForgeSvc cannot provide it, for example because ForgeSvc is
+ * unavailable and {@link ForgeSvcProvider} throws a {@link CurseException}.
+ * <p>
+ * {@link #searchProjects(CurseSearchQuery)} executes queries on a local
+ * {@link CurseProjectIndex} of the mirrored projects, so that search queries, for example from
+ * an autocomplete field, do not require requests.
+ * <p>
+ * Values returned by this provider are shared between callers in the same way as values
+ * returned by {@link ForgeSvcProvider}.
+ *
+ * @see ForgeSvcProvider
+ */
+public final class ForgeSvcMirror implements CurseAPIProvider, Closeable {
+	private enum RecordType {
+		PROJECT,
+		DESCRIPTION,
+		FILES,
+		CHANGELOG,
+		GAMES,
+		CATEGORIES,
+		WATERMARK
+	}
+
+	private static final class Record {
+		final long position;
+		final int length;
+		final int checksum;
+		volatile SoftReference<Object> value = new SoftReference<>(null);
+
+		Record(long position, int length, int checksum) {
+			this.position = position;
+			this.length = length;
+			this.checksum = checksum;
+		}
+	}
+
+	private static final class PendingRecord {
+		final RecordType type;
+		final long key;
+		final Object value;
+		final byte[] payload;
+
+		PendingRecord(RecordType type, long key, Object value, String payload) {
+			this.type = type;
+			this.key = key;
+			this.value = value;
+			this.payload = payload.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * The name of the file in the mirror directory that contains the mirrored data.
+	 */
+	public static final String LOG_FILE_NAME = "forgesvc-mirror.log";
+
+	private static final int MAGIC = 0x43415049;
+	private static final int VERSION = 1;
+	private static final int FILE_HEADER_SIZE = 8;
+	//Type, key, length and checksum.
+	private static final int RECORD_HEADER_SIZE = 1 + 8 + 4 + 4;
+
+	//The key used for records that represent all games or all categories.
+	private static final long ALL = 0L;
+
+	private static final Type FILES_TYPE =
+			Types.newParameterizedType(Set.class, ForgeSvcFile.class);
+	private static final Type GAMES_TYPE =
+			Types.newParameterizedType(Set.class, ForgeSvcGame.class);
+	private static final Type CATEGORIES_TYPE =
+			Types.newParameterizedType(Set.class, ForgeSvcCategory.class);
+
+	private final Path directory;
+	private final Path log;
+	private final CurseAPIProvider source;
+	private final Map<RecordType, Map<Long, Record>> index = new EnumMap<>(RecordType.class);
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private FileChannel channel;
+	@Nullable
+	private volatile CurseProjectIndex searchIndex;
+	private volatile boolean indexDescriptions;
+
+	private ForgeSvcMirror(Path directory, CurseAPIProvider source) throws IOException {
+		this.directory = directory;
+		log = directory.resolve(LOG_FILE_NAME);
+		this.source = source;
+
+		for (RecordType type : RecordType.values()) {
+			index.put(type, new ConcurrentHashMap<>());
+		}
+
+		channel = FileChannel.open(
+				log, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+		);
+		readIndex();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public CurseProject project(int id) throws CurseException {
+		return read(RecordType.PROJECT, id, ForgeSvcProject.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public Element projectDescription(int id) throws CurseException {
+		final LazyHTML description = projectDescriptionHTML(id);
+		return description == null ? null : description.element();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public LazyHTML projectDescriptionHTML(int id) throws CurseException {
+		return read(RecordType.DESCRIPTION, id, LazyHTML.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The query is executed on a {@link CurseProjectIndex} of the mirrored projects, which is
+	 * built when this method is first called and updated whenever a project, its description
+	 * or its files are mirrored. The game versions of a project are the game versions of its
+	 * mirrored files. If no mirrored projects match the query's game, category section,
+	 * category and game version, {@code null} is returned so that the query is executed by the
+	 * next {@link CurseAPIProvider}.
+	 *
+	 * @see #indexDescriptions(boolean)
+	 */
+	@Nullable
+	@Override
+	public List<CurseProject> searchProjects(CurseSearchQuery query) throws CurseException {
+		final CurseProjectIndex index = searchIndex();
+		return index.covers(query) ? index.search(query) : null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public CurseFiles<CurseFile> files(int projectID) throws CurseException {
+		final CurseFiles<CurseFile> files = readFiles(projectID);
+		return files == null ? null : files.clone();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public CurseFile file(int projectID, int fileID) throws CurseException {
+		final CurseFiles<CurseFile> files = readFiles(projectID);
+		return files == null ? null : files.fileWithID(fileID);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param projectID a project ID. This is ignored, as changelogs are mirrored by file ID.
+	 */
+	@Nullable
+	@Override
+	public Element fileChangelog(int projectID, int fileID) throws CurseException {
+		final LazyHTML changelog = fileChangelogHTML(projectID, fileID);
+		return changelog == null ? null : changelog.element();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param projectID a project ID. This is ignored, as changelogs are mirrored by file ID.
+	 */
+	@Nullable
+	@Override
+	public LazyHTML fileChangelogHTML(int projectID, int fileID) throws CurseException {
+		return read(RecordType.CHANGELOG, fileID, LazyHTML.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public HttpUrl fileDownloadURL(int projectID, int fileID) throws CurseException {
+		final CurseFile file = file(projectID, fileID);
+		return file == null ? null : file.downloadURL();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public Set<CurseGame> games() throws CurseException {
+		final Set<ForgeSvcGame> games = read(RecordType.GAMES, ALL, GAMES_TYPE);
+		return games == null ? null : new TreeSet<>(games);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public CurseGame game(int id) throws CurseException {
+		final Set<ForgeSvcGame> games = read(RecordType.GAMES, ALL, GAMES_TYPE);
+
+		if (games != null) {
+			for (ForgeSvcGame game : games) {
+				if (game.id() == id) {
+					return game;
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public Set<CurseCategory> categories() throws CurseException {
+		final Set<ForgeSvcCategory> categories =
+				read(RecordType.CATEGORIES, ALL, CATEGORIES_TYPE);
+		return categories == null ? null : new TreeSet<>(categories);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public Set<CurseCategory> categories(int sectionID) throws CurseException {
+		final Set<ForgeSvcCategory> categories =
+				read(RecordType.CATEGORIES, ALL, CATEGORIES_TYPE);
+
+		if (categories == null) {
+			return null;
+		}
+
+		final Set<CurseCategory> sectionCategories = new TreeSet<>();
+
+		for (ForgeSvcCategory category : categories) {
+			if (category.sectionID() == sectionID) {
+				sectionCategories.add(category);
+			}
+		}
+
+		return sectionCategories.isEmpty() ? null : sectionCategories;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public CurseCategory category(int id) throws CurseException {
+		final Set<ForgeSvcCategory> categories =
+				read(RecordType.CATEGORIES, ALL, CATEGORIES_TYPE);
+
+		if (categories != null) {
+			for (ForgeSvcCategory category : categories) {
+				if (category.id() == id) {
+					return category;
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<CurseProject> projectAsync(int id) {
+		return complete(() -> project(id));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Element> projectDescriptionAsync(int id) {
+		return complete(() -> projectDescription(id));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<LazyHTML> projectDescriptionHTMLAsync(int id) {
+		return complete(() -> projectDescriptionHTML(id));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<List<CurseProject>> searchProjectsAsync(CurseSearchQuery query) {
+		return complete(() -> searchProjects(query));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<CurseFiles<CurseFile>> filesAsync(int projectID) {
+		return complete(() -> files(projectID));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<CurseFile> fileAsync(int projectID, int fileID) {
+		return complete(() -> file(projectID, fileID));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param projectID a project ID. This is ignored, as changelogs are mirrored by file ID.
+	 */
+	@Override
+	public CompletableFuture<Element> fileChangelogAsync(int projectID, int fileID) {
+		return complete(() -> fileChangelog(projectID, fileID));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param projectID a project ID. This is ignored, as changelogs are mirrored by file ID.
+	 */
+	@Override
+	public CompletableFuture<LazyHTML> fileChangelogHTMLAsync(int projectID, int fileID) {
+		return complete(() -> fileChangelogHTML(projectID, fileID));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<HttpUrl> fileDownloadURLAsync(int projectID, int fileID) {
+		return complete(() -> fileDownloadURL(projectID, fileID));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Set<CurseGame>> gamesAsync() {
+		return complete(this::games);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<CurseGame> gameAsync(int id) {
+		return complete(() -> game(id));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Set<CurseCategory>> categoriesAsync() {
+		return complete(this::categories);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<CurseCategory> categoryAsync(int id) {
+		return complete(() -> category(id));
+	}
+
+	/**
+	 * Closes the log file of this {@link ForgeSvcMirror}.
+	 * After this method is called, this {@link ForgeSvcMirror} should no longer be used.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Override
+	public void close() throws IOException {
+		lock.writeLock().lock();
+
+		try {
+			channel.close();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the directory of this {@link ForgeSvcMirror}.
+	 *
+	 * @return the directory of this {@link ForgeSvcMirror}.
+	 */
+	public Path directory() {
+		return directory;
+	}
+
+	/**
+	 * Returns whether plain-text project descriptions are included in the
+	 * {@link CurseProjectIndex} used by {@link #searchProjects(CurseSearchQuery)}.
+	 *
+	 * @return {@code true} if plain-text project descriptions are indexed,
+	 * or otherwise {@code false}.
+	 */
+	public boolean indexDescriptions() {
+		return indexDescriptions;
+	}
+
+	/**
+	 * Sets whether plain-text project descriptions should be included in the
+	 * {@link CurseProjectIndex} used by {@link #searchProjects(CurseSearchQuery)}.
+	 * This is disabled by default, as descriptions are much larger than the other indexed
+	 * fields and must be parsed. If this value is changed, the index is rebuilt when it is
+	 * next used.
+	 *
+	 * @param index {@code true} if plain-text project descriptions should be indexed,
+	 * or otherwise {@code false}.
+	 */
+	public synchronized void indexDescriptions(boolean index) {
+		if (indexDescriptions != index) {
+			indexDescriptions = index;
+			searchIndex = null;
+		}
+	}
+
+	/**
+	 * Returns the IDs of the projects that have been mirrored.
+	 *
+	 * @return a mutable {@link Set} containing the IDs of the projects that have been mirrored.
+	 */
+	public Set<Integer> projectIDs() {
+		final Set<Integer> ids = new HashSet<>();
+
+		for (Long id : index.get(RecordType.PROJECT).keySet()) {
+			ids.add(id.intValue());
+		}
+
+		return ids;
+	}
+
+	/**
+	 * Retrieves the project with the specified ID along with its description and files from
+	 * {@link ForgeSvcProvider} and writes them to this {@link ForgeSvcMirror}.
+	 *
+	 * @param id a project ID.
+	 * @return {@code true} if the project exists, or otherwise {@code false}.
+	 * @throws CurseException if an error occurs.
+	 */
+	public boolean mirrorProject(int id) throws CurseException {
+		return mirrorProjects(Collections.singleton(id)) == 1;
+	}
+
+	/**
+	 * Retrieves the projects with the specified IDs along with their descriptions and files from
+	 * {@link ForgeSvcProvider} and writes them to this {@link ForgeSvcMirror}.
+	 * The projects are retrieved using {@link ForgeSvcProvider#projects(Collection)}, and their
+	 * descriptions and files are retrieved in parallel.
+	 *
+	 * @param ids a {@link Collection} of project IDs.
+	 * @return the number of projects that exist and have been mirrored.
+	 * @throws CurseException if an error occurs.
+	 */
+	public int mirrorProjects(Collection<Integer> ids) throws CurseException {
+		Preconditions.checkNotNull(ids, "ids should not be null");
+		final Collection<CurseProject> projects = source.projects(ids).values();
+		final List<Object[]> contents = ParallelUtils.map(projects, project -> new Object[] {
+				project,
+				source.projectDescriptionHTML(project.id()),
+				source.files(project.id())
+		});
+		final List<PendingRecord> records = new ArrayList<>();
+
+		for (Object[] content : contents) {
+			final ForgeSvcProject project = (ForgeSvcProject) content[0];
+			final LazyHTML description = (LazyHTML) content[1];
+			@SuppressWarnings("unchecked")
+			final CurseFiles<CurseFile> files = (CurseFiles<CurseFile>) content[2];
+
+			records.add(projectRecord(project));
+
+			if (description != null) {
+				records.add(descriptionRecord(project.id(), description));
+			}
+
+			if (files != null) {
+				records.add(filesRecord(project.id(), files));
+			}
+		}
+
+		write(records);
+		return contents.size();
+	}
+
+	/**
+	 * Retrieves the changelog for the specified file from {@link ForgeSvcProvider} and writes it
+	 * to this {@link ForgeSvcMirror}.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return {@code true} if the changelog exists, or otherwise {@code false}.
+	 * @throws CurseException if an error occurs.
+	 */
+	public boolean mirrorFileChangelog(int projectID, int fileID) throws CurseException {
+		final LazyHTML changelog = source.fileChangelogHTML(projectID, fileID);
+
+		if (changelog == null) {
+			return false;
+		}
+
+		write(Collections.singletonList(changelogRecord(fileID, changelog)));
+		return true;
+	}
+
+	/**
+	 * Retrieves all games from {@link ForgeSvcProvider} and writes them to this
+	 * {@link ForgeSvcMirror}.
+	 *
+	 * @throws CurseException if an error occurs.
+	 */
+	public void mirrorGames() throws CurseException {
+		final Set<ForgeSvcGame> games = new HashSet<>();
+
+		for (CurseGame game : source.games()) {
+			games.add((ForgeSvcGame) game);
+		}
+
+		write(Collections.singletonList(gamesRecord(games)));
+	}
+
+	/**
+	 * Retrieves all categories from {@link ForgeSvcProvider} and writes them to this
+	 * {@link ForgeSvcMirror}.
+	 *
+	 * @throws CurseException if an error occurs.
+	 */
+	public void mirrorCategories() throws CurseException {
+		final Set<ForgeSvcCategory> categories = new HashSet<>();
+
+		for (CurseCategory category : source.categories()) {
+			categories.add((ForgeSvcCategory) category);
+		}
+
+		write(Collections.singletonList(categoriesRecord(categories)));
+	}
+
+	/**
+	 * Rewrites the log file of this {@link ForgeSvcMirror} so that it only contains the latest
+	 * record for each key. The new log file is written next to the current log file and then
+	 * atomically moved, so the mirror remains intact if compaction fails.
+	 *
+	 * @throws CurseException if an I/O error occurs.
+	 */
+	public void compact() throws CurseException {
+		lock.writeLock().lock();
+
+		try {
+			final Path compacted = directory.resolve(LOG_FILE_NAME + ".tmp");
+			final Map<RecordType, Map<Long, Record>> newIndex = new EnumMap<>(RecordType.class);
+
+			try (FileChannel newChannel = FileChannel.open(
+					compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING
+			)) {
+				long position = writeFileHeader(newChannel);
+
+				for (Map.Entry<RecordType, Map<Long, Record>> entry : index.entrySet()) {
+					final Map<Long, Record> records = new ConcurrentHashMap<>();
+
+					for (Map.Entry<Long, Record> recordEntry : entry.getValue().entrySet()) {
+						final Record record = recordEntry.getValue();
+						final byte[] payload = readPayload(record);
+						final Record newRecord = writeRecord(
+								newChannel, position, entry.getKey(), recordEntry.getKey(),
+								payload
+						);
+						newRecord.value = record.value;
+						records.put(recordEntry.getKey(), newRecord);
+						position += RECORD_HEADER_SIZE + payload.length;
+					}
+
+					newIndex.put(entry.getKey(), records);
+				}
+
+				newChannel.force(true);
+			}
+
+			//The log file is closed so that it can be replaced on all platforms. If it cannot be
+			//replaced, it is reopened so that the current index remains valid.
+			channel.close();
+
+			try {
+				Files.move(
+						compacted, log, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE
+				);
+			} finally {
+				channel = FileChannel.open(
+						log, StandardOpenOption.READ, StandardOpenOption.WRITE
+				);
+			}
+
+			for (Map.Entry<RecordType, Map<Long, Record>> entry : newIndex.entrySet()) {
+				final Map<Long, Record> records = index.get(entry.getKey());
+				records.clear();
+				records.putAll(entry.getValue());
+			}
+		} catch (IOException ex) {
+			throw new CurseException("Failed to compact mirror: " + log, ex);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Opens the {@link ForgeSvcMirror} in the specified directory, creating it if it does
+	 * not exist.
+	 * If the log file ends with an incomplete record or a record whose checksum does not match,
+	 * for example because the process was killed while writing, the record is discarded.
+	 *
+	 * @param directory a {@link Path} to a directory.
+	 * @return a {@link ForgeSvcMirror} instance.
+	 * @throws CurseException if an I/O error occurs or if the directory does not contain a valid
+	 * mirror.
+	 */
+	public static ForgeSvcMirror open(Path directory) throws CurseException {
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		return open(directory, ForgeSvcProvider.instance);
+	}
+
+	//This is package-private so that data can be mirrored without accessing the network.
+	static ForgeSvcMirror open(Path directory, CurseAPIProvider source) throws CurseException {
+		try {
+			Files.createDirectories(directory);
+			return new ForgeSvcMirror(directory, source);
+		} catch (IOException ex) {
+			throw new CurseException("Failed to open mirror: " + directory, ex);
+		}
+	}
+
+	//This is called by ForgeSvcMirrorSync so that the source of this mirror is searched.
+	CurseAPIProvider source() {
+		return source;
+	}
+
+	//These are called by ForgeSvcMirrorSync to persist high-water marks.
+
+	@Nullable
+	ZonedDateTime watermark(long key) throws CurseException {
+		return read(RecordType.WATERMARK, key, ZonedDateTime.class);
+	}
+
+	void putWatermark(long key, ZonedDateTime watermark) throws CurseException {
+		write(Collections.singletonList(new PendingRecord(
+				RecordType.WATERMARK, key, watermark,
+				MoshiUtils.moshi.adapter(ZonedDateTime.class).toJson(watermark)
+		)));
+	}
+
+	//These are package-private so that models can be mirrored without accessing the network.
+
+	void put(ForgeSvcProject project) throws CurseException {
+		write(Collections.singletonList(projectRecord(project)));
+	}
+
+	void putDescription(int projectID, LazyHTML description) throws CurseException {
+		write(Collections.singletonList(descriptionRecord(projectID, description)));
+	}
+
+	void putFiles(int projectID, Collection<? extends CurseFile> files) throws CurseException {
+		write(Collections.singletonList(filesRecord(projectID, files)));
+	}
+
+	void putChangelog(int fileID, LazyHTML changelog) throws CurseException {
+		write(Collections.singletonList(changelogRecord(fileID, changelog)));
+	}
+
+	void putGames(Set<ForgeSvcGame> games) throws CurseException {
+		write(Collections.singletonList(gamesRecord(games)));
+	}
+
+	void putCategories(Set<ForgeSvcCategory> categories) throws CurseException {
+		write(Collections.singletonList(categoriesRecord(categories)));
+	}
+
+	private void readIndex() throws IOException {
+		final long size = channel.size();
+
+		if (size == 0L) {
+			writeFileHeader(channel);
+			channel.force(true);
+			return;
+		}
+
+		final ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE);
+		readFully(fileHeader, 0L);
+
+		if (fileHeader.getInt(0) != MAGIC || fileHeader.getInt(4) != VERSION) {
+			throw new IOException("Invalid mirror log file: " + log);
+		}
+
+		final RecordType[] types = RecordType.values();
+		final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+		long position = FILE_HEADER_SIZE;
+
+		while (position + RECORD_HEADER_SIZE <= size) {
+			header.clear();
+			readFully(header, position);
+
+			final int type = header.get(0);
+			final long key = header.getLong(1);
+			final int length = header.getInt(9);
+			final int checksum = header.getInt(13);
+			final long end = position + RECORD_HEADER_SIZE + length;
+
+			if (type < 0 || type >= types.length || length < 0 || end > size) {
+				break;
+			}
+
+			//A record that was only partially written may still have a valid header.
+			final ByteBuffer payload = ByteBuffer.allocate(length);
+			readFully(payload, position + RECORD_HEADER_SIZE);
+
+			if (checksum(payload.array()) != checksum) {
+				break;
+			}
+
+			index.get(types[type]).put(
+					key, new Record(position + RECORD_HEADER_SIZE, length, checksum)
+			);
+			position = end;
+		}
+
+		if (position < size) {
+			//The last record is incomplete, so we discard it.
+			channel.truncate(position);
+		}
+	}
+
+	//This is also called by ForgeSvcMirrorSync to count refreshed files.
+	@Nullable
+	CurseFiles<CurseFile> readFiles(int projectID) throws CurseException {
+		return read(RecordType.FILES, projectID, CurseFiles.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private <T> T read(RecordType type, long key, Type valueType) throws CurseException {
+		Record record = index.get(type).get(key);
+
+		if (record == null) {
+			return null;
+		}
+
+		final Object cached = record.value.get();
+
+		if (cached != null) {
+			return (T) cached;
+		}
+
+		final byte[] payload;
+		lock.readLock().lock();
+
+		try {
+			//The record may have been moved by compact().
+			record = index.get(type).get(key);
+
+			if (record == null) {
+				return null;
+			}
+
+			payload = readPayload(record);
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		final Object value = decode(type, key, payload, valueType);
+		record.value = new SoftReference<>(value);
+		return (T) value;
+	}
+
+	//This should only be called while holding a lock.
+	private byte[] readPayload(Record record) throws CurseException {
+		final ByteBuffer buffer = ByteBuffer.allocate(record.length);
+
+		try {
+			readFully(buffer, record.position);
+		} catch (IOException ex) {
+			throw new CurseException("Failed to read mirror: " + log, ex);
+		}
+
+		final byte[] payload = buffer.array();
+
+		if (checksum(payload) != record.checksum) {
+			throw new CurseException("Corrupt record in mirror: " + log);
+		}
+
+		return payload;
+	}
+
+	private Object decode(RecordType type, long key, byte[] payload, Type valueType)
+			throws CurseException {
+		if (valueType == LazyHTML.class) {
+			return new LazyHTML(new String(payload, StandardCharsets.UTF_8));
+		}
+
+		try {
+			final Buffer buffer = new Buffer().write(payload);
+
+			if (valueType != CurseFiles.class) {
+				return MoshiUtils.moshi.adapter(valueType).fromJson(buffer);
+			}
+
+			final JsonAdapter<Set<ForgeSvcFile>> adapter = MoshiUtils.moshi.adapter(FILES_TYPE);
+			final Set<ForgeSvcFile> files = adapter.fromJson(buffer);
+			final CurseFiles<CurseFile> curseFiles = new CurseFiles<>();
+
+			if (files != null) {
+				for (ForgeSvcFile file : files) {
+					file.setProjectID((int) key);
+					curseFiles.add(file);
+				}
+			}
+
+			return curseFiles;
+		} catch (IOException ex) {
+			throw new CurseException("Failed to decode mirrored " + type + ": " + key, ex);
+		}
+	}
+
+	private CurseProjectIndex searchIndex() throws CurseException {
+		CurseProjectIndex index = searchIndex;
+
+		if (index == null) {
+			synchronized (this) {
+				index = searchIndex;
+
+				if (index == null) {
+					index = new CurseProjectIndex();
+
+					for (int id : projectIDs()) {
+						updateSearchIndex(index, id);
+					}
+
+					searchIndex = index;
+				}
+			}
+		}
+
+		return index;
+	}
+
+	private void updateSearchIndex(CurseProjectIndex index, int id) throws CurseException {
+		final CurseProject project = project(id);
+
+		if (project == null) {
+			index.remove(id);
+			return;
+		}
+
+		final Set<String> gameVersionStrings = new HashSet<>();
+		final CurseFiles<CurseFile> files = readFiles(id);
+
+		if (files != null) {
+			for (CurseFile file : files) {
+				gameVersionStrings.addAll(file.gameVersionStrings());
+			}
+		}
+
+		final LazyHTML description = indexDescriptions ? projectDescriptionHTML(id) : null;
+		index.put(
+				project, gameVersionStrings, description == null ? null : description.plainText()
+		);
+	}
+
+	private void write(List<PendingRecord> records) throws CurseException {
+		if (records.isEmpty()) {
+			return;
+		}
+
+		lock.writeLock().lock();
+
+		long start = -1L;
+
+		try {
+			start = channel.size();
+			long position = start;
+			final List<Record> written = new ArrayList<>(records.size());
+
+			for (PendingRecord record : records) {
+				written.add(writeRecord(
+						channel, position, record.type, record.key, record.payload
+				));
+				position += RECORD_HEADER_SIZE + record.payload.length;
+			}
+
+			channel.force(false);
+
+			//Records are only indexed once they have been written.
+			for (int i = 0; i < records.size(); i++) {
+				final PendingRecord record = records.get(i);
+				final Record writtenRecord = written.get(i);
+				writtenRecord.value = new SoftReference<>(record.value);
+				index.get(record.type).put(record.key, writtenRecord);
+			}
+		} catch (IOException ex) {
+			//Partially written records are discarded so that later records are not written
+			//after them.
+			if (start != -1L) {
+				try {
+					channel.truncate(start);
+				} catch (IOException truncateException) {
+					ex.addSuppressed(truncateException);
+				}
+			}
+
+			throw new CurseException("Failed to write to mirror: " + log, ex);
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		final Set<Integer> projectIDs = new HashSet<>();
+
+		for (PendingRecord record : records) {
+			if (record.type == RecordType.PROJECT || record.type == RecordType.DESCRIPTION ||
+					record.type == RecordType.FILES) {
+				projectIDs.add((int) record.key);
+			}
+		}
+
+		if (projectIDs.isEmpty()) {
+			return;
+		}
+
+		//This synchronizes with searchIndex() so that no projects are missed while the index is
+		//being built.
+		synchronized (this) {
+			final CurseProjectIndex index = searchIndex;
+
+			if (index != null) {
+				for (int id : projectIDs) {
+					updateSearchIndex(index, id);
+				}
+			}
+		}
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			final int read = channel.read(buffer, position + buffer.position());
+
+			if (read < 0) {
+				throw new IOException("Unexpected end of mirror log file: " + log);
+			}
+		}
+	}
+
+	private static PendingRecord projectRecord(ForgeSvcProject project) {
+		return new PendingRecord(
+				RecordType.PROJECT, project.id(), project,
+				MoshiUtils.moshi.adapter(ForgeSvcProject.class).toJson(project)
+		);
+	}
+
+	private static PendingRecord descriptionRecord(int projectID, LazyHTML description) {
+		return new PendingRecord(
+				RecordType.DESCRIPTION, projectID, description, description.html()
+		);
+	}
+
+	private static PendingRecord filesRecord(
+			int projectID, Collection<? extends CurseFile> files
+	) {
+		final Set<ForgeSvcFile> forgeSvcFiles = new HashSet<>();
+		final CurseFiles<CurseFile> curseFiles = new CurseFiles<>();
+
+		for (CurseFile file : files) {
+			forgeSvcFiles.add((ForgeSvcFile) file);
+			curseFiles.add(file);
+		}
+
+		final JsonAdapter<Set<ForgeSvcFile>> adapter = MoshiUtils.moshi.adapter(FILES_TYPE);
+		return new PendingRecord(
+				RecordType.FILES, projectID, curseFiles, adapter.toJson(forgeSvcFiles)
+		);
+	}
+
+	private static PendingRecord changelogRecord(int fileID, LazyHTML changelog) {
+		return new PendingRecord(RecordType.CHANGELOG, fileID, changelog, changelog.html());
+	}
+
+	private static PendingRecord gamesRecord(Set<ForgeSvcGame> games) {
+		final JsonAdapter<Set<ForgeSvcGame>> adapter = MoshiUtils.moshi.adapter(GAMES_TYPE);
+		return new PendingRecord(RecordType.GAMES, ALL, games, adapter.toJson(games));
+	}
+
+	private static PendingRecord categoriesRecord(Set<ForgeSvcCategory> categories) {
+		final JsonAdapter<Set<ForgeSvcCategory>> adapter =
+				MoshiUtils.moshi.adapter(CATEGORIES_TYPE);
+		return new PendingRecord(
+				RecordType.CATEGORIES, ALL, categories, adapter.toJson(categories)
+		);
+	}
+
+	private static long writeFileHeader(FileChannel channel) throws IOException {
+		final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION).flip();
+		writeFully(channel, header, 0L);
+		return FILE_HEADER_SIZE;
+	}
+
+	private static Record writeRecord(
+			FileChannel channel, long position, RecordType type, long key, byte[] payload
+	) throws IOException {
+		final int checksum = checksum(payload);
+		final ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+		buffer.put((byte) type.ordinal()).
+				putLong(key).
+				putInt(payload.length).
+				putInt(checksum).
+				put(payload).
+				flip();
+		writeFully(channel, buffer, position);
+		return new Record(position + RECORD_HEADER_SIZE, payload.length, checksum);
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+			throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer, position + buffer.position());
+		}
+	}
+
+	private static int checksum(byte[] payload) {
+		final CRC32 crc = new CRC32();
+		crc.update(payload, 0, payload.length);
+		return (int) crc.getValue();
+	}
+
+	private static <T> CompletableFuture<T> complete(CheckedSupplier<T, CurseException> supplier) {
+		//Reads are local, so there is no need to use another thread.
+		final CompletableFuture<T> future = new CompletableFuture<>();
+
+		try {
+			future.complete(supplier.get());
+		} catch (CurseException ex) {
+			future.completeExceptionally(ex);
+		}
+
+		return future;
+	}
+}
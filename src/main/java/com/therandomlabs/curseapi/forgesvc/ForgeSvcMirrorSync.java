@@ -0,0 +1,323 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.forgesvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.CurseFiles;
+import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.project.CurseSearchQuery;
+import com.therandomlabs.curseapi.project.CurseSearchSort;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Incrementally refreshes the projects in a {@link ForgeSvcMirror} that have changed since the
+ * last sync.
+ * <p>
+ * Rather than retrieving every mirrored project, {@link #sync(CurseSearchQuery)} walks the
+ * search results sorted by {@link CurseSearchSort#LAST_UPDATED}, newest first, until it reaches
+ * the high-water mark stored in the mirror by the previous sync for the same game, category
+ * section, category, game version and search filter. Only the projects encountered before the
+ * high-water mark are refreshed along with their descriptions and files, after which the new
+ * high-water mark is written to the mirror.
+ * <p>
+ * Projects are refreshed after each page of search results, and the high-water mark is only
+ * written once the walk is complete. If a sync is interrupted, the next sync walks the same
+ * search results again, but projects that were already refreshed are detected by comparing their
+ * update and modification times and skipped.
+ * <p>
+ * As the first sync for a query has no high-water mark, it walks all of the query's search
+ * results.
+ *
+ * @see ForgeSvcMirror
+ */
+public final class ForgeSvcMirrorSync {
+	/**
+	 * The result of a {@link ForgeSvcMirrorSync#sync(CurseSearchQuery)} call.
+	 */
+	public static final class Result {
+		private final int searchedProjects;
+		private final int refreshedProjects;
+		private final int refreshedFiles;
+		private final int skippedProjects;
+		private final int untrackedProjects;
+		@Nullable
+		private final ZonedDateTime previousWatermark;
+		@Nullable
+		private final ZonedDateTime watermark;
+
+		private Result(
+				int searchedProjects, int refreshedProjects, int refreshedFiles,
+				int skippedProjects, int untrackedProjects,
+				@Nullable ZonedDateTime previousWatermark, @Nullable ZonedDateTime watermark
+		) {
+			this.searchedProjects = searchedProjects;
+			this.refreshedProjects = refreshedProjects;
+			this.refreshedFiles = refreshedFiles;
+			this.skippedProjects = skippedProjects;
+			this.untrackedProjects = untrackedProjects;
+			this.previousWatermark = previousWatermark;
+			this.watermark = watermark;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this).
+					add("searchedProjects", searchedProjects).
+					add("refreshedProjects", refreshedProjects).
+					add("refreshedFiles", refreshedFiles).
+					add("skippedProjects", skippedProjects).
+					add("untrackedProjects", untrackedProjects).
+					add("previousWatermark", previousWatermark).
+					add("watermark", watermark).
+					toString();
+		}
+
+		/**
+		 * Returns the number of search results that were updated after the previous
+		 * high-water mark.
+		 *
+		 * @return the number of search results that were updated after the previous
+		 * high-water mark.
+		 */
+		public int searchedProjects() {
+			return searchedProjects;
+		}
+
+		/**
+		 * Returns the number of projects that were refreshed.
+		 *
+		 * @return the number of projects that were refreshed.
+		 */
+		public int refreshedProjects() {
+			return refreshedProjects;
+		}
+
+		/**
+		 * Returns the number of files of the refreshed projects that were refreshed.
+		 *
+		 * @return the number of files of the refreshed projects that were refreshed.
+		 */
+		public int refreshedFiles() {
+			return refreshedFiles;
+		}
+
+		/**
+		 * Returns the number of mirrored projects found by the search that were not refreshed
+		 * because they have not changed since they were last mirrored.
+		 *
+		 * @return the number of mirrored projects that were not refreshed.
+		 */
+		public int skippedProjects() {
+			return skippedProjects;
+		}
+
+		/**
+		 * Returns the number of changed projects that were not refreshed because they have not
+		 * been mirrored.
+		 *
+		 * @return the number of changed projects that were not refreshed because they have not
+		 * been mirrored.
+		 * @see #refreshUntrackedProjects(boolean)
+		 */
+		public int untrackedProjects() {
+			return untrackedProjects;
+		}
+
+		/**
+		 * Returns the high-water mark before the sync.
+		 *
+		 * @return the high-water mark before the sync, or {@code null} if this is the first sync
+		 * for the query.
+		 */
+		@Nullable
+		public ZonedDateTime previousWatermark() {
+			return previousWatermark;
+		}
+
+		/**
+		 * Returns the high-water mark after the sync, which is the latest update time of the
+		 * search results.
+		 *
+		 * @return the high-water mark after the sync, or {@code null} if there were no search
+		 * results.
+		 */
+		@Nullable
+		public ZonedDateTime watermark() {
+			return watermark;
+		}
+	}
+
+	private final ForgeSvcMirror mirror;
+	private boolean refreshUntrackedProjects;
+
+	/**
+	 * Constructs a {@link ForgeSvcMirrorSync} for the specified {@link ForgeSvcMirror}.
+	 *
+	 * @param mirror a {@link ForgeSvcMirror}.
+	 */
+	public ForgeSvcMirrorSync(ForgeSvcMirror mirror) {
+		Preconditions.checkNotNull(mirror, "mirror should not be null");
+		this.mirror = mirror;
+	}
+
+	/**
+	 * Returns whether changed projects that have not been mirrored are also mirrored.
+	 *
+	 * @return {@code true} if changed projects that have not been mirrored are also mirrored,
+	 * or otherwise {@code false}.
+	 */
+	public boolean refreshUntrackedProjects() {
+		return refreshUntrackedProjects;
+	}
+
+	/**
+	 * Sets whether changed projects that have not been mirrored should also be mirrored.
+	 * By default, only projects that have already been mirrored are refreshed.
+	 *
+	 * @param refresh {@code true} if changed projects that have not been mirrored should also be
+	 * mirrored, or otherwise {@code false}.
+	 * @return this {@link ForgeSvcMirrorSync}.
+	 */
+	public ForgeSvcMirrorSync refreshUntrackedProjects(boolean refresh) {
+		refreshUntrackedProjects = refresh;
+		return this;
+	}
+
+	/**
+	 * Refreshes the mirrored projects that match the specified {@link CurseSearchQuery} and
+	 * have been updated since the previous sync for the same query.
+	 * The page index and sorting method of the {@link CurseSearchQuery} are ignored.
+	 *
+	 * @param query a {@link CurseSearchQuery}.
+	 * @return a {@link Result} that describes which projects were refreshed or skipped.
+	 * @throws CurseException if an error occurs.
+	 */
+	public Result sync(CurseSearchQuery query) throws CurseException {
+		Preconditions.checkNotNull(query, "query should not be null");
+
+		final long key = watermarkKey(query);
+		final ZonedDateTime previousWatermark = mirror.watermark(key);
+		final Set<Integer> tracked = mirror.projectIDs();
+		final Set<Integer> refreshed = new HashSet<>();
+		final Set<Integer> skipped = new HashSet<>();
+		final CurseSearchQuery pageQuery = query.clone().
+				sortingMethod(CurseSearchSort.LAST_UPDATED).
+				clearPageIndex();
+
+		ZonedDateTime watermark = previousWatermark;
+		int searchedProjects = 0;
+		int refreshedFiles = 0;
+		int untrackedProjects = 0;
+		boolean reachedWatermark = false;
+
+		while (!reachedWatermark) {
+			final List<CurseProject> page = mirror.source().searchProjects(pageQuery);
+
+			if (page == null) {
+				throw new CurseException("Failed to search projects: " + pageQuery);
+			}
+
+			if (page.isEmpty()) {
+				break;
+			}
+
+			final List<Integer> changed = new ArrayList<>();
+
+			for (CurseProject project : page) {
+				final ZonedDateTime updateTime = project.lastUpdateTime();
+
+				//Projects updated at the high-water mark are checked again in case they were
+				//updated at the same time as the last project of the previous sync.
+				if (previousWatermark != null && updateTime.isBefore(previousWatermark)) {
+					reachedWatermark = true;
+					break;
+				}
+
+				searchedProjects++;
+
+				if (watermark == null || updateTime.isAfter(watermark)) {
+					watermark = updateTime;
+				}
+
+				if (!tracked.contains(project.id()) && !refreshUntrackedProjects) {
+					untrackedProjects++;
+				} else if (!refreshed.contains(project.id())) {
+					if (isMirrored(project)) {
+						skipped.add(project.id());
+					} else {
+						changed.add(project.id());
+					}
+				}
+			}
+
+			//Refreshing each page before continuing means that an interrupted sync can skip
+			//the projects that it has already refreshed.
+			mirror.mirrorProjects(changed);
+
+			for (int id : changed) {
+				refreshed.add(id);
+				final CurseFiles<?> files = mirror.readFiles(id);
+				refreshedFiles += files == null ? 0 : files.size();
+			}
+
+			pageQuery.pageIndex(pageQuery.pageIndex() + page.size());
+		}
+
+		if (watermark != null && !watermark.equals(previousWatermark)) {
+			mirror.putWatermark(key, watermark);
+		}
+
+		return new Result(
+				searchedProjects, refreshed.size(), refreshedFiles, skipped.size(),
+				untrackedProjects, previousWatermark, watermark
+		);
+	}
+
+	private boolean isMirrored(CurseProject project) throws CurseException {
+		final CurseProject mirrored = mirror.project(project.id());
+		return mirrored != null &&
+				mirrored.lastUpdateTime().isEqual(project.lastUpdateTime()) &&
+				mirrored.lastModificationTime().isEqual(project.lastModificationTime());
+	}
+
+	private static long watermarkKey(CurseSearchQuery query) {
+		final String key = query.gameID() + ":" + query.categorySectionID() + ":" +
+				query.categoryID() + ":" + query.gameVersionString() + ":" +
+				query.searchFilter();
+		return Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8).asLong();
+	}
+}
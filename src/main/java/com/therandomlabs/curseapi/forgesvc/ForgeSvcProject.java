@@ -23,6 +23,7 @@
 
 package com.therandomlabs.curseapi.forgesvc;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -31,9 +32,15 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
 import com.therandomlabs.curseapi.CursePreconditions;
+import com.therandomlabs.curseapi.CurseRegistry;
 import com.therandomlabs.curseapi.file.CurseFile;
 import com.therandomlabs.curseapi.file.CurseFiles;
 import com.therandomlabs.curseapi.game.CurseCategory;
@@ -42,6 +49,7 @@ import com.therandomlabs.curseapi.game.CurseGame;
 import com.therandomlabs.curseapi.project.CurseAttachment;
 import com.therandomlabs.curseapi.project.CurseMember;
 import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.util.LazyHTML;
 import okhttp3.HttpUrl;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
@@ -52,6 +60,136 @@ import org.jsoup.nodes.Element;
 @SuppressWarnings({"ConstantConditions", "MismatchedQueryAndUpdateOfCollection", "NullAway"})
 @DefaultQualifier(value = Nullable.class, locations = TypeUseLocation.FIELD)
 final class ForgeSvcProject extends CurseProject {
+	static final class Adapter extends JsonAdapter<ForgeSvcProject> {
+		private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+				"id", "name", "authors", "attachments", "websiteUrl", "gameId", "summary",
+				"downloadCount", "categories", "primaryCategoryId", "categorySection", "slug",
+				"dateCreated", "dateReleased", "dateModified", "isExperiemental"
+		);
+
+		private final JsonAdapter<String> stringAdapter;
+		private final JsonAdapter<List<ForgeSvcMember>> authorsAdapter;
+		private final JsonAdapter<Set<ForgeSvcAttachment>> attachmentsAdapter;
+		private final JsonAdapter<HttpUrl> httpUrlAdapter;
+		private final JsonAdapter<Set<ForgeSvcCategory>> categoriesAdapter;
+		private final JsonAdapter<ForgeSvcCategorySection> categorySectionAdapter;
+		private final JsonAdapter<ZonedDateTime> zonedDateTimeAdapter;
+
+		Adapter(Moshi moshi) {
+			stringAdapter = moshi.adapter(String.class);
+			authorsAdapter = moshi.adapter(
+					Types.newParameterizedType(List.class, ForgeSvcMember.class)
+			);
+			attachmentsAdapter = moshi.adapter(
+					Types.newParameterizedType(Set.class, ForgeSvcAttachment.class)
+			);
+			httpUrlAdapter = moshi.adapter(HttpUrl.class);
+			categoriesAdapter = moshi.adapter(
+					Types.newParameterizedType(Set.class, ForgeSvcCategory.class)
+			);
+			categorySectionAdapter = moshi.adapter(ForgeSvcCategorySection.class);
+			zonedDateTimeAdapter = moshi.adapter(ZonedDateTime.class);
+		}
+
+		@Override
+		public ForgeSvcProject fromJson(JsonReader reader) throws IOException {
+			final ForgeSvcProject project = new ForgeSvcProject();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(OPTIONS)) {
+					case 0:
+						project.id = reader.nextInt();
+						break;
+					case 1:
+						project.name = stringAdapter.fromJson(reader);
+						break;
+					case 2:
+						project.authors = authorsAdapter.fromJson(reader);
+						break;
+					case 3:
+						project.attachments = attachmentsAdapter.fromJson(reader);
+						break;
+					case 4:
+						project.websiteUrl = httpUrlAdapter.fromJson(reader);
+						break;
+					case 5:
+						project.gameId = reader.nextInt();
+						break;
+					case 6:
+						project.summary = stringAdapter.fromJson(reader);
+						break;
+					case 7:
+						project.downloadCount = reader.nextInt();
+						break;
+					case 8:
+						project.categories = categoriesAdapter.fromJson(reader);
+						break;
+					case 9:
+						project.primaryCategoryId = reader.nextInt();
+						break;
+					case 10:
+						project.categorySection = categorySectionAdapter.fromJson(reader);
+						break;
+					case 11:
+						project.slug = stringAdapter.fromJson(reader);
+						break;
+					case 12:
+						project.dateCreated = zonedDateTimeAdapter.fromJson(reader);
+						break;
+					case 13:
+						project.dateReleased = zonedDateTimeAdapter.fromJson(reader);
+						break;
+					case 14:
+						project.dateModified = zonedDateTimeAdapter.fromJson(reader);
+						break;
+					case 15:
+						project.isExperiemental = reader.nextBoolean();
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return project;
+		}
+
+		@Override
+		public void toJson(JsonWriter writer, ForgeSvcProject project) throws IOException {
+			writer.beginObject();
+			writer.name("attachments");
+			attachmentsAdapter.toJson(writer, project.attachments);
+			writer.name("authors");
+			authorsAdapter.toJson(writer, project.authors);
+			writer.name("categories");
+			categoriesAdapter.toJson(writer, project.categories);
+			writer.name("categorySection");
+			categorySectionAdapter.toJson(writer, project.categorySection);
+			writer.name("dateCreated");
+			zonedDateTimeAdapter.toJson(writer, project.dateCreated);
+			writer.name("dateModified");
+			zonedDateTimeAdapter.toJson(writer, project.dateModified);
+			writer.name("dateReleased");
+			zonedDateTimeAdapter.toJson(writer, project.dateReleased);
+			writer.name("downloadCount").value(project.downloadCount);
+			writer.name("gameId").value(project.gameId);
+			writer.name("id").value(project.id);
+			writer.name("isExperiemental").value(project.isExperiemental);
+			writer.name("name");
+			stringAdapter.toJson(writer, project.name);
+			writer.name("primaryCategoryId").value(project.primaryCategoryId);
+			writer.name("slug");
+			stringAdapter.toJson(writer, project.slug);
+			writer.name("summary");
+			stringAdapter.toJson(writer, project.summary);
+			writer.name("websiteUrl");
+			httpUrlAdapter.toJson(writer, project.websiteUrl);
+			writer.endObject();
+		}
+	}
+
 	private int id;
 	private String name;
 	private List<ForgeSvcMember> authors;
@@ -73,7 +211,7 @@ final class ForgeSvcProject extends CurseProject {
 
 	//Cache.
 	private transient CurseGame game;
-	private transient Element description;
+	private transient LazyHTML description;
 	private transient CurseFiles<CurseFile> files;
 
 	@Override
@@ -127,7 +265,7 @@ final class ForgeSvcProject extends CurseProject {
 	@Override
 	public CurseGame game() throws CurseException {
 		if (game == null) {
-			final Optional<CurseGame> optionalGame = CurseAPI.game(gameId);
+			final Optional<CurseGame> optionalGame = CurseRegistry.game(gameId);
 
 			if (!optionalGame.isPresent()) {
 				throw new CurseException("Could not retrieve game for project: " + this);
@@ -142,6 +280,8 @@ final class ForgeSvcProject extends CurseProject {
 	@Override
 	public CurseGame refreshGame() throws CurseException {
 		game = null;
+		ForgeSvcProvider.invalidate(ForgeSvcProvider.GET_GAME, gameId);
+		CurseRegistry.invalidateGame(gameId);
 		return game();
 	}
 
@@ -152,8 +292,13 @@ final class ForgeSvcProject extends CurseProject {
 
 	@Override
 	public Element description() throws CurseException {
+		return descriptionHTML().element();
+	}
+
+	@Override
+	public LazyHTML descriptionHTML() throws CurseException {
 		if (description == null) {
-			final Optional<Element> optionalDescription = CurseAPI.projectDescription(id);
+			final Optional<LazyHTML> optionalDescription = CurseAPI.projectDescriptionHTML(id);
 
 			if (!optionalDescription.isPresent()) {
 				throw new CurseException("Failed to retrieve description for project: " + this);
@@ -168,6 +313,7 @@ final class ForgeSvcProject extends CurseProject {
 	@Override
 	public Element refreshDescription() throws CurseException {
 		description = null;
+		ForgeSvcProvider.invalidate(ForgeSvcProvider.GET_DESCRIPTION, id);
 		return description();
 	}
 
@@ -199,6 +345,7 @@ final class ForgeSvcProject extends CurseProject {
 	@Override
 	public CurseFiles<CurseFile> refreshFiles() throws CurseException {
 		files = null;
+		ForgeSvcProvider.invalidate(ForgeSvcProvider.GET_FILES, id);
 		return files();
 	}
 
@@ -26,25 +26,37 @@ package com.therandomlabs.curseapi.forgesvc;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import com.therandomlabs.curseapi.CurseAPIProvider;
 import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
 import com.therandomlabs.curseapi.file.CurseFile;
 import com.therandomlabs.curseapi.file.CurseFiles;
 import com.therandomlabs.curseapi.game.CurseCategory;
 import com.therandomlabs.curseapi.game.CurseGame;
 import com.therandomlabs.curseapi.project.CurseProject;
 import com.therandomlabs.curseapi.project.CurseSearchQuery;
-import com.therandomlabs.curseapi.util.JsoupUtils;
+import com.therandomlabs.curseapi.util.LazyHTML;
+import com.therandomlabs.curseapi.util.ParallelUtils;
+import com.therandomlabs.curseapi.util.ResponseCache;
 import com.therandomlabs.curseapi.util.RetrofitUtils;
 import okhttp3.HttpUrl;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import retrofit2.Call;
 
 /**
  * A {@link CurseAPIProvider} that uses the API at
@@ -57,6 +69,22 @@ import org.jsoup.select.Elements;
  * calling {@link com.therandomlabs.curseapi.CurseAPI#files(int)} rather than directly
  * calling {@link #files(int)}.
  * <p>
+ * Responses are cached in a {@link ResponseCache} keyed by the name of the ForgeSvc endpoint
+ * method and its arguments, which may be configured using {@link #cache()}.
+ * The following endpoint names are used: {@value #GET_PROJECT}, {@value #SEARCH_PROJECTS},
+ * {@value #GET_DESCRIPTION}, {@value #GET_FILES}, {@value #GET_FILE}, {@value #GET_CHANGELOG},
+ * {@value #GET_FILE_DOWNLOAD_URL}, {@value #GET_GAMES}, {@value #GET_GAME},
+ * {@value #GET_CATEGORIES} and {@value #GET_CATEGORY}.
+ * The same endpoint names may be used to override the {@code Cache-Control} headers sent by
+ * ForgeSvc using {@link com.therandomlabs.curseapi.util.HttpCache} if it is enabled using
+ * {@link com.therandomlabs.curseapi.util.OkHttpUtils#setHttpCache(
+ * com.therandomlabs.curseapi.util.HttpCache)}.
+ * <p>
+ * {@link #projects(Collection)}, {@link #files(Collection)} and
+ * {@link #filesByFingerprint(Collection)} use the batch addon, file and fingerprint endpoints,
+ * sending up to {@link #batchSize()} IDs per request. Projects and files retrieved this way are
+ * also cached as responses from {@value #GET_PROJECT} and {@value #GET_FILE} respectively.
+ * <p>
  * Where possible, this class should not be accessed directly, and the methods declared in
  * {@link com.therandomlabs.curseapi.CurseAPI} should be favored.
  *
@@ -68,9 +96,80 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	 */
 	public static final ForgeSvcProvider instance = new ForgeSvcProvider();
 
+	/**
+	 * The name of the endpoint used to retrieve projects.
+	 */
+	public static final String GET_PROJECT = "getProject";
+
+	/**
+	 * The name of the endpoint used to search for projects.
+	 */
+	public static final String SEARCH_PROJECTS = "searchProjects";
+
+	/**
+	 * The name of the endpoint used to retrieve project descriptions.
+	 */
+	public static final String GET_DESCRIPTION = "getDescription";
+
+	/**
+	 * The name of the endpoint used to retrieve project files.
+	 */
+	public static final String GET_FILES = "getFiles";
+
+	/**
+	 * The name of the endpoint used to retrieve files.
+	 */
+	public static final String GET_FILE = "getFile";
+
+	/**
+	 * The name of the endpoint used to retrieve file changelogs.
+	 */
+	public static final String GET_CHANGELOG = "getChangelog";
+
+	/**
+	 * The name of the endpoint used to retrieve file download URLs.
+	 */
+	public static final String GET_FILE_DOWNLOAD_URL = "getFileDownloadURL";
+
+	/**
+	 * The name of the endpoint used to retrieve all games.
+	 */
+	public static final String GET_GAMES = "getGames";
+
+	/**
+	 * The name of the endpoint used to retrieve games.
+	 */
+	public static final String GET_GAME = "getGame";
+
+	/**
+	 * The name of the endpoint used to retrieve all categories or all categories in
+	 * a category section.
+	 */
+	public static final String GET_CATEGORIES = "getCategories";
+
+	/**
+	 * The name of the endpoint used to retrieve categories.
+	 */
+	public static final String GET_CATEGORY = "getCategory";
+
 	private static final ForgeSvc forgeSvc =
 			RetrofitUtils.get("https://addons-ecs.forgesvc.net/").create(ForgeSvc.class);
 
+	//Games and categories rarely change, while files and projects change often.
+	private static final ResponseCache cache = new ResponseCache(Duration.ofMinutes(5L), 1000L).
+			setTTL(GET_PROJECT, Duration.ofMinutes(2L)).
+			setTTL(SEARCH_PROJECTS, Duration.ofMinutes(1L)).
+			setTTL(GET_FILES, Duration.ofMinutes(1L)).
+			setTTL(GET_FILE, Duration.ofMinutes(10L)).
+			setTTL(GET_CHANGELOG, Duration.ofHours(1L)).
+			setTTL(GET_FILE_DOWNLOAD_URL, Duration.ofHours(1L)).
+			setTTL(GET_GAMES, Duration.ofHours(12L)).
+			setTTL(GET_GAME, Duration.ofHours(12L)).
+			setTTL(GET_CATEGORIES, Duration.ofHours(12L)).
+			setTTL(GET_CATEGORY, Duration.ofHours(12L));
+
+	private static volatile int batchSize = 100;
+
 	private ForgeSvcProvider() {}
 
 	/**
@@ -79,19 +178,67 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	@Nullable
 	@Override
 	public CurseProject project(int id) throws CurseException {
-		return RetrofitUtils.execute(forgeSvc.getProject(id));
+		return cache.get(GET_PROJECT, () -> RetrofitUtils.execute(forgeSvc.getProject(id)), id);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Integer, CurseProject> projects(Collection<Integer> ids) throws CurseException {
+		final Map<Integer, CurseProject> projects = new HashMap<>();
+		final List<Integer> uncachedIDs = new ArrayList<>();
+
+		for (Integer id : ids) {
+			final CurseProject project = cache.getIfPresent(GET_PROJECT, id);
+
+			if (project == null) {
+				uncachedIDs.add(id);
+			} else {
+				projects.put(id, project);
+			}
+		}
+
+		final List<List<ForgeSvcProject>> batches = ParallelUtils.map(
+				Lists.partition(uncachedIDs, batchSize),
+				batch -> RetrofitUtils.execute(forgeSvc.getProjects(batch))
+		);
+
+		for (List<ForgeSvcProject> batch : batches) {
+			//If none of the project IDs in a batch are valid, null may be returned.
+			if (batch != null) {
+				for (ForgeSvcProject project : batch) {
+					cache.put(GET_PROJECT, project, project.id());
+					projects.put(project.id(), project);
+				}
+			}
+		}
+
+		return projects;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
-	@SuppressWarnings("NullAway")
 	@Nullable
 	@Override
 	public Element projectDescription(int id) throws CurseException {
-		final Element element = RetrofitUtils.getElement(forgeSvc.getDescription(id));
+		final LazyHTML description = projectDescriptionHTML(id);
+		return description == null ? null : description.element();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public LazyHTML projectDescriptionHTML(int id) throws CurseException {
+		final LazyHTML description = cache.get(
+				GET_DESCRIPTION, () -> toHTML(RetrofitUtils.getString(forgeSvc.getDescription(id))),
+				id
+		);
 		//If the description is empty, we assume that the project does not exist.
-		return JsoupUtils.isEmpty(element) ? null : replaceLinkouts(element);
+		return description == null || description.isEmpty() ? null : description;
 	}
 
 	/**
@@ -99,11 +246,10 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	 */
 	@Override
 	public List<CurseProject> searchProjects(CurseSearchQuery query) throws CurseException {
-		final List<ForgeSvcProject> projects = RetrofitUtils.execute(forgeSvc.searchProjects(
-				query.gameID(), query.categorySectionID(), query.categoryID(),
-				query.gameVersionString(), query.pageIndex(), query.pageSize(),
-				query.searchFilter(), query.sortingMethod().id()
-		));
+		final List<ForgeSvcProject> projects = cache.get(
+				SEARCH_PROJECTS, () -> RetrofitUtils.execute(searchCall(query)),
+				searchArguments(query)
+		);
 
 		if (projects == null) {
 			throw new CurseException("Failed to search projects: " + query);
@@ -118,33 +264,110 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	@Nullable
 	@Override
 	public CurseFiles<CurseFile> files(int projectID) throws CurseException {
-		final Set<ForgeSvcFile> files = RetrofitUtils.execute(forgeSvc.getFiles(projectID));
+		final Set<ForgeSvcFile> files = cache.get(
+				GET_FILES,
+				() -> setProjectID(RetrofitUtils.execute(forgeSvc.getFiles(projectID)), projectID),
+				projectID
+		);
 
-		if (files == null) {
-			return null;
+		return files == null ? null : new CurseFiles<>(files);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public CurseFile file(int projectID, int fileID) throws CurseException {
+		return cache.get(
+				GET_FILE,
+				() -> setProjectID(
+						RetrofitUtils.execute(forgeSvc.getFile(projectID, fileID)), projectID
+				),
+				projectID, fileID
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CurseFiles<CurseFile> files(Collection<? extends BasicCurseFile> files)
+			throws CurseException {
+		final CurseFiles<CurseFile> found = new CurseFiles<>();
+		final Map<Integer, Integer> uncachedProjectIDs = new HashMap<>();
+
+		for (BasicCurseFile file : files) {
+			final CurseFile cached = cache.getIfPresent(GET_FILE, file.projectID(), file.id());
+
+			if (cached == null) {
+				uncachedProjectIDs.put(file.id(), file.projectID());
+			} else {
+				found.add(cached);
+			}
 		}
 
-		for (ForgeSvcFile file : files) {
-			file.setProjectID(projectID);
+		final List<Map<Integer, List<ForgeSvcFile>>> batches = ParallelUtils.map(
+				Lists.partition(new ArrayList<>(uncachedProjectIDs.keySet()), batchSize),
+				batch -> RetrofitUtils.execute(forgeSvc.getFilesByID(batch))
+		);
+
+		for (Map<Integer, List<ForgeSvcFile>> batch : batches) {
+			if (batch == null) {
+				continue;
+			}
+
+			for (List<ForgeSvcFile> batchFiles : batch.values()) {
+				for (ForgeSvcFile file : batchFiles) {
+					final Integer projectID = uncachedProjectIDs.get(file.id());
+
+					//Files that do not belong to the requested project are treated as missing,
+					//as they would be by file(int, int).
+					if (projectID == null ||
+							(file.projectID() != 0 && file.projectID() != projectID)) {
+						continue;
+					}
+
+					setProjectID(file, projectID);
+					cache.put(GET_FILE, file, projectID, file.id());
+					found.add(file);
+				}
+			}
 		}
 
-		return new CurseFiles<>(files);
+		return found;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
-	@Nullable
 	@Override
-	public CurseFile file(int projectID, int fileID) throws CurseException {
-		final ForgeSvcFile file = RetrofitUtils.execute(forgeSvc.getFile(projectID, fileID));
+	public Map<Long, CurseFile> filesByFingerprint(Collection<Long> fingerprints)
+			throws CurseException {
+		final Set<Long> requested = new HashSet<>(fingerprints);
+		final List<ForgeSvcFingerprintMatches> batches = ParallelUtils.map(
+				Lists.partition(new ArrayList<>(requested), batchSize),
+				batch -> RetrofitUtils.execute(forgeSvc.getFingerprintMatches(batch))
+		);
+		final Map<Long, CurseFile> files = new HashMap<>();
+
+		for (ForgeSvcFingerprintMatches batch : batches) {
+			if (batch == null || batch.exactMatches() == null) {
+				continue;
+			}
 
-		if (file == null) {
-			return null;
+			for (ForgeSvcFingerprintMatches.Match match : batch.exactMatches()) {
+				final ForgeSvcFile file = match.file();
+
+				if (file != null && requested.contains(file.packageFingerprint())) {
+					setProjectID(file, match.projectID());
+					cache.put(GET_FILE, file, match.projectID(), file.id());
+					files.put(file.packageFingerprint(), file);
+				}
+			}
 		}
 
-		file.setProjectID(projectID);
-		return file;
+		return files;
 	}
 
 	/**
@@ -155,9 +378,24 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	@Nullable
 	@Override
 	public Element fileChangelog(int projectID, int fileID) throws CurseException {
-		final Element changelog =
-				RetrofitUtils.getElement(forgeSvc.getChangelog(projectID, fileID));
-		return changelog == null ? null : replaceLinkouts(changelog);
+		final LazyHTML changelog = fileChangelogHTML(projectID, fileID);
+		return changelog == null ? null : changelog.element();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param projectID a project ID. This is apparently not necessary, so {@code 0} will suffice.
+	 */
+	@Nullable
+	@Override
+	public LazyHTML fileChangelogHTML(int projectID, int fileID) throws CurseException {
+		//The changelog is apparently the same regardless of the project ID.
+		return cache.get(
+				GET_CHANGELOG,
+				() -> toHTML(RetrofitUtils.getString(forgeSvc.getChangelog(projectID, fileID))),
+				fileID
+		);
 	}
 
 	/**
@@ -168,7 +406,11 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	@Nullable
 	@Override
 	public HttpUrl fileDownloadURL(int projectID, int fileID) throws CurseException {
-		final String url = RetrofitUtils.getString(forgeSvc.getFileDownloadURL(projectID, fileID));
+		final String url = cache.get(
+				GET_FILE_DOWNLOAD_URL,
+				() -> RetrofitUtils.getString(forgeSvc.getFileDownloadURL(projectID, fileID)),
+				fileID
+		);
 		return url == null ? null : HttpUrl.get(url);
 	}
 
@@ -177,7 +419,8 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	 */
 	@Override
 	public Set<CurseGame> games() throws CurseException {
-		final Set<ForgeSvcGame> games = RetrofitUtils.execute(forgeSvc.getGames(false));
+		final Set<ForgeSvcGame> games =
+				cache.get(GET_GAMES, () -> RetrofitUtils.execute(forgeSvc.getGames(false)), false);
 
 		if (games == null) {
 			throw new CurseException("Failed to retrieve games");
@@ -192,7 +435,7 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	@Nullable
 	@Override
 	public CurseGame game(int id) throws CurseException {
-		return RetrofitUtils.execute(forgeSvc.getGame(id));
+		return cache.get(GET_GAME, () -> RetrofitUtils.execute(forgeSvc.getGame(id)), id);
 	}
 
 	/**
@@ -200,7 +443,8 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	 */
 	@Override
 	public Set<CurseCategory> categories() throws CurseException {
-		final Set<ForgeSvcCategory> categories = RetrofitUtils.execute(forgeSvc.getCategories());
+		final Set<ForgeSvcCategory> categories =
+				cache.get(GET_CATEGORIES, () -> RetrofitUtils.execute(forgeSvc.getCategories()));
 
 		if (categories == null) {
 			throw new CurseException("Failed to retrieve categories");
@@ -215,8 +459,10 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	@Nullable
 	@Override
 	public Set<CurseCategory> categories(int sectionID) throws CurseException {
-		final Set<ForgeSvcCategory> categories =
-				RetrofitUtils.execute(forgeSvc.getCategories(sectionID));
+		final Set<ForgeSvcCategory> categories = cache.get(
+				GET_CATEGORIES, () -> RetrofitUtils.execute(forgeSvc.getCategories(sectionID)),
+				sectionID
+		);
 		return categories == null ? null : new TreeSet<>(categories);
 	}
 
@@ -226,20 +472,288 @@ public final class ForgeSvcProvider implements CurseAPIProvider {
 	@Nullable
 	@Override
 	public CurseCategory category(int id) throws CurseException {
-		return RetrofitUtils.execute(forgeSvc.getCategory(id));
+		return cache.get(GET_CATEGORY, () -> RetrofitUtils.execute(forgeSvc.getCategory(id)), id);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<CurseProject> projectAsync(int id) {
+		return cache.getAsync(
+				GET_PROJECT, () -> RetrofitUtils.executeAsync(forgeSvc.getProject(id)), id
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("NullAway")
+	@Override
+	public CompletableFuture<Element> projectDescriptionAsync(int id) {
+		return projectDescriptionHTMLAsync(id).thenApply(
+				description -> description == null ? null : description.element()
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("NullAway")
+	@Override
+	public CompletableFuture<LazyHTML> projectDescriptionHTMLAsync(int id) {
+		return cache.<LazyHTML>getAsync(
+				GET_DESCRIPTION,
+				() -> RetrofitUtils.getStringAsync(forgeSvc.getDescription(id)).
+						thenApply(ForgeSvcProvider::toHTML),
+				id
+		).thenApply(
+				description -> description == null || description.isEmpty() ? null : description
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<List<CurseProject>> searchProjectsAsync(CurseSearchQuery query) {
+		return cache.<List<ForgeSvcProject>>getAsync(
+				SEARCH_PROJECTS, () -> RetrofitUtils.executeAsync(searchCall(query)),
+				searchArguments(query)
+		).thenApply(projects -> {
+			if (projects == null) {
+				throw new CompletionException(
+						new CurseException("Failed to search projects: " + query)
+				);
+			}
+
+			return new ArrayList<>(projects);
+		});
 	}
 
-	private static Element replaceLinkouts(Element element) {
-		final Elements links = element.getElementsByTag("a");
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<CurseFiles<CurseFile>> filesAsync(int projectID) {
+		return cache.<Set<ForgeSvcFile>>getAsync(
+				GET_FILES,
+				() -> RetrofitUtils.<Set<ForgeSvcFile>>executeAsync(forgeSvc.getFiles(projectID)).
+						thenApply(files -> setProjectID(files, projectID)),
+				projectID
+		).thenApply(files -> files == null ? null : new CurseFiles<>(files));
+	}
 
-		for (Element link : links) {
-			if (link.attr("href").startsWith("/linkout?remoteUrl=")) {
-				final String encoded = link.attr("href").substring("/linkout?remoteUrl=".length());
-				link.attr("href", decode(decode(encoded)));
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<CurseFile> fileAsync(int projectID, int fileID) {
+		return cache.getAsync(
+				GET_FILE,
+				() -> RetrofitUtils.<ForgeSvcFile>executeAsync(forgeSvc.getFile(projectID, fileID)).
+						thenApply(file -> setProjectID(file, projectID)),
+				projectID, fileID
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param projectID a project ID. This is apparently not necessary, so {@code 0} will suffice.
+	 */
+	@Override
+	public CompletableFuture<Element> fileChangelogAsync(int projectID, int fileID) {
+		return fileChangelogHTMLAsync(projectID, fileID).thenApply(
+				changelog -> changelog == null ? null : changelog.element()
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param projectID a project ID. This is apparently not necessary, so {@code 0} will suffice.
+	 */
+	@Override
+	public CompletableFuture<LazyHTML> fileChangelogHTMLAsync(int projectID, int fileID) {
+		return cache.getAsync(
+				GET_CHANGELOG,
+				() -> RetrofitUtils.getStringAsync(forgeSvc.getChangelog(projectID, fileID)).
+						thenApply(ForgeSvcProvider::toHTML),
+				fileID
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param projectID a project ID. This is apparently not necessary, so {@code 0} will suffice.
+	 */
+	@Override
+	public CompletableFuture<HttpUrl> fileDownloadURLAsync(int projectID, int fileID) {
+		return cache.getAsync(
+				GET_FILE_DOWNLOAD_URL,
+				() -> RetrofitUtils.getStringAsync(forgeSvc.getFileDownloadURL(projectID, fileID)),
+				fileID
+		).thenApply(url -> url == null ? null : HttpUrl.get(url));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Set<CurseGame>> gamesAsync() {
+		return cache.<Set<ForgeSvcGame>>getAsync(
+				GET_GAMES, () -> RetrofitUtils.executeAsync(forgeSvc.getGames(false)), false
+		).thenApply(games -> {
+			if (games == null) {
+				throw new CompletionException(new CurseException("Failed to retrieve games"));
 			}
+
+			return new TreeSet<>(games);
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<CurseGame> gameAsync(int id) {
+		return cache.getAsync(GET_GAME, () -> RetrofitUtils.executeAsync(forgeSvc.getGame(id)), id);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Set<CurseCategory>> categoriesAsync() {
+		return cache.<Set<ForgeSvcCategory>>getAsync(
+				GET_CATEGORIES, () -> RetrofitUtils.executeAsync(forgeSvc.getCategories())
+		).thenApply(categories -> {
+			if (categories == null) {
+				throw new CompletionException(
+						new CurseException("Failed to retrieve categories")
+				);
+			}
+
+			return new TreeSet<>(categories);
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<CurseCategory> categoryAsync(int id) {
+		return cache.getAsync(
+				GET_CATEGORY, () -> RetrofitUtils.executeAsync(forgeSvc.getCategory(id)), id
+		);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The cached {@value #GET_PROJECT} response for the project is invalidated.
+	 */
+	@Override
+	public void invalidateProject(int id) {
+		cache.invalidate(GET_PROJECT, id);
+	}
+
+	/**
+	 * Returns the {@link ResponseCache} used by this provider.
+	 * This may be used to configure the time-to-live of each endpoint, to invalidate cached
+	 * responses or to retrieve cache statistics.
+	 *
+	 * @return the {@link ResponseCache} used by this provider.
+	 */
+	public ResponseCache cache() {
+		return cache;
+	}
+
+	/**
+	 * Returns the maximum number of IDs that are sent in a single batch request by
+	 * {@link #projects(Collection)}, {@link #files(Collection)} and
+	 * {@link #filesByFingerprint(Collection)}.
+	 *
+	 * @return the maximum number of IDs that are sent in a single batch request.
+	 */
+	public int batchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of IDs that are sent in a single batch request by
+	 * {@link #projects(Collection)}, {@link #files(Collection)} and
+	 * {@link #filesByFingerprint(Collection)}. Larger batches are split into multiple requests,
+	 * which are executed in parallel.
+	 *
+	 * @param size the maximum number of IDs that are sent in a single batch request.
+	 */
+	public void setBatchSize(int size) {
+		Preconditions.checkArgument(size > 0, "size should be positive");
+		batchSize = size;
+	}
+
+	//This is called by the refresh methods of the ForgeSvc implementations.
+	static void invalidate(String endpoint, Object... arguments) {
+		cache.invalidate(endpoint, arguments);
+	}
+
+	private static Call<List<ForgeSvcProject>> searchCall(CurseSearchQuery query) {
+		return forgeSvc.searchProjects(
+				query.gameID(), query.categorySectionID(), query.categoryID(),
+				query.gameVersionString(), query.pageIndex(), query.pageSize(),
+				query.searchFilter(), query.sortingMethod().id()
+		);
+	}
+
+	private static Object[] searchArguments(CurseSearchQuery query) {
+		return new Object[] {
+				query.gameID(), query.categorySectionID(), query.categoryID(),
+				query.gameVersionString(), query.pageIndex(), query.pageSize(),
+				query.searchFilter(), query.sortingMethod().id()
+		};
+	}
+
+	@Nullable
+	private static <C extends Collection<ForgeSvcFile>> C setProjectID(
+			@Nullable C files, int projectID
+	) {
+		if (files != null) {
+			for (ForgeSvcFile file : files) {
+				file.setProjectID(projectID);
+			}
+		}
+
+		return files;
+	}
+
+	@Nullable
+	private static ForgeSvcFile setProjectID(@Nullable ForgeSvcFile file, int projectID) {
+		if (file != null) {
+			file.setProjectID(projectID);
+		}
+
+		return file;
+	}
+
+	@Nullable
+	private static LazyHTML toHTML(@Nullable String html) {
+		if (html == null) {
+			return null;
+		}
+
+		return new LazyHTML(html).rewriteLinks(ForgeSvcProvider::replaceLinkout);
+	}
+
+	private static String replaceLinkout(String link) {
+		if (!link.startsWith("/linkout?remoteUrl=")) {
+			return link;
 		}
 
-		return element;
+		final String encoded = link.substring("/linkout?remoteUrl=".length());
+		return decode(decode(encoded));
 	}
 
 	private static String decode(String encoded) {
@@ -23,8 +23,9 @@
 
 /**
  * This package contains the ForgeSvc implementation of CurseAPI.
- * All classes other than {@link com.therandomlabs.curseapi.forgesvc.ForgeSvcProvider} are
- * not accessible to classes outside of this package, and directly referencing
+ * All classes other than {@link com.therandomlabs.curseapi.forgesvc.ForgeSvcProvider} and
+ * {@link com.therandomlabs.curseapi.forgesvc.ForgeSvcAdapterFactory} are not accessible to
+ * classes outside of this package, and directly referencing
  * {@link com.therandomlabs.curseapi.forgesvc.ForgeSvcProvider} should be avoided when possible.
  */
 package com.therandomlabs.curseapi.forgesvc;
@@ -36,7 +36,7 @@ import com.therandomlabs.curseapi.file.CurseFiles;
 import com.therandomlabs.curseapi.game.CurseCategory;
 import com.therandomlabs.curseapi.game.CurseCategorySection;
 import com.therandomlabs.curseapi.game.CurseGame;
-import com.therandomlabs.curseapi.util.JsoupUtils;
+import com.therandomlabs.curseapi.util.LazyHTML;
 import okhttp3.HttpUrl;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jsoup.nodes.Element;
@@ -241,6 +241,20 @@ public abstract class CurseProject implements Comparable<CurseProject> {
 	 */
 	public abstract Element description() throws CurseException;
 
+	/**
+	 * Returns this project's description as a {@link LazyHTML}, which is only parsed if
+	 * {@link LazyHTML#element()} is called.
+	 * If this {@link CurseProject} implementation caches this value,
+	 * it may be refreshed by calling {@link #refreshDescription()}.
+	 * By default, the result of {@link #description()} is wrapped.
+	 *
+	 * @return a {@link LazyHTML} that contains this project's description.
+	 * @throws CurseException if an error occurs.
+	 */
+	public LazyHTML descriptionHTML() throws CurseException {
+		return LazyHTML.of(description());
+	}
+
 	/**
 	 * Returns this project's description as plain text.
 	 * If this {@link CurseProject} implementation caches this value,
@@ -248,7 +262,7 @@ public abstract class CurseProject implements Comparable<CurseProject> {
 	 *
 	 * @return this project's description as plain text.
 	 * @throws CurseException if an error occurs.
-	 * @see JsoupUtils#getPlainText(Element, int)
+	 * @see LazyHTML#plainText(int)
 	 */
 	public String descriptionPlainText() throws CurseException {
 		return descriptionPlainText(Integer.MAX_VALUE);
@@ -262,11 +276,11 @@ public abstract class CurseProject implements Comparable<CurseProject> {
 	 * @param maxLineLength the maximum length of a line. This value is used for word wrapping.
 	 * @return this project's description as plain text.
 	 * @throws CurseException if an error occurs.
-	 * @see JsoupUtils#getPlainText(Element, int)
+	 * @see LazyHTML#plainText(int)
 	 */
 	public String descriptionPlainText(int maxLineLength) throws CurseException {
 		Preconditions.checkArgument(maxLineLength > 0, "maxLineLength should be greater than 0");
-		return JsoupUtils.getPlainText(description(), maxLineLength).trim();
+		return descriptionHTML().plainText(maxLineLength).trim();
 	}
 
 	/**
@@ -0,0 +1,744 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.project;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.therandomlabs.curseapi.game.CurseCategory;
+import com.therandomlabs.curseapi.game.CurseCategorySection;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A local full-text search index of {@link CurseProject}s that executes
+ * {@link CurseSearchQuery}s without accessing the network.
+ * <p>
+ * Project names, slugs, summaries, author names, category names and optionally plain-text
+ * descriptions are split into lowercase alphanumeric tokens and stored in an inverted index.
+ * Matches in names are weighted more heavily than matches in slugs and author names, which
+ * are in turn weighted more heavily than matches in summaries, category names and descriptions.
+ * <p>
+ * A project matches a search filter if it contains every token in the search filter, where the
+ * last token also matches any indexed token that it is a prefix of, so that incomplete words
+ * typed into an autocomplete field match. Projects that match a search filter are ranked using
+ * BM25, and ties are broken by download count. If no search filter is specified, projects are
+ * ordered according to the {@link CurseSearchQuery}'s sorting method.
+ * <p>
+ * The game, category section, category and game version of a {@link CurseSearchQuery} are
+ * honored, as are its page index and page size. A project only matches a game version if
+ * the game version was specified when the project was indexed.
+ * <p>
+ * This class is thread-safe. Searches may be executed concurrently, while updates are
+ * executed exclusively.
+ */
+public final class CurseProjectIndex {
+	private static final class Document {
+		final CurseProject project;
+		final int gameID;
+		final int categorySectionID;
+		final int[] categoryIDs;
+		final Set<String> gameVersionStrings;
+		final float length;
+		boolean deleted;
+
+		Document(
+				CurseProject project, int[] categoryIDs, Set<String> gameVersionStrings,
+				float length
+		) {
+			this.project = project;
+			gameID = project.gameID();
+			final CurseCategorySection section = project.categorySection();
+			categorySectionID = section == null ? 0 : section.id();
+			this.categoryIDs = categoryIDs;
+			this.gameVersionStrings = gameVersionStrings;
+			this.length = length;
+		}
+	}
+
+	private static final class Postings {
+		int[] documents = new int[4];
+		float[] frequencies = new float[4];
+		int size;
+
+		void add(int document, float frequency) {
+			if (size == documents.length) {
+				documents = Arrays.copyOf(documents, size * 2);
+				frequencies = Arrays.copyOf(frequencies, size * 2);
+			}
+
+			documents[size] = document;
+			frequencies[size++] = frequency;
+		}
+	}
+
+	private static final class Token {
+		final String token;
+		final List<Map.Entry<String, Postings>> expansions;
+		final int postingsSize;
+
+		Token(String token, List<Map.Entry<String, Postings>> expansions) {
+			this.token = token;
+			this.expansions = expansions;
+			int postingsSize = 0;
+
+			for (Map.Entry<String, Postings> expansion : expansions) {
+				postingsSize += expansion.getValue().size;
+			}
+
+			this.postingsSize = postingsSize;
+		}
+	}
+
+	private static final class Match {
+		final Document document;
+		final float score;
+
+		Match(Document document, float score) {
+			this.document = document;
+			this.score = score;
+		}
+	}
+
+	//Buffers that are reused between searches so that scores are not boxed.
+	private static final class Accumulator {
+		float[] scores = new float[0];
+		int[] matchedTokens = new int[0];
+		int[] touched = new int[16];
+		int touchedSize;
+
+		void ensureCapacity(int documents) {
+			if (scores.length < documents) {
+				scores = Arrays.copyOf(scores, documents);
+				matchedTokens = Arrays.copyOf(matchedTokens, documents);
+			}
+		}
+
+		void touch(int document) {
+			if (touchedSize == touched.length) {
+				touched = Arrays.copyOf(touched, touchedSize * 2);
+			}
+
+			touched[touchedSize++] = document;
+		}
+
+		void reset() {
+			for (int i = 0; i < touchedSize; i++) {
+				scores[touched[i]] = 0.0F;
+				matchedTokens[touched[i]] = 0;
+			}
+
+			touchedSize = 0;
+		}
+	}
+
+	private static final float NAME_WEIGHT = 4.0F;
+	private static final float SLUG_WEIGHT = 2.0F;
+	private static final float AUTHOR_WEIGHT = 2.0F;
+	private static final float SUMMARY_WEIGHT = 1.0F;
+	private static final float CATEGORY_WEIGHT = 1.0F;
+	private static final float DESCRIPTION_WEIGHT = 0.5F;
+
+	//Tokens that only match the prefix of the last search filter token are weighted less than
+	//exact matches.
+	private static final float PREFIX_WEIGHT = 0.75F;
+	private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+	private static final float K1 = 1.2F;
+	private static final float B = 0.75F;
+
+	//These are the default page sizes that ForgeSvc seems to use.
+	private static final int DEFAULT_PAGE_SIZE = 500;
+	private static final int DEFAULT_FILTERED_PAGE_SIZE = 25;
+
+	//At most this many accumulators are kept for reuse, as each is as large as the index.
+	//Pooling them rather than keeping one per thread means that searches executed on
+	//many short-lived threads, such as virtual threads, do not each allocate one.
+	private static final int MAX_POOLED_ACCUMULATORS =
+			Runtime.getRuntime().availableProcessors();
+
+	private final NavigableMap<String, Postings> postings = new TreeMap<>();
+	private final Queue<Accumulator> accumulators =
+			new ArrayBlockingQueue<>(MAX_POOLED_ACCUMULATORS);
+	private final List<Document> documents = new ArrayList<>();
+	private final Map<Integer, Integer> documentsByProjectID = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private double totalLength;
+	private int deletedDocuments;
+
+	/**
+	 * Adds the specified {@link CurseProject} to this {@link CurseProjectIndex}, or replaces
+	 * the indexed version of it if it has already been indexed.
+	 * The project does not match any game versions, and its description is not indexed.
+	 *
+	 * @param project a {@link CurseProject}.
+	 */
+	public void put(CurseProject project) {
+		put(project, Collections.emptySet(), null);
+	}
+
+	/**
+	 * Adds the specified {@link CurseProject} to this {@link CurseProjectIndex}, or replaces
+	 * the indexed version of it if it has already been indexed.
+	 *
+	 * @param project a {@link CurseProject}.
+	 * @param gameVersionStrings the game version strings that the project should match, for
+	 * example the game version strings of its files.
+	 * @param descriptionPlainText the project's description as plain text, or {@code null} if
+	 * its description should not be indexed.
+	 */
+	public void put(
+			CurseProject project, Collection<String> gameVersionStrings,
+			@Nullable String descriptionPlainText
+	) {
+		Preconditions.checkNotNull(project, "project should not be null");
+		Preconditions.checkNotNull(gameVersionStrings, "gameVersionStrings should not be null");
+
+		//Documents are tokenized before the lock is acquired.
+		final Map<String, Float> frequencies = new HashMap<>();
+		addTokens(frequencies, project.name(), NAME_WEIGHT);
+		addTokens(frequencies, project.slug(), SLUG_WEIGHT);
+		addTokens(frequencies, project.summary(), SUMMARY_WEIGHT);
+		addTokens(frequencies, descriptionPlainText, DESCRIPTION_WEIGHT);
+
+		for (CurseMember author : project.authors()) {
+			addTokens(frequencies, author.name(), AUTHOR_WEIGHT);
+		}
+
+		final Set<CurseCategory> categories = project.categories();
+		final int[] categoryIDs = new int[categories.size()];
+		int categoryIndex = 0;
+
+		for (CurseCategory category : categories) {
+			categoryIDs[categoryIndex++] = category.id();
+			addTokens(frequencies, category.name(), CATEGORY_WEIGHT);
+		}
+
+		float length = 0.0F;
+
+		for (float frequency : frequencies.values()) {
+			length += frequency;
+		}
+
+		final Document document = new Document(
+				project, categoryIDs, ImmutableSet.copyOf(gameVersionStrings), length
+		);
+
+		lock.writeLock().lock();
+
+		try {
+			removeDocument(project.id());
+
+			final int documentIndex = documents.size();
+			documents.add(document);
+			documentsByProjectID.put(project.id(), documentIndex);
+			totalLength += length;
+
+			for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+				postings.computeIfAbsent(entry.getKey(), key -> new Postings()).
+						add(documentIndex, entry.getValue());
+			}
+
+			if (deletedDocuments > documentsByProjectID.size()) {
+				compact();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the {@link CurseProject} with the specified ID from this
+	 * {@link CurseProjectIndex}.
+	 *
+	 * @param id a project ID.
+	 * @return {@code true} if the project was indexed, or otherwise {@code false}.
+	 */
+	public boolean remove(int id) {
+		lock.writeLock().lock();
+
+		try {
+			return removeDocument(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns whether the {@link CurseProject} with the specified ID has been indexed.
+	 *
+	 * @param id a project ID.
+	 * @return {@code true} if the project with the specified ID has been indexed,
+	 * or otherwise {@code false}.
+	 */
+	public boolean contains(int id) {
+		lock.readLock().lock();
+
+		try {
+			return documentsByProjectID.containsKey(id);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of indexed {@link CurseProject}s.
+	 *
+	 * @return the number of indexed {@link CurseProject}s.
+	 */
+	public int size() {
+		lock.readLock().lock();
+
+		try {
+			return documentsByProjectID.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns whether any indexed {@link CurseProject} matches the game, category section,
+	 * category and game version of the specified {@link CurseSearchQuery}.
+	 * The search filter, sorting method and pagination of the query are ignored.
+	 * If this method returns {@code false}, {@link #search(CurseSearchQuery)} always returns
+	 * an empty list for the query, as none of the projects that it could match have been
+	 * indexed.
+	 *
+	 * @param query a {@link CurseSearchQuery}.
+	 * @return {@code true} if any indexed {@link CurseProject} matches the filters of the
+	 * specified {@link CurseSearchQuery}, or otherwise {@code false}.
+	 */
+	public boolean covers(CurseSearchQuery query) {
+		Preconditions.checkNotNull(query, "query should not be null");
+		lock.readLock().lock();
+
+		try {
+			for (Document document : documents) {
+				if (!document.deleted && matches(document, query)) {
+					return true;
+				}
+			}
+
+			return false;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Executes the specified {@link CurseSearchQuery} on the indexed {@link CurseProject}s.
+	 *
+	 * @param query a {@link CurseSearchQuery}.
+	 * @return a mutable {@link List} containing the page of matching {@link CurseProject}s
+	 * specified by the query's page index and page size.
+	 */
+	public List<CurseProject> search(CurseSearchQuery query) {
+		Preconditions.checkNotNull(query, "query should not be null");
+
+		final List<String> tokens = tokenize(query.searchFilter());
+		final int pageSize = query.pageSize() == 0 ?
+				(tokens.isEmpty() ? DEFAULT_PAGE_SIZE : DEFAULT_FILTERED_PAGE_SIZE) :
+				query.pageSize();
+		final int limit = (int) Math.min(Integer.MAX_VALUE, (long) query.pageIndex() + pageSize);
+
+		lock.readLock().lock();
+
+		try {
+			final List<Document> page = tokens.isEmpty() ?
+					top(filter(query), sortingComparator(query.sortingMethod()), limit) :
+					searchTokens(query, tokens, limit);
+			final List<CurseProject> projects = new ArrayList<>(pageSize);
+
+			for (int i = query.pageIndex(); i < page.size(); i++) {
+				projects.add(page.get(i).project);
+			}
+
+			return projects;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private List<Document> searchTokens(CurseSearchQuery query, List<String> tokens, int limit) {
+		final List<Token> expandedTokens = new ArrayList<>(tokens.size());
+
+		for (int i = 0; i < tokens.size(); i++) {
+			final String token = tokens.get(i);
+			final Token expandedToken = new Token(token, expand(token, i == tokens.size() - 1));
+
+			if (expandedToken.expansions.isEmpty()) {
+				return Collections.emptyList();
+			}
+
+			expandedTokens.add(expandedToken);
+		}
+
+		//The rarest tokens are processed first so that fewer documents are accumulated.
+		expandedTokens.sort(Comparator.comparingInt(token -> token.postingsSize));
+
+		final Comparator<Document> downloadCountComparator =
+				sortingComparator(CurseSearchSort.TOTAL_DOWNLOADS);
+		final Comparator<Match> comparator = Comparator.<Match>comparingDouble(
+				match -> -match.score
+		).thenComparing((match1, match2) -> downloadCountComparator.compare(
+				match1.document, match2.document
+		));
+		//The worst of the best matches found so far is at the head of this queue.
+		final PriorityQueue<Match> top = new PriorityQueue<>(
+				Math.min(limit, Math.max(1, documents.size())), comparator.reversed()
+		);
+
+		final Accumulator pooledAccumulator = accumulators.poll();
+		final Accumulator accumulator =
+				pooledAccumulator == null ? new Accumulator() : pooledAccumulator;
+		accumulator.ensureCapacity(documents.size());
+
+		try {
+			final float averageLength =
+					(float) (totalLength / Math.max(1, documentsByProjectID.size()));
+
+			for (int i = 0; i < expandedTokens.size(); i++) {
+				final Token token = expandedTokens.get(i);
+
+				for (Map.Entry<String, Postings> expansion : token.expansions) {
+					accumulate(
+							accumulator, i, expansion.getValue(),
+							expansion.getKey().equals(token.token) ? 1.0F : PREFIX_WEIGHT,
+							averageLength
+					);
+				}
+			}
+
+			for (int i = 0; i < accumulator.touchedSize; i++) {
+				final int documentIndex = accumulator.touched[i];
+				final Document document = documents.get(documentIndex);
+
+				if (accumulator.matchedTokens[documentIndex] != expandedTokens.size()) {
+					continue;
+				}
+
+				final float score = accumulator.scores[documentIndex];
+
+				//Matches that cannot appear on or before the requested page are discarded
+				//before they are filtered so that common tokens do not cause allocations.
+				if (top.size() == limit && score < top.peek().score) {
+					continue;
+				}
+
+				if (!matches(document, query)) {
+					continue;
+				}
+
+				final Match match = new Match(document, score);
+
+				if (top.size() < limit) {
+					top.add(match);
+				} else if (comparator.compare(match, top.peek()) < 0) {
+					top.poll();
+					top.add(match);
+				}
+			}
+		} finally {
+			accumulator.reset();
+			//If the pool is full, the accumulator is discarded.
+			accumulators.offer(accumulator);
+		}
+
+		final List<Match> sortedTop = new ArrayList<>(top);
+		sortedTop.sort(comparator);
+		final List<Document> topDocuments = new ArrayList<>(sortedTop.size());
+
+		for (Match match : sortedTop) {
+			topDocuments.add(match.document);
+		}
+
+		return topDocuments;
+	}
+
+	private List<Map.Entry<String, Postings>> expand(String token, boolean prefix) {
+		if (!prefix) {
+			final Postings tokenPostings = postings.get(token);
+			return tokenPostings == null ? Collections.emptyList() :
+					Collections.singletonList(new HashMap.SimpleImmutableEntry<>(
+							token, tokenPostings
+					));
+		}
+
+		//If there are too many expansions, the tokens that appear in the most documents are
+		//kept so that which projects match does not depend on the order of the vocabulary.
+		//The expansion with the fewest documents is at the head of this queue.
+		final Comparator<Map.Entry<String, Postings>> comparator =
+				Comparator.comparingInt(entry -> entry.getValue().size);
+		final PriorityQueue<Map.Entry<String, Postings>> expansions =
+				new PriorityQueue<>(MAX_PREFIX_EXPANSIONS + 1, comparator);
+
+		for (Map.Entry<String, Postings> entry :
+				postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+			if (expansions.size() < MAX_PREFIX_EXPANSIONS) {
+				expansions.add(entry);
+			} else if (comparator.compare(entry, expansions.peek()) > 0) {
+				expansions.poll();
+				expansions.add(entry);
+			}
+		}
+
+		//Exact matches are always kept.
+		final Postings tokenPostings = postings.get(token);
+
+		if (tokenPostings != null) {
+			expansions.add(new HashMap.SimpleImmutableEntry<>(token, tokenPostings));
+		}
+
+		return new ArrayList<>(expansions);
+	}
+
+	private void accumulate(
+			Accumulator accumulator, int tokenIndex, Postings tokenPostings, float weight,
+			float averageLength
+	) {
+		final int documentCount = documentsByProjectID.size();
+		final float idf = (float) Math.log(
+				1.0 + (documentCount - tokenPostings.size + 0.5) / (tokenPostings.size + 0.5)
+		);
+
+		for (int i = 0; i < tokenPostings.size; i++) {
+			final int documentIndex = tokenPostings.documents[i];
+			final int matchedTokens = accumulator.matchedTokens[documentIndex];
+
+			//A document is only accumulated if it has matched every previous token.
+			//Documents that have already matched this token through another prefix expansion
+			//are also accumulated.
+			if (matchedTokens != tokenIndex && matchedTokens != tokenIndex + 1) {
+				continue;
+			}
+
+			final Document document = documents.get(documentIndex);
+
+			if (document.deleted) {
+				continue;
+			}
+
+			if (tokenIndex == 0 && matchedTokens == 0) {
+				accumulator.touch(documentIndex);
+			}
+
+			final float frequency = tokenPostings.frequencies[i];
+			accumulator.scores[documentIndex] += weight * idf * frequency * (K1 + 1.0F) /
+					(frequency + K1 * (1.0F - B + B * document.length / averageLength));
+			accumulator.matchedTokens[documentIndex] = tokenIndex + 1;
+		}
+	}
+
+	private List<Document> filter(CurseSearchQuery query) {
+		final List<Document> matches = new ArrayList<>();
+
+		for (Document document : documents) {
+			if (!document.deleted && matches(document, query)) {
+				matches.add(document);
+			}
+		}
+
+		return matches;
+	}
+
+	private boolean removeDocument(int id) {
+		final Integer documentIndex = documentsByProjectID.remove(id);
+
+		if (documentIndex == null) {
+			return false;
+		}
+
+		final Document document = documents.get(documentIndex);
+		document.deleted = true;
+		totalLength -= document.length;
+		deletedDocuments++;
+		return true;
+	}
+
+	//Removes deleted documents from the postings and renumbers the remaining documents.
+	private void compact() {
+		final int[] newIndexes = new int[documents.size()];
+		final List<Document> liveDocuments = new ArrayList<>(documentsByProjectID.size());
+
+		for (int i = 0; i < documents.size(); i++) {
+			final Document document = documents.get(i);
+
+			if (document.deleted) {
+				newIndexes[i] = -1;
+			} else {
+				newIndexes[i] = liveDocuments.size();
+				documentsByProjectID.put(document.project.id(), liveDocuments.size());
+				liveDocuments.add(document);
+			}
+		}
+
+		postings.values().removeIf(tokenPostings -> {
+			int size = 0;
+
+			for (int i = 0; i < tokenPostings.size; i++) {
+				final int newIndex = newIndexes[tokenPostings.documents[i]];
+
+				if (newIndex != -1) {
+					tokenPostings.documents[size] = newIndex;
+					tokenPostings.frequencies[size++] = tokenPostings.frequencies[i];
+				}
+			}
+
+			tokenPostings.size = size;
+			return size == 0;
+		});
+
+		documents.clear();
+		documents.addAll(liveDocuments);
+		deletedDocuments = 0;
+	}
+
+	private static boolean matches(Document document, CurseSearchQuery query) {
+		if (query.gameID() != 0 && document.gameID != query.gameID()) {
+			return false;
+		}
+
+		if (query.categorySectionID() != 0 &&
+				document.categorySectionID != query.categorySectionID()) {
+			return false;
+		}
+
+		if (query.categoryID() != 0) {
+			boolean hasCategory = false;
+
+			for (int categoryID : document.categoryIDs) {
+				if (categoryID == query.categoryID()) {
+					hasCategory = true;
+					break;
+				}
+			}
+
+			if (!hasCategory) {
+				return false;
+			}
+		}
+
+		return query.gameVersionString().isEmpty() ||
+				document.gameVersionStrings.contains(query.gameVersionString());
+	}
+
+	private static <T> List<T> top(List<T> elements, Comparator<T> comparator, int limit) {
+		if (elements.size() <= limit) {
+			elements.sort(comparator);
+			return elements;
+		}
+
+		//Only the elements on or before the requested page need to be sorted.
+		final PriorityQueue<T> queue = new PriorityQueue<>(limit, comparator.reversed());
+
+		for (T element : elements) {
+			if (queue.size() < limit) {
+				queue.add(element);
+			} else if (comparator.compare(element, queue.peek()) < 0) {
+				queue.poll();
+				queue.add(element);
+			}
+		}
+
+		final List<T> top = new ArrayList<>(queue);
+		top.sort(comparator);
+		return top;
+	}
+
+	private static Comparator<Document> sortingComparator(CurseSearchSort sortingMethod) {
+		final Comparator<Document> comparator;
+
+		switch (sortingMethod) {
+			case LAST_UPDATED:
+				comparator = Comparator.comparing(
+						document -> document.project.lastUpdateTime(), Comparator.reverseOrder()
+				);
+				break;
+			case NAME:
+				comparator = Comparator.comparing(
+						document -> document.project.name(), String.CASE_INSENSITIVE_ORDER
+				);
+				break;
+			case AUTHOR:
+				comparator = Comparator.comparing(
+						document -> document.project.author().name(),
+						String.CASE_INSENSITIVE_ORDER
+				);
+				break;
+			default:
+				//Featured projects are not known locally, so download counts are used instead.
+				comparator = Comparator.comparingInt(
+						document -> -document.project.downloadCount()
+				);
+		}
+
+		return comparator.thenComparingInt(document -> document.project.id());
+	}
+
+	private static void addTokens(
+			Map<String, Float> frequencies, @Nullable String text, float weight
+	) {
+		if (text != null) {
+			for (String token : tokenize(text)) {
+				frequencies.merge(token, weight, Float::sum);
+			}
+		}
+	}
+
+	private static List<String> tokenize(String text) {
+		final List<String> tokens = new ArrayList<>();
+		final String lowerCase = text.toLowerCase(Locale.ROOT);
+		int start = -1;
+
+		for (int i = 0; i <= lowerCase.length(); i++) {
+			if (i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i))) {
+				if (start == -1) {
+					start = i;
+				}
+			} else if (start != -1) {
+				tokens.add(lowerCase.substring(start, i));
+				start = -1;
+			}
+		}
+
+		return tokens;
+	}
+}
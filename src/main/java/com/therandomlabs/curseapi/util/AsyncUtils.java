@@ -0,0 +1,175 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.CurseException;
+
+/**
+ * Contains utility methods for working with {@link CompletableFuture}s.
+ */
+public final class AsyncUtils {
+	private static volatile Executor executor =
+			Executors.newCachedThreadPool(daemonThreadFactory("async"));
+
+	private AsyncUtils() {}
+
+	/**
+	 * Returns a {@link CompletableFuture} that is completed with the value returned by the
+	 * specified {@link CheckedSupplier}, which is called using the {@link Executor} used by
+	 * CurseAPI for blocking asynchronous tasks.
+	 * If the {@link CheckedSupplier} throws a {@link CurseException}, the
+	 * {@link CompletableFuture} is completed exceptionally with that {@link CurseException}.
+	 *
+	 * @param supplier a {@link CheckedSupplier}.
+	 * @param <T> the type of the result.
+	 * @return a {@link CompletableFuture}.
+	 * @see #setExecutor(Executor)
+	 */
+	public static <T> CompletableFuture<T> supplyAsync(
+			CheckedSupplier<T, CurseException> supplier
+	) {
+		Preconditions.checkNotNull(supplier, "supplier should not be null");
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return supplier.get();
+			} catch (CurseException ex) {
+				throw new CompletionException(ex);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Waits for the specified {@link CompletableFuture} to complete and returns its result.
+	 * If the {@link CompletableFuture} completes exceptionally with a {@link CurseException},
+	 * the {@link CurseException} is rethrown.
+	 *
+	 * @param future a {@link CompletableFuture}.
+	 * @param <T> the type of the result.
+	 * @return the result of the {@link CompletableFuture}.
+	 * @throws CurseException if the {@link CompletableFuture} completes exceptionally with
+	 * a {@link CurseException} or if the current thread is interrupted.
+	 */
+	public static <T> T join(CompletableFuture<T> future) throws CurseException {
+		Preconditions.checkNotNull(future, "future should not be null");
+
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CurseException("Interrupted while waiting for result", ex);
+		} catch (ExecutionException ex) {
+			throw rethrow(ex.getCause());
+		}
+	}
+
+	/**
+	 * Returns the underlying cause of the specified {@link Throwable} if it is a
+	 * {@link CompletionException} or an {@link ExecutionException}.
+	 *
+	 * @param throwable a {@link Throwable}.
+	 * @return the underlying cause of the specified {@link Throwable}.
+	 */
+	public static Throwable unwrap(Throwable throwable) {
+		Preconditions.checkNotNull(throwable, "throwable should not be null");
+
+		while ((throwable instanceof CompletionException ||
+				throwable instanceof ExecutionException) && throwable.getCause() != null) {
+			throwable = throwable.getCause();
+		}
+
+		return throwable;
+	}
+
+	/**
+	 * Rethrows the underlying cause of the specified {@link Throwable} if it is unchecked,
+	 * or otherwise returns it as a {@link CurseException} so that it can be thrown.
+	 *
+	 * @param throwable a {@link Throwable}.
+	 * @return the underlying cause of the specified {@link Throwable} as a {@link CurseException}.
+	 * @see #unwrap(Throwable)
+	 */
+	public static CurseException rethrow(Throwable throwable) {
+		final Throwable cause = unwrap(throwable);
+
+		if (cause instanceof CurseException) {
+			return (CurseException) cause;
+		}
+
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+
+		return new CurseException("Asynchronous task failed", cause);
+	}
+
+	/**
+	 * Returns the {@link Executor} used by CurseAPI for blocking asynchronous tasks.
+	 *
+	 * @return the {@link Executor} used by CurseAPI for blocking asynchronous tasks.
+	 */
+	public static Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the {@link Executor} used by CurseAPI for blocking asynchronous tasks.
+	 * The previous {@link Executor} is not shut down.
+	 *
+	 * @param executor an {@link Executor}.
+	 */
+	public static void setExecutor(Executor executor) {
+		Preconditions.checkNotNull(executor, "executor should not be null");
+		AsyncUtils.executor = executor;
+	}
+
+	/**
+	 * Returns a {@link ThreadFactory} that creates daemon threads with the specified name prefix.
+	 *
+	 * @param name a thread name prefix.
+	 * @return a {@link ThreadFactory} that creates daemon threads.
+	 */
+	public static ThreadFactory daemonThreadFactory(String name) {
+		Preconditions.checkNotNull(name, "name should not be null");
+		final AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			final Thread thread =
+					new Thread(runnable, "curseapi-" + name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
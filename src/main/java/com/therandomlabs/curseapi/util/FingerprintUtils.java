@@ -0,0 +1,238 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.CurseException;
+
+/**
+ * Contains utility methods for computing CurseForge file fingerprints.
+ * <p>
+ * A CurseForge fingerprint is the 32-bit MurmurHash2 (seed {@code 1}) of the contents of a file
+ * with all whitespace bytes ({@code '\t'}, {@code '\n'}, {@code '\r'} and {@code ' '}) removed,
+ * interpreted as an unsigned integer.
+ * Files are read using memory-mapped I/O, and no memory is allocated per byte or per block.
+ */
+public final class FingerprintUtils {
+	private static final int SEED = 1;
+	private static final int M = 0x5bd1e995;
+	private static final int R = 24;
+
+	//Files are mapped in windows so that files larger than 2 GiB can be hashed.
+	private static final long MAPPING_WINDOW_SIZE = 64L * 1024L * 1024L;
+
+	private FingerprintUtils() {}
+
+	/**
+	 * Computes the CurseForge fingerprint of the specified bytes.
+	 *
+	 * @param bytes a byte array.
+	 * @return the CurseForge fingerprint of the specified bytes.
+	 */
+	public static long fingerprint(byte[] bytes) {
+		Preconditions.checkNotNull(bytes, "bytes should not be null");
+
+		int length = 0;
+
+		for (byte b : bytes) {
+			if (!isWhitespace(b)) {
+				length++;
+			}
+		}
+
+		final Murmur2 murmur2 = new Murmur2(length);
+
+		for (byte b : bytes) {
+			if (!isWhitespace(b)) {
+				murmur2.update(b);
+			}
+		}
+
+		return murmur2.finish();
+	}
+
+	/**
+	 * Computes the CurseForge fingerprint of the file at the specified {@link Path}.
+	 * The file is read twice using memory-mapped I/O: once to determine its length without
+	 * whitespace, which the hash is seeded with, and once to compute the hash.
+	 *
+	 * @param path a {@link Path} to a file.
+	 * @return the CurseForge fingerprint of the file at the specified {@link Path}.
+	 * @throws CurseException if an I/O error occurs.
+	 */
+	public static long fingerprint(Path path) throws CurseException {
+		Preconditions.checkNotNull(path, "path should not be null");
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			int length = 0;
+
+			for (long position = 0L; position < size; position += MAPPING_WINDOW_SIZE) {
+				final MappedByteBuffer buffer = map(channel, position, size);
+
+				while (buffer.hasRemaining()) {
+					if (!isWhitespace(buffer.get())) {
+						length++;
+					}
+				}
+			}
+
+			final Murmur2 murmur2 = new Murmur2(length);
+
+			for (long position = 0L; position < size; position += MAPPING_WINDOW_SIZE) {
+				final MappedByteBuffer buffer = map(channel, position, size);
+
+				while (buffer.hasRemaining()) {
+					final byte b = buffer.get();
+
+					if (!isWhitespace(b)) {
+						murmur2.update(b);
+					}
+				}
+			}
+
+			return murmur2.finish();
+		} catch (IOException ex) {
+			throw new CurseException("Failed to compute fingerprint: " + path, ex);
+		}
+	}
+
+	/**
+	 * Computes the CurseForge fingerprints of the files at the specified {@link Path}s in
+	 * parallel using {@link ParallelUtils#map(Collection, CheckedFunction)}.
+	 *
+	 * @param paths a {@link Collection} of {@link Path}s to files.
+	 * @return a mutable {@link Map} of {@link Path}s to fingerprints, in the iteration order of
+	 * the specified {@link Collection}.
+	 * @throws CurseException if an I/O error occurs.
+	 */
+	public static Map<Path, Long> fingerprints(Collection<Path> paths) throws CurseException {
+		Preconditions.checkNotNull(paths, "paths should not be null");
+
+		final List<Path> pathList = new ArrayList<>(paths);
+		final List<Long> fingerprints = ParallelUtils.map(pathList, FingerprintUtils::fingerprint);
+		final Map<Path, Long> map = new LinkedHashMap<>();
+
+		for (int i = 0; i < pathList.size(); i++) {
+			map.put(pathList.get(i), fingerprints.get(i));
+		}
+
+		return map;
+	}
+
+	/**
+	 * Computes the CurseForge fingerprints of all regular files directly inside the specified
+	 * directory in parallel. Subdirectories are not searched.
+	 *
+	 * @param directory a {@link Path} to a directory.
+	 * @return a mutable {@link Map} of {@link Path}s to fingerprints.
+	 * @throws CurseException if an I/O error occurs.
+	 * @see #fingerprints(Collection)
+	 */
+	public static Map<Path, Long> fingerprintDirectory(Path directory) throws CurseException {
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		Preconditions.checkArgument(
+				Files.isDirectory(directory), "directory should be a directory"
+		);
+
+		final List<Path> paths;
+
+		try (Stream<Path> stream = Files.list(directory)) {
+			paths = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		} catch (IOException ex) {
+			throw new CurseException("Failed to list files in directory: " + directory, ex);
+		}
+
+		return fingerprints(paths);
+	}
+
+	private static MappedByteBuffer map(FileChannel channel, long position, long size)
+			throws IOException {
+		return channel.map(
+				FileChannel.MapMode.READ_ONLY, position,
+				Math.min(MAPPING_WINDOW_SIZE, size - position)
+		);
+	}
+
+	private static boolean isWhitespace(byte b) {
+		return b == 9 || b == 10 || b == 13 || b == 32;
+	}
+
+	//A streaming implementation of 32-bit MurmurHash2 that is fed one byte at a time.
+	private static final class Murmur2 {
+		private int hash;
+		private int block;
+		private int blockLength;
+
+		Murmur2(int length) {
+			hash = SEED ^ length;
+		}
+
+		void update(byte b) {
+			block |= (b & 0xFF) << (blockLength * 8);
+
+			if (++blockLength == 4) {
+				int k = block * M;
+				k ^= k >>> R;
+				k *= M;
+
+				hash *= M;
+				hash ^= k;
+
+				block = 0;
+				blockLength = 0;
+			}
+		}
+
+		long finish() {
+			int h = hash;
+
+			//The remaining bytes are already in little-endian order in block.
+			if (blockLength > 0) {
+				h ^= block;
+				h *= M;
+			}
+
+			h ^= h >>> 13;
+			h *= M;
+			h ^= h >>> 15;
+
+			return h & 0xFFFFFFFFL;
+		}
+	}
+}
@@ -24,8 +24,10 @@
 package com.therandomlabs.curseapi.util;
 
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 import com.google.common.base.Splitter;
+import org.jsoup.internal.StringUtil;
 import org.jsoup.nodes.Node;
 import org.jsoup.nodes.TextNode;
 import org.jsoup.select.NodeVisitor;
@@ -53,18 +55,21 @@ final class FormattingVisitor implements NodeVisitor {
 
 	@Override
 	public void head(Node node, int depth) {
-		final String name = node.nodeName();
+		if (node instanceof TextNode) {
+			text(((TextNode) node).getWholeText());
+		} else {
+			head(node.nodeName());
+		}
+	}
 
+	@Override
+	public void tail(Node node, int depth) {
+		tail(node.nodeName(), node::attr, node::absUrl);
+	}
+
+	void head(String name) {
 		if ("pre".equals(name)) {
 			shouldGetWholeText = true;
-		} else if (node instanceof TextNode) {
-			final TextNode text = (TextNode) node;
-
-			if (shouldGetWholeText) {
-				append(text.getWholeText().trim());
-			} else {
-				append(text.text());
-			}
 		} else if ("a".equals(name)) {
 			append("[");
 		} else if ("li".equals(name)) {
@@ -79,23 +84,36 @@ final class FormattingVisitor implements NodeVisitor {
 		}
 	}
 
-	@Override
-	public void tail(Node node, int depth) {
-		final String name = node.nodeName();
+	void text(String wholeText) {
+		append(shouldGetWholeText ?
+				wholeText.trim() : StringUtil.normaliseWhitespace(wholeText));
+	}
 
+	void tail(String name, UnaryOperator<String> attribute, UnaryOperator<String> absoluteURL) {
 		if ("br".equals(name) || "dd".equals(name) || "dt".equals(name) || "p".equals(name) ||
 				"h1".equals(name) || "h2".equals(name) || "h3".equals(name) || "h4".equals(name) ||
 				"h5".equals(name)) {
 			append("\n");
 		} else if ("a".equals(name)) {
-			append(String.format("](%s)", node.absUrl("href")));
+			append(String.format("](%s)", absoluteURL.apply("href")));
 		} else if ("img".equals(name)) {
-			append(String.format("%s](%s)", node.attr("alt"), node.absUrl("src")));
+			append(String.format("%s](%s)", attribute.apply("alt"), absoluteURL.apply("src")));
 		} else if ("pre".equals(name)) {
 			shouldGetWholeText = false;
 		}
 	}
 
+	String getPlainText() {
+		//Some people (e.g. Speiger) do this in their changelogs.
+		String string = text.toString().replace("\n\n\n", "\n");
+
+		if (string.startsWith("\n")) {
+			string = string.substring(1);
+		}
+
+		return string.replace("\n", System.lineSeparator());
+	}
+
 	private void append(String string) {
 		if (string.startsWith("\n")) {
 			//Reset counter if the string starts with a newline.
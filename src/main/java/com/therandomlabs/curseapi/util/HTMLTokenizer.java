@@ -0,0 +1,306 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jsoup.parser.Parser;
+
+/**
+ * A minimal forward-only HTML tokenizer used by {@link LazyHTML} so that common operations
+ * can be performed on raw HTML without building a DOM.
+ * Comments, doctypes and processing instructions are skipped, and the contents of
+ * {@code script} and {@code style} elements are returned as {@link Token#DATA}.
+ */
+final class HTMLTokenizer {
+	enum Token {
+		START_TAG,
+		END_TAG,
+		TEXT,
+		DATA
+	}
+
+	private final String html;
+	private final List<String> attributeNames = new ArrayList<>();
+	private final List<String> attributeValues = new ArrayList<>();
+	private final List<Integer> attributeValueStarts = new ArrayList<>();
+	private final List<Integer> attributeValueEnds = new ArrayList<>();
+
+	private int position;
+	@Nullable
+	private Token token;
+	private int start;
+	private int end;
+	private String name = "";
+	private boolean selfClosing;
+	@Nullable
+	private String rawTextElement;
+
+	HTMLTokenizer(String html) {
+		this.html = html;
+	}
+
+	boolean next() {
+		while (position < html.length()) {
+			start = position;
+
+			if (rawTextElement != null) {
+				readRawText(rawTextElement);
+				rawTextElement = null;
+
+				if (end > start) {
+					token = Token.DATA;
+					return true;
+				}
+
+				continue;
+			}
+
+			if (!isMarkup(position)) {
+				readText();
+				return true;
+			}
+
+			final char next = html.charAt(position + 1);
+
+			if (html.startsWith("<!--", position)) {
+				final int commentEnd = html.indexOf("-->", position + 4);
+				position = commentEnd == -1 ? html.length() : commentEnd + 3;
+			} else if (next == '/' && position + 2 < html.length() &&
+					Character.isLetter(html.charAt(position + 2))) {
+				readEndTag();
+				return true;
+			} else if (Character.isLetter(next)) {
+				readStartTag();
+
+				if (!selfClosing && ("script".equals(name) || "style".equals(name))) {
+					rawTextElement = name;
+				}
+
+				return true;
+			} else {
+				//Bogus comments, doctypes and processing instructions are skipped.
+				final int tagEnd = html.indexOf('>', position);
+				position = tagEnd == -1 ? html.length() : tagEnd + 1;
+			}
+		}
+
+		token = null;
+		return false;
+	}
+
+	@Nullable
+	Token token() {
+		return token;
+	}
+
+	String name() {
+		return name;
+	}
+
+	boolean selfClosing() {
+		return selfClosing;
+	}
+
+	String text() {
+		return Parser.unescapeEntities(html.substring(start, end), false);
+	}
+
+	@Nullable
+	String attribute(String name) {
+		final int index = attributeNames.indexOf(name);
+		return index == -1 ? null : Parser.unescapeEntities(attributeValues.get(index), true);
+	}
+
+	int attributeValueStart(String name) {
+		final int index = attributeNames.indexOf(name);
+		return index == -1 ? -1 : attributeValueStarts.get(index);
+	}
+
+	int attributeValueEnd(String name) {
+		final int index = attributeNames.indexOf(name);
+		return index == -1 ? -1 : attributeValueEnds.get(index);
+	}
+
+	private boolean isMarkup(int index) {
+		if (html.charAt(index) != '<' || index + 1 >= html.length()) {
+			return false;
+		}
+
+		final char next = html.charAt(index + 1);
+		return Character.isLetter(next) || next == '/' || next == '!' || next == '?';
+	}
+
+	private void readText() {
+		int index = position + 1;
+
+		while (index < html.length() && !isMarkup(index)) {
+			index++;
+		}
+
+		token = Token.TEXT;
+		end = index;
+		position = index;
+	}
+
+	private void readRawText(String element) {
+		int index = html.indexOf("</", position);
+
+		while (index != -1 && !html.regionMatches(true, index + 2, element, 0, element.length())) {
+			index = html.indexOf("</", index + 2);
+		}
+
+		end = index == -1 ? html.length() : index;
+		position = end;
+	}
+
+	private void readStartTag() {
+		int index = readName(position + 1);
+
+		attributeNames.clear();
+		attributeValues.clear();
+		attributeValueStarts.clear();
+		attributeValueEnds.clear();
+		selfClosing = false;
+
+		while (true) {
+			index = skipWhitespace(index);
+
+			if (index >= html.length()) {
+				break;
+			}
+
+			final char character = html.charAt(index);
+
+			if (character == '>') {
+				index++;
+				break;
+			}
+
+			if (character == '/') {
+				index++;
+
+				if (index < html.length() && html.charAt(index) == '>') {
+					selfClosing = true;
+					index++;
+					break;
+				}
+
+				continue;
+			}
+
+			index = readAttribute(index);
+		}
+
+		token = Token.START_TAG;
+		end = index;
+		position = index;
+	}
+
+	private void readEndTag() {
+		final int index = readName(position + 2);
+		final int tagEnd = html.indexOf('>', index);
+
+		token = Token.END_TAG;
+		end = tagEnd == -1 ? html.length() : tagEnd + 1;
+		position = end;
+	}
+
+	private int readName(int index) {
+		final int nameStart = index;
+
+		while (index < html.length() && !isNameEnd(html.charAt(index))) {
+			index++;
+		}
+
+		name = html.substring(nameStart, index).toLowerCase(Locale.ROOT);
+		return index;
+	}
+
+	private int readAttribute(int index) {
+		final int nameStart = index;
+
+		//An attribute name may start with '='.
+		index++;
+
+		while (index < html.length() && !isNameEnd(html.charAt(index)) &&
+				html.charAt(index) != '=') {
+			index++;
+		}
+
+		final String attributeName = html.substring(nameStart, index).toLowerCase(Locale.ROOT);
+		String value = "";
+		int valueStart = -1;
+		int valueEnd = -1;
+
+		index = skipWhitespace(index);
+
+		if (index < html.length() && html.charAt(index) == '=') {
+			index = skipWhitespace(index + 1);
+			valueStart = index;
+			final char quote = index < html.length() ? html.charAt(index) : ' ';
+
+			if (quote == '"' || quote == '\'') {
+				final int closingQuote = html.indexOf(quote, index + 1);
+				final int valueContentEnd = closingQuote == -1 ? html.length() : closingQuote;
+				value = html.substring(index + 1, valueContentEnd);
+				index = Math.min(valueContentEnd + 1, html.length());
+			} else {
+				while (index < html.length() && !Character.isWhitespace(html.charAt(index)) &&
+						html.charAt(index) != '>') {
+					index++;
+				}
+
+				value = html.substring(valueStart, index);
+			}
+
+			valueEnd = index;
+		}
+
+		//As with jsoup, only the first occurrence of an attribute is kept.
+		if (!attributeNames.contains(attributeName)) {
+			attributeNames.add(attributeName);
+			attributeValues.add(value);
+			attributeValueStarts.add(valueStart);
+			attributeValueEnds.add(valueEnd);
+		}
+
+		return index;
+	}
+
+	private int skipWhitespace(int index) {
+		while (index < html.length() && Character.isWhitespace(html.charAt(index))) {
+			index++;
+		}
+
+		return index;
+	}
+
+	private static boolean isNameEnd(char character) {
+		return Character.isWhitespace(character) || character == '/' || character == '>';
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Represents a cryptographic hash algorithm that can be used to verify downloads.
+ *
+ * @see OkHttpUtils#download(okhttp3.HttpUrl, java.nio.file.Path, long, HashAlgorithm,
+ * com.google.common.hash.HashCode, ProgressListener)
+ */
+public enum HashAlgorithm {
+	/**
+	 * MD5.
+	 */
+	MD5("MD5"),
+	/**
+	 * SHA-1.
+	 */
+	SHA_1("SHA-1"),
+	/**
+	 * SHA-256.
+	 */
+	SHA_256("SHA-256");
+
+	private final String algorithm;
+
+	HashAlgorithm(String algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * Returns the standard name of this algorithm as used by {@link MessageDigest}.
+	 *
+	 * @return the standard name of this algorithm as used by {@link MessageDigest}.
+	 */
+	public String algorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * Returns a new {@link MessageDigest} that implements this algorithm.
+	 *
+	 * @return a new {@link MessageDigest} that implements this algorithm.
+	 */
+	public MessageDigest newMessageDigest() {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException ex) {
+			//Every Java platform is required to support these algorithms.
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -0,0 +1,350 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import retrofit2.Converter;
+import retrofit2.Invocation;
+
+/**
+ * A disk-backed HTTP cache for API responses that is installed on the {@link OkHttpClient}
+ * used by CurseAPI using {@link OkHttpUtils#setHttpCache(HttpCache)}.
+ * <p>
+ * Unlike {@link ResponseCache}, which stores deserialized responses in memory for a fixed
+ * time-to-live, this cache stores raw response bodies along with their {@code ETag} and
+ * {@code Last-Modified} validators. Once a stored response becomes stale, it is revalidated
+ * using a conditional request ({@code If-None-Match} or {@code If-Modified-Since}), and if the
+ * server responds with {@code 304 Not Modified}, the stored body is used instead of downloading
+ * it again.
+ * <p>
+ * By default, the {@code Cache-Control} headers sent by the server are honored. They may be
+ * overridden for each endpoint using {@link #setCacheControl(String, CacheControl)}, where the
+ * endpoint name is the name of the Retrofit service method, for example
+ * {@link com.therandomlabs.curseapi.forgesvc.ForgeSvcProvider#GET_FILES}. Only responses
+ * to Retrofit calls are stored, so that file downloads do not evict API responses.
+ * <p>
+ * Additionally, a hash of each deserialized response body is kept, and if a later response
+ * to the same request has a body with the same hash, for example because the server sends no
+ * validators or because the stored body was revalidated, the previously deserialized value is
+ * reused rather than parsing the body again. As with {@link ResponseCache}, these values are
+ * shared between callers, so callers should not mutate them directly.
+ */
+public final class HttpCache implements Closeable {
+	private static final CacheControl NO_STORE = new CacheControl.Builder().noStore().build();
+
+	private final okhttp3.Cache cache;
+	private final Cache<List<Object>, Object> deserializedBodies;
+	private final Map<String, CacheControl> cacheControls = new ConcurrentHashMap<>();
+
+	private final Interceptor interceptor = this::intercept;
+	private final Interceptor networkInterceptor = this::interceptNetwork;
+
+	//Retrofit converts a response body on the thread that executed the interceptor chain,
+	//so this is how convert() knows which request the body is a response to.
+	private final ThreadLocal<Request> convertedRequest = new ThreadLocal<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder conditionalHits = new LongAdder();
+	private final LongAdder bytesSaved = new LongAdder();
+	private final LongAdder reusedBodies = new LongAdder();
+
+	@Nullable
+	private volatile CacheControl defaultCacheControl;
+
+	/**
+	 * Constructs an {@link HttpCache} that stores responses in the specified directory.
+	 *
+	 * @param directory a {@link Path} to a directory. If the directory does not exist,
+	 * it is created.
+	 * @param maximumSize the maximum size of the stored responses in bytes.
+	 * @param maximumDeserializedBodies the maximum number of deserialized response bodies that
+	 * are kept in memory so that they can be reused.
+	 */
+	public HttpCache(Path directory, long maximumSize, long maximumDeserializedBodies) {
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		Preconditions.checkArgument(maximumSize > 0L, "maximumSize should be positive");
+		Preconditions.checkArgument(
+				maximumDeserializedBodies > 0L, "maximumDeserializedBodies should be positive"
+		);
+		cache = new okhttp3.Cache(directory.toFile(), maximumSize);
+		deserializedBodies = CacheBuilder.newBuilder().
+				maximumSize(maximumDeserializedBodies).
+				softValues().
+				build();
+	}
+
+	/**
+	 * Returns the {@code Cache-Control} header that overrides the one sent by the server for
+	 * responses from the specified endpoint.
+	 *
+	 * @param endpoint an endpoint name.
+	 * @return the overriding {@link CacheControl}, or {@code null} if the {@code Cache-Control}
+	 * header sent by the server is honored.
+	 */
+	@Nullable
+	public CacheControl getCacheControl(String endpoint) {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+		final CacheControl cacheControl = cacheControls.get(endpoint);
+		return cacheControl == null ? defaultCacheControl : cacheControl;
+	}
+
+	/**
+	 * Overrides the {@code Cache-Control} header sent by the server for responses from the
+	 * specified endpoint. For example, {@code new CacheControl.Builder().noCache().build()}
+	 * causes responses to be stored but revalidated every time they are used, and
+	 * {@code new CacheControl.Builder().maxAge(1, TimeUnit.HOURS).build()} causes them to be
+	 * used without revalidation for an hour.
+	 *
+	 * @param endpoint an endpoint name.
+	 * @param cacheControl a {@link CacheControl}. If this is {@code null}, the default
+	 * {@link CacheControl} set by {@link #setDefaultCacheControl(CacheControl)} is used.
+	 * @return this {@link HttpCache}.
+	 */
+	public HttpCache setCacheControl(String endpoint, @Nullable CacheControl cacheControl) {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+
+		if (cacheControl == null) {
+			cacheControls.remove(endpoint);
+		} else {
+			cacheControls.put(endpoint, cacheControl);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Overrides the {@code Cache-Control} header sent by the server for responses from
+	 * endpoints that have not been configured using {@link #setCacheControl(String, CacheControl)}.
+	 *
+	 * @param cacheControl a {@link CacheControl}. If this is {@code null}, the
+	 * {@code Cache-Control} header sent by the server is honored.
+	 * @return this {@link HttpCache}.
+	 */
+	public HttpCache setDefaultCacheControl(@Nullable CacheControl cacheControl) {
+		defaultCacheControl = cacheControl;
+		return this;
+	}
+
+	/**
+	 * Returns the number of responses that have been served from this cache without
+	 * a network request.
+	 *
+	 * @return the number of cache hits.
+	 */
+	public long hitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of conditional requests to which the server has responded with
+	 * {@code 304 Not Modified}, so that the stored response body was used.
+	 *
+	 * @return the number of {@code 304 Not Modified} responses.
+	 */
+	public long conditionalHitCount() {
+		return conditionalHits.sum();
+	}
+
+	/**
+	 * Returns the number of response body bytes that have been read from this cache rather
+	 * than downloaded, either because of a cache hit or a {@code 304 Not Modified} response.
+	 *
+	 * @return the number of bytes saved.
+	 */
+	public long bytesSaved() {
+		return bytesSaved.sum();
+	}
+
+	/**
+	 * Returns the number of times a response body has not been deserialized because an
+	 * identical response body had already been deserialized.
+	 *
+	 * @return the number of reused deserialized response bodies.
+	 */
+	public long reusedBodyCount() {
+		return reusedBodies.sum();
+	}
+
+	/**
+	 * Returns the underlying OkHttp {@link okhttp3.Cache}.
+	 *
+	 * @return the underlying OkHttp {@link okhttp3.Cache}.
+	 */
+	public okhttp3.Cache cache() {
+		return cache;
+	}
+
+	/**
+	 * Closes the underlying OkHttp {@link okhttp3.Cache}.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Override
+	public void close() throws IOException {
+		cache.close();
+	}
+
+	//Called by OkHttpUtils#setHttpCache.
+	OkHttpClient.Builder install(OkHttpClient.Builder builder) {
+		return builder.cache(cache).
+				addInterceptor(interceptor).
+				addNetworkInterceptor(networkInterceptor);
+	}
+
+	OkHttpClient.Builder uninstall(OkHttpClient.Builder builder) {
+		builder.interceptors().remove(interceptor);
+		builder.networkInterceptors().remove(networkInterceptor);
+		return builder.cache(null);
+	}
+
+	//Called by the converters created by RetrofitUtils.
+	@Nullable
+	Object convert(Type type, ResponseBody body, Converter<ResponseBody, ?> delegate)
+			throws IOException {
+		final byte[] bytes;
+
+		try (ResponseBody responseBody = body) {
+			bytes = responseBody.bytes();
+		}
+
+		final Request request = convertedRequest.get();
+		convertedRequest.remove();
+
+		//Identical bodies are only reused for the same request, as callers such as
+		//ForgeSvcProvider#file may set properties that are not in the body, e.g. project IDs.
+		if (request == null) {
+			return delegate.convert(ResponseBody.create(body.contentType(), bytes));
+		}
+
+		final Invocation invocation = request.tag(Invocation.class);
+		final List<Object> key = Arrays.asList(
+				type, request.method(), request.url(),
+				invocation == null ? null : invocation.arguments(),
+				Hashing.murmur3_128().hashBytes(bytes)
+		);
+		final Object cached = deserializedBodies.getIfPresent(key);
+
+		if (cached != null) {
+			reusedBodies.increment();
+			return cached;
+		}
+
+		final Object value = delegate.convert(ResponseBody.create(body.contentType(), bytes));
+
+		if (value != null) {
+			deserializedBodies.put(key, value);
+		}
+
+		return value;
+	}
+
+	private Response intercept(Interceptor.Chain chain) throws IOException {
+		final Response response = chain.proceed(chain.request());
+		convertedRequest.set(response.request());
+		final Response networkResponse = response.networkResponse();
+
+		if (response.cacheResponse() == null) {
+			return response;
+		}
+
+		if (networkResponse == null) {
+			hits.increment();
+		} else if (networkResponse.code() == 304) {
+			conditionalHits.increment();
+		} else {
+			return response;
+		}
+
+		final ResponseBody body = response.body();
+
+		if (body == null) {
+			return response;
+		}
+
+		//The bytes saved are counted as the stored body is read.
+		final ResponseBody countingBody = ResponseBody.create(
+				body.contentType(), body.contentLength(),
+				Okio.buffer(new ForwardingSource(body.source()) {
+					@Override
+					public long read(Buffer sink, long byteCount) throws IOException {
+						final long read = super.read(sink, byteCount);
+
+						if (read != -1L) {
+							bytesSaved.add(read);
+						}
+
+						return read;
+					}
+				})
+		);
+		return response.newBuilder().body(countingBody).build();
+	}
+
+	private Response interceptNetwork(Interceptor.Chain chain) throws IOException {
+		final Request request = chain.request();
+		final Response response = chain.proceed(request);
+		final Invocation invocation = request.tag(Invocation.class);
+
+		if (invocation == null) {
+			return response.newBuilder().
+					header("Cache-Control", NO_STORE.toString()).
+					build();
+		}
+
+		final CacheControl cacheControl = getCacheControl(invocation.method().getName());
+
+		if (cacheControl == null) {
+			return response;
+		}
+
+		return response.newBuilder().
+				removeHeader("Pragma").
+				removeHeader("Expires").
+				header("Cache-Control", cacheControl.toString()).
+				build();
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import java.nio.file.Path;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+//Emits JDK Flight Recorder events. Events are only created if they are enabled in a running
+//recording, so the cost is a few nanoseconds otherwise.
+//The event classes depend on jdk.jfr, so they are compiled for Java 11 in a separate source set
+//and packaged in the versioned section of the multi-release JAR. On Java 8, JFREventEmitter
+//cannot be found, and no events are emitted.
+final class JFREvents {
+	//Implemented by JFREventEmitter.
+	//The begin methods return null if the event is disabled, in which case the corresponding end
+	//method should not be called.
+	interface Emitter {
+		@Nullable
+		Object beginAPICall();
+
+		boolean isDecoding();
+
+		void decoded(long bytes, long durationNanos);
+
+		void endAPICall(Object event, Request request, int statusCode, int attempts);
+
+		@Nullable
+		Object beginGetElement();
+
+		void endGetElement(
+				Object event, Request request, int characters, long fetchDurationNanos,
+				long parseDurationNanos
+		);
+
+		@Nullable
+		Object beginHTMLProcessing();
+
+		void endHTMLProcessing(Object event, String operation, int characters);
+
+		@Nullable
+		Object beginDownload();
+
+		void endDownload(
+				Object event, HttpUrl url, Path path, long expectedSize, long bytesTransferred,
+				boolean successful
+		);
+	}
+
+	private static final String EMITTER_CLASS_NAME =
+			"com.therandomlabs.curseapi.util.JFREventEmitter";
+
+	private static final Logger logger = LoggerFactory.getLogger(JFREvents.class);
+
+	@Nullable
+	private static final Emitter emitter = getEmitter();
+
+	private JFREvents() {}
+
+	@Nullable
+	static Object beginAPICall() {
+		return emitter == null ? null : emitter.beginAPICall();
+	}
+
+	static boolean isDecoding() {
+		return emitter != null && emitter.isDecoding();
+	}
+
+	static void decoded(long bytes, long durationNanos) {
+		if (emitter != null) {
+			emitter.decoded(bytes, durationNanos);
+		}
+	}
+
+	@SuppressWarnings("NullAway")
+	static void endAPICall(Object event, Request request, int statusCode, int attempts) {
+		emitter.endAPICall(event, request, statusCode, attempts);
+	}
+
+	@Nullable
+	static Object beginGetElement() {
+		return emitter == null ? null : emitter.beginGetElement();
+	}
+
+	@SuppressWarnings("NullAway")
+	static void endGetElement(
+			Object event, Request request, int characters, long fetchDurationNanos,
+			long parseDurationNanos
+	) {
+		emitter.endGetElement(
+				event, request, characters, fetchDurationNanos, parseDurationNanos
+		);
+	}
+
+	@Nullable
+	static Object beginHTMLProcessing() {
+		return emitter == null ? null : emitter.beginHTMLProcessing();
+	}
+
+	@SuppressWarnings("NullAway")
+	static void endHTMLProcessing(Object event, String operation, int characters) {
+		emitter.endHTMLProcessing(event, operation, characters);
+	}
+
+	@Nullable
+	static Object beginDownload() {
+		return emitter == null ? null : emitter.beginDownload();
+	}
+
+	@SuppressWarnings("NullAway")
+	static void endDownload(
+			Object event, HttpUrl url, Path path, long expectedSize, long bytesTransferred,
+			boolean successful
+	) {
+		emitter.endDownload(event, url, path, expectedSize, bytesTransferred, successful);
+	}
+
+	@Nullable
+	private static Emitter getEmitter() {
+		try {
+			Class.forName("jdk.jfr.Event");
+		} catch (ClassNotFoundException ex) {
+			return null;
+		}
+
+		try {
+			return (Emitter) Class.forName(EMITTER_CLASS_NAME).getDeclaredConstructor().
+					newInstance();
+		} catch (ClassNotFoundException ex) {
+			//This is expected before Java 11, as the versioned section of the multi-release JAR
+			//for Java 11 is not read.
+			return null;
+		} catch (ReflectiveOperationException | LinkageError ex) {
+			logger.error("Failed to load JFR events", ex);
+			return null;
+		}
+	}
+}
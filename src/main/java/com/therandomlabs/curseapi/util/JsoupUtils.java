@@ -68,18 +68,14 @@ public final class JsoupUtils {
 	 * @see #emptyElement()
 	 */
 	public static Element parseBody(String html) {
-		final Element body = Jsoup.parseBodyFragment(html).body();
-		final Elements children = body.children();
+		final Object event = JFREvents.beginHTMLProcessing();
+		final Element element = parseBodyFragment(html);
 
-		if (children.isEmpty()) {
-			return emptyElement();
+		if (event != null) {
+			JFREvents.endHTMLProcessing(event, "parseBody", html.length());
 		}
 
-		if (children.size() == 1) {
-			return children.first();
-		}
-
-		return body.tagName("div");
+		return element;
 	}
 
 	/**
@@ -103,16 +99,30 @@ public final class JsoupUtils {
 		Preconditions.checkNotNull(element, "element should not be null");
 		Preconditions.checkArgument(maxLineLength > 0, "maxLineLength should be greater than 0");
 
+		final Object event = JFREvents.beginHTMLProcessing();
 		final FormattingVisitor formatter = new FormattingVisitor(maxLineLength);
 		NodeTraversor.traverse(formatter, element);
+		final String plainText = formatter.getPlainText();
+
+		if (event != null) {
+			JFREvents.endHTMLProcessing(event, "getPlainText", plainText.length());
+		}
 
-		//Some people (e.g. Speiger) do this in their changelogs.
-		String string = formatter.toString().replace("\n\n\n", "\n");
+		return plainText;
+	}
+
+	private static Element parseBodyFragment(String html) {
+		final Element body = Jsoup.parseBodyFragment(html).body();
+		final Elements children = body.children();
 
-		if (string.startsWith("\n")) {
-			string = string.substring(1);
+		if (children.isEmpty()) {
+			return emptyElement();
 		}
 
-		return string.replace("\n", System.lineSeparator());
+		if (children.size() == 1) {
+			return children.first();
+		}
+
+		return body.tagName("div");
 	}
 }
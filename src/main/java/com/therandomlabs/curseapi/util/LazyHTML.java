@@ -0,0 +1,461 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jsoup.internal.StringUtil;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+ * Holds an HTML fragment as UTF-8 bytes and only parses it into an {@link Element} when a DOM
+ * is requested. The parsed DOM is softly referenced, so it may be discarded under memory
+ * pressure and is transparently parsed again on the next access.
+ * <p>
+ * {@link #isEmpty()}, {@link #plainText(int)} and {@link #rewriteLinks(UnaryOperator)}
+ * operate on the raw HTML and never build a DOM.
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ *
+ * @see JsoupUtils#parseBody(String)
+ */
+public final class LazyHTML {
+	private static final class Traversal {
+		private final HTMLTokenizer tokenizer;
+		@Nullable
+		private final FormattingVisitor visitor;
+		private final boolean skipTopLevelText;
+		private final Deque<OpenElement> openElements = new ArrayDeque<>();
+
+		private int topLevelElements;
+		private boolean hasNestedNodes;
+
+		Traversal(String html, @Nullable FormattingVisitor visitor, boolean skipTopLevelText) {
+			tokenizer = new HTMLTokenizer(html);
+			this.visitor = visitor;
+			this.skipTopLevelText = skipTopLevelText;
+		}
+
+		Traversal run() {
+			while (tokenizer.next()) {
+				switch (Preconditions.checkNotNull(tokenizer.token())) {
+					case START_TAG:
+						startTag(tokenizer.name());
+						break;
+					case END_TAG:
+						endTag(tokenizer.name());
+						break;
+					case TEXT:
+						text();
+						break;
+					default:
+						//The contents of script and style elements are not text.
+						hasNestedNodes |= !openElements.isEmpty();
+				}
+			}
+
+			while (!openElements.isEmpty()) {
+				close();
+			}
+
+			return this;
+		}
+
+		private void startTag(String name) {
+			//These are the implied end tags that affect the formatted output.
+			if (CLOSES_PARAGRAPH.contains(name)) {
+				closeIfInScope("p");
+			}
+
+			if ("li".equals(name)) {
+				closeListItem("li");
+			} else if ("dd".equals(name) || "dt".equals(name)) {
+				closeListItem("dd", "dt");
+			} else if ("a".equals(name)) {
+				closeIfInScope("a");
+			} else if (HEADINGS.contains(name) && !openElements.isEmpty() &&
+					HEADINGS.contains(openElements.peek().name)) {
+				close();
+			}
+
+			open(name, tokenizer.selfClosing() || VOID_ELEMENTS.contains(name));
+		}
+
+		private void endTag(String name) {
+			if ("br".equals(name)) {
+				open(name, true);
+			} else if ("p".equals(name) && !isInScope(name)) {
+				open(name, true);
+			} else if (openElements.stream().anyMatch(element -> element.name.equals(name))) {
+				closeUntil(name);
+			}
+		}
+
+		private void text() {
+			if (openElements.isEmpty()) {
+				if (skipTopLevelText) {
+					return;
+				}
+			} else {
+				hasNestedNodes = true;
+			}
+
+			if (visitor != null) {
+				visitor.text(tokenizer.text());
+			}
+		}
+
+		private void open(String name, boolean empty) {
+			if (openElements.isEmpty()) {
+				topLevelElements++;
+			} else {
+				hasNestedNodes = true;
+			}
+
+			if (visitor != null) {
+				visitor.head(name);
+			}
+
+			if (!empty) {
+				openElements.push(new OpenElement(
+						name, "a".equals(name) ? tokenizer.attribute("href") : null
+				));
+			} else if (visitor != null) {
+				visitor.tail(name, this::attribute, key -> absoluteURL(attribute(key)));
+			}
+		}
+
+		private void close() {
+			final OpenElement element = openElements.pop();
+
+			if (visitor != null) {
+				final String href = element.href == null ? "" : element.href;
+				visitor.tail(
+						element.name,
+						key -> "href".equals(key) ? href : "",
+						key -> "href".equals(key) ? absoluteURL(href) : ""
+				);
+			}
+		}
+
+		private void closeUntil(String name) {
+			while (!openElements.isEmpty()) {
+				final boolean found = openElements.peek().name.equals(name);
+				close();
+
+				if (found) {
+					return;
+				}
+			}
+		}
+
+		private void closeIfInScope(String name) {
+			if (isInScope(name)) {
+				closeUntil(name);
+			}
+		}
+
+		private void closeListItem(String... names) {
+			for (OpenElement element : openElements) {
+				if (Arrays.asList(names).contains(element.name)) {
+					closeUntil(element.name);
+					return;
+				}
+
+				if (LIST_ITEM_SCOPE_BOUNDARIES.contains(element.name)) {
+					return;
+				}
+			}
+		}
+
+		private boolean isInScope(String name) {
+			for (OpenElement element : openElements) {
+				if (element.name.equals(name)) {
+					return true;
+				}
+
+				if (SCOPE_BOUNDARIES.contains(element.name)) {
+					return false;
+				}
+			}
+
+			return false;
+		}
+
+		private String attribute(String key) {
+			final String value = tokenizer.attribute(key);
+			return value == null ? "" : value;
+		}
+
+		private static String absoluteURL(String url) {
+			return url.isEmpty() ? "" : StringUtil.resolve("", url);
+		}
+	}
+
+	private static final class OpenElement {
+		private final String name;
+		@Nullable
+		private final String href;
+
+		OpenElement(String name, @Nullable String href) {
+			this.name = name;
+			this.href = href;
+		}
+	}
+
+	private static final Set<String> VOID_ELEMENTS = ImmutableSet.of(
+			"area", "base", "br", "col", "embed", "hr", "img", "input", "keygen", "link", "meta",
+			"param", "source", "track", "wbr"
+	);
+
+	private static final Set<String> HEADINGS = ImmutableSet.of("h1", "h2", "h3", "h4", "h5", "h6");
+
+	private static final Set<String> CLOSES_PARAGRAPH = ImmutableSet.<String>builder().
+			addAll(HEADINGS).
+			add(
+					"address", "article", "aside", "blockquote", "center", "dd", "details",
+					"dialog", "dir", "div", "dl", "dt", "fieldset", "figcaption", "figure",
+					"footer", "form", "header", "hgroup", "hr", "li", "listing", "menu", "nav",
+					"ol", "p", "pre", "section", "summary", "table", "ul"
+			).
+			build();
+
+	private static final Set<String> SCOPE_BOUNDARIES = ImmutableSet.of(
+			"applet", "button", "caption", "marquee", "object", "table", "td", "th"
+	);
+
+	private static final Set<String> LIST_ITEM_SCOPE_BOUNDARIES = ImmutableSet.<String>builder().
+			addAll(SCOPE_BOUNDARIES).
+			add("blockquote", "dl", "ol", "ul").
+			build();
+
+	private final byte[] html;
+
+	private volatile SoftReference<Element> element = new SoftReference<>(null);
+
+	/**
+	 * Constructs a {@link LazyHTML} instance with the specified HTML fragment.
+	 *
+	 * @param html an HTML fragment.
+	 */
+	public LazyHTML(String html) {
+		Preconditions.checkNotNull(html, "html should not be null");
+		this.html = html.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(@Nullable Object object) {
+		return this == object ||
+				(object instanceof LazyHTML && Arrays.equals(html, ((LazyHTML) object).html));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(html);
+	}
+
+	/**
+	 * Returns the raw HTML fragment.
+	 *
+	 * @return the raw HTML fragment.
+	 */
+	@Override
+	public String toString() {
+		return html();
+	}
+
+	/**
+	 * Returns the raw HTML fragment.
+	 *
+	 * @return the raw HTML fragment.
+	 */
+	public String html() {
+		return new String(html, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the size of the raw HTML fragment in bytes when encoded in UTF-8.
+	 *
+	 * @return the size of the raw HTML fragment in bytes.
+	 */
+	public int size() {
+		return html.length;
+	}
+
+	/**
+	 * Returns the parsed HTML fragment as a single {@link Element}.
+	 * The HTML is only parsed on the first call or if the previously parsed DOM has since been
+	 * garbage collected. A new copy is returned on every call, so it may be freely modified.
+	 *
+	 * @return the HTML fragment as parsed by {@link JsoupUtils#parseBody(String)}.
+	 */
+	public Element element() {
+		Element element = this.element.get();
+
+		if (element == null) {
+			element = JsoupUtils.parseBody(html());
+			this.element = new SoftReference<>(element);
+		}
+
+		return element.clone();
+	}
+
+	/**
+	 * Returns whether the {@link Element} returned by {@link #element()} would be empty.
+	 * This does not build a DOM.
+	 *
+	 * @return {@code true} if the {@link Element} returned by {@link #element()} would be
+	 * empty, or otherwise {@code false}.
+	 * @see JsoupUtils#isEmpty(Element)
+	 */
+	public boolean isEmpty() {
+		final Traversal traversal = new Traversal(html(), null, false).run();
+		return traversal.topLevelElements == 0 ||
+				(traversal.topLevelElements == 1 && !traversal.hasNestedNodes);
+	}
+
+	/**
+	 * Converts this HTML fragment to plain text without building a DOM.
+	 *
+	 * @return a plain text representation of this HTML fragment.
+	 * @see #plainText(int)
+	 */
+	public String plainText() {
+		return plainText(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Converts this HTML fragment to plain text without building a DOM.
+	 * For well-formed HTML, the result is identical to that of
+	 * {@link JsoupUtils#getPlainText(Element, int)} when called with {@link #element()}.
+	 *
+	 * @param maxLineLength a maximum line length used for word wrapping.
+	 * @return a plain text representation of this HTML fragment.
+	 */
+	public String plainText(int maxLineLength) {
+		Preconditions.checkArgument(maxLineLength > 0, "maxLineLength should be greater than 0");
+
+		final String html = html();
+		final int topLevelElements = new Traversal(html, null, false).run().topLevelElements;
+
+		//JsoupUtils#parseBody returns an empty element if there are no elements, and
+		//discards top-level text if there is only one element.
+		if (topLevelElements == 0) {
+			return "";
+		}
+
+		final FormattingVisitor formatter = new FormattingVisitor(maxLineLength);
+		new Traversal(html, formatter, topLevelElements == 1).run();
+		return formatter.getPlainText();
+	}
+
+	/**
+	 * Returns a {@link LazyHTML} instance in which the {@code href} attribute of every link
+	 * has been replaced by the result of the specified function. This does not build a DOM.
+	 *
+	 * @param rewriter a function that takes an unescaped link and returns its replacement.
+	 * @return a {@link LazyHTML} instance containing the rewritten HTML, or this instance if
+	 * no links are changed.
+	 */
+	public LazyHTML rewriteLinks(UnaryOperator<String> rewriter) {
+		Preconditions.checkNotNull(rewriter, "rewriter should not be null");
+
+		final String html = html();
+		final HTMLTokenizer tokenizer = new HTMLTokenizer(html);
+		final StringBuilder rewritten = new StringBuilder(html.length());
+		int copied = 0;
+
+		while (tokenizer.next()) {
+			if (tokenizer.token() != HTMLTokenizer.Token.START_TAG ||
+					!"a".equals(tokenizer.name())) {
+				continue;
+			}
+
+			final String link = tokenizer.attribute("href");
+			final int valueStart = tokenizer.attributeValueStart("href");
+
+			if (link == null || valueStart == -1) {
+				continue;
+			}
+
+			final String newLink = rewriter.apply(link);
+
+			if (!link.equals(newLink)) {
+				rewritten.append(html, copied, valueStart).
+						append('"').
+						append(newLink.replace("&", "&amp;").replace("\"", "&quot;")).
+						append('"');
+				copied = tokenizer.attributeValueEnd("href");
+			}
+		}
+
+		if (copied == 0) {
+			return this;
+		}
+
+		return new LazyHTML(rewritten.append(html, copied, html.length()).toString());
+	}
+
+	/**
+	 * Returns a {@link LazyHTML} instance that contains the HTML of the specified
+	 * {@link Element}. A copy of the {@link Element} is retained as the parsed DOM.
+	 *
+	 * @param element an {@link Element}.
+	 * @return a {@link LazyHTML} instance that contains the HTML of the specified
+	 * {@link Element}.
+	 */
+	public static LazyHTML of(Element element) {
+		Preconditions.checkNotNull(element, "element should not be null");
+		final Element copy = element.clone();
+
+		//The HTML is serialized without pretty printing so that no whitespace is introduced.
+		final Document document = Document.createShell("");
+		document.outputSettings().prettyPrint(false);
+		document.body().appendChild(element.clone());
+
+		final LazyHTML html = new LazyHTML(document.body().html());
+		html.element = new SoftReference<>(copy);
+		return html;
+	}
+
+	boolean isParsed() {
+		return element.get() != null;
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import com.squareup.moshi.FromJson;
+import com.squareup.moshi.ToJson;
+
+/**
+ * A Moshi adapter for {@link LazyHTML}s.
+ * Unlike {@link ElementAdapter}, this adapter does not parse the HTML.
+ */
+public final class LazyHTMLAdapter {
+	/**
+	 * The singleton instance of {@link LazyHTMLAdapter}.
+	 */
+	public static final LazyHTMLAdapter INSTANCE = new LazyHTMLAdapter();
+
+	private LazyHTMLAdapter() {}
+
+	/**
+	 * Converts the specified {@link LazyHTML} to a JSON string.
+	 *
+	 * @param html a {@link LazyHTML}.
+	 * @return a JSON string representation of the specified {@link LazyHTML}.
+	 */
+	@ToJson
+	public String toJSON(LazyHTML html) {
+		return html.html();
+	}
+
+	/**
+	 * Converts the specified JSON string to a {@link LazyHTML}.
+	 *
+	 * @param html a JSON string.
+	 * @return a {@link LazyHTML}.
+	 */
+	@FromJson
+	public LazyHTML fromJSON(String html) {
+		return new LazyHTML(html);
+	}
+}
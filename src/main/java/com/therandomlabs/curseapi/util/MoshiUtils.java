@@ -29,6 +29,7 @@ import java.nio.file.Path;
 import com.google.common.base.Preconditions;
 import com.squareup.moshi.Moshi;
 import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.forgesvc.ForgeSvcAdapterFactory;
 import okio.BufferedSink;
 import okio.BufferedSource;
 import okio.Okio;
@@ -39,12 +40,17 @@ import okio.Okio;
 public final class MoshiUtils {
 	/**
 	 * A {@link Moshi} instance with adapters for {@link org.jsoup.nodes.Element}s,
-	 * {@link okhttp3.HttpUrl}s and {@link java.time.ZonedDateTime}s.
+	 * {@link LazyHTML}s, {@link okhttp3.HttpUrl}s, {@link java.time.ZonedDateTime}s and the
+	 * ForgeSvc models.
+	 *
+	 * @see ForgeSvcAdapterFactory
 	 */
 	public static final Moshi moshi = new Moshi.Builder().
 			add(ElementAdapter.INSTANCE).
+			add(LazyHTMLAdapter.INSTANCE).
 			add(HttpUrlAdapter.INSTANCE).
 			add(ZonedDateTimeAdapter.INSTANCE).
+			add(ForgeSvcAdapterFactory.INSTANCE).
 			build();
 
 	private MoshiUtils() {}
@@ -25,23 +25,45 @@ package com.therandomlabs.curseapi.util;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.imageio.ImageIO;
 
 import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.therandomlabs.curseapi.CurseAPIMetrics;
 import com.therandomlabs.curseapi.CurseException;
+import io.github.resilience4j.retry.Retry;
+import io.vavr.control.Try;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.Buffer;
 import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ForwardingSink;
 import okio.Okio;
+import okio.Sink;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,17 +71,172 @@ import org.slf4j.LoggerFactory;
  * Contains utility methods for working with OkHttp.
  */
 public final class OkHttpUtils {
+	//Updates a MessageDigest with the bytes written to the delegate without copying them.
+	private static final class DigestingSink extends ForwardingSink {
+		private final OutputStream digestStream;
+
+		DigestingSink(Sink delegate, MessageDigest digest) {
+			super(delegate);
+			digestStream = new OutputStream() {
+				@Override
+				public void write(int b) {
+					digest.update((byte) b);
+				}
+
+				@Override
+				public void write(byte[] bytes, int offset, int length) {
+					digest.update(bytes, offset, length);
+				}
+			};
+		}
+
+		@Override
+		public void write(Buffer source, long byteCount) throws IOException {
+			source.copyTo(digestStream, 0L, byteCount);
+			super.write(source, byteCount);
+		}
+	}
+
+	//Downloads a single file as multiple byte ranges that are written to the same FileChannel.
+	private static final class SegmentedDownload {
+		private final HttpUrl url;
+		@Nullable
+		private final String validator;
+		private final FileChannel channel;
+		private final long length;
+		@Nullable
+		private final ProgressListener listener;
+		private final AtomicLong bytesDownloaded = new AtomicLong();
+		private final AtomicLong bytesTransferred;
+
+		SegmentedDownload(
+				HttpUrl url, @Nullable String validator, FileChannel channel, long length,
+				@Nullable ProgressListener listener, AtomicLong bytesTransferred
+		) {
+			this.url = url;
+			this.validator = validator;
+			this.channel = channel;
+			this.length = length;
+			this.listener = listener;
+			this.bytesTransferred = bytesTransferred;
+		}
+
+		void download(int segmentCount) throws CurseException {
+			final long segmentSize = (length + segmentCount - 1) / segmentCount;
+			final List<Long> starts = new ArrayList<>(segmentCount);
+
+			for (long start = 0L; start < length; start += segmentSize) {
+				starts.add(start);
+			}
+
+			ParallelUtils.map(starts, start -> {
+				//The position is kept between attempts so that retries resume the segment.
+				final AtomicLong position = new AtomicLong(start);
+				final long end = Math.min(start + segmentSize, length) - 1L;
+				return Try.of(Retry.decorateCheckedSupplier(
+						RetrofitUtils.retry(), () -> downloadSegment(position, end)
+				)).getOrElseThrow(ex -> ex instanceof CurseException ? (CurseException) ex :
+						new CurseException("Failed to download segment of " + url, ex));
+			}, segmentCount);
+		}
+
+		@Nullable
+		private Void downloadSegment(AtomicLong position, long end)
+				throws CurseException, IOException {
+			final Request.Builder requestBuilder = new Request.Builder().
+					url(url).
+					header("Range", "bytes=" + position.get() + "-" + end);
+
+			if (validator != null) {
+				requestBuilder.header("If-Range", validator);
+			}
+
+			final Request request = requestBuilder.build();
+			logger.debug("Executing request: {}", request);
+
+			try (Response response = client.newCall(request).execute()) {
+				final ResponseBody responseBody = response.body();
+
+				if (response.code() != 206 || responseBody == null) {
+					//If the file has changed, the server returns the entire file with a 200.
+					throw new CurseException("Failed to download segment: " + response);
+				}
+
+				final String contentRange = response.header("Content-Range");
+
+				if (contentRange == null ||
+						!contentRange.startsWith("bytes " + position.get() + "-")) {
+					throw new CurseException("Unexpected Content-Range: " + contentRange);
+				}
+
+				final BufferedSource source = responseBody.source();
+				final byte[] buffer = new byte[(int) BUFFER_SIZE];
+				long writePosition = position.get();
+
+				while (writePosition <= end) {
+					final int read = source.read(
+							buffer, 0, (int) Math.min(buffer.length, end - writePosition + 1L)
+					);
+
+					if (read == -1) {
+						break;
+					}
+
+					final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+
+					while (byteBuffer.hasRemaining()) {
+						writePosition += channel.write(byteBuffer, writePosition);
+					}
+
+					position.set(writePosition);
+					bytesTransferred.addAndGet(read);
+					final long downloaded = bytesDownloaded.addAndGet(read);
+
+					if (listener != null) {
+						//Segments are downloaded concurrently.
+						synchronized (listener) {
+							listener.progress(downloaded, length);
+						}
+					}
+				}
+			}
+
+			if (position.get() <= end) {
+				//An IOException is thrown so that the segment is resumed by the next attempt.
+				throw new IOException(String.format(
+						"Segment of %s is incomplete: %d of %d bytes",
+						url, position.get(), end + 1L
+				));
+			}
+
+			return null;
+		}
+	}
+
 	private static final long DEFAULT_TIMEOUT_MILLIS = 2000L;
 	private static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(DEFAULT_TIMEOUT_MILLIS);
 
+	private static final long BUFFER_SIZE = 8192L;
+
+	private static final long DEFAULT_SEGMENTED_DOWNLOAD_THRESHOLD = 32L * 1024L * 1024L;
+
+	private static final String PART_EXTENSION = ".part";
+	private static final String RECORD_EXTENSION = ".part.properties";
+
 	private static final Logger logger = LoggerFactory.getLogger(OkHttpUtils.class);
 
-	private static OkHttpClient client = new OkHttpClient.Builder().
+	private static volatile OkHttpClient client = new OkHttpClient.Builder().
 			connectTimeout(DEFAULT_TIMEOUT).
 			readTimeout(DEFAULT_TIMEOUT).
 			writeTimeout(DEFAULT_TIMEOUT).
 			build();
 
+	@Nullable
+	private static volatile HttpCache httpCache;
+
+	private static volatile int segmentCount = 1;
+	private static volatile long segmentedDownloadThreshold = DEFAULT_SEGMENTED_DOWNLOAD_THRESHOLD;
+
 	private OkHttpUtils() {}
 
 	/**
@@ -116,26 +293,103 @@ public final class OkHttpUtils {
 	 * @param url an {@link HttpUrl}.
 	 * @param path a {@link Path}.
 	 * @throws CurseException if the request cannot be executed correctly or if an I/O error occurs.
+	 * @see #download(HttpUrl, Path, long, ProgressListener)
 	 */
 	public static void download(HttpUrl url, Path path) throws CurseException {
-		Preconditions.checkNotNull(url, "url should not be null");
-		Preconditions.checkNotNull(path, "path should not be null");
+		download(url, path, -1L, null);
+	}
 
-		final Request request = new Request.Builder().url(url).build();
-		logger.debug("Executing request: {}", request);
+	/**
+	 * Downloads a file from the specified {@link HttpUrl} to the specified {@link Path}.
+	 *
+	 * @param url an {@link HttpUrl}.
+	 * @param path a {@link Path}.
+	 * @param listener a {@link ProgressListener} that is notified as the file is downloaded.
+	 * May be {@code null}.
+	 * @return the number of bytes transferred.
+	 * @throws CurseException if the request cannot be executed correctly or if an I/O error occurs.
+	 * @see #download(HttpUrl, Path, long, ProgressListener)
+	 */
+	public static long download(HttpUrl url, Path path, @Nullable ProgressListener listener)
+			throws CurseException {
+		return download(url, path, -1L, listener);
+	}
 
-		try (
-				ResponseBody responseBody = client.newCall(request).execute().body();
-				BufferedSink sink = Okio.buffer(Okio.sink(path))
-		) {
-			if (responseBody == null) {
-				throw new CurseException("Failed to execute request: " + request);
-			}
+	/**
+	 * Downloads a file from the specified {@link HttpUrl} to the specified {@link Path}.
+	 * <p>
+	 * The file is first written to a partial file next to the specified {@link Path} with the
+	 * extension {@code .part}, along with a small sidecar record that contains the URL and the
+	 * {@code ETag} or {@code Last-Modified} validator of the response. If the download is
+	 * interrupted, it is retried using the retry configuration set by
+	 * {@link RetrofitUtils#setRetryConfig(Duration, int)}, and each attempt, including later
+	 * calls to this method for the same URL and {@link Path}, resumes from the end of the partial
+	 * file using {@code Range} and {@code If-Range} requests. If the file has changed on the
+	 * server, it is downloaded again from the beginning.
+	 * <p>
+	 * Once the download is complete, its size is validated against the specified expected size,
+	 * or if it is not known, against the {@code Content-Length} reported by the server, and the
+	 * partial file is atomically moved to the specified {@link Path}.
+	 * <p>
+	 * Large files may be downloaded using multiple connections if this is enabled using
+	 * {@link #setSegmentedDownloads(int, long)}.
+	 *
+	 * @param url an {@link HttpUrl}.
+	 * @param path a {@link Path}.
+	 * @param expectedSize the expected size of the file in bytes, or {@code -1} if it is not
+	 * known.
+	 * @param listener a {@link ProgressListener} that is notified as the file is downloaded.
+	 * May be {@code null}.
+	 * @return the number of bytes transferred, which is smaller than the size of the file
+	 * if a partial download was resumed.
+	 * @throws CurseException if the request cannot be executed correctly, if the size of the
+	 * downloaded file is incorrect or if an I/O error occurs.
+	 */
+	public static long download(
+			HttpUrl url, Path path, long expectedSize, @Nullable ProgressListener listener
+	) throws CurseException {
+		final AtomicLong bytesTransferred = new AtomicLong();
+		download(url, path, expectedSize, null, null, listener, bytesTransferred);
+		return bytesTransferred.get();
+	}
 
-			sink.writeAll(responseBody.source());
-		} catch (IOException ex) {
-			throw new CurseException("Failed to download " + url + " to: " + path, ex);
-		}
+	/**
+	 * Downloads a file from the specified {@link HttpUrl} to the specified {@link Path} and
+	 * verifies its integrity.
+	 * <p>
+	 * This method behaves like {@link #download(HttpUrl, Path, long, ProgressListener)}, but
+	 * also computes a hash of the file using the specified {@link HashAlgorithm} as it is
+	 * written, so the file does not need to be read again once it has been downloaded.
+	 * If a partial download is resumed, only the existing partial file is read to initialize
+	 * the hash. If the hash does not match the specified expected hash, or if the size of the
+	 * file is incorrect, the downloaded data is deleted and a {@link CurseException} is thrown.
+	 * <p>
+	 * Note that CurseForge fingerprints cannot be computed this way, as the Murmur2 hash
+	 * that they are based on requires the length of the normalized file to be known
+	 * in advance. Use {@link FingerprintUtils#fingerprint(Path)} for this instead.
+	 *
+	 * @param url an {@link HttpUrl}.
+	 * @param path a {@link Path}.
+	 * @param expectedSize the expected size of the file in bytes, or {@code -1} if it is not
+	 * known.
+	 * @param algorithm the {@link HashAlgorithm} used to compute the hash of the file.
+	 * @param expectedHash the expected hash of the file, or {@code null} if it is not known.
+	 * @param listener a {@link ProgressListener} that is notified as the file is downloaded.
+	 * May be {@code null}.
+	 * @return the hash of the downloaded file.
+	 * @throws CurseException if the request cannot be executed correctly, if the size or hash
+	 * of the downloaded file is incorrect or if an I/O error occurs.
+	 */
+	public static HashCode download(
+			HttpUrl url, Path path, long expectedSize, HashAlgorithm algorithm,
+			@Nullable HashCode expectedHash, @Nullable ProgressListener listener
+	) throws CurseException {
+		Preconditions.checkNotNull(algorithm, "algorithm should not be null");
+		final HashCode hash = download(
+				url, path, expectedSize, algorithm, expectedHash, listener, new AtomicLong()
+		);
+		//The hash is only null if no algorithm is specified.
+		return Preconditions.checkNotNull(hash);
 	}
 
 	/**
@@ -151,6 +405,27 @@ public final class OkHttpUtils {
 	 */
 	public static Path downloadToDirectory(HttpUrl url, Path directory, String fileName)
 			throws CurseException {
+		return downloadToDirectory(url, directory, fileName, -1L);
+	}
+
+	/**
+	 * Downloads a file from the specified {@link HttpUrl} to the specified directory with
+	 * the specified file name.
+	 *
+	 * @param url an {@link HttpUrl}.
+	 * @param directory a {@link Path} to a directory. If the directory does not exist,
+	 * it is created.
+	 * @param fileName a file name.
+	 * @param expectedSize the expected size of the file in bytes, or {@code -1} if it is not
+	 * known.
+	 * @return a {@link Path} to the downloaded file.
+	 * @throws CurseException if the request cannot be executed correctly, if the size of the
+	 * downloaded file is incorrect or if an I/O error occurs.
+	 * @see #download(HttpUrl, Path, long, ProgressListener)
+	 */
+	public static Path downloadToDirectory(
+			HttpUrl url, Path directory, String fileName, long expectedSize
+	) throws CurseException {
 		Preconditions.checkNotNull(url, "url should not be null");
 		Preconditions.checkNotNull(directory, "directory should not be null");
 		Preconditions.checkArgument(
@@ -165,7 +440,7 @@ public final class OkHttpUtils {
 		}
 
 		final Path path = directory.resolve(fileName);
-		download(url, path);
+		download(url, path, expectedSize, null);
 		return path;
 	}
 
@@ -191,6 +466,406 @@ public final class OkHttpUtils {
 		}
 	}
 
+	@Nullable
+	private static HashCode download(
+			HttpUrl url, Path path, long expectedSize, @Nullable HashAlgorithm algorithm,
+			@Nullable HashCode expectedHash, @Nullable ProgressListener listener,
+			AtomicLong bytesTransferred
+	) throws CurseException {
+		Preconditions.checkNotNull(url, "url should not be null");
+		Preconditions.checkNotNull(path, "path should not be null");
+		Preconditions.checkArgument(expectedSize >= -1L, "expectedSize should not be below -1");
+
+		final Path partPath = path.resolveSibling(path.getFileName() + PART_EXTENSION);
+		final Path recordPath = path.resolveSibling(path.getFileName() + RECORD_EXTENSION);
+		final long initialBytesTransferred = bytesTransferred.get();
+		final Object event = JFREvents.beginDownload();
+		boolean successful = false;
+
+		try {
+			final HashCode hash;
+
+			if (downloadSegmented(url, partPath, recordPath, expectedSize, listener,
+					bytesTransferred)) {
+				//The segments are written out of order, so the hash is computed afterwards.
+				final MessageDigest digest =
+						algorithm == null ? null : algorithm.newMessageDigest();
+				updateDigest(digest, partPath);
+				hash = verifyHash(url, partPath, recordPath, digest, expectedHash);
+			} else {
+				hash = Try.of(Retry.decorateCheckedSupplier(
+						RetrofitUtils.retry(), () -> downloadPart(
+								url, partPath, recordPath, expectedSize, algorithm,
+								expectedHash, listener, bytesTransferred
+						)
+				)).get();
+			}
+
+			move(partPath, path);
+			Files.deleteIfExists(recordPath);
+			successful = true;
+			return hash;
+		} catch (IOException ex) {
+			throw new CurseException("Failed to download " + url + " to: " + path, ex);
+		} finally {
+			final long transferred = bytesTransferred.get() - initialBytesTransferred;
+			CurseAPIMetrics.sink().bytesDownloaded(transferred);
+
+			if (event != null) {
+				JFREvents.endDownload(event, url, path, expectedSize, transferred, successful);
+			}
+		}
+	}
+
+	private static boolean downloadSegmented(
+			HttpUrl url, Path partPath, Path recordPath, long expectedSize,
+			@Nullable ProgressListener listener, AtomicLong bytesTransferred
+	) throws CurseException, IOException {
+		final int segmentCount = OkHttpUtils.segmentCount;
+		final long threshold = segmentedDownloadThreshold;
+
+		//Interrupted single-stream downloads are resumed instead.
+		if (segmentCount < 2 || (expectedSize != -1L && expectedSize < threshold) ||
+				Files.exists(recordPath)) {
+			return false;
+		}
+
+		final Request request = new Request.Builder().url(url).head().build();
+		logger.debug("Executing request: {}", request);
+
+		final long length;
+		final String validator;
+
+		try (Response response = client.newCall(request).execute()) {
+			if (!response.isSuccessful() ||
+					!"bytes".equalsIgnoreCase(response.header("Accept-Ranges"))) {
+				return false;
+			}
+
+			final String contentLength = response.header("Content-Length");
+			length = contentLength == null ? -1L : Long.parseLong(contentLength);
+			validator = getValidator(response);
+		} catch (IOException | NumberFormatException ex) {
+			logger.debug("Failed to probe {}, so a single connection is used", url, ex);
+			return false;
+		}
+
+		if (length < threshold || length < segmentCount) {
+			return false;
+		}
+
+		if (expectedSize != -1L && length != expectedSize) {
+			throw new CurseException(String.format(
+					"Unexpected size of %s: expected %d bytes, but server reported %d bytes",
+					url, expectedSize, length
+			));
+		}
+
+		logger.debug("Downloading {} using {} connections", url, segmentCount);
+
+		try (RandomAccessFile file = new RandomAccessFile(partPath.toFile(), "rw")) {
+			file.setLength(length);
+			new SegmentedDownload(
+					url, validator, file.getChannel(), length, listener, bytesTransferred
+			).download(segmentCount);
+		} catch (CurseException | IOException ex) {
+			Files.deleteIfExists(partPath);
+			throw ex;
+		}
+
+		return true;
+	}
+
+	@Nullable
+	private static HashCode downloadPart(
+			HttpUrl url, Path partPath, Path recordPath, long expectedSize,
+			@Nullable HashAlgorithm algorithm, @Nullable HashCode expectedHash,
+			@Nullable ProgressListener listener, AtomicLong bytesTransferred
+	) throws CurseException, IOException {
+		final MessageDigest digest = algorithm == null ? null : algorithm.newMessageDigest();
+		final Properties record = readRecord(recordPath);
+		long offset = 0L;
+		String validator = null;
+
+		if (record != null && url.toString().equals(record.getProperty("url")) &&
+				Files.isRegularFile(partPath)) {
+			validator = record.getProperty("validator");
+			//Without a validator, we cannot know whether the partial file is still valid.
+			offset = validator == null ? 0L : Files.size(partPath);
+		}
+
+		final Request.Builder requestBuilder = new Request.Builder().url(url);
+
+		if (offset > 0L) {
+			requestBuilder.header("Range", "bytes=" + offset + "-").header("If-Range", validator);
+		}
+
+		final Request request = requestBuilder.build();
+		logger.debug("Executing request: {}", request);
+
+		long totalLength;
+
+		try (Response response = client.newCall(request).execute()) {
+			final ResponseBody responseBody = response.body();
+
+			if (response.code() == 416 && offset > 0L) {
+				//The partial file may already be complete, otherwise we start again.
+				if (offset != getRecordedLength(record, expectedSize)) {
+					deletePart(partPath, recordPath);
+					throw new IOException("Partial download is invalid: " + partPath);
+				}
+
+				updateDigest(digest, partPath);
+				return verifyHash(url, partPath, recordPath, digest, expectedHash);
+			}
+
+			if (!response.isSuccessful() || responseBody == null) {
+				throw new CurseException("Failed to execute request: " + response);
+			}
+
+			final boolean resumed = response.code() == 206;
+
+			if (resumed) {
+				final String contentRange = response.header("Content-Range");
+
+				if (contentRange == null || !contentRange.startsWith("bytes " + offset + "-")) {
+					deletePart(partPath, recordPath);
+					throw new IOException("Unexpected Content-Range: " + contentRange);
+				}
+
+				logger.debug("Resuming download of {} from byte {}", url, offset);
+				updateDigest(digest, partPath);
+			} else {
+				offset = 0L;
+			}
+
+			final long contentLength = responseBody.contentLength();
+			totalLength = contentLength == -1L ? -1L : offset + contentLength;
+
+			if (expectedSize != -1L && totalLength != -1L && totalLength != expectedSize) {
+				deletePart(partPath, recordPath);
+				throw new CurseException(String.format(
+						"Unexpected size of %s: expected %d bytes, but server reported %d bytes",
+						url, expectedSize, totalLength
+				));
+			}
+
+			writeRecord(recordPath, url, getValidator(response), totalLength);
+
+			Sink fileSink = resumed ?
+					Okio.sink(partPath, StandardOpenOption.CREATE, StandardOpenOption.APPEND) :
+					Okio.sink(partPath);
+
+			if (digest != null) {
+				fileSink = new DigestingSink(fileSink, digest);
+			}
+
+			try (BufferedSink sink = Okio.buffer(fileSink)) {
+				writeAll(responseBody, sink, offset, totalLength, listener, bytesTransferred);
+			}
+		}
+
+		final long size = Files.size(partPath);
+		final long expectedLength = expectedSize == -1L ? totalLength : expectedSize;
+
+		if (expectedLength != -1L) {
+			if (size < expectedLength) {
+				//An IOException is thrown so that the download is resumed by the next attempt.
+				throw new IOException(String.format(
+						"Download of %s is incomplete: %d of %d bytes", url, size, expectedLength
+				));
+			}
+
+			if (size > expectedLength) {
+				deletePart(partPath, recordPath);
+				throw new CurseException(String.format(
+						"Unexpected size of %s: expected %d bytes, but downloaded %d bytes",
+						url, expectedLength, size
+				));
+			}
+		}
+
+		return verifyHash(url, partPath, recordPath, digest, expectedHash);
+	}
+
+	private static void updateDigest(@Nullable MessageDigest digest, Path path)
+			throws IOException {
+		if (digest == null) {
+			return;
+		}
+
+		final byte[] buffer = new byte[(int) BUFFER_SIZE];
+
+		try (InputStream inputStream = Files.newInputStream(path)) {
+			int read;
+
+			while ((read = inputStream.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+	}
+
+	@Nullable
+	private static HashCode verifyHash(
+			HttpUrl url, Path partPath, Path recordPath, @Nullable MessageDigest digest,
+			@Nullable HashCode expectedHash
+	) throws CurseException, IOException {
+		if (digest == null) {
+			return null;
+		}
+
+		final HashCode hash = HashCode.fromBytes(digest.digest());
+
+		if (expectedHash != null && !expectedHash.equals(hash)) {
+			deletePart(partPath, recordPath);
+			throw new CurseException(String.format(
+					"Unexpected %s hash of %s: expected %s, but downloaded %s",
+					digest.getAlgorithm(), url, expectedHash, hash
+			));
+		}
+
+		return hash;
+	}
+
+	private static void writeAll(
+			ResponseBody responseBody, BufferedSink sink, long offset, long totalLength,
+			@Nullable ProgressListener listener, AtomicLong bytesTransferred
+	) throws IOException {
+		final BufferedSource source = responseBody.source();
+		long bytesDownloaded = offset;
+		long read;
+
+		while ((read = source.read(sink.getBuffer(), BUFFER_SIZE)) != -1L) {
+			sink.emitCompleteSegments();
+			bytesDownloaded += read;
+			bytesTransferred.addAndGet(read);
+
+			if (listener != null) {
+				listener.progress(bytesDownloaded, totalLength);
+			}
+		}
+	}
+
+	@Nullable
+	private static String getValidator(Response response) {
+		final String eTag = response.header("ETag");
+
+		//Weak validators cannot be used with If-Range.
+		if (eTag != null && !eTag.startsWith("W/")) {
+			return eTag;
+		}
+
+		return response.header("Last-Modified");
+	}
+
+	private static long getRecordedLength(@Nullable Properties record, long expectedSize) {
+		if (expectedSize != -1L) {
+			return expectedSize;
+		}
+
+		try {
+			return record == null ? -1L : Long.parseLong(record.getProperty("length", "-1"));
+		} catch (NumberFormatException ex) {
+			return -1L;
+		}
+	}
+
+	@Nullable
+	private static Properties readRecord(Path recordPath) {
+		if (!Files.isRegularFile(recordPath)) {
+			return null;
+		}
+
+		final Properties record = new Properties();
+
+		try (InputStream inputStream = Files.newInputStream(recordPath)) {
+			record.load(inputStream);
+			return record;
+		} catch (IOException | IllegalArgumentException ex) {
+			logger.warn("Failed to read partial download record: " + recordPath, ex);
+			return null;
+		}
+	}
+
+	private static void writeRecord(
+			Path recordPath, HttpUrl url, @Nullable String validator, long length
+	) throws IOException {
+		final Properties record = new Properties();
+		record.setProperty("url", url.toString());
+		record.setProperty("length", Long.toString(length));
+
+		if (validator != null) {
+			record.setProperty("validator", validator);
+		}
+
+		try (OutputStream outputStream = Files.newOutputStream(recordPath)) {
+			record.store(outputStream, null);
+		}
+	}
+
+	private static void deletePart(Path partPath, Path recordPath) throws IOException {
+		Files.deleteIfExists(partPath);
+		Files.deleteIfExists(recordPath);
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(
+					source, target, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING
+			);
+		} catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Returns the number of connections used to download large files.
+	 *
+	 * @return the number of connections used to download large files.
+	 * @see #setSegmentedDownloads(int, long)
+	 */
+	public static int getSegmentCount() {
+		return segmentCount;
+	}
+
+	/**
+	 * Returns the minimum size in bytes of files that are downloaded using multiple connections.
+	 *
+	 * @return the minimum size in bytes of files that are downloaded using multiple connections.
+	 * @see #setSegmentedDownloads(int, long)
+	 */
+	public static long getSegmentedDownloadThreshold() {
+		return segmentedDownloadThreshold;
+	}
+
+	/**
+	 * Configures segmented downloads, which are disabled by default.
+	 * <p>
+	 * If enabled, before a file is downloaded, a {@code HEAD} request is sent to retrieve its
+	 * {@code Content-Length} and {@code Accept-Ranges} headers. If the server supports byte
+	 * ranges and the file is at least as large as the specified threshold, the file is
+	 * preallocated and split into the specified number of byte ranges, which are downloaded in
+	 * parallel using {@link ParallelUtils} and written directly to their positions in the file.
+	 * Each range is retried and resumed independently. Otherwise, the file is downloaded using
+	 * a single connection.
+	 * <p>
+	 * As the byte ranges are written out of order, any hash requested using
+	 * {@link #download(HttpUrl, Path, long, HashAlgorithm, HashCode, ProgressListener)} is
+	 * computed once the download is complete.
+	 *
+	 * @param segmentCount the number of connections used to download large files.
+	 * If this is {@code 1}, segmented downloads are disabled.
+	 * @param threshold the minimum size in bytes of files that are downloaded using multiple
+	 * connections.
+	 */
+	public static void setSegmentedDownloads(int segmentCount, long threshold) {
+		Preconditions.checkArgument(segmentCount > 0, "segmentCount should be positive");
+		Preconditions.checkArgument(threshold > 0L, "threshold should be positive");
+		OkHttpUtils.segmentCount = segmentCount;
+		segmentedDownloadThreshold = threshold;
+	}
+
 	/**
 	 * Returns the {@link OkHttpClient} used by CurseAPI.
 	 *
@@ -202,11 +877,53 @@ public final class OkHttpUtils {
 
 	/**
 	 * Sets the {@link OkHttpClient} used by CurseAPI.
+	 * Any {@link HttpCache} installed using {@link #setHttpCache(HttpCache)} is removed,
+	 * and should be installed again on the new {@link OkHttpClient} if necessary.
 	 *
 	 * @param client an {@link OkHttpClient}.
 	 */
 	public static void setClient(OkHttpClient client) {
 		Preconditions.checkNotNull(client, "client should not be null");
-		OkHttpUtils.client = client;
+
+		synchronized (OkHttpUtils.class) {
+			OkHttpUtils.client = client;
+			httpCache = null;
+		}
+	}
+
+	/**
+	 * Returns the {@link HttpCache} installed on the {@link OkHttpClient} used by CurseAPI.
+	 *
+	 * @return the {@link HttpCache} installed on the {@link OkHttpClient} used by CurseAPI,
+	 * or {@code null} if it has not been set.
+	 */
+	@Nullable
+	public static HttpCache getHttpCache() {
+		return httpCache;
+	}
+
+	/**
+	 * Installs the specified {@link HttpCache} on the {@link OkHttpClient} used by CurseAPI.
+	 * HTTP caching is disabled by default.
+	 * <p>
+	 * The {@link OkHttpClient} is replaced with one derived from the current {@link OkHttpClient}
+	 * that uses the specified {@link HttpCache}. Any previously installed {@link HttpCache} is
+	 * removed but not closed.
+	 *
+	 * @param cache an {@link HttpCache}. If this is {@code null}, HTTP caching is disabled.
+	 */
+	public static synchronized void setHttpCache(@Nullable HttpCache cache) {
+		OkHttpClient.Builder builder = client.newBuilder();
+
+		if (httpCache != null) {
+			builder = httpCache.uninstall(builder);
+		}
+
+		if (cache != null) {
+			builder = cache.install(builder);
+		}
+
+		client = builder.build();
+		httpCache = cache;
 	}
 }
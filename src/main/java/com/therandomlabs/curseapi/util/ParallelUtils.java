@@ -0,0 +1,312 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.CurseAPIMetrics;
+import com.therandomlabs.curseapi.CurseException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Contains utility methods for executing blocking tasks in parallel.
+ * <p>
+ * By default, a new virtual thread is used for each task on JDKs that support virtual threads,
+ * and a bounded pool of daemon platform threads is used otherwise. In both cases, the number of
+ * tasks that may be in flight at once for a single call is limited by
+ * {@link #getMaxInFlight()}.
+ */
+public final class ParallelUtils {
+	/**
+	 * The default maximum number of tasks that may be in flight at once for a single call.
+	 */
+	public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelUtils.class);
+
+	@Nullable
+	private static final Method newVirtualThreadPerTaskExecutor = getVirtualThreadMethod();
+
+	//The number of tasks in flight across all calls, which is reported to CurseAPIMetrics.
+	private static final AtomicInteger tasksInFlight = new AtomicInteger();
+
+	private static volatile ExecutorService executor;
+
+	private static volatile int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+	static {
+		executor = isVirtualThreadSupported() ?
+				newVirtualThreadExecutor() : newPlatformThreadExecutor(DEFAULT_MAX_IN_FLIGHT);
+	}
+
+	private ParallelUtils() {}
+
+	/**
+	 * Applies the specified {@link CheckedFunction} to each element of the specified
+	 * {@link Collection} in parallel and returns the results in encounter order.
+	 * <p>
+	 * At most {@link #getMaxInFlight()} tasks are in flight at once. If a task fails,
+	 * no further tasks are submitted, all remaining tasks are cancelled, and the failure
+	 * is rethrown.
+	 *
+	 * @param collection a {@link Collection}.
+	 * @param function a {@link CheckedFunction} that maps objects of type {@code E} to objects of
+	 * type {@code R}.
+	 * @param <E> the type of the elements.
+	 * @param <R> the type of the resultant values.
+	 * @return a mutable {@link List} containing the results in encounter order.
+	 * @throws CurseException if a task throws a {@link CurseException} or if the current thread
+	 * is interrupted.
+	 */
+	public static <E, R> List<R> map(
+			Collection<? extends E> collection,
+			CheckedFunction<? super E, ? extends R, CurseException> function
+	) throws CurseException {
+		return map(collection, function, maxInFlight);
+	}
+
+	/**
+	 * Applies the specified {@link CheckedFunction} to each element of the specified
+	 * {@link Collection} in parallel and returns the results in encounter order.
+	 * <p>
+	 * At most the specified number of tasks are in flight at once. If a task fails,
+	 * no further tasks are submitted, all remaining tasks are cancelled, and the failure
+	 * is rethrown.
+	 *
+	 * @param collection a {@link Collection}.
+	 * @param function a {@link CheckedFunction} that maps objects of type {@code E} to objects of
+	 * type {@code R}.
+	 * @param maxInFlight the maximum number of tasks that may be in flight at once.
+	 * @param <E> the type of the elements.
+	 * @param <R> the type of the resultant values.
+	 * @return a mutable {@link List} containing the results in encounter order.
+	 * @throws CurseException if a task throws a {@link CurseException} or if the current thread
+	 * is interrupted.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E, R> List<R> map(
+			Collection<? extends E> collection,
+			CheckedFunction<? super E, ? extends R, CurseException> function, int maxInFlight
+	) throws CurseException {
+		Preconditions.checkNotNull(collection, "collection should not be null");
+		Preconditions.checkNotNull(function, "function should not be null");
+		Preconditions.checkArgument(maxInFlight > 0, "maxInFlight should be positive");
+
+		final Object[] elements = collection.toArray();
+		final Object[] results = new Object[elements.length];
+
+		if (elements.length == 1) {
+			results[0] = function.apply((E) elements[0]);
+			return (List<R>) new ArrayList<>(Arrays.asList(results));
+		}
+
+		final CompletionService<Void> completionService =
+				new ExecutorCompletionService<>(executor);
+		final List<Future<Void>> futures = new ArrayList<>(elements.length);
+		int completed = 0;
+		Throwable failure = null;
+
+		try {
+			for (int i = 0; i < elements.length && failure == null; i++) {
+				if (futures.size() - completed >= maxInFlight) {
+					failure = getFailure(completionService.take());
+					completed++;
+				}
+
+				Future<Void> future;
+
+				while (failure == null && (future = completionService.poll()) != null) {
+					failure = getFailure(future);
+					completed++;
+				}
+
+				if (failure == null) {
+					final int index = i;
+					futures.add(completionService.submit(() -> {
+						CurseAPIMetrics.sink().parallelTaskStarted(
+								tasksInFlight.incrementAndGet()
+						);
+
+						try {
+							results[index] = function.apply((E) elements[index]);
+						} finally {
+							tasksInFlight.decrementAndGet();
+						}
+
+						return null;
+					}));
+				}
+			}
+
+			while (failure == null && completed < futures.size()) {
+				failure = getFailure(completionService.take());
+				completed++;
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			failure = new CurseException("Interrupted while waiting for parallel tasks", ex);
+		}
+
+		if (failure != null) {
+			for (Future<Void> future : futures) {
+				future.cancel(true);
+			}
+
+			throw AsyncUtils.rethrow(failure);
+		}
+
+		return (List<R>) new ArrayList<>(Arrays.asList(results));
+	}
+
+	/**
+	 * Returns whether virtual threads are supported by the current JDK.
+	 *
+	 * @return {@code true} if virtual threads are supported by the current JDK,
+	 * or otherwise {@code false}.
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return newVirtualThreadPerTaskExecutor != null;
+	}
+
+	/**
+	 * Configures {@link #map(Collection, CheckedFunction)} to use a new virtual thread for each
+	 * task. The previous {@link ExecutorService} is not shut down.
+	 *
+	 * @throws IllegalStateException if virtual threads are not supported by the current JDK.
+	 * @see #isVirtualThreadSupported()
+	 */
+	public static void useVirtualThreads() {
+		Preconditions.checkState(
+				isVirtualThreadSupported(), "virtual threads are not supported by this JDK"
+		);
+		executor = newVirtualThreadExecutor();
+	}
+
+	/**
+	 * Configures {@link #map(Collection, CheckedFunction)} to use a bounded pool of daemon
+	 * platform threads. If all threads are busy, tasks are run on the calling thread,
+	 * so nested calls cannot deadlock. The previous {@link ExecutorService} is not shut down.
+	 *
+	 * @param maxThreads the maximum number of platform threads.
+	 */
+	public static void usePlatformThreads(int maxThreads) {
+		Preconditions.checkArgument(maxThreads > 0, "maxThreads should be positive");
+		executor = newPlatformThreadExecutor(maxThreads);
+	}
+
+	/**
+	 * Returns the {@link ExecutorService} used by {@link #map(Collection, CheckedFunction)}.
+	 *
+	 * @return the {@link ExecutorService} used by {@link #map(Collection, CheckedFunction)}.
+	 */
+	public static ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the {@link ExecutorService} used by {@link #map(Collection, CheckedFunction)}.
+	 * The previous {@link ExecutorService} is not shut down.
+	 *
+	 * @param executor an {@link ExecutorService}.
+	 */
+	public static void setExecutor(ExecutorService executor) {
+		Preconditions.checkNotNull(executor, "executor should not be null");
+		ParallelUtils.executor = executor;
+	}
+
+	/**
+	 * Returns the maximum number of tasks that may be in flight at once for a single call to
+	 * {@link #map(Collection, CheckedFunction)}.
+	 *
+	 * @return the maximum number of tasks that may be in flight at once.
+	 */
+	public static int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * Sets the maximum number of tasks that may be in flight at once for a single call to
+	 * {@link #map(Collection, CheckedFunction)}.
+	 *
+	 * @param maxInFlight the maximum number of tasks that may be in flight at once.
+	 */
+	public static void setMaxInFlight(int maxInFlight) {
+		Preconditions.checkArgument(maxInFlight > 0, "maxInFlight should be positive");
+		ParallelUtils.maxInFlight = maxInFlight;
+	}
+
+	@Nullable
+	private static Throwable getFailure(Future<Void> future) throws InterruptedException {
+		try {
+			future.get();
+			return null;
+		} catch (ExecutionException ex) {
+			return ex.getCause() == null ? ex : ex.getCause();
+		}
+	}
+
+	@Nullable
+	private static Method getVirtualThreadMethod() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException ex) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings("NullAway")
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+		} catch (ReflectiveOperationException ex) {
+			logger.error("Failed to create virtual thread executor", ex);
+			return newPlatformThreadExecutor(maxInFlight);
+		}
+	}
+
+	private static ExecutorService newPlatformThreadExecutor(int maxThreads) {
+		return new ThreadPoolExecutor(
+				0, maxThreads, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				AsyncUtils.daemonThreadFactory("parallel"),
+				new ThreadPoolExecutor.CallerRunsPolicy()
+		);
+	}
+}
@@ -0,0 +1,372 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.therandomlabs.curseapi.CurseException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An in-memory, size-bounded cache for API responses.
+ * <p>
+ * Responses are keyed by an endpoint name and the arguments passed to that endpoint.
+ * Each endpoint has its own time-to-live, so that rarely changing data such as games and
+ * categories may be kept for longer than frequently changing data such as project files.
+ * {@code null} responses are never cached.
+ * <p>
+ * Values returned by this cache are shared between callers, so callers should not mutate them
+ * directly and should instead return copies where necessary.
+ */
+public final class ResponseCache {
+	private final Map<String, Duration> ttls = new ConcurrentHashMap<>();
+	private final Map<String, Cache<List<Object>, Object>> caches = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	private volatile Duration defaultTTL;
+	private volatile long maximumSize;
+
+	/**
+	 * Constructs a {@link ResponseCache} with the specified default time-to-live and
+	 * maximum size.
+	 *
+	 * @param defaultTTL the time-to-live for endpoints that have not been configured using
+	 * {@link #setTTL(String, Duration)}. If this is {@link Duration#ZERO}, responses from these
+	 * endpoints are not cached.
+	 * @param maximumSize the maximum number of responses stored per endpoint.
+	 */
+	public ResponseCache(Duration defaultTTL, long maximumSize) {
+		checkTTL(defaultTTL);
+		Preconditions.checkArgument(maximumSize > 0, "maximumSize should be positive");
+		this.defaultTTL = defaultTTL;
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Returns the cached response for the specified endpoint and arguments if it exists and has
+	 * not expired, or otherwise retrieves it from the specified {@link CheckedSupplier} and
+	 * caches it.
+	 *
+	 * @param endpoint an endpoint name.
+	 * @param supplier a {@link CheckedSupplier} that retrieves the response.
+	 * @param arguments the arguments passed to the endpoint.
+	 * @param <T> the type of the response.
+	 * @return the response, or {@code null} if the {@link CheckedSupplier} returns {@code null}.
+	 * @throws CurseException if the {@link CheckedSupplier} throws a {@link CurseException}.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(
+			String endpoint, CheckedSupplier<T, CurseException> supplier, Object... arguments
+	) throws CurseException {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+		Preconditions.checkNotNull(supplier, "supplier should not be null");
+		Preconditions.checkNotNull(arguments, "arguments should not be null");
+
+		final Cache<List<Object>, Object> cache = cache(endpoint);
+
+		if (cache == null) {
+			return supplier.get();
+		}
+
+		final List<Object> key = Arrays.asList(arguments);
+		final T cached = (T) cache.getIfPresent(key);
+
+		if (cached != null) {
+			hits.increment();
+			return cached;
+		}
+
+		misses.increment();
+		final T value = supplier.get();
+
+		if (value != null) {
+			cache.put(key, value);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns a {@link CompletableFuture} that is completed with the cached response for the
+	 * specified endpoint and arguments if it exists and has not expired, or otherwise retrieves it
+	 * asynchronously from the specified {@link Supplier} and caches it.
+	 *
+	 * @param endpoint an endpoint name.
+	 * @param supplier a {@link Supplier} that asynchronously retrieves the response.
+	 * @param arguments the arguments passed to the endpoint.
+	 * @param <T> the type of the response.
+	 * @return a {@link CompletableFuture} that is completed with the response.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> getAsync(
+			String endpoint, Supplier<CompletableFuture<T>> supplier, Object... arguments
+	) {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+		Preconditions.checkNotNull(supplier, "supplier should not be null");
+		Preconditions.checkNotNull(arguments, "arguments should not be null");
+
+		final Cache<List<Object>, Object> cache = cache(endpoint);
+
+		if (cache == null) {
+			return supplier.get();
+		}
+
+		final List<Object> key = Arrays.asList(arguments);
+		final T cached = (T) cache.getIfPresent(key);
+
+		if (cached != null) {
+			hits.increment();
+			return CompletableFuture.completedFuture(cached);
+		}
+
+		misses.increment();
+		return supplier.get().thenApply(value -> {
+			if (value != null) {
+				cache.put(key, value);
+			}
+
+			return value;
+		});
+	}
+
+	/**
+	 * Returns the cached response for the specified endpoint and arguments if it exists and has
+	 * not expired.
+	 *
+	 * @param endpoint an endpoint name.
+	 * @param arguments the arguments passed to the endpoint.
+	 * @param <T> the type of the response.
+	 * @return the cached response, or {@code null} if it does not exist or has expired.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T getIfPresent(String endpoint, Object... arguments) {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+		Preconditions.checkNotNull(arguments, "arguments should not be null");
+
+		final Cache<List<Object>, Object> cache = cache(endpoint);
+
+		if (cache == null) {
+			return null;
+		}
+
+		final T cached = (T) cache.getIfPresent(Arrays.asList(arguments));
+
+		if (cached == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+
+		return cached;
+	}
+
+	/**
+	 * Caches a response for the specified endpoint and arguments that has been retrieved by
+	 * other means, for example as part of a batch request.
+	 * If caching is disabled for the specified endpoint, this method does nothing.
+	 *
+	 * @param endpoint an endpoint name.
+	 * @param value a response.
+	 * @param arguments the arguments passed to the endpoint.
+	 */
+	public void put(String endpoint, Object value, Object... arguments) {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+		Preconditions.checkNotNull(value, "value should not be null");
+		Preconditions.checkNotNull(arguments, "arguments should not be null");
+
+		final Cache<List<Object>, Object> cache = cache(endpoint);
+
+		if (cache != null) {
+			cache.put(Arrays.asList(arguments), value);
+		}
+	}
+
+	/**
+	 * Invalidates the cached response for the specified endpoint and arguments.
+	 *
+	 * @param endpoint an endpoint name.
+	 * @param arguments the arguments passed to the endpoint.
+	 */
+	public void invalidate(String endpoint, Object... arguments) {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+		Preconditions.checkNotNull(arguments, "arguments should not be null");
+
+		final Cache<List<Object>, Object> cache = caches.get(endpoint);
+
+		if (cache != null) {
+			cache.invalidate(Arrays.asList(arguments));
+		}
+	}
+
+	/**
+	 * Invalidates all cached responses for the specified endpoint.
+	 *
+	 * @param endpoint an endpoint name.
+	 */
+	public void invalidateAll(String endpoint) {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+		caches.remove(endpoint);
+	}
+
+	/**
+	 * Invalidates all cached responses.
+	 */
+	public void invalidateAll() {
+		caches.clear();
+	}
+
+	/**
+	 * Returns the time-to-live of responses from the specified endpoint.
+	 *
+	 * @param endpoint an endpoint name.
+	 * @return the time-to-live of responses from the specified endpoint.
+	 */
+	public Duration getTTL(String endpoint) {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+		return ttls.getOrDefault(endpoint, defaultTTL);
+	}
+
+	/**
+	 * Sets the time-to-live of responses from the specified endpoint.
+	 * All cached responses from the specified endpoint are invalidated.
+	 *
+	 * @param endpoint an endpoint name.
+	 * @param ttl a time-to-live. If this is {@link Duration#ZERO}, responses from the specified
+	 * endpoint are not cached.
+	 * @return this {@link ResponseCache}.
+	 */
+	public ResponseCache setTTL(String endpoint, Duration ttl) {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+		checkTTL(ttl);
+		ttls.put(endpoint, ttl);
+		caches.remove(endpoint);
+		return this;
+	}
+
+	/**
+	 * Sets the default time-to-live of responses from endpoints that have not been configured
+	 * using {@link #setTTL(String, Duration)}.
+	 * All cached responses are invalidated.
+	 *
+	 * @param ttl a time-to-live. If this is {@link Duration#ZERO}, responses from these endpoints
+	 * are not cached.
+	 * @return this {@link ResponseCache}.
+	 */
+	public ResponseCache setDefaultTTL(Duration ttl) {
+		checkTTL(ttl);
+		defaultTTL = ttl;
+		caches.clear();
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of responses stored per endpoint.
+	 *
+	 * @return the maximum number of responses stored per endpoint.
+	 */
+	public long getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Sets the maximum number of responses stored per endpoint. When this number is exceeded,
+	 * the least recently used responses are evicted first.
+	 * All cached responses are invalidated.
+	 *
+	 * @param size the maximum number of responses stored per endpoint.
+	 * @return this {@link ResponseCache}.
+	 */
+	public ResponseCache setMaximumSize(long size) {
+		Preconditions.checkArgument(size > 0, "size should be positive");
+		maximumSize = size;
+		caches.clear();
+		return this;
+	}
+
+	/**
+	 * Returns the number of times a cached response has been returned.
+	 *
+	 * @return the number of cache hits.
+	 */
+	public long hitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of times a response has had to be retrieved because it was not cached.
+	 * Requests to endpoints for which caching is disabled are not counted.
+	 *
+	 * @return the number of cache misses.
+	 */
+	public long missCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of responses currently cached for the specified endpoint.
+	 * This is an approximation, as expired responses may not have been evicted yet.
+	 *
+	 * @param endpoint an endpoint name.
+	 * @return the number of responses currently cached for the specified endpoint.
+	 */
+	public long size(String endpoint) {
+		Preconditions.checkNotNull(endpoint, "endpoint should not be null");
+		final Cache<List<Object>, Object> cache = caches.get(endpoint);
+		return cache == null ? 0L : cache.size();
+	}
+
+	@Nullable
+	private Cache<List<Object>, Object> cache(String endpoint) {
+		final Duration ttl = getTTL(endpoint);
+
+		if (ttl.isZero()) {
+			return null;
+		}
+
+		return caches.computeIfAbsent(endpoint, key -> CacheBuilder.newBuilder().
+				expireAfterWrite(ttl.toNanos(), TimeUnit.NANOSECONDS).
+				maximumSize(maximumSize).
+				build());
+	}
+
+	private static void checkTTL(Duration ttl) {
+		Preconditions.checkNotNull(ttl, "ttl should not be null");
+		Preconditions.checkArgument(!ttl.isNegative(), "ttl should not be negative");
+	}
+}
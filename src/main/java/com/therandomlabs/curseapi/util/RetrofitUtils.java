@@ -24,23 +24,35 @@
 package com.therandomlabs.curseapi.util;
 
 import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 
 import com.google.common.base.Preconditions;
 import com.squareup.moshi.JsonDataException;
+import com.therandomlabs.curseapi.CurseAPIMetrics;
 import com.therandomlabs.curseapi.CurseException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.retrofit.CircuitBreakerCallAdapter;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import io.vavr.control.Try;
+import okhttp3.Request;
+import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Converter;
+import retrofit2.Invocation;
 import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.moshi.MoshiConverterFactory;
@@ -49,9 +61,60 @@ import retrofit2.converter.moshi.MoshiConverterFactory;
  * Contains utility methods for working with Retrofit.
  */
 public final class RetrofitUtils {
+	//Reuses deserialized response bodies if an HttpCache is installed.
+	private static final class HttpCacheConverterFactory extends Converter.Factory {
+		private final Converter.Factory delegate;
+
+		HttpCacheConverterFactory(Converter.Factory delegate) {
+			this.delegate = delegate;
+		}
+
+		@Nullable
+		@Override
+		public Converter<ResponseBody, ?> responseBodyConverter(
+				Type type, Annotation[] annotations, Retrofit retrofit
+		) {
+			final Converter<ResponseBody, ?> converter =
+					delegate.responseBodyConverter(type, annotations, retrofit);
+
+			if (converter == null) {
+				return null;
+			}
+
+			return body -> {
+				//The decoding time is only measured if a JFR event is being recorded.
+				final boolean recording = JFREvents.isDecoding();
+				final long startTime = recording ? System.nanoTime() : 0L;
+				final long bytes = recording ? body.contentLength() : 0L;
+
+				final HttpCache cache = OkHttpUtils.getHttpCache();
+				final Object value = cache == null ?
+						converter.convert(body) : cache.convert(type, body, converter);
+
+				if (recording) {
+					JFREvents.decoded(bytes, System.nanoTime() - startTime);
+				}
+
+				return value;
+			};
+		}
+
+		@Nullable
+		@Override
+		public Converter<?, RequestBody> requestBodyConverter(
+				Type type, Annotation[] parameterAnnotations, Annotation[] methodAnnotations,
+				Retrofit retrofit
+		) {
+			return delegate.requestBodyConverter(
+					type, parameterAnnotations, methodAnnotations, retrofit
+			);
+		}
+	}
+
 	private static final Logger logger = LoggerFactory.getLogger(RetrofitUtils.class);
 
-	private static final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("curseapi");
+	private static final CircuitBreaker circuitBreaker =
+			withMetrics(CircuitBreaker.ofDefaults("curseapi"));
 
 	private static Function<String, Retrofit> retrofitSupplier = baseURL -> new Retrofit.Builder().
 			addCallAdapterFactory(CircuitBreakerCallAdapter.of(
@@ -59,11 +122,19 @@ public final class RetrofitUtils {
 					response -> response.isSuccessful() || response.code() == 404
 			)).
 			baseUrl(baseURL).
-			client(OkHttpUtils.getClient()).
-			addConverterFactory(MoshiConverterFactory.create(MoshiUtils.moshi)).
+			//The client is retrieved for each call so that changes made using
+			//OkHttpUtils#setClient and OkHttpUtils#setHttpCache affect existing services.
+			callFactory(request -> OkHttpUtils.getClient().newCall(request)).
+			addConverterFactory(
+					new HttpCacheConverterFactory(MoshiConverterFactory.create(MoshiUtils.moshi))
+			).
 			build();
 
-	private static Retry retry = Retry.ofDefaults("curseapi");
+	private static Retry retry = withMetrics(Retry.ofDefaults("curseapi"));
+
+	//Used to schedule retries of asynchronous calls.
+	private static final ScheduledExecutorService retryScheduler =
+			Executors.newSingleThreadScheduledExecutor(AsyncUtils.daemonThreadFactory("retry"));
 
 	private RetrofitUtils() {}
 
@@ -94,30 +165,77 @@ public final class RetrofitUtils {
 
 		logger.debug("Executing request: {}", call.request());
 
+		final Object event = JFREvents.beginAPICall();
+		final int[] attempts = new int[1];
+		final long startTime = System.nanoTime();
+		int statusCode = 0;
+
 		try {
-			final Response<T> response = Try.of(Retry.decorateCheckedSupplier(
-					retry, () -> call.clone().execute()
-			)).get();
+			final Response<T> response = Try.of(Retry.decorateCheckedSupplier(retry, () -> {
+				attempts[0]++;
+				return call.clone().execute();
+			})).get();
+			statusCode = response.code();
+			return getBody(response);
+		} catch (IOException | JsonDataException ex) {
+			throw new CurseException("Failed to execute request: " + call.request(), ex);
+		} finally {
+			CurseAPIMetrics.sink().requestCompleted(
+					endpoint(call.request()), statusCode, System.nanoTime() - startTime
+			);
 
-			if (response.isSuccessful()) {
-				return response.body();
+			if (event != null) {
+				JFREvents.endAPICall(event, call.request(), statusCode, attempts[0]);
 			}
+		}
+	}
 
-			//The path could not be found, so we return null.
-			if (response.code() == 400 || response.code() == 404) {
-				return null;
-			}
+	/**
+	 * Asynchronously executes the specified {@link Call} using {@link Call#enqueue(Callback)}.
+	 * The same retry configuration and circuit breaker as {@link #execute(Call)} are used.
+	 *
+	 * @param call a {@link Call}.
+	 * @param <T> the response body type of the {@link Call}.
+	 * @return a {@link CompletableFuture} that is completed with the deserialized response body,
+	 * or {@code null} if the path could not be found. If the {@link Call} fails to execute
+	 * correctly, the {@link CompletableFuture} is completed exceptionally with a
+	 * {@link CurseException}.
+	 */
+	public static <T> CompletableFuture<T> executeAsync(Call<? extends T> call) {
+		Preconditions.checkNotNull(call, "call should not be null");
 
-			try (ResponseBody errorBody = response.errorBody()) {
-				throw new CurseException(String.format(
-						"Failed to execute call. HTTP status: %s (%s). Response body: %s",
-						response.message(), response.code(),
-						errorBody == null ? null : errorBody.string()
-				));
-			}
-		} catch (IOException | JsonDataException ex) {
-			throw new CurseException("Failed to execute request: " + call.request(), ex);
-		}
+		logger.debug("Enqueuing request: {}", call.request());
+
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		final long startTime = System.nanoTime();
+
+		Retry.decorateCompletionStage(retry, retryScheduler, () -> enqueue(call.clone())).get().
+				whenComplete((response, throwable) -> {
+					CurseAPIMetrics.sink().requestCompleted(
+							endpoint(call.request()), response == null ? 0 : response.code(),
+							System.nanoTime() - startTime
+					);
+
+					if (throwable != null) {
+						future.completeExceptionally(new CurseException(
+								"Failed to execute request: " + call.request(),
+								AsyncUtils.unwrap(throwable)
+						));
+						return;
+					}
+
+					try {
+						future.complete(getBody(response));
+					} catch (CurseException ex) {
+						future.completeExceptionally(ex);
+					} catch (IOException ex) {
+						future.completeExceptionally(new CurseException(
+								"Failed to execute request: " + call.request(), ex
+						));
+					}
+				});
+
+		return future;
 	}
 
 	/**
@@ -140,6 +258,31 @@ public final class RetrofitUtils {
 		}
 	}
 
+	/**
+	 * Asynchronously executes the specified {@link Call} using {@link #executeAsync(Call)} and
+	 * returns the response body as a string.
+	 *
+	 * @param call a {@link Call}.
+	 * @return a {@link CompletableFuture} that is completed with the response body as a string,
+	 * or {@code null} if the path could not be found.
+	 */
+	public static CompletableFuture<String> getStringAsync(Call<ResponseBody> call) {
+		Preconditions.checkNotNull(call, "call should not be null");
+		return executeAsync(call).thenApply(responseBody -> {
+			if (responseBody == null) {
+				return null;
+			}
+
+			try {
+				return responseBody.string();
+			} catch (IOException ex) {
+				throw new CompletionException(
+						new CurseException("Failed to get string: " + call.request(), ex)
+				);
+			}
+		});
+	}
+
 	/**
 	 * Executes the specified {@link Call} using {@link #execute(Call)} and returns the response
 	 * body as an {@link Element}.
@@ -155,13 +298,25 @@ public final class RetrofitUtils {
 	public static Element getElement(Call<ResponseBody> call) throws CurseException {
 		Preconditions.checkNotNull(call, "call should not be null");
 
+		final Object event = JFREvents.beginGetElement();
+		final long startTime = event == null ? 0L : System.nanoTime();
 		final String string = getString(call);
 
 		if (string == null) {
 			return null;
 		}
 
-		return JsoupUtils.parseBody(string);
+		final long parseStartTime = event == null ? 0L : System.nanoTime();
+		final Element element = JsoupUtils.parseBody(string);
+
+		if (event != null) {
+			JFREvents.endGetElement(
+					event, call.request(), string.length(), parseStartTime - startTime,
+					System.nanoTime() - parseStartTime
+			);
+		}
+
+		return element;
 	}
 
 	/**
@@ -184,12 +339,81 @@ public final class RetrofitUtils {
 	public static void setRetryConfig(Duration waitDuration, int maxAttempts) {
 		Preconditions.checkArgument(waitDuration.toMillis() > 0, "waitDuration should be positive");
 		Preconditions.checkArgument(maxAttempts > 0, "maxAttempts should be positive");
-		retry = Retry.of(
+		retry = withMetrics(Retry.of(
 				"curseapi",
 				RetryConfig.custom().
 						waitDuration(waitDuration).
 						maxAttempts(maxAttempts).
 						build()
+		));
+	}
+
+	//This is also used by OkHttpUtils to retry downloads.
+	static Retry retry() {
+		return retry;
+	}
+
+	private static CircuitBreaker withMetrics(CircuitBreaker circuitBreaker) {
+		circuitBreaker.getEventPublisher().onStateTransition(
+				event -> CurseAPIMetrics.sink().circuitBreakerStateChanged(
+						event.getCircuitBreakerName(),
+						event.getStateTransition().getFromState().name(),
+						event.getStateTransition().getToState().name()
+				)
 		);
+		return circuitBreaker;
+	}
+
+	private static Retry withMetrics(Retry retry) {
+		retry.getEventPublisher().onRetry(event -> CurseAPIMetrics.sink().retryAttempted(
+				event.getName(), event.getNumberOfRetryAttempts()
+		));
+		return retry;
+	}
+
+	//Retrofit tags requests with the service method that created them.
+	//This is also used by JFREvents.
+	static String endpoint(Request request) {
+		final Invocation invocation = request.tag(Invocation.class);
+		return invocation == null ?
+				request.url().encodedPath() : invocation.method().getName();
+	}
+
+	@Nullable
+	private static <T> T getBody(Response<T> response) throws CurseException, IOException {
+		if (response.isSuccessful()) {
+			return response.body();
+		}
+
+		//The path could not be found, so we return null.
+		if (response.code() == 400 || response.code() == 404) {
+			return null;
+		}
+
+		try (ResponseBody errorBody = response.errorBody()) {
+			throw new CurseException(String.format(
+					"Failed to execute call. HTTP status: %s (%s). Response body: %s",
+					response.message(), response.code(),
+					errorBody == null ? null : errorBody.string()
+			));
+		}
+	}
+
+	private static <T> CompletableFuture<Response<T>> enqueue(Call<T> call) {
+		final CompletableFuture<Response<T>> future = new CompletableFuture<>();
+
+		call.enqueue(new Callback<T>() {
+			@Override
+			public void onResponse(Call<T> call, Response<T> response) {
+				future.complete(response);
+			}
+
+			@Override
+			public void onFailure(Call<T> call, Throwable throwable) {
+				future.completeExceptionally(throwable);
+			}
+		});
+
+		return future;
 	}
 }
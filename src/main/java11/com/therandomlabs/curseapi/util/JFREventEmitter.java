@@ -0,0 +1,272 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import java.nio.file.Path;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import retrofit2.Invocation;
+
+//The JDK Flight Recorder events emitted by CurseAPI. This class is compiled for Java 11 and
+//packaged in the versioned section of the multi-release JAR, and is only loaded by JFREvents.
+final class JFREventEmitter implements JFREvents.Emitter {
+	@Name("com.therandomlabs.curseapi.APICall")
+	@Label("API Call")
+	@Category("CurseAPI")
+	@Description("A call executed by RetrofitUtils, including retries and JSON decoding")
+	static final class APICall extends Event {
+		@Label("Endpoint")
+		String endpoint;
+
+		@Label("Arguments")
+		@Description("The arguments passed to the endpoint, such as project and file IDs")
+		String arguments;
+
+		@Label("URL")
+		String url;
+
+		@Label("Status Code")
+		int statusCode;
+
+		@Label("Attempts")
+		int attempts;
+
+		@Label("Response Size")
+		@DataAmount(DataAmount.BYTES)
+		long responseBytes;
+
+		@Label("Decode Duration")
+		@Description("The time spent decoding the response body, which is included in " +
+				"the duration of the call")
+		@Timespan(Timespan.NANOSECONDS)
+		long decodeDuration;
+	}
+
+	@Name("com.therandomlabs.curseapi.GetElement")
+	@Label("Get HTML Element")
+	@Category("CurseAPI")
+	@Description("An HTML response retrieved and parsed by RetrofitUtils#getElement")
+	static final class GetElement extends Event {
+		@Label("Endpoint")
+		String endpoint;
+
+		@Label("Arguments")
+		String arguments;
+
+		@Label("Characters")
+		int characters;
+
+		@Label("Fetch Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long fetchDuration;
+
+		@Label("Parse Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long parseDuration;
+	}
+
+	@Name("com.therandomlabs.curseapi.HTMLProcessing")
+	@Label("HTML Processing")
+	@Category("CurseAPI")
+	@Description("HTML parsed or converted to plain text by JsoupUtils")
+	static final class HTMLProcessing extends Event {
+		@Label("Operation")
+		String operation;
+
+		@Label("Characters")
+		@Description("The length of the parsed HTML or the generated plain text")
+		int characters;
+	}
+
+	@Name("com.therandomlabs.curseapi.Download")
+	@Label("Download")
+	@Category("CurseAPI")
+	@Description("A file downloaded by OkHttpUtils, including retries")
+	static final class Download extends Event {
+		@Label("URL")
+		String url;
+
+		@Label("Path")
+		String path;
+
+		@Label("Expected Size")
+		@DataAmount(DataAmount.BYTES)
+		long expectedSize;
+
+		@Label("Bytes Transferred")
+		@DataAmount(DataAmount.BYTES)
+		long bytesTransferred;
+
+		@Label("Successful")
+		boolean successful;
+	}
+
+	private final ThreadLocal<APICall> currentAPICall = new ThreadLocal<>();
+
+	@Nullable
+	@Override
+	public Object beginAPICall() {
+		final APICall event = new APICall();
+
+		if (!event.isEnabled()) {
+			return null;
+		}
+
+		event.begin();
+		currentAPICall.set(event);
+		return event;
+	}
+
+	@Override
+	public boolean isDecoding() {
+		return currentAPICall.get() != null;
+	}
+
+	@Override
+	public void decoded(long bytes, long durationNanos) {
+		final APICall event = currentAPICall.get();
+
+		if (event != null) {
+			event.responseBytes += Math.max(0L, bytes);
+			event.decodeDuration += durationNanos;
+		}
+	}
+
+	@Override
+	public void endAPICall(Object handle, Request request, int statusCode, int attempts) {
+		final APICall event = (APICall) handle;
+		currentAPICall.remove();
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.endpoint = RetrofitUtils.endpoint(request);
+			event.arguments = arguments(request);
+			event.url = request.url().toString();
+			event.statusCode = statusCode;
+			event.attempts = attempts;
+			event.commit();
+		}
+	}
+
+	@Nullable
+	@Override
+	public Object beginGetElement() {
+		final GetElement event = new GetElement();
+
+		if (!event.isEnabled()) {
+			return null;
+		}
+
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endGetElement(
+			Object handle, Request request, int characters, long fetchDurationNanos,
+			long parseDurationNanos
+	) {
+		final GetElement event = (GetElement) handle;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.endpoint = RetrofitUtils.endpoint(request);
+			event.arguments = arguments(request);
+			event.characters = characters;
+			event.fetchDuration = fetchDurationNanos;
+			event.parseDuration = parseDurationNanos;
+			event.commit();
+		}
+	}
+
+	@Nullable
+	@Override
+	public Object beginHTMLProcessing() {
+		final HTMLProcessing event = new HTMLProcessing();
+
+		if (!event.isEnabled()) {
+			return null;
+		}
+
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endHTMLProcessing(Object handle, String operation, int characters) {
+		final HTMLProcessing event = (HTMLProcessing) handle;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.operation = operation;
+			event.characters = characters;
+			event.commit();
+		}
+	}
+
+	@Nullable
+	@Override
+	public Object beginDownload() {
+		final Download event = new Download();
+
+		if (!event.isEnabled()) {
+			return null;
+		}
+
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endDownload(
+			Object handle, HttpUrl url, Path path, long expectedSize, long bytesTransferred,
+			boolean successful
+	) {
+		final Download event = (Download) handle;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.url = url.toString();
+			event.path = path.toString();
+			event.expectedSize = expectedSize;
+			event.bytesTransferred = bytesTransferred;
+			event.successful = successful;
+			event.commit();
+		}
+	}
+
+	private static String arguments(Request request) {
+		final Invocation invocation = request.tag(Invocation.class);
+		return invocation == null ? "" : invocation.arguments().toString();
+	}
+}
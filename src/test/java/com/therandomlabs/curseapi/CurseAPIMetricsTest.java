@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import com.sun.net.httpserver.HttpServer;
+import com.therandomlabs.curseapi.util.ParallelUtils;
+import com.therandomlabs.curseapi.util.RetrofitUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Call;
+import retrofit2.http.GET;
+
+class CurseAPIMetricsTest {
+	interface Service {
+		@GET("projects")
+		Call<List<String>> getProjects();
+
+		@GET("missing")
+		Call<List<String>> getMissing();
+	}
+
+	private final CurseAPIMetrics.InMemorySink sink = new CurseAPIMetrics.InMemorySink();
+
+	@Test
+	void eventsShouldBeAggregated() {
+		sink.requestCompleted("getProject", 200, 0L);
+		sink.requestCompleted("getProject", 200, 1000L);
+		sink.requestCompleted("getProject", 404, 3000L);
+		sink.requestCompleted("getFiles", 0, 100_000L);
+		sink.retryAttempted("curseapi", 1);
+		sink.circuitBreakerStateChanged("curseapi", "CLOSED", "OPEN");
+		sink.circuitBreakerStateChanged("curseapi", "OPEN", "HALF_OPEN");
+		sink.circuitBreakerStateChanged("curseapi", "HALF_OPEN", "OPEN");
+		sink.bytesDownloaded(512L);
+		sink.bytesDownloaded(512L);
+		sink.parallelTaskStarted(1);
+		sink.parallelTaskStarted(3);
+
+		final CurseAPIMetrics.Snapshot snapshot = sink.snapshot();
+		final CurseAPIMetrics.Histogram latencies = snapshot.latencies().get("getProject");
+		assertThat(latencies.count()).isEqualTo(3L);
+		assertThat(latencies.totalNanos()).isEqualTo(4000L);
+		assertThat(latencies.meanNanos()).isEqualTo(1333L);
+		assertThat(latencies.maxNanos()).isEqualTo(3000L);
+		assertThat(latencies.percentileNanos(0.0)).isZero();
+		//1000 is in the bucket below 1024.
+		assertThat(latencies.percentileNanos(50.0)).isEqualTo(1023L);
+		assertThat(latencies.percentileNanos(100.0)).isEqualTo(3000L);
+		assertThat(latencies.toString()).contains("count=3");
+		assertThatThrownBy(() -> latencies.percentileNanos(101.0)).
+				isInstanceOf(IllegalArgumentException.class).
+				hasMessageContaining("between");
+
+		assertThat(snapshot.statusCodes().get("getProject")).containsEntry(200, 2L).
+				containsEntry(404, 1L);
+		assertThat(snapshot.statusCodes().get("getFiles")).containsOnlyKeys(0);
+		assertThat(snapshot.retries()).isEqualTo(1L);
+		assertThat(snapshot.circuitBreakerTransitions()).containsEntry("CLOSED_TO_OPEN", 1L).
+				containsEntry("HALF_OPEN_TO_OPEN", 1L);
+		assertThat(snapshot.bytesDownloaded()).isEqualTo(1024L);
+		assertThat(snapshot.parallelTasks()).isEqualTo(2L);
+		assertThat(snapshot.maxParallelTasksInFlight()).isEqualTo(3L);
+		assertThat(snapshot.toString()).contains("bytesDownloaded=1024");
+
+		sink.reset();
+		assertThat(sink.snapshot().latencies()).isEmpty();
+		assertThat(sink.snapshot().bytesDownloaded()).isZero();
+	}
+
+	@Test
+	void emptyHistogramShouldReturnZero() {
+		final CurseAPIMetrics.Histogram histogram =
+				new CurseAPIMetrics.Histogram(new long[Long.SIZE], 0L, 0L);
+		assertThat(histogram.count()).isZero();
+		assertThat(histogram.meanNanos()).isZero();
+		assertThat(histogram.percentileNanos(99.0)).isZero();
+	}
+
+	@Test
+	void callsShouldBeRecorded() throws CurseException, IOException {
+		final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/projects", exchange -> {
+			final byte[] body = "[\"a\"]".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+
+			try (OutputStream stream = exchange.getResponseBody()) {
+				stream.write(body);
+			}
+		});
+		server.createContext("/missing", exchange -> {
+			exchange.sendResponseHeaders(404, -1L);
+			exchange.close();
+		});
+		server.start();
+
+		try {
+			final Service service = RetrofitUtils.get(
+					"http://127.0.0.1:" + server.getAddress().getPort() + "/"
+			).create(Service.class);
+			assertThat(RetrofitUtils.execute(service.getProjects())).containsExactly("a");
+			assertThat(RetrofitUtils.execute(service.getMissing())).isNull();
+			assertThat(RetrofitUtils.executeAsync(service.getProjects()).join()).
+					containsExactly("a");
+		} finally {
+			server.stop(0);
+		}
+
+		final CurseAPIMetrics.Snapshot snapshot = sink.snapshot();
+		assertThat(snapshot.latencies().get("getProjects").count()).isEqualTo(2L);
+		assertThat(snapshot.statusCodes().get("getProjects")).containsOnly(entry(200, 2L));
+		assertThat(snapshot.statusCodes().get("getMissing")).containsOnly(entry(404, 1L));
+	}
+
+	@Test
+	void retriesShouldBeRecorded() throws IOException {
+		//This reserves a port that nothing listens on.
+		final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		final int port = server.getAddress().getPort();
+		server.stop(0);
+
+		RetrofitUtils.setRetryConfig(Duration.ofMillis(1L), 3);
+
+		try {
+			final Service service =
+					RetrofitUtils.get("http://127.0.0.1:" + port + "/").create(Service.class);
+			assertThatThrownBy(() -> RetrofitUtils.execute(service.getProjects())).
+					isInstanceOf(CurseException.class);
+		} finally {
+			RetrofitUtils.setRetryConfig(Duration.ofMillis(500L), 3);
+		}
+
+		final CurseAPIMetrics.Snapshot snapshot = sink.snapshot();
+		assertThat(snapshot.retries()).isEqualTo(2L);
+		assertThat(snapshot.statusCodes().get("getProjects")).containsOnly(entry(0, 1L));
+	}
+
+	@Test
+	void parallelTasksShouldBeRecorded() throws CurseException {
+		ParallelUtils.map(Arrays.asList(1, 2, 3, 4), number -> number * 2, 2);
+		final CurseAPIMetrics.Snapshot snapshot = sink.snapshot();
+		assertThat(snapshot.parallelTasks()).isEqualTo(4L);
+		assertThat(snapshot.maxParallelTasksInFlight()).isBetween(1L, 2L);
+	}
+
+	@BeforeEach
+	void setSink() {
+		assertThat(CurseAPIMetrics.sink()).isSameAs(CurseAPIMetrics.inMemorySink());
+		CurseAPIMetrics.setSink(sink);
+	}
+
+	@AfterEach
+	void resetSink() {
+		CurseAPIMetrics.setSink(CurseAPIMetrics.inMemorySink());
+		assertThat(CurseAPIMetrics.snapshot()).isNotNull();
+	}
+}
@@ -25,17 +25,32 @@ package com.therandomlabs.curseapi;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.file.CurseFilesLookup;
 import com.therandomlabs.curseapi.game.CurseCategory;
 import com.therandomlabs.curseapi.game.CurseGame;
 import com.therandomlabs.curseapi.game.CurseGameVersion;
@@ -92,6 +107,24 @@ class CurseAPITest {
 		assertThat(CurseAPI.project("minecraft/randompatches")).isNotPresent();
 	}
 
+	@Test
+	void projectsShouldOmitNonexistentProjects() throws CurseException {
+		final Map<Integer, CurseProject> projects = CurseAPI.projects(Arrays.asList(
+				CurseAPI.MIN_PROJECT_ID, 285612, Integer.MAX_VALUE
+		));
+
+		assertThat(projects).containsOnlyKeys(CurseAPI.MIN_PROJECT_ID, 285612);
+		assertThat(projects.get(285612)).isEqualTo(CurseAPI.project(285612).get());
+		assertThat(CurseAPI.projects(Collections.emptyList())).isEmpty();
+	}
+
+	@Test
+	void asyncProjectShouldMatchSynchronousProject() throws CurseException {
+		assertThat(CurseAPI.projectAsync(CurseAPI.MIN_PROJECT_ID).join()).
+				isEqualTo(CurseAPI.project(CurseAPI.MIN_PROJECT_ID));
+		assertThat(CurseAPI.projectAsync(Integer.MAX_VALUE).join()).isNotPresent();
+	}
+
 	@Test
 	void exceptionShouldBeThrownIfMaxLineLengthIsInvalid() {
 		assertThatThrownBy(() -> CurseAPI.projectDescriptionPlainText(CurseAPI.MIN_PROJECT_ID, 0)).
@@ -182,6 +215,30 @@ class CurseAPITest {
 		assertThat(CurseAPI.file(CurseAPI.MIN_PROJECT_ID, CurseAPI.MIN_FILE_ID + 1)).isNotPresent();
 	}
 
+	@Test
+	void filesLookupShouldReportMissingFiles() throws CurseException {
+		final BasicCurseFile existing = new BasicCurseFile.Immutable(285612, 2803612);
+		final BasicCurseFile wrongProject =
+				new BasicCurseFile.Immutable(CurseAPI.MIN_PROJECT_ID, 2727963);
+		final BasicCurseFile nonexistent =
+				new BasicCurseFile.Immutable(CurseAPI.MIN_PROJECT_ID, CurseAPI.MIN_FILE_ID + 1);
+
+		final CurseFilesLookup<BasicCurseFile> lookup =
+				CurseAPI.files(Arrays.asList(existing, wrongProject, nonexistent));
+
+		assertThat(lookup.isComplete()).isFalse();
+		assertThat(lookup.found()).hasSize(1);
+		assertThat(lookup.found().first()).isEqualTo(existing);
+		assertThat(lookup.found().first().projectID()).isEqualTo(285612);
+		assertThat(lookup.missing()).containsExactlyInAnyOrder(wrongProject, nonexistent);
+	}
+
+	@Test
+	void asyncFileShouldMatchSynchronousFile() throws CurseException {
+		assertThat(CurseAPI.fileAsync(CurseAPI.MIN_PROJECT_ID, CurseAPI.MIN_FILE_ID).join()).
+				isEqualTo(CurseAPI.file(CurseAPI.MIN_PROJECT_ID, CurseAPI.MIN_FILE_ID));
+	}
+
 	@Test
 	void fileChangelogShouldNotBeEmpty() throws CurseException {
 		assertThat(CurseAPI.fileChangelogPlainText(CurseAPI.MIN_PROJECT_ID, CurseAPI.MIN_FILE_ID)).
@@ -197,6 +254,18 @@ class CurseAPITest {
 		assertThat(path).isRegularFile();
 	}
 
+	@Test
+	void downloadedFileShouldBeIdentifiedByFingerprint(@TempDir Path tempDirectory)
+			throws CurseException {
+		final Path path = tempDirectory.resolve("file.jar");
+		assertThat(CurseAPI.downloadFile(285612, 2803612, path)).isTrue();
+		assertThat(CurseAPI.identifyFiles(tempDirectory)).
+				containsOnlyKeys(path).
+				extractingByKey(path).
+				extracting(CurseFile::id).
+				isEqualTo(2803612);
+	}
+
 	@Test
 	void nonexistentFileShouldNotDownload(@TempDir Path tempDirectory)
 			throws CurseException {
@@ -406,4 +475,129 @@ class CurseAPITest {
 		assertThat(CurseAPI.project(CurseAPI.MIN_PROJECT_ID)).isNotPresent();
 		providers.forEach(provider -> CurseAPI.addProvider(provider, false));
 	}
+
+	@Test
+	void invalidateProjectShouldInvalidateProviders() {
+		CurseAPI.addProvider(mockProvider, true);
+
+		try {
+			CurseAPI.invalidateProject(CurseAPI.MIN_PROJECT_ID);
+			verify(mockProvider).invalidateProject(CurseAPI.MIN_PROJECT_ID);
+		} finally {
+			CurseAPI.removeProvider(mockProvider);
+		}
+
+		assertThatThrownBy(() -> CurseAPI.invalidateProject(CurseAPI.MIN_PROJECT_ID - 1)).
+				isInstanceOf(IllegalArgumentException.class).
+				hasMessageContaining("should not be smaller than");
+	}
+
+	@Test
+	void identicalConcurrentCallsShouldBeCoalesced() throws Exception {
+		final int threads = 8;
+		final long coalescedCalls = CurseAPI.coalescedCallCount();
+		final AtomicInteger providerCalls = new AtomicInteger();
+
+		final CurseAPIProvider provider = new CurseAPIProvider() {
+			@Override
+			public Set<CurseGame> games() {
+				providerCalls.incrementAndGet();
+				final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+
+				//Wait for the other calls to attach to this one.
+				while (CurseAPI.coalescedCallCount() < coalescedCalls + threads - 1 &&
+						System.nanoTime() < deadline) {
+					Thread.yield();
+				}
+
+				return new HashSet<>();
+			}
+		};
+
+		CurseAPI.addProvider(provider, true);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			final List<Future<Optional<Set<CurseGame>>>> futures = new ArrayList<>();
+
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(CurseAPI::games));
+			}
+
+			for (Future<Optional<Set<CurseGame>>> future : futures) {
+				assertThat(future.get()).isPresent();
+			}
+		} finally {
+			executor.shutdown();
+			CurseAPI.removeProvider(provider);
+		}
+
+		assertThat(providerCalls).hasValue(1);
+		assertThat(CurseAPI.coalescedCallCount()).isEqualTo(coalescedCalls + threads - 1);
+	}
+
+	@Test
+	void streamSearchShouldPaginateAndRemoveDuplicates() {
+		final List<Integer> pageIndices = Collections.synchronizedList(new ArrayList<>());
+		final CurseAPIProvider provider = searchProvider(pageIndices);
+		CurseAPI.addProvider(provider, true);
+
+		try (Stream<CurseProject> stream = CurseAPI.streamSearch(
+				new CurseSearchQuery().searchFilter("streamSearch").pageSize(5)
+		)) {
+			assertThat(stream.map(CurseProject::id)).containsExactly(
+					1, 2, 3, 4, 5, 6, 7, 8, 9, 11, 12
+			);
+		} finally {
+			CurseAPI.removeProvider(provider);
+		}
+
+		assertThat(pageIndices).containsExactly(0, 5, 10);
+	}
+
+	@Test
+	void streamSearchShouldStopAtMaxResults() {
+		final List<Integer> pageIndices = Collections.synchronizedList(new ArrayList<>());
+		final CurseAPIProvider provider = searchProvider(pageIndices);
+		CurseAPI.addProvider(provider, true);
+
+		try (Stream<CurseProject> stream = CurseAPI.streamSearch(
+				new CurseSearchQuery().searchFilter("streamSearch").pageSize(5), 3
+		)) {
+			assertThat(stream.map(CurseProject::id)).containsExactly(1, 2, 3);
+		} finally {
+			CurseAPI.removeProvider(provider);
+		}
+
+		//The prefetched second page may be cancelled, but the third page should not be requested.
+		assertThat(pageIndices).contains(0).doesNotContain(10);
+		assertThatThrownBy(() -> CurseAPI.streamSearch(new CurseSearchQuery(), 0)).
+				isInstanceOf(IllegalArgumentException.class).
+				hasMessageContaining("should be positive");
+	}
+
+	private static CurseAPIProvider searchProvider(List<Integer> pageIndices) {
+		//The second page overlaps with the first, and the third page is short.
+		final List<List<Integer>> pages = Arrays.asList(
+				Arrays.asList(1, 2, 3, 4, 5), Arrays.asList(5, 6, 7, 8, 9), Arrays.asList(11, 12)
+		);
+
+		return new CurseAPIProvider() {
+			@Override
+			public List<CurseProject> searchProjects(CurseSearchQuery query) {
+				pageIndices.add(query.pageIndex());
+				final int page = query.pageIndex() / 5;
+				return page < pages.size() ? pages.get(page).stream().
+						map(CurseAPITest::project).
+						collect(Collectors.toList()) : new ArrayList<>();
+			}
+		};
+	}
+
+	private static CurseProject project(int id) {
+		final CurseProject project = mock(CurseProject.class, withSettings().lenient());
+		when(project.id()).thenReturn(id);
+		return project;
+	}
 }
@@ -0,0 +1,56 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.project.CurseProject;
+import org.junit.jupiter.api.Test;
+
+class CurseRegistryTest {
+	@Test
+	void projectsShouldBeShared() throws CurseException {
+		final BasicCurseFile file1 = new BasicCurseFile.Immutable(285612, 2662898);
+		final BasicCurseFile file2 = new BasicCurseFile.Immutable(285612, 2831330);
+		assertThat(file1.project()).isNotNull().isSameAs(file2.project());
+	}
+
+	@Test
+	void registeredProjectShouldBeCanonical() throws CurseException {
+		final Optional<CurseProject> optionalProject = CurseAPI.project(CurseAPI.MIN_PROJECT_ID);
+		assertThat(optionalProject).isPresent();
+
+		CurseRegistry.invalidateProject(CurseAPI.MIN_PROJECT_ID);
+		final CurseProject project = CurseRegistry.register(optionalProject.get());
+		assertThat(CurseRegistry.project(CurseAPI.MIN_PROJECT_ID)).containsSame(project);
+	}
+
+	@Test
+	void nonexistentProjectShouldNotBePresent() throws CurseException {
+		assertThat(CurseRegistry.project(Integer.MAX_VALUE)).isNotPresent();
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import com.sun.net.httpserver.HttpServer;
+import com.therandomlabs.curseapi.CurseAPI;
+import com.therandomlabs.curseapi.CurseException;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CurseFileCacheTest {
+	private static final BasicCurseFile file = new BasicCurseFile.Immutable(285612, 2803612);
+	private static final BasicCurseFile file2 =
+			new BasicCurseFile.Immutable(CurseAPI.MIN_PROJECT_ID, CurseAPI.MIN_FILE_ID);
+
+	@Test
+	void cachedFilesShouldBeMaterialized(@TempDir Path tempDirectory) throws CurseException {
+		final CurseFileCache cache = new CurseFileCache(tempDirectory.resolve("cache"));
+		assertThat(cache.contains(file.id())).isFalse();
+		assertThat(cache.toString()).isNotEmpty();
+
+		final Path path = cache.downloadToDirectory(file, tempDirectory.resolve("first"));
+		assertThat(path).isRegularFile();
+		assertThat(cache.contains(file.id())).isTrue();
+		assertThat(cache.size()).isEqualTo(path.toFile().length());
+
+		final Path cachedPath = tempDirectory.resolve("second").resolve("file.zip");
+		cache.download(file, cachedPath);
+		assertThat(cachedPath).hasSameBinaryContentAs(path);
+		assertThat(cache.verifyHashes(true).contains(file.id())).isTrue();
+
+		assertThat(cache.invalidate(file.id())).isTrue();
+		assertThat(cache.invalidate(file.id())).isFalse();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void invalidCachedFilesShouldBeDownloadedAgain(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final CurseFileCache cache = new CurseFileCache(tempDirectory.resolve("cache"));
+		final Path path = cache.downloadToDirectory(file, tempDirectory.resolve("first"));
+		final long size = Files.size(path);
+
+		Files.write(
+				cache.directory().resolve(Integer.toString(file.id())).
+						resolve(path.getFileName()),
+				new byte[1]
+		);
+		assertThat(cache.contains(file.id())).isFalse();
+
+		final Path downloadedPath =
+				cache.downloadToDirectory(file, tempDirectory.resolve("second"));
+		assertThat(Files.size(downloadedPath)).isEqualTo(size);
+		assertThat(cache.contains(file.id())).isTrue();
+	}
+
+	@Test
+	void leastRecentlyUsedFilesShouldBeEvicted(@TempDir Path tempDirectory)
+			throws CurseException {
+		final CurseFileCache cache = new CurseFileCache(tempDirectory.resolve("cache")).maxSize(1L);
+		assertThat(cache.maxSize()).isEqualTo(1L);
+
+		cache.downloadToDirectory(file, tempDirectory);
+		cache.downloadToDirectory(file2, tempDirectory);
+		assertThat(cache.contains(file.id())).isFalse();
+		assertThat(cache.contains(file2.id())).isTrue();
+	}
+
+	@Test
+	void downloadsShouldBeTrackedWithoutLeavingLockFiles(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final byte[] body = new byte[1024];
+		final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			exchange.sendResponseHeaders(200, body.length);
+
+			try (OutputStream outputStream = exchange.getResponseBody()) {
+				outputStream.write(body);
+			}
+		});
+		server.start();
+
+		try {
+			final CurseFileCache cache =
+					new CurseFileCache(tempDirectory.resolve("cache")).maxSize(1536L);
+			final String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+
+			cache.download(
+					file, HttpUrl.get(url + "file.jar"), tempDirectory.resolve("file.jar"), null
+			);
+			assertThat(cache.size()).isEqualTo(body.length);
+			cache.download(
+					file2, HttpUrl.get(url + "file2.jar"), tempDirectory.resolve("file2.jar"),
+					null
+			);
+
+			//Only the most recently downloaded file fits in the cache.
+			assertThat(cache.contains(file.id())).isFalse();
+			assertThat(cache.contains(file2.id())).isTrue();
+			assertThat(cache.size()).isEqualTo(body.length);
+
+			try (Stream<Path> downloads = Files.list(cache.directory().resolve(".downloads"))) {
+				assertThat(downloads).isEmpty();
+			}
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void downloaderShouldUseCache(@TempDir Path tempDirectory) throws CurseException {
+		final CurseFileCache cache = new CurseFileCache(tempDirectory.resolve("cache"));
+		final CurseFileDownloader downloader = new CurseFileDownloader().cache(cache);
+		assertThat(downloader.cache()).isSameAs(cache);
+
+		final CurseFileDownloader.Result<BasicCurseFile> result = downloader.downloadToDirectory(
+				Arrays.asList(file, file2), tempDirectory.resolve("first")
+		);
+		assertThat(result.isSuccessful()).isTrue();
+		assertThat(result.bytesDownloaded()).isPositive();
+
+		final CurseFileDownloader.Result<BasicCurseFile> cachedResult = downloader.download(
+				Collections.singletonMap(file, tempDirectory.resolve("second").resolve("file.zip"))
+		);
+		assertThat(cachedResult.isSuccessful()).isTrue();
+		assertThat(cachedResult.bytesDownloaded()).isZero();
+		assertThat(cachedResult.downloaded().get(file)).isRegularFile();
+	}
+
+	@Test
+	void shouldThrowExceptionIfInvalidMaxSize(@TempDir Path tempDirectory)
+			throws CurseException {
+		final CurseFileCache cache = new CurseFileCache(tempDirectory);
+		assertThatThrownBy(() -> cache.maxSize(0L)).
+				isInstanceOf(IllegalArgumentException.class).
+				hasMessageContaining("should be positive");
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.therandomlabs.curseapi.CurseAPI;
+import com.therandomlabs.curseapi.CurseException;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CurseFileDownloaderTest {
+	private static final class LocalFile extends ExistingCurseFile.Existing {
+		LocalFile(int projectID, int fileID) {
+			super(projectID, fileID);
+		}
+
+		@Override
+		public HttpUrl downloadURL() {
+			return HttpUrl.get("http://localhost/" + id() + ".jar");
+		}
+	}
+
+	@Test
+	void failuresShouldNotAbortOtherDownloads(@TempDir Path tempDirectory) throws CurseException {
+		final BasicCurseFile file1 = new BasicCurseFile.Immutable(285612, 2803612);
+		final BasicCurseFile file2 =
+				new BasicCurseFile.Immutable(CurseAPI.MIN_PROJECT_ID, CurseAPI.MIN_FILE_ID);
+		final BasicCurseFile nonexistentFile =
+				new BasicCurseFile.Immutable(CurseAPI.MIN_PROJECT_ID, Integer.MAX_VALUE);
+
+		final AtomicInteger started = new AtomicInteger();
+		final AtomicInteger completed = new AtomicInteger();
+		final AtomicInteger failed = new AtomicInteger();
+
+		final CurseFileDownloader downloader = new CurseFileDownloader().
+				maxConcurrentDownloads(2).
+				maxConcurrentDownloadsPerHost(1).
+				listener(new CurseFileDownloader.Listener() {
+					@Override
+					public void started(BasicCurseFile file, HttpUrl url) {
+						started.incrementAndGet();
+					}
+
+					@Override
+					public void completed(
+							BasicCurseFile file, Path path, long bytes, Duration elapsed
+					) {
+						completed.incrementAndGet();
+					}
+
+					@Override
+					public void failed(BasicCurseFile file, CurseException exception) {
+						failed.incrementAndGet();
+					}
+				});
+
+		assertThat(downloader.toString()).isNotEmpty();
+
+		final CurseFileDownloader.Result<BasicCurseFile> result = downloader.downloadToDirectory(
+				Arrays.asList(file1, file2, nonexistentFile), tempDirectory
+		);
+
+		assertThat(result.isSuccessful()).isFalse();
+		assertThat(result.downloaded()).containsOnlyKeys(file1, file2);
+		assertThat(result.downloaded().values()).
+				allSatisfy(path -> assertThat(path).isRegularFile());
+		assertThat(result.failed()).containsOnlyKeys(nonexistentFile);
+		assertThat(result.bytesDownloaded()).isPositive();
+		assertThat(result.bytesPerSecond()).isPositive();
+		assertThat(result.toString()).isNotEmpty();
+
+		assertThat(started).hasValue(2);
+		assertThat(completed).hasValue(2);
+		assertThat(failed).hasValue(1);
+	}
+
+	@Test
+	void unexpectedExceptionsShouldBeReportedAsFailures(@TempDir Path tempDirectory)
+			throws CurseException {
+		final BasicCurseFile file1 = new LocalFile(CurseAPI.MIN_PROJECT_ID, CurseAPI.MIN_FILE_ID);
+		final BasicCurseFile file2 =
+				new LocalFile(CurseAPI.MIN_PROJECT_ID, CurseAPI.MIN_FILE_ID + 1);
+		final AtomicInteger failed = new AtomicInteger();
+
+		final CurseFileDownloader.Result<BasicCurseFile> result = new CurseFileDownloader().
+				listener(new CurseFileDownloader.Listener() {
+					@Override
+					public void started(BasicCurseFile file, HttpUrl url) {
+						throw new IllegalStateException("Listener failure");
+					}
+
+					@Override
+					public void failed(BasicCurseFile file, CurseException exception) {
+						failed.incrementAndGet();
+					}
+				}).
+				downloadToDirectory(Arrays.asList(file1, file2), tempDirectory);
+
+		assertThat(result.downloaded()).isEmpty();
+		assertThat(result.failed()).containsOnlyKeys(file1, file2);
+		assertThat(result.failed().values()).allSatisfy(
+				exception -> assertThat(exception).hasCauseInstanceOf(IllegalStateException.class)
+		);
+		assertThat(failed).hasValue(2);
+	}
+
+	@Test
+	void failFastShouldThrowException(@TempDir Path tempDirectory) {
+		final CurseFileDownloader downloader = new CurseFileDownloader().failFast(true);
+		assertThat(downloader.failFast()).isTrue();
+		assertThatThrownBy(() -> downloader.download(Collections.singletonMap(
+				new BasicCurseFile.Immutable(CurseAPI.MIN_PROJECT_ID, Integer.MAX_VALUE),
+				tempDirectory.resolve("file.jar")
+		))).isInstanceOf(CurseException.class).hasMessageContaining("File does not exist");
+	}
+
+	@Test
+	void shouldThrowExceptionIfInvalidConcurrency() {
+		assertThatThrownBy(() -> new CurseFileDownloader().maxConcurrentDownloads(0)).
+				isInstanceOf(IllegalArgumentException.class).
+				hasMessageContaining("should be positive");
+		assertThatThrownBy(() -> new CurseFileDownloader().maxConcurrentDownloadsPerHost(0)).
+				isInstanceOf(IllegalArgumentException.class).
+				hasMessageContaining("should be positive");
+	}
+}
@@ -28,12 +28,16 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
 
+import com.google.common.hash.HashCode;
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
 import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.util.HashAlgorithm;
 import okhttp3.HttpUrl;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -183,10 +187,45 @@ class CurseFileTest {
 	}
 
 	@Test
-	void downloadShouldDownload(@TempDir Path tempDirectory) throws CurseException {
+	void downloadShouldDownload(@TempDir Path tempDirectory) throws CurseException, IOException {
 		final Path path = tempDirectory.resolve("randompatches-1.14.4-19.1.1.1.jar");
 		file.download(path);
 		assertThat(path).isRegularFile();
+		assertThat(Files.size(path)).isEqualTo(file.fileSize());
+	}
+
+	@Test
+	void downloadShouldReplaceStalePartialFile(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final Path path = tempDirectory.resolve("randompatches-1.14.4-19.1.1.1.jar");
+		final Path partPath = tempDirectory.resolve("randompatches-1.14.4-19.1.1.1.jar.part");
+		Files.write(partPath, new byte[(int) file.fileSize() + 1]);
+		file.download(path);
+		assertThat(path).isRegularFile();
+		assertThat(Files.size(path)).isEqualTo(file.fileSize());
+		assertThat(partPath).doesNotExist();
+	}
+
+	@Test
+	void downloadShouldReturnCorrectHash(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final Path path = tempDirectory.resolve("randompatches-1.14.4-19.1.1.1.jar");
+		final HashCode hash = file.download(path, HashAlgorithm.SHA_256, null);
+		assertThat(hash).isEqualTo(HashCode.fromBytes(
+				HashAlgorithm.SHA_256.newMessageDigest().digest(Files.readAllBytes(path))
+		));
+		assertThat(file.download(path, HashAlgorithm.SHA_256, hash)).isEqualTo(hash);
+	}
+
+	@Test
+	void downloadShouldFailAndDeleteFileIfHashIsIncorrect(@TempDir Path tempDirectory) {
+		final Path path = tempDirectory.resolve("randompatches-1.14.4-19.1.1.1.jar");
+		final HashCode hash = HashCode.fromBytes(new byte[20]);
+		assertThatThrownBy(() -> file.download(path, HashAlgorithm.SHA_1, hash)).
+				isInstanceOf(CurseException.class);
+		assertThat(path).doesNotExist();
+		assertThat(tempDirectory.resolve("randompatches-1.14.4-19.1.1.1.jar.part")).
+				doesNotExist();
 	}
 
 	@Test
@@ -26,12 +26,23 @@ package com.therandomlabs.curseapi.file;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
 import com.therandomlabs.curseapi.project.CurseProject;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.mockito.internal.util.collections.Iterables;
 
 class CurseFilesComparisonTest {
+	private static final int BENCHMARK_FILES = 10_000;
+	private static final int BENCHMARK_ITERATIONS = 5;
+
 	@SuppressWarnings("cast")
 	@Test
 	void comparisonShouldBeCorrect() throws CurseException {
@@ -125,4 +136,133 @@ class CurseFilesComparisonTest {
 						"Neither file for CurseFileChange could be retrieved as CurseFile"
 				);
 	}
+
+	@Test
+	void hashJoinShouldMatchPairwiseComparison() {
+		final List<BasicCurseFile> oldFiles = randomFiles(new Random(1L), 2_000);
+		final List<BasicCurseFile> newFiles = randomFiles(new Random(2L), 2_000);
+		final CurseFilesComparison<BasicCurseFile> expected =
+				pairwiseComparison(oldFiles, newFiles);
+
+		assertEquivalent(CurseFilesComparison.of(oldFiles, newFiles), expected);
+		assertEquivalent(CurseFilesComparison.of(oldFiles, newFiles, true), expected);
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "curseapi.benchmark", matches = "true")
+	void hashJoinShouldBeFasterThanPairwiseComparison() {
+		final List<BasicCurseFile> oldFiles = randomFiles(new Random(1L), BENCHMARK_FILES);
+		final List<BasicCurseFile> newFiles = randomFiles(new Random(2L), BENCHMARK_FILES);
+
+		final long pairwiseNanos = benchmark(() -> pairwiseComparison(oldFiles, newFiles));
+		final long sequentialNanos =
+				benchmark(() -> CurseFilesComparison.of(oldFiles, newFiles));
+		final long parallelNanos =
+				benchmark(() -> CurseFilesComparison.of(oldFiles, newFiles, true));
+
+		System.out.printf(
+				"Comparing %d files: pairwise %.2f ms, hash join %.2f ms, " +
+						"parallel hash join %.2f ms%n",
+				BENCHMARK_FILES, pairwiseNanos / 1.0e6 / BENCHMARK_ITERATIONS,
+				sequentialNanos / 1.0e6 / BENCHMARK_ITERATIONS,
+				parallelNanos / 1.0e6 / BENCHMARK_ITERATIONS
+		);
+		assertThat(sequentialNanos).isLessThan(pairwiseNanos);
+	}
+
+	private static List<BasicCurseFile> randomFiles(Random random, int count) {
+		final List<BasicCurseFile> files = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			//Both collections share most projects, and some projects have multiple files.
+			final int project = random.nextInt(count);
+			files.add(new BasicCurseFile.Immutable(
+					CurseAPI.MIN_PROJECT_ID + project,
+					CurseAPI.MIN_FILE_ID + project * 8 + random.nextInt(8)
+			));
+		}
+
+		return files;
+	}
+
+	private static void assertEquivalent(
+			CurseFilesComparison<BasicCurseFile> comparison,
+			CurseFilesComparison<BasicCurseFile> expected
+	) {
+		assertThat(comparison.unchanged()).isEqualTo(expected.unchanged());
+		assertThat(comparison.updated()).isEqualTo(expected.updated());
+		assertThat(comparison.downgraded()).isEqualTo(expected.downgraded());
+		assertThat(comparison.removed()).isEqualTo(expected.removed());
+		assertThat(comparison.added()).isEqualTo(expected.added());
+	}
+
+	//The pairwise algorithm CurseFilesComparison#of used before it was rewritten as a hash join.
+	private static CurseFilesComparison<BasicCurseFile> pairwiseComparison(
+			List<BasicCurseFile> oldFiles, List<BasicCurseFile> newFiles
+	) {
+		final List<BasicCurseFile> oldLatestFiles = latestFiles(oldFiles);
+		final List<BasicCurseFile> newLatestFiles = latestFiles(newFiles);
+
+		final Set<BasicCurseFile> unchanged = new HashSet<>();
+		final Set<CurseFileChange<BasicCurseFile>> updated = new HashSet<>();
+		final Set<CurseFileChange<BasicCurseFile>> downgraded = new HashSet<>();
+		final Set<BasicCurseFile> removed = new HashSet<>();
+		final Set<BasicCurseFile> added = new HashSet<>();
+
+		for (BasicCurseFile oldFile : oldLatestFiles) {
+			final BasicCurseFile newFile = newLatestFiles.stream().
+					filter(oldFile::sameProject).
+					findAny().
+					orElse(null);
+
+			if (newFile == null) {
+				removed.add(oldFile);
+			} else if (oldFile.equals(newFile)) {
+				unchanged.add(newFile);
+			} else {
+				final CurseFileChange<BasicCurseFile> fileChange =
+						new CurseFileChange<>(oldFile, newFile);
+				(fileChange.isDowngrade() ? downgraded : updated).add(fileChange);
+			}
+		}
+
+		for (BasicCurseFile newFile : newLatestFiles) {
+			if (oldLatestFiles.stream().noneMatch(newFile::sameProject)) {
+				added.add(newFile);
+			}
+		}
+
+		return new CurseFilesComparison<>(unchanged, updated, downgraded, removed, added);
+	}
+
+	private static List<BasicCurseFile> latestFiles(List<BasicCurseFile> files) {
+		final List<BasicCurseFile> latestFiles = new ArrayList<>();
+
+		for (BasicCurseFile file : files) {
+			final BasicCurseFile duplicate = latestFiles.stream().
+					filter(file::sameProject).
+					findAny().
+					orElse(null);
+
+			if (duplicate == null) {
+				latestFiles.add(file);
+			} else if (file.newerThan(duplicate)) {
+				latestFiles.set(latestFiles.indexOf(duplicate), file);
+			}
+		}
+
+		return latestFiles;
+	}
+
+	private static long benchmark(Runnable runnable) {
+		runnable.run();
+
+		final long startTime = System.nanoTime();
+
+		for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+			runnable.run();
+		}
+
+		return System.nanoTime() - startTime;
+	}
 }
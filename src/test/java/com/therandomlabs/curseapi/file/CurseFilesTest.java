@@ -109,6 +109,13 @@ class CurseFilesTest {
 		filtered2.filter(filter);
 		assertThat(filtered2).isEqualTo(filtered);
 
+		final CurseFileFilter.Compiled compiledFilter = filter.compile();
+		final CurseFiles<CurseFile> compiledFiltered = files.clone();
+		compiledFilter.apply(compiledFiltered);
+		assertThat(compiledFiltered).isEqualTo(filtered);
+		assertThat(compiledFilter.gameVersionStrings()).containsOnly("1.12.2");
+		assertThat(compiledFilter.minimumStability()).isEqualTo(CurseReleaseType.BETA);
+
 		final CurseFiles<CurseFile> filtered3 = files.clone();
 
 		filter.clearGameVersions();
@@ -123,6 +130,56 @@ class CurseFilesTest {
 		for (CurseFile file : filtered3) {
 			assertThat(file.gameVersionStrings()).contains("1.12.2");
 		}
+
+		//Compiled filters should not reflect later modifications.
+		assertThat(compiledFilter.newerThan()).isEqualTo(2522102);
+		assertThat(compiledFilter.olderThan()).isEqualTo(2831330);
+	}
+
+	@Test
+	void indexesShouldBeConsistentWithContents() {
+		final CurseFiles<CurseFile> copy = files.clone();
+		final CurseFile first = copy.first();
+		assertThat(copy.fileWithID(first.id())).isSameAs(first);
+
+		copy.remove(first);
+		assertThat(copy.fileWithID(first.id())).isNull();
+
+		copy.add(first);
+		assertThat(copy.fileWithID(first.id())).isSameAs(first);
+
+		assertThat(copy.filesWithGameVersionStrings("1.12.2")).
+				isNotEmpty().
+				isEqualTo(copy.stream().
+						filter(file -> file.gameVersionStrings().contains("1.12.2")).
+						collect(CurseFiles.toCurseFiles()));
+
+		copy.headSet(first, true).clear();
+		assertThat(copy.fileWithID(first.id())).isNull();
+		assertThat(copy.filesWithGameVersionStrings("1.12.2")).doesNotContain(first);
+	}
+
+	@Test
+	void viewModificationsShouldInvalidateIndexes() {
+		final BasicCurseFile file1 = new BasicCurseFile.Immutable(285612, 2803612);
+		final BasicCurseFile file2 = new BasicCurseFile.Immutable(285612, 2803400);
+		final BasicCurseFile file3 = new BasicCurseFile.Immutable(285612, 2803000);
+		final CurseFiles<BasicCurseFile> basicFiles = new CurseFiles<>();
+		basicFiles.add(file1);
+		basicFiles.add(file2);
+		assertThat(basicFiles.fileWithID(2803400)).isSameAs(file2);
+
+		//The size of the set does not change, so the indexes must be invalidated by the views.
+		basicFiles.tailSet(file2, true).descendingSet().pollFirst();
+		basicFiles.tailSet(file1, false).add(file3);
+		assertThat(basicFiles).containsExactly(file1, file3);
+		assertThat(basicFiles.fileWithID(2803400)).isNull();
+		assertThat(basicFiles.fileWithID(2803000)).isSameAs(file3);
+
+		basicFiles.subSet(file1, false, file3, true).removeIf(file -> true);
+		basicFiles.descendingSet().add(file2);
+		assertThat(basicFiles.fileWithID(2803000)).isNull();
+		assertThat(basicFiles.fileWithID(2803400)).isSameAs(file2);
 	}
 
 	@Test
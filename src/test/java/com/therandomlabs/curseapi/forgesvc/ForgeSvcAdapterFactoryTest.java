@@ -0,0 +1,151 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.forgesvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.util.ElementAdapter;
+import com.therandomlabs.curseapi.util.HttpUrlAdapter;
+import com.therandomlabs.curseapi.util.MoshiUtils;
+import com.therandomlabs.curseapi.util.OkHttpUtils;
+import com.therandomlabs.curseapi.util.ZonedDateTimeAdapter;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class ForgeSvcAdapterFactoryTest {
+	private static final String API_URL = "https://addons-ecs.forgesvc.net/api/v2/";
+
+	private static final int WARMUP_ITERATIONS = 20;
+	private static final int BENCHMARK_ITERATIONS = 50;
+
+	//Without ForgeSvcAdapterFactory, Moshi falls back to its reflective class adapter.
+	private static final Moshi reflectiveMoshi = new Moshi.Builder().
+			add(ElementAdapter.INSTANCE).
+			add(HttpUrlAdapter.INSTANCE).
+			add(ZonedDateTimeAdapter.INSTANCE).
+			build();
+
+	@Test
+	void projectShouldMatchReflectiveAdapter() throws CurseException, IOException {
+		assertIdentical(read("addon/285612"), ForgeSvcProject.class);
+	}
+
+	@Test
+	void filesShouldMatchReflectiveAdapter() throws CurseException, IOException {
+		assertIdentical(
+				read("addon/285612/files"),
+				Types.newParameterizedType(Set.class, ForgeSvcFile.class)
+		);
+	}
+
+	@Test
+	void gameShouldMatchReflectiveAdapter() throws CurseException, IOException {
+		assertIdentical(read("game/432"), ForgeSvcGame.class);
+	}
+
+	@Test
+	void categoriesShouldMatchReflectiveAdapter() throws CurseException, IOException {
+		assertIdentical(
+				read("category"), Types.newParameterizedType(Set.class, ForgeSvcCategory.class)
+		);
+	}
+
+	@Test
+	void fingerprintMatchesShouldMatchReflectiveAdapter() throws CurseException, IOException {
+		final String json = String.format(
+				"{\"exactMatches\": [{\"id\": 285612, \"file\": %s, \"latestFiles\": []}], " +
+						"\"exactFingerprints\": [], \"partialMatches\": null}",
+				read("addon/285612/file/2803612")
+		);
+		assertIdentical(json, ForgeSvcFingerprintMatches.class);
+	}
+
+	@Test
+	void nullShouldBeSupported() throws IOException {
+		assertThat(MoshiUtils.moshi.adapter(ForgeSvcProject.class).fromJson("null")).isNull();
+		assertThat(MoshiUtils.moshi.adapter(ForgeSvcProject.class).toJson(null)).
+				isEqualTo("null");
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "curseapi.benchmark", matches = "true")
+	void streamingAdaptersShouldBeFasterThanReflectiveAdapters()
+			throws CurseException, IOException {
+		//JEI has thousands of files.
+		final String json = read("addon/238222/files");
+		final Type type = Types.newParameterizedType(Set.class, ForgeSvcFile.class);
+
+		final long reflectiveNanos = benchmark(reflectiveMoshi.adapter(type), json);
+		final long streamingNanos = benchmark(MoshiUtils.moshi.adapter(type), json);
+
+		System.out.printf(
+				"Decoding %d bytes: reflective %.2f ms, streaming %.2f ms (%.2fx)%n",
+				json.length(), reflectiveNanos / 1.0e6 / BENCHMARK_ITERATIONS,
+				streamingNanos / 1.0e6 / BENCHMARK_ITERATIONS,
+				(double) reflectiveNanos / streamingNanos
+		);
+		assertThat(streamingNanos).isLessThan(reflectiveNanos);
+	}
+
+	private static String read(String path) throws CurseException {
+		return OkHttpUtils.read(HttpUrl.get(API_URL + path));
+	}
+
+	private static void assertIdentical(String json, Type type) throws IOException {
+		final JsonAdapter<Object> adapter = MoshiUtils.moshi.adapter(type);
+		final JsonAdapter<Object> reflectiveAdapter = reflectiveMoshi.adapter(type);
+
+		final Object value = adapter.fromJson(json);
+		final Object reflectiveValue = reflectiveAdapter.fromJson(json);
+		final String expected = reflectiveAdapter.toJson(reflectiveValue);
+
+		//If the reflective adapter serializes both values identically, every field was read
+		//identically.
+		assertThat(reflectiveAdapter.toJson(value)).isEqualTo(expected);
+		assertThat(adapter.toJson(value)).isEqualTo(expected);
+	}
+
+	private static long benchmark(JsonAdapter<?> adapter, String json) throws IOException {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			adapter.fromJson(json);
+		}
+
+		final long startTime = System.nanoTime();
+
+		for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+			adapter.fromJson(json);
+		}
+
+		return System.nanoTime() - startTime;
+	}
+}
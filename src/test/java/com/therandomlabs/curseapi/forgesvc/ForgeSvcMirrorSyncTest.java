@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.forgesvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.therandomlabs.curseapi.CurseAPIProvider;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.file.CurseFiles;
+import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.project.CurseSearchQuery;
+import com.therandomlabs.curseapi.project.CurseSearchSort;
+import com.therandomlabs.curseapi.util.MoshiUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ForgeSvcMirrorSyncTest {
+	private static final class Source implements CurseAPIProvider {
+		final Map<Integer, ForgeSvcProject> projects = new HashMap<>();
+		final Set<Integer> failingProjects = new HashSet<>();
+		int searches;
+
+		@Override
+		public CurseProject project(int id) {
+			return projects.get(id);
+		}
+
+		@Override
+		public List<CurseProject> searchProjects(CurseSearchQuery query) {
+			assertThat(query.sortingMethod()).isEqualTo(CurseSearchSort.LAST_UPDATED);
+			searches++;
+
+			final List<CurseProject> results = new ArrayList<>(projects.values());
+			results.sort(Comparator.comparing(CurseProject::lastUpdateTime).reversed());
+			return results.subList(
+					Math.min(query.pageIndex(), results.size()),
+					Math.min(query.pageIndex() + query.pageSize(), results.size())
+			);
+		}
+
+		@Override
+		public CurseFiles<CurseFile> files(int projectID) throws CurseException {
+			if (failingProjects.contains(projectID)) {
+				throw new CurseException("Failed to retrieve files: " + projectID);
+			}
+
+			final CurseFiles<CurseFile> files = new CurseFiles<>();
+			files.add(MoshiUtils.fromJSON(
+					"{\"id\": " + (3000000 + projectID) + "}", ForgeSvcFile.class
+			));
+			return files;
+		}
+	}
+
+	@TempDir
+	public Path directory;
+
+	@Test
+	void onlyChangedProjectsShouldBeRefreshed() throws CurseException, IOException {
+		final Source source = new Source();
+
+		for (int id = 1; id <= 5; id++) {
+			source.projects.put(id, project(id, id));
+		}
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory, source)) {
+			//Projects 2 and 4 are tracked but out of date.
+			mirror.put(project(2, 0));
+			mirror.put(project(4, 0));
+
+			final ForgeSvcMirrorSync sync = new ForgeSvcMirrorSync(mirror);
+			final CurseSearchQuery query = new CurseSearchQuery().gameID(432).pageSize(2);
+
+			ForgeSvcMirrorSync.Result result = sync.sync(query);
+			assertThat(result.previousWatermark()).isNull();
+			assertThat(result.watermark()).isEqualTo(time(5));
+			assertThat(result.searchedProjects()).isEqualTo(5);
+			assertThat(result.refreshedProjects()).isEqualTo(2);
+			assertThat(result.refreshedFiles()).isEqualTo(2);
+			assertThat(result.skippedProjects()).isZero();
+			assertThat(result.untrackedProjects()).isEqualTo(3);
+			assertThat(mirror.project(4).lastUpdateTime()).isEqualTo(time(4));
+			assertThat(mirror.project(5)).isNull();
+
+			//Only project 2 has been updated since the previous sync.
+			source.projects.put(2, project(2, 6));
+			source.searches = 0;
+
+			result = sync.sync(query);
+			//The walk stops at project 4 on the second page rather than visiting every page.
+			assertThat(source.searches).isEqualTo(2);
+			assertThat(result.previousWatermark()).isEqualTo(time(5));
+			assertThat(result.watermark()).isEqualTo(time(6));
+			assertThat(result.searchedProjects()).isEqualTo(2);
+			assertThat(result.refreshedProjects()).isEqualTo(1);
+			//Project 4 is mirrored but is not counted as skipped because it was not walked.
+			assertThat(result.skippedProjects()).isZero();
+			assertThat(result.untrackedProjects()).isEqualTo(1);
+			assertThat(result.toString()).isNotEmpty();
+			assertThat(mirror.project(2).lastUpdateTime()).isEqualTo(time(6));
+
+			result = sync.refreshUntrackedProjects(true).sync(query);
+			assertThat(sync.refreshUntrackedProjects()).isTrue();
+			assertThat(result.refreshedProjects()).isZero();
+			assertThat(result.skippedProjects()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void interruptedSyncShouldBeResumable() throws CurseException, IOException {
+		final Source source = new Source();
+
+		for (int id = 1; id <= 3; id++) {
+			source.projects.put(id, project(id, id));
+		}
+
+		final CurseSearchQuery query = new CurseSearchQuery().gameID(432).pageSize(1);
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory, source)) {
+			final ForgeSvcMirrorSync sync =
+					new ForgeSvcMirrorSync(mirror).refreshUntrackedProjects(true);
+			source.failingProjects.add(2);
+			assertThatThrownBy(() -> sync.sync(query)).isInstanceOf(CurseException.class);
+			//Project 3 was refreshed before the sync failed.
+			assertThat(mirror.projectIDs()).containsOnly(3);
+		}
+
+		source.failingProjects.clear();
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory, source)) {
+			final ForgeSvcMirrorSync.Result result =
+					new ForgeSvcMirrorSync(mirror).refreshUntrackedProjects(true).sync(query);
+			assertThat(result.previousWatermark()).isNull();
+			assertThat(result.refreshedProjects()).isEqualTo(2);
+			assertThat(result.skippedProjects()).isEqualTo(1);
+			assertThat(mirror.projectIDs()).containsOnly(1, 2, 3);
+		}
+	}
+
+	private static ForgeSvcProject project(int id, int day) throws CurseException {
+		final String time = toJSON(time(day));
+		return MoshiUtils.fromJSON(
+				"{\"id\": " + id + ", \"name\": \"Project " + id + "\", \"gameId\": 432, " +
+						"\"dateReleased\": " + time + ", \"dateModified\": " + time + "}",
+				ForgeSvcProject.class
+		);
+	}
+
+	private static String toJSON(ZonedDateTime time) {
+		return MoshiUtils.moshi.adapter(ZonedDateTime.class).toJson(time);
+	}
+
+	private static ZonedDateTime time(int day) {
+		return ZonedDateTime.parse("2020-01-01T00:00:00Z").plusDays(day);
+	}
+}
@@ -0,0 +1,363 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.forgesvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import com.squareup.moshi.Types;
+import com.therandomlabs.curseapi.CurseAPI;
+import com.therandomlabs.curseapi.CurseAPIProvider;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.project.CurseProject;
+import com.therandomlabs.curseapi.project.CurseProjectIndex;
+import com.therandomlabs.curseapi.project.CurseSearchQuery;
+import com.therandomlabs.curseapi.util.LazyHTML;
+import com.therandomlabs.curseapi.util.MoshiUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+class ForgeSvcMirrorTest {
+	private static final String FILES_JSON = "[" +
+			"{\"id\": 2803400, \"displayName\": \"jei_1.12.2-4.15.0.291.jar\", " +
+			"\"downloadUrl\": \"https://edge.forgecdn.net/files/2803/400/jei.jar\", " +
+			"\"gameVersion\": [\"1.12.2\"]}, " +
+			"{\"id\": 2803401, \"displayName\": \"jei_1.12.2-4.15.0.292.jar\", " +
+			"\"gameVersion\": [\"1.12.2\"]}" +
+			"]";
+
+	@TempDir
+	public Path directory;
+
+	@Test
+	void mirroredDataShouldBeAvailableAfterReopening() throws CurseException, IOException {
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			mirror.put(project("Just Enough Items (JEI)"));
+			mirror.putDescription(238222, new LazyHTML("<p>Description</p>"));
+			mirror.putFiles(238222, MoshiUtils.moshi.<Set<ForgeSvcFile>>adapter(
+					Types.newParameterizedType(Set.class, ForgeSvcFile.class)
+			).fromJson(FILES_JSON));
+			mirror.putChangelog(2803400, new LazyHTML("<p>Changelog</p>"));
+			mirror.putGames(MoshiUtils.moshi.<Set<ForgeSvcGame>>adapter(
+					Types.newParameterizedType(Set.class, ForgeSvcGame.class)
+			).fromJson("[{\"id\": 432, \"name\": \"Minecraft\", \"slug\": \"minecraft\"}]"));
+			mirror.putCategories(MoshiUtils.moshi.<Set<ForgeSvcCategory>>adapter(
+					Types.newParameterizedType(Set.class, ForgeSvcCategory.class)
+			).fromJson(
+					"[{\"id\": 423, \"gameId\": 432, \"rootGameCategoryId\": 6, " +
+							"\"name\": \"Map and Information\"}]"
+			));
+		}
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			assertThat(mirror.projectIDs()).containsOnly(238222);
+
+			final CurseProject project = mirror.project(238222);
+			assertThat(project).isNotNull();
+			assertThat(project.name()).isEqualTo("Just Enough Items (JEI)");
+			assertThat(mirror.project(285612)).isNull();
+			assertThat(mirror.projectDescription(238222)).isNotNull();
+			assertThat(mirror.projectDescriptionHTML(238222).html()).
+					isEqualTo("<p>Description</p>");
+
+			assertThat(mirror.files(238222)).hasSize(2);
+			final CurseFile file = mirror.file(238222, 2803400);
+			assertThat(file).isNotNull();
+			assertThat(file.projectID()).isEqualTo(238222);
+			assertThat(file.gameVersionStrings()).containsOnly("1.12.2");
+			assertThat(mirror.file(238222, 2803402)).isNull();
+			assertThat(mirror.fileDownloadURL(238222, 2803400)).isEqualTo(file.downloadURL());
+			assertThat(mirror.fileChangelogHTML(0, 2803400).html()).
+					isEqualTo("<p>Changelog</p>");
+			assertThat(mirror.fileChangelog(0, 2803401)).isNull();
+
+			assertThat(mirror.games()).hasSize(1);
+			assertThat(mirror.game(432).name()).isEqualTo("Minecraft");
+			assertThat(mirror.game(1)).isNull();
+			assertThat(mirror.category(423).name()).isEqualTo("Map and Information");
+			assertThat(mirror.categories(6)).hasSize(1);
+			assertThat(mirror.categories(7)).isNull();
+
+			assertThat(mirror.projectAsync(238222).join()).isSameAs(project);
+			//Decoded values should be reused.
+			assertThat(mirror.project(238222)).isSameAs(project);
+		}
+	}
+
+	@Test
+	void compactionShouldOnlyKeepLatestRecords() throws CurseException, IOException {
+		final Path log = directory.resolve(ForgeSvcMirror.LOG_FILE_NAME);
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			for (int i = 0; i < 10; i++) {
+				mirror.put(project("JEI " + i));
+			}
+
+			final long size = Files.size(log);
+			mirror.compact();
+			assertThat(Files.size(log)).isLessThan(size);
+			assertThat(mirror.project(238222).name()).isEqualTo("JEI 9");
+		}
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			assertThat(mirror.project(238222).name()).isEqualTo("JEI 9");
+		}
+	}
+
+	@Test
+	void incompleteRecordsShouldBeDiscarded() throws CurseException, IOException {
+		final Path log = directory.resolve(ForgeSvcMirror.LOG_FILE_NAME);
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			mirror.put(project("Just Enough Items (JEI)"));
+		}
+
+		final long size = Files.size(log);
+		//This simulates a record header that was written without its payload.
+		Files.write(log, new byte[] {2, 0, 0, 0}, StandardOpenOption.APPEND);
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			assertThat(Files.size(log)).isEqualTo(size);
+			assertThat(mirror.project(238222).name()).isEqualTo("Just Enough Items (JEI)");
+		}
+
+		//This simulates a record with a complete header whose payload was not fully written,
+		//so its checksum does not match.
+		Files.write(
+				log,
+				ByteBuffer.allocate(1 + 8 + 4 + 4 + 4).
+						put((byte) 0).
+						putLong(238222L).
+						putInt(4).
+						putInt(0).
+						put("{\"id".getBytes(StandardCharsets.UTF_8)).
+						array(),
+				StandardOpenOption.APPEND
+		);
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			assertThat(Files.size(log)).isEqualTo(size);
+			assertThat(mirror.project(238222).name()).isEqualTo("Just Enough Items (JEI)");
+		}
+	}
+
+	@Test
+	void mirroredProjectsShouldBeSearchable() throws CurseException, IOException {
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			assertThat(mirror.searchProjects(new CurseSearchQuery())).isNull();
+
+			mirror.put(project(238222, "Just Enough Items (JEI)", "mezz"));
+			mirror.put(project(240630, "Just Enough Resources (JER)", "way2muchnoise"));
+			mirror.putFiles(238222, MoshiUtils.moshi.<Set<ForgeSvcFile>>adapter(
+					Types.newParameterizedType(Set.class, ForgeSvcFile.class)
+			).fromJson(FILES_JSON));
+			mirror.putDescription(240630, new LazyHTML("<p>Shows <b>mob drops</b></p>"));
+
+			assertThat(search(mirror, new CurseSearchQuery().searchFilter("just enou"))).
+					containsExactlyInAnyOrder(238222, 240630);
+			assertThat(search(mirror, new CurseSearchQuery().searchFilter("way2much"))).
+					containsExactly(240630);
+			assertThat(search(mirror, new CurseSearchQuery().gameVersionString("1.12.2"))).
+					containsExactly(238222);
+			assertThat(search(mirror, new CurseSearchQuery().searchFilter("drops"))).isEmpty();
+			//Queries that no mirrored projects could match are executed by the next provider.
+			assertThat(mirror.searchProjects(new CurseSearchQuery().gameID(1))).isNull();
+			assertThat(mirror.searchProjects(new CurseSearchQuery().categoryID(420))).isNull();
+			assertThat(mirror.searchProjects(
+					new CurseSearchQuery().gameVersionString("1.16.5")
+			)).isNull();
+
+			mirror.indexDescriptions(true);
+			assertThat(search(mirror, new CurseSearchQuery().searchFilter("drops"))).
+					containsExactly(240630);
+
+			//Projects that are mirrored after the index is built should also be indexed.
+			mirror.put(project(238222, "Roughly Enough Items (REI)", "shedaniel"));
+			assertThat(search(mirror, new CurseSearchQuery().searchFilter("enough"))).
+					containsExactlyInAnyOrder(238222, 240630);
+			assertThat(search(mirror, new CurseSearchQuery().searchFilter("jei"))).isEmpty();
+			assertThat(mirror.searchProjectsAsync(
+					new CurseSearchQuery().searchFilter("roughly")
+			).join()).extracting(CurseProject::id).containsExactly(238222);
+		}
+	}
+
+	@EnabledIfSystemProperty(named = "curseapi.benchmark", matches = "true")
+	@Test
+	void searchShouldBeFastForLargeIndexes() throws CurseException {
+		final String[] words = {
+				"just", "enough", "items", "resources", "storage", "drawers", "tweaks", "tech",
+				"magic", "world", "generation", "ore", "mobs", "armor", "tools", "library"
+		};
+		final Random random = new Random(0);
+		final CurseProjectIndex index = new CurseProjectIndex();
+
+		for (int i = 0; i < 200_000; i++) {
+			final String name = words[random.nextInt(words.length)] + " " +
+					words[random.nextInt(words.length)] + " " + i;
+			index.put(project(10 + i, name, "author" + random.nextInt(10_000)));
+		}
+
+		final List<CurseSearchQuery> queries = Arrays.asList(
+				new CurseSearchQuery().searchFilter("storage draw"),
+				new CurseSearchQuery().searchFilter("magic"),
+				new CurseSearchQuery().searchFilter("author12"),
+				new CurseSearchQuery().searchFilter("world generation 1999")
+		);
+
+		//Warmup.
+		for (int i = 0; i < 100; i++) {
+			queries.forEach(index::search);
+		}
+
+		final int iterations = 1000;
+		final long start = System.nanoTime();
+
+		for (int i = 0; i < iterations; i++) {
+			queries.forEach(index::search);
+		}
+
+		final long micros =
+				(System.nanoTime() - start) / 1000L / ((long) iterations * queries.size());
+		System.out.println("Average search time over 200000 projects: " + micros + " us");
+	}
+
+	@Test
+	void mirrorShouldBeUsedAsProvider() throws CurseException, IOException {
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			mirror.put(project("Mirrored JEI"));
+			CurseAPI.addProvider(mirror, true);
+
+			try {
+				assertThat(CurseAPI.project(238222)).hasValueSatisfying(
+						project -> assertThat(project.name()).isEqualTo("Mirrored JEI")
+				);
+			} finally {
+				CurseAPI.removeProvider(mirror);
+			}
+		}
+	}
+
+	@Test
+	void mirrorShouldBeUsedIfPreviousProviderFails() throws CurseException, IOException {
+		final CurseAPIProvider failingProvider = new CurseAPIProvider() {
+			@Override
+			public CurseProject project(int id) throws CurseException {
+				throw new CurseException("ForgeSvc is unavailable");
+			}
+
+			@Override
+			public CompletableFuture<CurseProject> projectAsync(int id) {
+				final CompletableFuture<CurseProject> future = new CompletableFuture<>();
+				future.completeExceptionally(new CurseException("ForgeSvc is unavailable"));
+				return future;
+			}
+		};
+		final List<CurseAPIProvider> providers = CurseAPI.providers();
+		providers.forEach(CurseAPI::removeProvider);
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			mirror.put(project("Mirrored JEI"));
+			CurseAPI.addProvider(failingProvider, false);
+			CurseAPI.addProvider(mirror, false);
+
+			assertThat(CurseAPI.project(238222)).hasValueSatisfying(
+					project -> assertThat(project.name()).isEqualTo("Mirrored JEI")
+			);
+			assertThat(CurseAPI.projectAsync(238222).join()).hasValueSatisfying(
+					project -> assertThat(project.name()).isEqualTo("Mirrored JEI")
+			);
+
+			//If no provider returns a value, the failure is rethrown.
+			CurseAPI.removeProvider(mirror);
+			assertThatThrownBy(() -> CurseAPI.project(238222)).
+					isInstanceOf(CurseException.class).
+					hasMessage("ForgeSvc is unavailable");
+			assertThatThrownBy(() -> CurseAPI.projectAsync(238222).join()).
+					hasCauseInstanceOf(CurseException.class);
+		} finally {
+			CurseAPI.providers().forEach(CurseAPI::removeProvider);
+			providers.forEach(provider -> CurseAPI.addProvider(provider, false));
+		}
+	}
+
+	@Test
+	void dataShouldBeMirroredFromForgeSvc() throws CurseException, IOException {
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			assertThat(mirror.mirrorProject(238222)).isTrue();
+			assertThat(mirror.mirrorFileChangelog(238222, 2803400)).isTrue();
+			mirror.mirrorGames();
+			mirror.mirrorCategories();
+		}
+
+		try (ForgeSvcMirror mirror = ForgeSvcMirror.open(directory)) {
+			assertThat(mirror.project(238222)).isEqualTo(ForgeSvcProvider.instance.project(238222));
+			assertThat(mirror.projectDescriptionHTML(238222)).isNotNull();
+			assertThat(mirror.files(238222)).isEqualTo(ForgeSvcProvider.instance.files(238222));
+			assertThat(mirror.fileChangelogAsync(238222, 2803400).join()).isNotNull();
+			assertThat(mirror.gamesAsync().join()).isEqualTo(ForgeSvcProvider.instance.games());
+			assertThat(mirror.categoriesAsync().join()).
+					isEqualTo(ForgeSvcProvider.instance.categories());
+		}
+	}
+
+	private static List<Integer> search(ForgeSvcMirror mirror, CurseSearchQuery query)
+			throws CurseException {
+		final List<CurseProject> projects = mirror.searchProjects(query);
+		assertThat(projects).isNotNull();
+		return projects.stream().map(CurseProject::id).collect(Collectors.toList());
+	}
+
+	private static ForgeSvcProject project(int id, String name, String author)
+			throws CurseException {
+		return MoshiUtils.fromJSON(
+				"{\"id\": " + id + ", \"name\": \"" + name + "\", \"gameId\": 432, " +
+						"\"authors\": [{\"name\": \"" + author + "\"}], \"categories\": [], " +
+						"\"downloadCount\": " + id + "}",
+				ForgeSvcProject.class
+		);
+	}
+
+	private static ForgeSvcProject project(String name) throws CurseException {
+		return MoshiUtils.fromJSON(
+				"{\"id\": 238222, \"name\": \"" + name + "\", \"gameId\": 432}",
+				ForgeSvcProject.class
+		);
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.project;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableSet;
+import com.therandomlabs.curseapi.game.CurseCategory;
+import com.therandomlabs.curseapi.game.CurseCategorySection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CurseProjectIndexTest {
+	private CurseProjectIndex index;
+
+	@Test
+	void prefixesShouldMatch() {
+		assertThat(search(new CurseSearchQuery().searchFilter("just enou"))).
+				containsExactlyInAnyOrder(1, 2);
+		assertThat(search(new CurseSearchQuery().searchFilter("Just Enough Items"))).
+				containsExactly(1);
+		assertThat(search(new CurseSearchQuery().searchFilter("enough it"))).containsExactly(1);
+		assertThat(search(new CurseSearchQuery().searchFilter("mezz"))).
+				containsExactlyInAnyOrder(1, 3);
+		//Only the last token is matched as a prefix.
+		assertThat(search(new CurseSearchQuery().searchFilter("jus enough"))).isEmpty();
+		assertThat(search(new CurseSearchQuery().searchFilter("nonexistent"))).isEmpty();
+	}
+
+	@Test
+	void commonPrefixExpansionsShouldBeKept() {
+		//These tokens precede "stacks" alphabetically but each appear in only one project.
+		for (int i = 0; i < 100; i++) {
+			index.put(project(100 + i, "Sta" + i, "sta-" + i, "", 1, "author", 1));
+		}
+
+		index.put(project(200, "Stacks", "stacks", "", 1, "author", 1));
+		index.put(project(201, "More Stacks", "more-stacks", "", 1, "author", 1));
+
+		assertThat(search(new CurseSearchQuery().searchFilter("sta").pageSize(200))).
+				contains(200, 201);
+		//Exact matches are kept regardless of how rare they are.
+		assertThat(search(new CurseSearchQuery().searchFilter("sta0"))).containsExactly(100);
+	}
+
+	@Test
+	void nameMatchesShouldRankHigher() {
+		//Storage Drawers has fewer downloads, but "storage" is in its name rather than its
+		//summary.
+		assertThat(search(new CurseSearchQuery().searchFilter("storage"))).
+				containsExactly(4, 3);
+		//Category names are also indexed.
+		assertThat(search(new CurseSearchQuery().searchFilter("utility"))).
+				containsExactlyInAnyOrder(1, 2, 3, 4);
+	}
+
+	@Test
+	void filtersShouldBeHonored() {
+		//Without a search filter, projects are sorted by download count by default.
+		assertThat(search(new CurseSearchQuery().gameID(432))).containsExactly(3, 1, 2, 4);
+		assertThat(search(new CurseSearchQuery().gameID(1))).isEmpty();
+		assertThat(search(new CurseSearchQuery().categorySectionID(6).searchFilter("just"))).
+				containsExactlyInAnyOrder(1, 2);
+		assertThat(search(new CurseSearchQuery().categorySectionID(7))).isEmpty();
+		assertThat(search(new CurseSearchQuery().categoryID(420))).containsExactly(3, 4);
+		assertThat(search(new CurseSearchQuery().gameVersionString("1.16.5"))).
+				containsExactly(1, 4);
+	}
+
+	@Test
+	void coversShouldIgnoreSearchFilters() {
+		assertThat(index.covers(new CurseSearchQuery().searchFilter("nonexistent"))).isTrue();
+		assertThat(index.covers(new CurseSearchQuery().gameID(432).categoryID(420))).isTrue();
+		assertThat(index.covers(new CurseSearchQuery().gameID(1))).isFalse();
+		assertThat(index.covers(new CurseSearchQuery().categorySectionID(7))).isFalse();
+		assertThat(index.covers(new CurseSearchQuery().gameVersionString("1.7.10"))).isFalse();
+		assertThat(new CurseProjectIndex().covers(new CurseSearchQuery())).isFalse();
+	}
+
+	@Test
+	void sortingMethodAndPaginationShouldBeHonored() {
+		assertThat(search(new CurseSearchQuery().sortingMethod(CurseSearchSort.NAME))).
+				containsExactly(1, 2, 3, 4);
+		assertThat(search(new CurseSearchQuery().sortingMethod(CurseSearchSort.LAST_UPDATED))).
+				containsExactly(4, 3, 2, 1);
+		assertThat(search(new CurseSearchQuery().sortingMethod(CurseSearchSort.AUTHOR))).
+				containsExactly(4, 1, 3, 2);
+		assertThat(search(new CurseSearchQuery().pageIndex(1).pageSize(2))).
+				containsExactly(1, 2);
+		assertThat(search(new CurseSearchQuery().pageIndex(4))).isEmpty();
+	}
+
+	@Test
+	void updatesShouldBeReflected() {
+		assertThat(index.size()).isEqualTo(4);
+		assertThat(index.contains(1)).isTrue();
+
+		index.put(project(1, "Roughly Enough Items", "rei", "", 1000, "shedaniel", 1));
+		assertThat(index.size()).isEqualTo(4);
+		assertThat(search(new CurseSearchQuery().searchFilter("just"))).containsExactly(2);
+		assertThat(search(new CurseSearchQuery().searchFilter("roughly"))).containsExactly(1);
+
+		assertThat(index.remove(2)).isTrue();
+		assertThat(index.remove(2)).isFalse();
+		assertThat(index.contains(2)).isFalse();
+		assertThat(search(new CurseSearchQuery().searchFilter("just"))).isEmpty();
+
+		//Replacing projects repeatedly causes deleted documents to be compacted.
+		for (int i = 0; i < 10; i++) {
+			index.put(project(3, "Mezz Storage " + i, "mezz", "", 500, "mezz", 3));
+		}
+
+		assertThat(index.size()).isEqualTo(3);
+		assertThat(search(new CurseSearchQuery().searchFilter("mezz storage 9"))).
+				containsExactly(3);
+		assertThat(search(new CurseSearchQuery().searchFilter("storage"))).
+				containsExactly(4, 3);
+	}
+
+	@BeforeEach
+	void createIndex() {
+		index = new CurseProjectIndex();
+		index.put(
+				project(
+						1, "Just Enough Items (JEI)", "jei", "View items and recipes", 1000,
+						"mezz", 1
+				),
+				Arrays.asList("1.12.2", "1.16.5"), "JEI is an item and recipe viewing mod."
+		);
+		index.put(
+				project(
+						2, "Just Enough Resources (JER)", "just-enough-resources-jer",
+						"Shows mob drops", 500, "way2muchnoise", 2
+				),
+				Collections.singleton("1.12.2"), null
+		);
+		index.put(project(3, "Mezz Tweaks", "mezz-tweaks", "Better storage", 2000, "mezz", 3));
+		index.put(
+				project(4, "Storage Drawers", "storage-drawers", "Drawers", 100, "jaquadro", 4),
+				Collections.singleton("1.16.5"), null
+		);
+	}
+
+	private List<Integer> search(CurseSearchQuery query) {
+		return index.search(query).stream().map(CurseProject::id).collect(Collectors.toList());
+	}
+
+	private static CurseProject project(
+			int id, String name, String slug, String summary, int downloadCount, String author,
+			int day
+	) {
+		final CurseMember member = mock(CurseMember.class, withSettings().lenient());
+		when(member.name()).thenReturn(author);
+
+		final CurseCategorySection section = mock(CurseCategorySection.class);
+		when(section.id()).thenReturn(id <= 2 ? 6 : 8);
+
+		final CurseCategory utility = category(5191, "Utility & QoL");
+		final CurseCategory storage = category(420, "Storage");
+		//These sets are created before stubbing, as hashCode() calls id().
+		final Set<CurseMember> authors = ImmutableSet.of(member);
+		final Set<CurseCategory> categories =
+				id <= 2 ? ImmutableSet.of(utility) : ImmutableSet.of(utility, storage);
+
+		final CurseProject project = mock(CurseProject.class, withSettings().lenient());
+		when(project.id()).thenReturn(id);
+		when(project.name()).thenReturn(name);
+		when(project.slug()).thenReturn(slug);
+		when(project.summary()).thenReturn(summary);
+		when(project.downloadCount()).thenReturn(downloadCount);
+		when(project.author()).thenReturn(member);
+		when(project.authors()).thenReturn(authors);
+		when(project.gameID()).thenReturn(432);
+		when(project.categorySection()).thenReturn(section);
+		when(project.categories()).thenReturn(categories);
+		when(project.lastUpdateTime()).thenReturn(
+				ZonedDateTime.parse("2020-01-01T00:00:00Z").plusDays(day)
+		);
+		return project;
+	}
+
+	private static CurseCategory category(int id, String name) {
+		final CurseCategory category = mock(CurseCategory.class, withSettings().lenient());
+		when(category.id()).thenReturn(id);
+		when(category.name()).thenReturn(name);
+		return category;
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FingerprintUtilsTest {
+	@Test
+	void fingerprintsShouldMatchKnownValues() {
+		assertThat(FingerprintUtils.fingerprint(new byte[0])).isEqualTo(1540447798L);
+		assertThat(FingerprintUtils.fingerprint("CurseAPI".getBytes(StandardCharsets.UTF_8))).
+				isEqualTo(2933176563L);
+	}
+
+	@Test
+	void whitespaceShouldBeIgnored() {
+		assertThat(FingerprintUtils.fingerprint(
+				" Curse\tA\rP I\n".getBytes(StandardCharsets.UTF_8)
+		)).isEqualTo(2933176563L);
+	}
+
+	@Test
+	void fileFingerprintsShouldMatchByteArrayFingerprints(@TempDir Path tempDirectory)
+			throws Exception {
+		final byte[] bytes = new byte[1_000_003];
+		new Random(0L).nextBytes(bytes);
+		final Path path = tempDirectory.resolve("file.jar");
+		Files.write(path, bytes);
+		Files.write(tempDirectory.resolve("empty.jar"), new byte[0]);
+
+		assertThat(FingerprintUtils.fingerprint(path)).
+				isEqualTo(FingerprintUtils.fingerprint(bytes));
+		assertThat(FingerprintUtils.fingerprintDirectory(tempDirectory)).
+				hasSize(2).
+				containsEntry(path, FingerprintUtils.fingerprint(bytes)).
+				containsEntry(tempDirectory.resolve("empty.jar"), 1540447798L);
+	}
+
+	@Test
+	void fingerprintsShouldBeComputedInParallelInOrder(@TempDir Path tempDirectory)
+			throws Exception {
+		final Path a = Files.write(tempDirectory.resolve("a"), new byte[] {1, 2, 3});
+		final Path b = Files.write(tempDirectory.resolve("b"), new byte[] {4, 5, 6, 7, 8});
+
+		assertThat(FingerprintUtils.fingerprints(Arrays.asList(b, a))).containsExactly(
+				entry(b, FingerprintUtils.fingerprint(new byte[] {4, 5, 6, 7, 8})),
+				entry(a, FingerprintUtils.fingerprint(new byte[] {1, 2, 3}))
+		);
+	}
+}
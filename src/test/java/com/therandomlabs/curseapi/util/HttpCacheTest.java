@@ -0,0 +1,177 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.therandomlabs.curseapi.CurseException;
+import okhttp3.CacheControl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import retrofit2.Call;
+import retrofit2.http.GET;
+
+class HttpCacheTest {
+	interface Service {
+		@GET("projects")
+		Call<List<String>> getProjects();
+
+		@GET("files")
+		Call<List<String>> getFiles();
+
+		@GET("games")
+		Call<List<String>> getGames();
+	}
+
+	private static final byte[] BODY = "[\"a\", \"b\", \"c\"]".getBytes(StandardCharsets.UTF_8);
+
+	@TempDir
+	public Path directory;
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+	private HttpServer server;
+	private HttpCache cache;
+	private Service service;
+
+	@Test
+	void conditionalRequestsShouldBeSent() throws CurseException {
+		final List<String> projects = RetrofitUtils.execute(service.getProjects());
+		assertThat(projects).containsExactly("a", "b", "c");
+		assertThat(RetrofitUtils.execute(service.getProjects())).isSameAs(projects);
+
+		assertThat(requests).hasValue(2);
+		assertThat(notModifiedResponses).hasValue(1);
+		assertThat(cache.conditionalHitCount()).isEqualTo(1L);
+		assertThat(cache.hitCount()).isZero();
+		assertThat(cache.bytesSaved()).isEqualTo(BODY.length);
+		assertThat(cache.reusedBodyCount()).isEqualTo(1L);
+	}
+
+	@Test
+	void identicalBodiesShouldNotBeParsedAgain() throws CurseException {
+		final List<String> files = RetrofitUtils.execute(service.getFiles());
+		assertThat(RetrofitUtils.execute(service.getFiles())).isSameAs(files);
+
+		//Without validators, the body is downloaded again but not parsed again.
+		assertThat(requests).hasValue(2);
+		assertThat(cache.conditionalHitCount()).isZero();
+		assertThat(cache.bytesSaved()).isZero();
+		assertThat(cache.reusedBodyCount()).isEqualTo(1L);
+	}
+
+	@Test
+	void identicalBodiesShouldNotBeSharedBetweenRequests() throws CurseException {
+		final List<String> files = RetrofitUtils.execute(service.getFiles());
+		assertThat(RetrofitUtils.execute(service.getGames())).
+				isEqualTo(files).
+				isNotSameAs(files);
+		assertThat(cache.reusedBodyCount()).isZero();
+	}
+
+	@Test
+	void cacheControlShouldBeOverridable() throws CurseException {
+		RetrofitUtils.execute(service.getGames());
+		RetrofitUtils.execute(service.getGames());
+		assertThat(requests).hasValue(2);
+
+		cache.setCacheControl(
+				"getGames", new CacheControl.Builder().maxAge(1, TimeUnit.HOURS).build()
+		);
+		assertThat(cache.getCacheControl("getGames")).isNotNull();
+		assertThat(cache.getCacheControl("getFiles")).isNull();
+
+		RetrofitUtils.execute(service.getGames());
+		RetrofitUtils.execute(service.getGames());
+		assertThat(requests).hasValue(3);
+		assertThat(cache.hitCount()).isEqualTo(1L);
+		assertThat(cache.bytesSaved()).isEqualTo(BODY.length);
+	}
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/projects", exchange -> {
+			exchange.getResponseHeaders().set("ETag", "\"1\"");
+			exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+
+			if ("\"1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				notModifiedResponses.incrementAndGet();
+				respond(exchange, 304);
+			} else {
+				respond(exchange, 200);
+			}
+		});
+		server.createContext("/files", exchange -> respond(exchange, 200));
+		server.createContext("/games", exchange -> {
+			exchange.getResponseHeaders().set("Cache-Control", "no-store");
+			respond(exchange, 200);
+		});
+		server.start();
+
+		cache = new HttpCache(directory, 1024L * 1024L, 100L);
+		OkHttpUtils.setHttpCache(cache);
+		service = RetrofitUtils.get(
+				"http://127.0.0.1:" + server.getAddress().getPort() + "/"
+		).create(Service.class);
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		OkHttpUtils.setHttpCache(null);
+		cache.close();
+		server.stop(0);
+	}
+
+	private void respond(HttpExchange exchange, int code) throws IOException {
+		requests.incrementAndGet();
+
+		if (code == 304) {
+			exchange.sendResponseHeaders(code, -1L);
+			exchange.close();
+			return;
+		}
+
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(code, BODY.length);
+
+		try (OutputStream body = exchange.getResponseBody()) {
+			body.write(BODY);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.squareup.moshi.JsonAdapter;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+class LazyHTMLTest {
+	private static final String[] FRAGMENTS = {
+			"",
+			"plain text",
+			"<p></p>",
+			"text <p>one</p> more",
+			"<p>one<p>two",
+			"<ul><li>a<li>b</ul><p>after",
+			"<h1>T</h1><p>x <a href=\"https://a.com/x?a=1&amp;b=2\">link</a> y</p>",
+			"<p>a<br>b<br/>c</br>d</p>",
+			"<img src=\"https://example.com/image.png\" alt=\"image\">",
+			"<pre>  code\n   here  </pre><p>x</p>",
+			"<dl><dt>term<dd>definition<dt>term 2<dd>definition 2</dl>",
+			"<script>var x = '<p>';</script><!-- comment --><p>a &lt; b &amp;&amp; c &copy;</p>",
+			"<table><tr><td>a</td><td>b</td></tr><tr><td>c</td></tr></table>",
+			"<div>\n<p>a paragraph that is long enough to be wrapped</p>\n" +
+					"<ul>\n<li>item</li>\n</ul>\n</div>"
+	};
+
+	@Test
+	void exceptionShouldBeThrownIfMaxLineLengthIsInvalid() {
+		assertThatThrownBy(() -> new LazyHTML("<p>text</p>").plainText(0)).
+				isInstanceOf(IllegalArgumentException.class).
+				hasMessageContaining("should be greater than 0");
+	}
+
+	@Test
+	void plainTextShouldMatchParsedElement() {
+		for (String fragment : FRAGMENTS) {
+			final LazyHTML html = new LazyHTML(fragment);
+			final Element element = JsoupUtils.parseBody(fragment);
+
+			assertThat(html.plainText()).isEqualTo(JsoupUtils.getPlainText(element));
+			assertThat(html.plainText(10)).isEqualTo(JsoupUtils.getPlainText(element, 10));
+			assertThat(html.isEmpty()).isEqualTo(JsoupUtils.isEmpty(element));
+			assertThat(html.isParsed()).isFalse();
+		}
+	}
+
+	@Test
+	void elementShouldBeParsedLazilyAndCopied() {
+		final LazyHTML html = new LazyHTML("<p>one</p><p>two</p>");
+		assertThat(html.isParsed()).isFalse();
+
+		final Element element = html.element();
+		assertThat(html.isParsed()).isTrue();
+		assertThat(element.children()).hasSize(2);
+
+		element.empty();
+		assertThat(html.element().children()).hasSize(2);
+	}
+
+	@Test
+	void elementShouldBeWrappedWithoutChangingPlainText() {
+		for (String fragment : FRAGMENTS) {
+			final Element element = JsoupUtils.parseBody(fragment);
+			final LazyHTML html = LazyHTML.of(element);
+
+			assertThat(html.isParsed()).isTrue();
+			assertThat(html.plainText()).isEqualTo(JsoupUtils.getPlainText(element));
+			assertThat(html.element().outerHtml()).isEqualTo(element.outerHtml());
+		}
+	}
+
+	@Test
+	void linksShouldBeRewrittenWithoutParsing() {
+		final LazyHTML html = new LazyHTML(
+				"<p><a href=\"/old?a=1&amp;b=2\">a</a> <a class=x href='keep'>b</a></p>"
+		);
+		final LazyHTML rewritten = html.rewriteLinks(
+				link -> "/old?a=1&b=2".equals(link) ? "https://example.com/?q=\"new\"" : link
+		);
+
+		assertThat(rewritten.html()).isEqualTo(
+				"<p><a href=\"https://example.com/?q=&quot;new&quot;\">a</a> " +
+						"<a class=x href='keep'>b</a></p>"
+		);
+		assertThat(rewritten.element().select("a").first().attr("href")).
+				isEqualTo("https://example.com/?q=\"new\"");
+		assertThat(html.rewriteLinks(link -> link)).isSameAs(html);
+		assertThat(html.isParsed()).isFalse();
+	}
+
+	@Test
+	void lazyHTMLShouldBeSerializedAsRawHTML() throws Exception {
+		final JsonAdapter<LazyHTML> adapter = MoshiUtils.moshi.adapter(LazyHTML.class);
+		final LazyHTML html = new LazyHTML("<p>caf\u00e9</p>");
+
+		assertThat(adapter.toJson(html)).isEqualTo("\"<p>caf\u00e9</p>\"");
+		assertThat(adapter.fromJson(adapter.toJson(html))).isEqualTo(html);
+		//U+00E9 is encoded as two bytes.
+		assertThat(html.size()).isEqualTo(12);
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import com.therandomlabs.curseapi.CurseAPI;
+import com.therandomlabs.curseapi.CurseException;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OkHttpUtilsTest {
+	@Test
+	void segmentedDownloadShouldMatchSingleStreamDownload(@TempDir Path tempDirectory)
+			throws CurseException {
+		final Optional<HttpUrl> optionalURL = CurseAPI.fileDownloadURL(285612, 2803612);
+		assertThat(optionalURL).isPresent();
+
+		final Path path = tempDirectory.resolve("single.zip");
+		OkHttpUtils.download(optionalURL.get(), path);
+
+		final int previousSegmentCount = OkHttpUtils.getSegmentCount();
+		final long previousThreshold = OkHttpUtils.getSegmentedDownloadThreshold();
+		final Path segmentedPath = tempDirectory.resolve("segmented.zip");
+
+		try {
+			OkHttpUtils.setSegmentedDownloads(4, 1L);
+			assertThat(OkHttpUtils.getSegmentCount()).isEqualTo(4);
+			assertThat(OkHttpUtils.getSegmentedDownloadThreshold()).isEqualTo(1L);
+			OkHttpUtils.download(optionalURL.get(), segmentedPath);
+		} finally {
+			OkHttpUtils.setSegmentedDownloads(previousSegmentCount, previousThreshold);
+		}
+
+		assertThat(segmentedPath).hasSameBinaryContentAs(path);
+	}
+
+	@Test
+	void shouldThrowExceptionIfInvalidSegmentedDownloadConfig() {
+		assertThatThrownBy(() -> OkHttpUtils.setSegmentedDownloads(0, 1L)).
+				isInstanceOf(IllegalArgumentException.class).
+				hasMessageContaining("should be positive");
+		assertThatThrownBy(() -> OkHttpUtils.setSegmentedDownloads(1, 0L)).
+				isInstanceOf(IllegalArgumentException.class).
+				hasMessageContaining("should be positive");
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.therandomlabs.curseapi.CurseException;
+import org.junit.jupiter.api.Test;
+
+class ParallelUtilsTest {
+	@Test
+	void resultsShouldBeInEncounterOrder() throws CurseException {
+		final List<Integer> elements = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+		assertThat(ParallelUtils.map(elements, element -> element * 2)).isEqualTo(
+				elements.stream().map(element -> element * 2).collect(Collectors.toList())
+		);
+	}
+
+	@Test
+	void maxInFlightShouldBeRespected() throws CurseException {
+		final int previousMaxInFlight = ParallelUtils.getMaxInFlight();
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxObserved = new AtomicInteger();
+
+		try {
+			ParallelUtils.setMaxInFlight(3);
+			ParallelUtils.map(IntStream.range(0, 30).boxed().collect(Collectors.toList()), i -> {
+				maxObserved.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+				try {
+					Thread.sleep(10L);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+
+				return inFlight.decrementAndGet();
+			});
+		} finally {
+			ParallelUtils.setMaxInFlight(previousMaxInFlight);
+		}
+
+		assertThat(maxObserved.get()).isBetween(1, 3);
+	}
+
+	@Test
+	void remainingTasksShouldNotRunAfterFailure() {
+		final int previousMaxInFlight = ParallelUtils.getMaxInFlight();
+		final AtomicInteger calls = new AtomicInteger();
+
+		try {
+			ParallelUtils.setMaxInFlight(1);
+			assertThatThrownBy(() -> ParallelUtils.map(
+					IntStream.range(0, 100).boxed().collect(Collectors.toList()),
+					i -> {
+						calls.incrementAndGet();
+						throw new CurseException("Test exception");
+					}
+			)).isInstanceOf(CurseException.class).hasMessage("Test exception");
+		} finally {
+			ParallelUtils.setMaxInFlight(previousMaxInFlight);
+		}
+
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void platformThreadsShouldBeUsableAsFallback() throws CurseException {
+		final ExecutorService previousExecutor = ParallelUtils.getExecutor();
+
+		try {
+			ParallelUtils.usePlatformThreads(2);
+			assertThat(ParallelUtils.map(
+					IntStream.range(0, 10).boxed().collect(Collectors.toList()), i -> i + 1
+			)).hasSize(10).startsWith(1, 2, 3);
+		} finally {
+			ParallelUtils.setExecutor(previousExecutor);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.therandomlabs.curseapi.CurseException;
+import org.junit.jupiter.api.Test;
+
+class ResponseCacheTest {
+	@Test
+	void responsesShouldBeCachedPerEndpointAndArguments() throws CurseException {
+		final ResponseCache cache = new ResponseCache(Duration.ofMinutes(1L), 10L);
+		final AtomicInteger calls = new AtomicInteger();
+
+		assertThat(cache.get("endpoint", calls::incrementAndGet, 1)).isEqualTo(1);
+		assertThat(cache.get("endpoint", calls::incrementAndGet, 1)).isEqualTo(1);
+		assertThat(cache.get("endpoint", calls::incrementAndGet, 2)).isEqualTo(2);
+		assertThat(cache.get("other", calls::incrementAndGet, 1)).isEqualTo(3);
+
+		assertThat(cache.hitCount()).isEqualTo(1L);
+		assertThat(cache.missCount()).isEqualTo(3L);
+		assertThat(cache.size("endpoint")).isEqualTo(2L);
+
+		cache.invalidate("endpoint", 1);
+		assertThat(cache.get("endpoint", calls::incrementAndGet, 1)).isEqualTo(4);
+
+		cache.invalidateAll();
+		assertThat(cache.size("endpoint")).isZero();
+	}
+
+	@Test
+	void putResponsesShouldBeReturned() throws CurseException {
+		final ResponseCache cache = new ResponseCache(Duration.ofMinutes(1L), 10L);
+		assertThat(cache.<Integer>getIfPresent("endpoint", 1)).isNull();
+
+		cache.put("endpoint", 5, 1);
+		assertThat(cache.<Integer>getIfPresent("endpoint", 1)).isEqualTo(5);
+		assertThat(cache.get("endpoint", () -> 6, 1)).isEqualTo(5);
+	}
+
+	@Test
+	void nullResponsesShouldNotBeCached() throws CurseException {
+		final ResponseCache cache = new ResponseCache(Duration.ofMinutes(1L), 10L);
+		final AtomicInteger calls = new AtomicInteger();
+
+		cache.get("endpoint", () -> {
+			calls.incrementAndGet();
+			return null;
+		});
+		cache.get("endpoint", () -> {
+			calls.incrementAndGet();
+			return null;
+		});
+
+		assertThat(calls).hasValue(2);
+	}
+
+	@Test
+	void zeroTTLShouldDisableCaching() throws CurseException {
+		final ResponseCache cache = new ResponseCache(Duration.ofMinutes(1L), 10L).
+				setTTL("uncached", Duration.ZERO);
+		final AtomicInteger calls = new AtomicInteger();
+
+		cache.get("uncached", calls::incrementAndGet);
+		cache.get("uncached", calls::incrementAndGet);
+
+		assertThat(calls).hasValue(2);
+		assertThat(cache.missCount()).isZero();
+		assertThat(cache.getTTL("uncached")).isEqualTo(Duration.ZERO);
+		assertThat(cache.getTTL("cached")).isEqualTo(Duration.ofMinutes(1L));
+	}
+
+	@Test
+	void exceptionShouldBeThrownIfTTLIsNegative() {
+		assertThatThrownBy(() -> new ResponseCache(Duration.ofSeconds(-1L), 10L)).
+				isInstanceOf(IllegalArgumentException.class).
+				hasMessageContaining("should not be negative");
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.therandomlabs.curseapi.CurseException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.HttpUrl;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+
+class JFREventsTest {
+	interface Service {
+		@GET("projects/{projectID}")
+		Call<List<String>> getProject(@Path("projectID") int projectID);
+
+		@GET("description")
+		Call<ResponseBody> getDescription(@Query("projectID") int projectID);
+	}
+
+	private static final String JSON = "[\"a\", \"b\"]";
+	private static final String HTML = "<p>Description</p><p>More</p>";
+
+	@TempDir
+	public java.nio.file.Path directory;
+
+	@Test
+	void eventsShouldBeRecorded() throws CurseException, IOException {
+		final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/projects", exchange -> respond(exchange, JSON));
+		server.createContext("/description", exchange -> respond(exchange, HTML));
+		server.start();
+
+		final java.nio.file.Path recordingPath = directory.resolve("recording.jfr");
+
+		try (Recording recording = new Recording()) {
+			recording.enable("com.therandomlabs.curseapi.APICall");
+			recording.enable("com.therandomlabs.curseapi.GetElement");
+			recording.enable("com.therandomlabs.curseapi.HTMLProcessing");
+			recording.enable("com.therandomlabs.curseapi.Download");
+			recording.start();
+
+			final String baseURL = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+			final Service service = RetrofitUtils.get(baseURL).create(Service.class);
+			assertThat(RetrofitUtils.execute(service.getProject(238222))).hasSize(2);
+			assertThat(JsoupUtils.getPlainText(
+					RetrofitUtils.getElement(service.getDescription(238222))
+			)).contains("Description");
+			OkHttpUtils.download(
+					HttpUrl.get(baseURL + "projects/1"), directory.resolve("download.json")
+			);
+
+			recording.stop();
+			recording.dump(recordingPath);
+		} finally {
+			server.stop(0);
+		}
+
+		final List<RecordedEvent> events = RecordingFile.readAllEvents(recordingPath);
+
+		final RecordedEvent apiCall = event(events, "APICall", "getProject");
+		assertThat(apiCall.getString("arguments")).isEqualTo("[238222]");
+		assertThat(apiCall.getInt("statusCode")).isEqualTo(200);
+		assertThat(apiCall.getInt("attempts")).isEqualTo(1);
+		assertThat(apiCall.getLong("responseBytes")).isEqualTo(JSON.length());
+		assertThat(apiCall.getLong("decodeDuration")).
+				isLessThanOrEqualTo(apiCall.getDuration().toNanos());
+
+		final RecordedEvent getElement = event(events, "GetElement", "getDescription");
+		assertThat(getElement.getInt("characters")).isEqualTo(HTML.length());
+		assertThat(getElement.getLong("fetchDuration")).isPositive();
+		assertThat(getElement.getLong("parseDuration")).isPositive();
+
+		assertThat(events.stream().
+				filter(event -> event.getEventType().getName().endsWith("HTMLProcessing")).
+				map(event -> event.getString("operation")).
+				collect(Collectors.toList())).containsExactly("parseBody", "getPlainText");
+
+		final List<RecordedEvent> downloads = events.stream().
+				filter(event -> event.getEventType().getName().endsWith("Download")).
+				collect(Collectors.toList());
+		assertThat(downloads).hasSize(1);
+		assertThat(downloads.get(0).getLong("bytesTransferred")).isEqualTo(JSON.length());
+		assertThat(downloads.get(0).getBoolean("successful")).isTrue();
+	}
+
+	private static RecordedEvent event(List<RecordedEvent> events, String name, String endpoint) {
+		return events.stream().
+				filter(event -> event.getEventType().getName().endsWith(name)).
+				filter(event -> endpoint.equals(event.getString("endpoint"))).
+				findFirst().
+				orElseThrow(() -> new AssertionError("No " + name + " event for " + endpoint));
+	}
+
+	private static void respond(HttpExchange exchange, String body) throws IOException {
+		final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(200, bytes.length);
+
+		try (OutputStream stream = exchange.getResponseBody()) {
+			stream.write(bytes);
+		}
+	}
+}